@@ -5,7 +5,9 @@ import (
 	"auth-service/services"
 	"log"
 	"net/http"
+	"regexp"
 	"strconv"
+	"strings"
 
 	"github.com/gin-gonic/gin"
 )
@@ -107,6 +109,51 @@ func (h *UserHandler) GetUserByID(c *gin.Context) {
 	c.JSON(http.StatusOK, user)
 }
 
+// maxBatchUserIDs ограничивает количество ID в одном пакетном запросе
+const maxBatchUserIDs = 500
+
+// uuidPattern проверяет формат ID пользователя (UUID), чтобы некорректный ID
+// давал 400, а не ошибку приведения типа в запросе к базе
+var uuidPattern = regexp.MustCompile(`^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$`)
+
+// @Summary Пакетное получение пользователей
+// @Description Возвращает пользователей по списку ID (через запятую) одним запросом
+// @Tags users
+// @Accept json
+// @Produce json
+// @Security BearerAuth
+// @Param ids query string true "Список ID пользователей через запятую"
+// @Success 200 {array} models.User
+// @Failure 400 {object} map[string]interface{}
+// @Failure 401 {object} map[string]interface{}
+// @Router /users/batch [get]
+func (h *UserHandler) GetUsersByIDs(c *gin.Context) {
+	var ids []string
+	for _, id := range strings.Split(c.Query("ids"), ",") {
+		id = strings.TrimSpace(id)
+		if id == "" {
+			continue
+		}
+		if !uuidPattern.MatchString(id) {
+			c.JSON(http.StatusBadRequest, gin.H{"error": "Invalid user ID"})
+			return
+		}
+		ids = append(ids, id)
+	}
+	if len(ids) > maxBatchUserIDs {
+		c.JSON(http.StatusBadRequest, gin.H{"error": "Too many user IDs"})
+		return
+	}
+
+	users, err := h.userService.GetUsersByIDs(ids)
+	if err != nil {
+		c.JSON(http.StatusInternalServerError, gin.H{"error": "Failed to get users"})
+		return
+	}
+
+	c.JSON(http.StatusOK, users)
+}
+
 // @Summary Получение всех пользователей
 // @Description Возвращает список всех пользователей (только для администраторов)
 // @Tags admin
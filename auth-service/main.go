@@ -61,6 +61,7 @@ func main() {
 		{
 			users.GET("/profile", userHandler.GetProfile)
 			users.PUT("/profile", userHandler.UpdateProfile)
+			users.GET("/batch", userHandler.GetUsersByIDs)
 			users.GET("/:id", userHandler.GetUserByID)
 		}
 
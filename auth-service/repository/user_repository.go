@@ -5,6 +5,8 @@ import (
 	"database/sql"
 	"fmt"
 	"time"
+
+	"github.com/lib/pq"
 )
 
 // UserRepository представляет репозиторий для работы с пользователями
@@ -128,6 +130,47 @@ func (r *UserRepository) GetUserByID(id string) (*models.User, error) {
 	return user, nil
 }
 
+// GetUsersByIDs получает пользователей по списку ID (UUID) одним запросом
+//
+// Массив приводится к uuid[], поэтому поиск идет по первичному ключу;
+// ID должны быть проверены на формат UUID заранее.
+func (r *UserRepository) GetUsersByIDs(ids []string) ([]models.User, error) {
+	query := `
+		SELECT id, username, email, password_hash, role, created_at, updated_at
+		FROM auth.users
+		WHERE id = ANY($1::uuid[])`
+
+	rows, err := r.db.Query(query, pq.Array(ids))
+	if err != nil {
+		return nil, fmt.Errorf("failed to get users by IDs: %v", err)
+	}
+	defer rows.Close()
+
+	users := []models.User{}
+	for rows.Next() {
+		user := models.User{}
+		err := rows.Scan(
+			&user.ID,
+			&user.Username,
+			&user.Email,
+			&user.Password,
+			&user.Role,
+			&user.CreatedAt,
+			&user.UpdatedAt,
+		)
+		if err != nil {
+			return nil, fmt.Errorf("failed to scan user: %v", err)
+		}
+		users = append(users, user)
+	}
+
+	if err = rows.Err(); err != nil {
+		return nil, fmt.Errorf("error iterating over users: %v", err)
+	}
+
+	return users, nil
+}
+
 // UpdateUser обновляет пользователя
 func (r *UserRepository) UpdateUser(user *models.User) error {
 	query := `
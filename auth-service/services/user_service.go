@@ -27,6 +27,14 @@ func (s *UserService) GetUserByID(userID string) (*models.User, error) {
 	return user, nil
 }
 
+// GetUsersByIDs возвращает пользователей по списку ID
+func (s *UserService) GetUsersByIDs(userIDs []string) ([]models.User, error) {
+	if len(userIDs) == 0 {
+		return []models.User{}, nil
+	}
+	return s.userRepo.GetUsersByIDs(userIDs)
+}
+
 // UpdateProfile обновляет профиль пользователя
 func (s *UserService) UpdateProfile(userID string, req models.UpdateProfileRequest) (*models.User, error) {
 	user, err := s.userRepo.GetUserByID(userID)
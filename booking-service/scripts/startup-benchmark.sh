@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+#
+# Бенчмарк времени запуска booking-service
+#
+# Сравнивает обычный запуск (java -jar) с быстрым (AOT-контекст + CDS-архив +
+# отложенный springdoc). Для каждого режима измеряет время до первого успешного
+# запроса и занятую кучу сразу после него.
+#
+# Требования: JDK 17 (java, jcmd), curl, запущенный PostgreSQL из docker-compose
+# (docker compose up -d postgres).
+#
+# Использование: ./scripts/startup-benchmark.sh [количество запусков]
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+URL="http://localhost:${PORT}/api/reservations/workspace/1"
+WORK_DIR="target/startup-benchmark"
+export JWT_SECRET="${JWT_SECRET:-startup-benchmark-secret-startup-benchmark-secret}"
+
+cd "$(dirname "$0")/.."
+
+echo "Сборка с AOT-обработкой..."
+mvn -B -q clean package -DskipTests -Pfast-startup
+rm -rf "$WORK_DIR" && mkdir -p "$WORK_DIR"
+cp target/*.jar "$WORK_DIR/app.jar"
+(cd "$WORK_DIR" && java -Djarmode=tools -jar app.jar extract --destination extracted > /dev/null)
+
+echo "Обучающий запуск для CDS-архива..."
+(cd "$WORK_DIR/extracted" && java -XX:ArchiveClassesAtExit=app.jsa -Xlog:cds=off \
+    -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh \
+    -Dspring.jpa.hibernate.ddl-auto=none \
+    -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+    -jar app.jar > ../training.log 2>&1)
+
+# Запускает сервис, ждет первого успешного ответа и печатает "мс_до_запроса КБ_кучи"
+measure() {
+    local started_at pid elapsed heap
+    started_at=$(date +%s%N)
+    (cd "$WORK_DIR/extracted" && exec java -Xmx512m -Xms256m "$@" -jar app.jar --server.port="$PORT" \
+        > ../run.log 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Сервис завершился до первого ответа, см. $WORK_DIR/run.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - started_at) / 1000000 ))
+    heap=$(jcmd "$pid" GC.heap_info | awk '/used/ { for (i = 1; i <= NF; i++) if ($i == "used") { print $(i + 1); exit } }')
+    kill "$pid" && wait "$pid" 2> /dev/null || true
+    echo "$elapsed ${heap%K}"
+}
+
+run_mode() {
+    local name="$1"
+    shift
+    local total_ms=0 total_heap=0 result ms heap
+    for ((i = 1; i <= RUNS; i++)); do
+        result=$(measure "$@")
+        ms=${result% *}
+        heap=${result#* }
+        echo "  ${name} #${i}: ${ms} мс, куча ${heap} КБ"
+        total_ms=$((total_ms + ms))
+        total_heap=$((total_heap + heap))
+    done
+    echo "${name}: в среднем $((total_ms / RUNS)) мс до первого запроса, куча $((total_heap / RUNS / 1024)) МБ"
+}
+
+run_mode "обычный запуск" -Dapp.startup.lazy-springdoc=false
+run_mode "AOT + CDS" -XX:SharedArchiveFile=app.jsa -Xlog:cds=off -Dspring.aot.enabled=true \
+    -Dapp.startup.lazy-springdoc=true
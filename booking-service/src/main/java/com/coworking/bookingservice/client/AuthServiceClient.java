@@ -0,0 +1,111 @@
+package com.coworking.bookingservice.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.coworking.bookingservice.dto.UserInfoDto;
+
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Неблокирующий клиент auth-service
+ *
+ * Использует WebClient поверх пула соединений reactor-netty, чтобы запросы
+ * к auth-service переиспользовали keep-alive соединения.
+ */
+@Component
+public class AuthServiceClient {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final int maxBatchSize;
+
+    public AuthServiceClient(WebClient.Builder webClientBuilder,
+                             @Value("${app.auth-service.url}") String baseUrl,
+                             @Value("${app.auth-service.timeout:5000}") long timeoutMillis,
+                             @Value("${app.auth-service.max-connections:50}") int maxConnections,
+                             @Value("${app.auth-service.max-batch-size:500}") int maxBatchSize) {
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.maxBatchSize = maxBatchSize;
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("auth-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(timeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutMillis)
+                .responseTimeout(timeout);
+
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Получает пользователей по списку ID
+     *
+     * Все ID отправляются одним запросом; если их больше, чем принимает
+     * auth-service за раз, запросы по частям выполняются параллельно.
+     *
+     * @param userIds ID пользователей
+     * @param authorization заголовок Authorization вызывающего пользователя
+     * @return список найденных пользователей
+     */
+    public Mono<List<UserInfoDto>> getUsersByIds(Collection<Integer> userIds, String authorization) {
+        if (userIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        List<Integer> ids = new ArrayList<>(userIds);
+        List<Flux<UserInfoDto>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += maxBatchSize) {
+            batches.add(fetchBatch(ids.subList(from, Math.min(from + maxBatchSize, ids.size())), authorization));
+        }
+        return Flux.merge(batches)
+                .collectList()
+                .timeout(timeout);
+    }
+
+    /**
+     * Возвращает таймаут обращения к auth-service
+     *
+     * @return таймаут
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    private Flux<UserInfoDto> fetchBatch(List<Integer> userIds, String authorization) {
+        String ids = userIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/users/batch")
+                        .queryParam("ids", ids)
+                        .build())
+                .headers(headers -> {
+                    if (authorization != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    }
+                })
+                .retrieve()
+                .bodyToFlux(UserInfoDto.class);
+    }
+}
@@ -0,0 +1,125 @@
+package com.coworking.bookingservice.config;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Конфигурация бинарных форматов ответов
+ *
+ * Помимо JSON контроллеры отдают application/cbor и application/x-jackson-smile
+ * по заголовку Accept. В бинарных форматах даты кодируются числом миллисекунд
+ * от эпохи (UTC) вместо строк, а имена полей в Smile не повторяются.
+ *
+ * Время в сущностях и DTO хранится как LocalDateTime в UTC: JSON выводит его
+ * по шаблону yyyy-MM-dd'T'HH:mm:ss.SSS'Z' без пересчета зон. Поэтому число
+ * миллисекунд считается от того же времени со смещением UTC, а не от часового
+ * пояса сервера, и клиент получает тот же момент, что и в JSON. Поля с
+ * шаблоном без зоны (yyyy-MM-dd HH:mm:ss) кодируются так же. Точность
+ * ограничена миллисекундами, как и в JSON.
+ */
+@Configuration
+public class BinaryEncodingConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public BinaryEncodingConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Заменяем стандартные конвертеры, чтобы даты кодировались как epoch
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        // Jackson2ObjectMapperBuilder.cbor()/smile() статические и создают новый построитель
+        // без настроек приложения (фильтр выборки полей, модули), поэтому меняется только
+        // фабрика полученного построителя (бин prototype, у конфигурации он свой)
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                configureBinaryMapper(objectMapperBuilder.factory(new CBORFactory()).build())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                configureBinaryMapper(objectMapperBuilder.factory(new SmileFactory()).build())));
+    }
+
+    private ObjectMapper configureBinaryMapper(ObjectMapper mapper) {
+        return mapper.registerModule(epochTimeModule());
+    }
+
+    /**
+     * Создает модуль, кодирующий LocalDateTime числом миллисекунд от эпохи (UTC)
+     *
+     * Модуль регистрируется после JavaTimeModule и имеет приоритет над ним,
+     * поэтому шаблоны @JsonFormat из DTO на бинарные форматы не влияют.
+     *
+     * @return модуль Jackson
+     */
+    static SimpleModule epochTimeModule() {
+        SimpleModule module = new SimpleModule("EpochTimeModule");
+        module.addSerializer(LocalDateTime.class, new EpochLocalDateTimeSerializer());
+        module.addDeserializer(LocalDateTime.class, new EpochLocalDateTimeDeserializer());
+        return module;
+    }
+
+    /**
+     * Сериализует LocalDateTime в миллисекунды от эпохи, считая значение временем UTC
+     */
+    static class EpochLocalDateTimeSerializer extends StdSerializer<LocalDateTime> {
+
+        EpochLocalDateTimeSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    /**
+     * Десериализует LocalDateTime из миллисекунд от эпохи (UTC) или строки ISO-8601
+     */
+    static class EpochLocalDateTimeDeserializer extends StdDeserializer<LocalDateTime> {
+
+        EpochLocalDateTimeDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneOffset.UTC);
+            }
+            String text = parser.getValueAsString();
+            if (text == null) {
+                return (LocalDateTime) context.handleUnexpectedToken(LocalDateTime.class, parser);
+            }
+            if (text.endsWith("Z")) {
+                return LocalDateTime.ofInstant(Instant.parse(text), ZoneOffset.UTC);
+            }
+            return LocalDateTime.parse(text);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.coworking.bookingservice.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import com.coworking.bookingservice.support.ConflictRetryInterceptor;
+import com.coworking.bookingservice.support.ConflictRetryMetrics;
+import com.coworking.bookingservice.support.RetryOnConflict;
+
+/**
+ * Подключает повтор при конфликте к бинам с методами {@link RetryOnConflict}
+ *
+ * Перехватчик добавляется первым в цепочку уже созданного прокси, то есть
+ * снаружи транзакционного. Постпроцессор трассировки работает позже и
+ * становится перед ним, поэтому спан охватывает все попытки.
+ */
+@Component
+public class ConflictRetryPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<ConflictRetryMetrics> metricsProvider;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private volatile ConflictRetryMetrics metrics;
+
+    public ConflictRetryPostProcessor(ObjectProvider<ConflictRetryMetrics> metricsProvider, Environment environment) {
+        this.metricsProvider = metricsProvider;
+        this.maxAttempts = environment.getProperty("app.booking.retry.max-attempts", Integer.class, 3);
+        this.initialBackoffMillis = environment.getProperty("app.booking.retry.initial-backoff-millis", Long.class, 10L);
+        this.maxBackoffMillis = environment.getProperty("app.booking.retry.max-backoff-millis", Long.class, 200L);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopProxyUtils.ultimateTargetClass(bean);
+        if (!hasRetryMethods(targetClass)) {
+            return bean;
+        }
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(RetryOnConflict.class),
+                new ConflictRetryInterceptor(this::metrics, maxAttempts, initialBackoffMillis, maxBackoffMillis));
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvisor(0, advisor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    @Override
+    public int getOrder() {
+        // Раньше трассировки (LOWEST_PRECEDENCE), чтобы ее перехватчик оказался снаружи
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    private static boolean hasRetryMethods(Class<?> targetClass) {
+        if (!targetClass.getPackageName().startsWith("com.coworking.bookingservice")) {
+            return false;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(targetClass, method -> found.set(true),
+                method -> !found.get() && method.isAnnotationPresent(RetryOnConflict.class));
+        return found.get();
+    }
+
+    // Счетчики берутся при первом вызове, чтобы не создавать их раньше постпроцессоров
+    private ConflictRetryMetrics metrics() {
+        ConflictRetryMetrics result = metrics;
+        if (result == null) {
+            result = metricsProvider.getObject();
+            metrics = result;
+        }
+        return result;
+    }
+}
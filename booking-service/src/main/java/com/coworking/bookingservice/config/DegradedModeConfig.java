@@ -0,0 +1,27 @@
+package com.coworking.bookingservice.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.coworking.bookingservice.support.DatabaseCircuitBreaker;
+
+/**
+ * Конфигурация деградированного режима при медленной базе данных
+ *
+ * Чтения защищает {@link StaleSnapshotPostProcessor}, записи —
+ * {@link DegradedModeFilter}. Оба выключаются app.db-breaker.enabled=false.
+ */
+@Configuration
+public class DegradedModeConfig {
+
+    @Bean
+    public FilterRegistrationBean<DegradedModeFilter> degradedModeFilter(DatabaseCircuitBreaker circuitBreaker,
+                                                                         Environment environment) {
+        FilterRegistrationBean<DegradedModeFilter> registration =
+                new FilterRegistrationBean<>(new DegradedModeFilter(circuitBreaker));
+        registration.setEnabled(environment.getProperty("app.db-breaker.enabled", Boolean.class, true));
+        return registration;
+    }
+}
@@ -0,0 +1,46 @@
+package com.coworking.bookingservice.config;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.coworking.bookingservice.support.DatabaseCircuitBreaker;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Фильтр записей в деградированном режиме
+ *
+ * Пока автомат защиты базы данных разомкнут, изменяющие запросы (все,
+ * кроме GET, HEAD и OPTIONS) сразу получают 503 с заголовком Retry-After,
+ * не занимая поток в ожидании соединения. Стоит после фильтров
+ * безопасности, поэтому неаутентифицированные запросы получают 401/403.
+ */
+public class DegradedModeFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    public DegradedModeFilter(DatabaseCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (SAFE_METHODS.contains(request.getMethod()) || circuitBreaker.allowsWrites()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        circuitBreaker.recordRejectedWrite();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(circuitBreaker.retryAfterSeconds()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.coworking.bookingservice.config;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import com.coworking.bookingservice.support.FieldSelection;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * Конфигурация выборки полей ответа (параметр fields)
+ *
+ * По умолчанию фильтр {@link FieldSelection#FILTER_ID} выводит все поля. Если
+ * GET-запрос к методу, объявляющему параметр fields, содержит этот параметр,
+ * ответ сериализуется только с указанными полями — в JSON и в бинарных форматах, так как их ObjectMapper строится тем же
+ * Jackson2ObjectMapperBuilder. Проверку имен полей выполняют контроллеры.
+ */
+@ControllerAdvice
+public class FieldSelectionConfig extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(FieldSelection.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && declaresFieldsParameter(returnType);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !"GET".equals(servletRequest.getServletRequest().getMethod())) {
+            return;
+        }
+        Set<String> fields = FieldSelection.split(
+                servletRequest.getServletRequest().getParameter(FieldSelection.PARAMETER));
+        if (fields.isEmpty()) {
+            return;
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(FieldSelection.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+    }
+
+    private static boolean declaresFieldsParameter(MethodParameter returnType) {
+        Method method = returnType.getMethod();
+        if (method == null) {
+            return false;
+        }
+        for (Parameter parameter : method.getParameters()) {
+            RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
+            if (requestParam != null && (FieldSelection.PARAMETER.equals(requestParam.name())
+                    || FieldSelection.PARAMETER.equals(requestParam.value())
+                    || FieldSelection.PARAMETER.equals(parameter.getName()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
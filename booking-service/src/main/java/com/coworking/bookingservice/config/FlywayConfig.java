@@ -0,0 +1,33 @@
+package com.coworking.bookingservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Конфигурация миграций схемы
+ *
+ * В AOT-сборке условия автоконфигурации вычисляются при сборке, и
+ * spring.flyway.enabled=false при запуске уже не отключает Flyway. Поэтому
+ * решение о миграции принимается стратегией по свойству
+ * app.flyway.migrate-on-startup, которое читается при запуске.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        return flyway -> {
+            if (!environment.getProperty("app.flyway.migrate-on-startup", Boolean.class, true)) {
+                log.info("Миграции схемы при запуске отключены");
+                return;
+            }
+            flyway.migrate();
+        };
+    }
+}
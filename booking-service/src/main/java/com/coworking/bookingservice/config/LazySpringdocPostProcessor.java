@@ -0,0 +1,57 @@
+package com.coworking.bookingservice.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Отложенная инициализация springdoc
+ *
+ * При app.startup.lazy-springdoc=true бины springdoc не создаются при запуске,
+ * а только при первом обращении к документации API. Сборка модели OpenAPI и
+ * сканирование контроллеров не задерживают готовность сервиса.
+ * Свойство читается при запуске, поэтому работает и с AOT-сборкой.
+ */
+@Component
+public class LazySpringdocPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    private boolean enabled;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.enabled = environment.getProperty("app.startup.lazy-springdoc", Boolean.class, false);
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        if (!enabled) {
+            return;
+        }
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE && isSpringdocBean(beanFactory, definition)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    private boolean isSpringdocBean(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        if (isSpringdocClass(definition.getBeanClassName())) {
+            return true;
+        }
+        // Бины из @Bean-методов конфигураций springdoc
+        String factoryBeanName = definition.getFactoryBeanName();
+        return factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)
+                && isSpringdocClass(beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName());
+    }
+
+    private boolean isSpringdocClass(String className) {
+        return className != null && className.startsWith(SPRINGDOC_PACKAGE);
+    }
+}
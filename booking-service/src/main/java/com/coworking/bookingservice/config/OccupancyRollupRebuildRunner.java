@@ -0,0 +1,32 @@
+package com.coworking.bookingservice.config;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.coworking.bookingservice.service.OccupancyRollupService;
+
+/**
+ * Пересчет агрегатов занятости при запуске
+ *
+ * Выполняется, если сервис запущен с аргументом --rebuild-occupancy-rollups,
+ * например для первичного заполнения агрегатов по историческим данным.
+ */
+@Component
+public class OccupancyRollupRebuildRunner implements ApplicationRunner {
+
+    static final String REBUILD_OPTION = "rebuild-occupancy-rollups";
+
+    private final OccupancyRollupService occupancyRollupService;
+
+    public OccupancyRollupRebuildRunner(OccupancyRollupService occupancyRollupService) {
+        this.occupancyRollupService = occupancyRollupService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD_OPTION)) {
+            occupancyRollupService.rebuild();
+        }
+    }
+}
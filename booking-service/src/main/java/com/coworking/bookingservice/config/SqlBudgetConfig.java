@@ -0,0 +1,50 @@
+package com.coworking.bookingservice.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.coworking.bookingservice.support.StatementCountingDataSource;
+
+/**
+ * Конфигурация подсчета SQL-запросов
+ *
+ * При app.sql-budget.enabled=true источник данных оборачивается счетчиком
+ * запросов, а каждый HTTP-запрос проверяется на превышение бюджета. Свойства
+ * читаются при запуске (не через условия на бинах), поэтому режим можно
+ * включить и в AOT-сборке. По умолчанию выключено и не дает накладных расходов.
+ */
+@Configuration
+public class SqlBudgetConfig {
+
+    private static final String ENABLED_PROPERTY = "app.sql-budget.enabled";
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(Environment environment) {
+        boolean enabled = environment.getProperty(ENABLED_PROPERTY, Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource
+                        && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(Environment environment) {
+        FilterRegistrationBean<SqlBudgetFilter> registration = new FilterRegistrationBean<>(new SqlBudgetFilter(
+                environment.getProperty("app.sql-budget.max-statements-per-request", Integer.class, 10),
+                environment.getProperty("app.sql-budget.debug", Boolean.class, false),
+                environment.getProperty("app.sql-budget.enforce", Boolean.class, false)));
+        registration.setEnabled(environment.getProperty(ENABLED_PROPERTY, Boolean.class, false));
+        return registration;
+    }
+}
@@ -0,0 +1,53 @@
+package com.coworking.bookingservice.config;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.coworking.bookingservice.support.SqlStatementCounter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Фильтр бюджета SQL-запросов на HTTP-запрос
+ *
+ * Считает JDBC-запросы, выполненные в потоке обработки запроса, и пишет
+ * предупреждение, если их больше app.sql-budget.max-statements-per-request.
+ * В режиме app.sql-budget.debug в предупреждение попадают места вызова
+ * в коде приложения, что позволяет найти N+1 по журналу. В режиме
+ * app.sql-budget.enforce запрос сверх бюджета не выполняется, а HTTP-запрос
+ * завершается ошибкой SQL_BUDGET_EXCEEDED (для тестов и CI).
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final int maxStatementsPerRequest;
+    private final boolean debug;
+    private final boolean enforce;
+
+    public SqlBudgetFilter(int maxStatementsPerRequest, boolean debug, boolean enforce) {
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+        this.debug = debug;
+        this.enforce = enforce;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(debug,
+                enforce ? maxStatementsPerRequest : 0)) {
+            filterChain.doFilter(request, response);
+            if (scope.getTotalCount() > maxStatementsPerRequest) {
+                log.warn("{} {}: выполнено SQL-запросов {} (SELECT {}), бюджет {}{}",
+                        request.getMethod(), request.getRequestURI(), scope.getTotalCount(),
+                        scope.getSelectCount(), maxStatementsPerRequest, scope.describeCallSites());
+            }
+        }
+    }
+}
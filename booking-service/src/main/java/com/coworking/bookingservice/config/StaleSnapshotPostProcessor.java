@@ -0,0 +1,91 @@
+package com.coworking.bookingservice.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import com.coworking.bookingservice.support.DatabaseCircuitBreaker;
+import com.coworking.bookingservice.support.ServeStaleWhenDegraded;
+import com.coworking.bookingservice.support.StaleSnapshotInterceptor;
+
+/**
+ * Подключает автомат защиты базы данных к бинам с методами {@link ServeStaleWhenDegraded}
+ *
+ * Перехватчик добавляется первым в цепочку уже созданного прокси, то есть
+ * снаружи транзакционного: при разомкнутом автомате соединение не
+ * запрашивается. При app.db-breaker.enabled=false бины не изменяются.
+ */
+@Component
+public class StaleSnapshotPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<DatabaseCircuitBreaker> breakerProvider;
+    private final boolean enabled;
+    private final int maxSnapshots;
+    private final long maxStalenessMillis;
+    private volatile DatabaseCircuitBreaker breaker;
+
+    public StaleSnapshotPostProcessor(ObjectProvider<DatabaseCircuitBreaker> breakerProvider, Environment environment) {
+        this.breakerProvider = breakerProvider;
+        this.enabled = environment.getProperty("app.db-breaker.enabled", Boolean.class, true);
+        this.maxSnapshots = environment.getProperty("app.db-breaker.max-snapshots", Integer.class, 1000);
+        this.maxStalenessMillis = environment.getProperty("app.db-breaker.max-staleness", Long.class, 3_600_000L);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled) {
+            return bean;
+        }
+        Class<?> targetClass = AopProxyUtils.ultimateTargetClass(bean);
+        if (!hasStaleMethods(targetClass)) {
+            return bean;
+        }
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ServeStaleWhenDegraded.class),
+                new StaleSnapshotInterceptor(this::breaker, maxSnapshots, maxStalenessMillis));
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvisor(0, advisor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    @Override
+    public int getOrder() {
+        // Раньше трассировки (LOWEST_PRECEDENCE), чтобы ее перехватчик оказался снаружи
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    private static boolean hasStaleMethods(Class<?> targetClass) {
+        if (!targetClass.getPackageName().startsWith("com.coworking.bookingservice")) {
+            return false;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(targetClass, method -> found.set(true),
+                method -> !found.get() && method.isAnnotationPresent(ServeStaleWhenDegraded.class));
+        return found.get();
+    }
+
+    // Автомат берется при первом вызове, чтобы не создавать его раньше постпроцессоров
+    private DatabaseCircuitBreaker breaker() {
+        DatabaseCircuitBreaker result = breaker;
+        if (result == null) {
+            result = breakerProvider.getObject();
+            breaker = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,272 @@
+package com.coworking.bookingservice.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.coworking.bookingservice.dto.WorkspaceDto;
+import com.coworking.bookingservice.service.CalendarFeedService;
+import com.coworking.bookingservice.service.CalendarFeedService.CalendarFeed;
+import com.coworking.bookingservice.service.ReservationQuota;
+import com.coworking.bookingservice.service.WorkspaceService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Прогрев сервиса после запуска
+ *
+ * Запускается в отдельном потоке после готовности приложения и до своего
+ * завершения держит /health/readiness в состоянии OUT_OF_SERVICE, чтобы
+ * балансировщик не направлял трафик на холодный экземпляр. Шаги прогрева:
+ * открытие соединений пула, загрузка каталога рабочих мест и индексов,
+ * загрузка лимитов и календарных лент пользователей с бронированиями на
+ * ближайшие дни и многократный вызов частых запросов для JIT-компиляции.
+ * Ошибка прогрева не блокирует готовность: прогрев лишь ускоряет первые запросы.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final String UPCOMING_SQL = """
+            SELECT id, user_id, workspace_id FROM booking.reservations
+            WHERE status = 'ACTIVE' AND start_time < ? AND end_time > ?
+            ORDER BY start_time
+            LIMIT ?
+            """;
+
+    private static final DateTimeFormatter QUERY_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String RESERVATION_FIELDS = "id,userId,workspaceId,workspaceName,startTime,endTime,status";
+
+    // Ограничение выборки ближайших бронирований, чтобы прогрев не зависел от объема базы
+    private static final int MAX_UPCOMING = 10_000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final WorkspaceService workspaceService;
+    private final ReservationQuota reservationQuota;
+    private final CalendarFeedService calendarFeedService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int connections;
+    private final int days;
+    private final int maxFeeds;
+    private final int iterations;
+    private final String contextPath;
+    private volatile boolean complete;
+
+    public StartupWarmup(DataSource dataSource,
+                         JdbcTemplate jdbcTemplate,
+                         WorkspaceService workspaceService,
+                         ReservationQuota reservationQuota,
+                         CalendarFeedService calendarFeedService,
+                         ObjectMapper objectMapper,
+                         @Value("${app.warmup.enabled:true}") boolean enabled,
+                         @Value("${app.warmup.connections:10}") int connections,
+                         @Value("${app.warmup.days:7}") int days,
+                         @Value("${app.warmup.max-feeds:500}") int maxFeeds,
+                         @Value("${app.warmup.iterations:200}") int iterations,
+                         @Value("${server.servlet.context-path:}") String contextPath) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.workspaceService = workspaceService;
+        this.reservationQuota = reservationQuota;
+        this.calendarFeedService = calendarFeedService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.connections = connections;
+        this.days = days;
+        this.maxFeeds = maxFeeds;
+        this.iterations = iterations;
+        this.contextPath = contextPath;
+        this.complete = !enabled;
+    }
+
+    /**
+     * Проверяет, завершен ли прогрев
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        int port = event.getApplicationContext() instanceof WebServerApplicationContext webContext
+                ? webContext.getWebServer().getPort()
+                : -1;
+        Thread thread = new Thread(() -> run(port), "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(int port) {
+        long started = System.nanoTime();
+        try {
+            openConnections();
+            List<WorkspaceDto> workspaces = loadCatalog();
+            loadUpcoming();
+            exerciseEndpoints(port, workspaces);
+            log.info("Прогрев завершен за {} мс", (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException | SQLException | IOException e) {
+            log.warn("Прогрев прерван: {}", e.getMessage());
+        } finally {
+            complete = true;
+        }
+    }
+
+    /**
+     * Открывает соединения пула заранее, удерживая их одновременно
+     */
+    private void openConnections() throws SQLException {
+        int count = connections;
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            count = Math.min(count, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        }
+        List<Connection> opened = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : opened) {
+                connection.close();
+            }
+        }
+        log.info("Прогрев: открыто соединений пула: {}", opened.size());
+    }
+
+    /**
+     * Загружает каталог рабочих мест и индекс поиска
+     */
+    private List<WorkspaceDto> loadCatalog() {
+        List<WorkspaceDto> workspaces = workspaceService.getAllActiveWorkspaces();
+        workspaceService.searchWorkspaces(null, null, null, null, null, null, null);
+        log.info("Прогрев: загружено рабочих мест: {}", workspaces.size());
+        return workspaces;
+    }
+
+    /**
+     * Загружает лимиты и календарные ленты пользователей и мест с бронированиями на ближайшие дни
+     */
+    private void loadUpcoming() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        int[] reservations = new int[1];
+        Set<Integer> userIds = new LinkedHashSet<>();
+        Set<Integer> workspaceIds = new LinkedHashSet<>();
+        jdbcTemplate.query(UPCOMING_SQL, rs -> {
+            reservations[0]++;
+            userIds.add(rs.getInt(2));
+            workspaceIds.add(rs.getInt(3));
+        }, now.plusDays(days), now, MAX_UPCOMING);
+
+        reservationQuota.preload(userIds);
+
+        // Отрисованные ленты попадают в кэш CalendarFeedService
+        int feeds = 0;
+        for (Integer workspaceId : workspaceIds) {
+            if (feeds++ >= maxFeeds) {
+                break;
+            }
+            Optional<CalendarFeed> feed = calendarFeedService.getWorkspaceFeed(workspaceId);
+            if (feed.isPresent()) {
+                feed.get().writeTo(OutputStream.nullOutputStream());
+            }
+        }
+        for (Integer userId : userIds) {
+            if (feeds++ >= maxFeeds) {
+                break;
+            }
+            calendarFeedService.getUserFeed(userId).writeTo(OutputStream.nullOutputStream());
+        }
+        log.info("Прогрев: бронирований на {} дн.: {}, пользователей: {}, мест: {}",
+                days, reservations[0], userIds.size(), workspaceIds.size());
+    }
+
+    /**
+     * Многократно вызывает частые запросы, чтобы JIT скомпилировал горячие пути
+     *
+     * Открытые эндпоинты бронирований вызываются по HTTP через весь стек
+     * (фильтры, контроллеры, Jackson), запросы рабочих мест — через сервис.
+     * Эндпоинты, требующие авторизации, не вызываются: у прогрева нет
+     * пользователя. Эндпоинт, ответивший ошибкой, исключается из прогрева;
+     * остальные продолжают вызываться. Ошибка соединения прекращает все
+     * HTTP-запросы.
+     */
+    private void exerciseEndpoints(int port, List<WorkspaceDto> workspaces) {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime from = tomorrow.withHour(10);
+        LocalDateTime to = from.plusHours(2);
+        RestClient client = port > 0 ? RestClient.create("http://localhost:" + port + contextPath) : null;
+        List<WarmupRequest> requests = new ArrayList<>();
+        requests.add(new WarmupRequest("/reservations/range?startTime={from}&endTime={to}&fields={fields}",
+                QUERY_TIME.format(tomorrow), QUERY_TIME.format(tomorrow.plusDays(days)), RESERVATION_FIELDS));
+        if (!workspaces.isEmpty()) {
+            requests.add(new WarmupRequest("/reservations/workspace/{id}?fields={fields}",
+                    workspaces.get(0).getId(), RESERVATION_FIELDS));
+        }
+
+        for (int i = 0; i < iterations; i++) {
+            serialize(workspaceService.getAvailableWorkspaces(from, to));
+            serialize(workspaceService.searchWorkspaces(null, null, null, 1, null, from, to));
+            if (client == null) {
+                continue;
+            }
+            for (Iterator<WarmupRequest> it = requests.iterator(); it.hasNext(); ) {
+                WarmupRequest request = it.next();
+                try {
+                    client.get().uri(request.uri(), request.variables()).retrieve().toBodilessEntity();
+                } catch (RestClientResponseException e) {
+                    log.warn("Прогрев: {} пропущен: {}", request.uri(), e.getStatusCode());
+                    it.remove();
+                } catch (RestClientException e) {
+                    log.warn("Прогрев: HTTP-запросы пропущены: {}", e.getMessage());
+                    client = null;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * HTTP-запрос прогрева: шаблон URI и его переменные
+     */
+    private record WarmupRequest(String uri, Object... variables) {}
+
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.coworking.bookingservice.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.coworking.bookingservice.dto.CircuitBreakerStatsDto;
+import com.coworking.bookingservice.dto.ConflictStatsDto;
+import com.coworking.bookingservice.dto.HistoryReportDto;
+import com.coworking.bookingservice.dto.UtilizationDto;
+import com.coworking.bookingservice.history.ReservationHistoryService;
+import com.coworking.bookingservice.service.OccupancyRollupService;
+import com.coworking.bookingservice.support.ConflictRetryMetrics;
+import com.coworking.bookingservice.support.DatabaseCircuitBreaker;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * REST контроллер аналитики загрузки (только для администраторов)
+ *
+ * Отвечает по почасовым агрегатам занятости, не читая сырые бронирования.
+ */
+@RestController
+@RequestMapping("/analytics")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Аналитика", description = "API для аналитики загрузки рабочих мест")
+public class AnalyticsController {
+
+    private final OccupancyRollupService occupancyRollupService;
+    private final ConflictRetryMetrics conflictRetryMetrics;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final ReservationHistoryService reservationHistoryService;
+
+    public AnalyticsController(OccupancyRollupService occupancyRollupService,
+                               ConflictRetryMetrics conflictRetryMetrics,
+                               DatabaseCircuitBreaker databaseCircuitBreaker,
+                               ReservationHistoryService reservationHistoryService) {
+        this.occupancyRollupService = occupancyRollupService;
+        this.conflictRetryMetrics = conflictRetryMetrics;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        this.reservationHistoryService = reservationHistoryService;
+    }
+
+    /**
+     * Получает загрузку рабочих мест за период
+     *
+     * @param startTime начало периода
+     * @param endTime конец периода
+     * @param groupBy шаг группировки (HOUR или DAY)
+     * @param workspaceId ID рабочего места (необязательно)
+     * @return загрузка по рабочим местам и интервалам
+     */
+    @GetMapping("/utilization")
+    @Operation(summary = "Получить загрузку рабочих мест",
+               description = "Возвращает забронированные минуты и долю загрузки по часам или дням")
+    public ResponseEntity<List<UtilizationDto>> getUtilization(
+            @Parameter(description = "Начало периода", example = "2024-01-15 00:00:00")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @Parameter(description = "Конец периода", example = "2024-01-22 00:00:00")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @Parameter(description = "Шаг группировки", example = "DAY")
+            @RequestParam(defaultValue = "HOUR") UtilizationDto.Granularity groupBy,
+            @Parameter(description = "ID рабочего места", example = "1")
+            @RequestParam(required = false) Integer workspaceId) {
+        return ResponseEntity.ok(occupancyRollupService.getUtilization(startTime, endTime, groupBy, workspaceId));
+    }
+
+    /**
+     * Пересчитывает агрегаты занятости по всем бронированиям
+     *
+     * @return количество записанных агрегатов
+     */
+    @PostMapping("/rollups/rebuild")
+    @Operation(summary = "Пересчитать агрегаты занятости",
+               description = "Полностью пересчитывает почасовые агрегаты по таблице бронирований")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups() {
+        int rows = occupancyRollupService.rebuild();
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+
+    /**
+     * Получает отчет по истории завершенных и отмененных бронирований
+     *
+     * @param startTime начало периода
+     * @param endTime конец периода
+     * @param workspaceId ID рабочего места (необязательно)
+     * @param userId ID пользователя (необязательно)
+     * @return итоги за период, 400 при неверном периоде или 503 пока история не загружена
+     */
+    @GetMapping("/history")
+    @Operation(summary = "Получить отчет по истории бронирований",
+               description = "Считает завершенные и отмененные бронирования и забронированные минуты по файлам истории, не обращаясь к базе")
+    public ResponseEntity<HistoryReportDto> getHistoryReport(
+            @Parameter(description = "Начало периода", example = "2023-01-01 00:00:00")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @Parameter(description = "Конец периода", example = "2024-01-01 00:00:00")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @Parameter(description = "ID рабочего места", example = "1")
+            @RequestParam(required = false) Integer workspaceId,
+            @Parameter(description = "ID пользователя", example = "2")
+            @RequestParam(required = false) Integer userId) {
+        try {
+            return ResponseEntity.ok(reservationHistoryService.report(startTime, endTime, workspaceId, userId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Перестраивает историю бронирований по таблице бронирований
+     *
+     * @return количество записей в новой истории
+     */
+    @PostMapping("/history/rebuild")
+    @Operation(summary = "Перестроить историю бронирований",
+               description = "Заново выгружает все завершенные и отмененные бронирования в файлы истории")
+    public ResponseEntity<Map<String, Long>> rebuildHistory() {
+        return ResponseEntity.ok(Map.of("records", reservationHistoryService.rebuild()));
+    }
+
+    /**
+     * Получает статистику конфликтов параллельного изменения
+     *
+     * @return счетчики вызовов, конфликтов и повторов по операциям
+     */
+    @GetMapping("/conflicts")
+    @Operation(summary = "Получить статистику конфликтов",
+               description = "Возвращает доли конфликтов и повторов для операций с оптимистичной блокировкой")
+    public ResponseEntity<List<ConflictStatsDto>> getConflictStats() {
+        return ResponseEntity.ok(conflictRetryMetrics.snapshot());
+    }
+
+    /**
+     * Получает состояние автомата защиты базы данных
+     *
+     * @return состояние, доли медленных и сбойных чтений, счетчики переходов и ответов из снимков
+     */
+    @GetMapping("/db-breaker")
+    @Operation(summary = "Получить состояние автомата защиты базы данных",
+               description = "Возвращает состояние деградированного режима, переходы и возраст отданных снимков")
+    public ResponseEntity<CircuitBreakerStatsDto> getDatabaseBreakerStats() {
+        return ResponseEntity.ok(databaseCircuitBreaker.snapshot());
+    }
+}
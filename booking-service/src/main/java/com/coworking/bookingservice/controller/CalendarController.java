@@ -0,0 +1,128 @@
+package com.coworking.bookingservice.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.coworking.bookingservice.jwtUtils.CalendarFeedTokens;
+import com.coworking.bookingservice.jwtUtils.UserPrincipal;
+import com.coworking.bookingservice.service.CalendarFeedService;
+import com.coworking.bookingservice.service.CalendarFeedService.CalendarFeed;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * REST контроллер календарных лент (iCalendar)
+ *
+ * Ленты предназначены для подписки из Outlook, Google Calendar и других
+ * клиентов, поэтому аутентификация выполняется подписанным токеном в ссылке,
+ * а ответы поддерживают условные запросы по ETag и Last-Modified.
+ */
+@RestController
+@RequestMapping("/calendar")
+@Tag(name = "Календарь", description = "API календарных лент бронирований")
+public class CalendarController {
+
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarFeedService calendarFeedService;
+    private final CalendarFeedTokens calendarFeedTokens;
+
+    public CalendarController(CalendarFeedService calendarFeedService, CalendarFeedTokens calendarFeedTokens) {
+        this.calendarFeedService = calendarFeedService;
+        this.calendarFeedTokens = calendarFeedTokens;
+    }
+
+    /**
+     * Выдает токен ленты текущего пользователя
+     *
+     * @return токен и относительная ссылка на ленту
+     */
+    @GetMapping("/token")
+    @Operation(summary = "Получить ссылку на ленту бронирований",
+               description = "Возвращает подписанный токен для подписки на ленту бронирований текущего пользователя")
+    public ResponseEntity<Map<String, String>> getFeedToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        String token = calendarFeedTokens.issue(userPrincipal.getUserId());
+        return ResponseEntity.ok(Map.of(
+                "token", token,
+                "feedPath", "/calendar/users/" + token + ".ics"));
+    }
+
+    /**
+     * Получает ленту бронирований пользователя
+     *
+     * @param token подписанный токен ленты
+     * @param request запрос (для условных заголовков)
+     * @return лента iCalendar, 304 если не изменилась, или 404 при неверном токене
+     */
+    @GetMapping("/users/{token}.ics")
+    @Operation(summary = "Получить ленту бронирований пользователя",
+               description = "Возвращает активные и прошедшие бронирования пользователя в формате iCalendar")
+    public ResponseEntity<StreamingResponseBody> getUserFeed(
+            @Parameter(description = "Токен ленты", example = "2.q1w2e3r4t5y6")
+            @PathVariable String token,
+            WebRequest request) {
+        Optional<Integer> userId = calendarFeedTokens.verify(token);
+        if (userId.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return toFeedResponse(calendarFeedService.getUserFeed(userId.get()), request);
+    }
+
+    /**
+     * Получает ленту занятости рабочего места
+     *
+     * @param workspaceId ID рабочего места
+     * @param token подписанный токен ленты любого пользователя
+     * @param request запрос (для условных заголовков)
+     * @return лента iCalendar, 304 если не изменилась, или 404
+     */
+    @GetMapping("/workspaces/{workspaceId}.ics")
+    @Operation(summary = "Получить ленту занятости рабочего места",
+               description = "Возвращает занятые интервалы рабочего места в формате iCalendar без данных пользователей")
+    public ResponseEntity<StreamingResponseBody> getWorkspaceFeed(
+            @Parameter(description = "ID рабочего места", example = "1")
+            @PathVariable Integer workspaceId,
+            @Parameter(description = "Токен ленты", example = "2.q1w2e3r4t5y6")
+            @RequestParam String token,
+            WebRequest request) {
+        if (calendarFeedTokens.verify(token).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return calendarFeedService.getWorkspaceFeed(workspaceId)
+                .map(feed -> toFeedResponse(feed, request))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Формирует ответ с лентой или 304, если у клиента актуальная версия
+     */
+    private ResponseEntity<StreamingResponseBody> toFeedResponse(CalendarFeed feed, WebRequest request) {
+        // checkNotModified сам выставляет заголовки ETag и Last-Modified ответа
+        if (request.checkNotModified(feed.getEtag(), feed.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(feed::writeTo);
+    }
+}
@@ -0,0 +1,120 @@
+package com.coworking.bookingservice.controller;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import com.coworking.bookingservice.dto.ErrorResponse;
+import com.coworking.bookingservice.support.BusinessException;
+import com.coworking.bookingservice.support.DatabaseCircuitBreaker;
+import com.coworking.bookingservice.support.DatabaseUnavailableException;
+import com.coworking.bookingservice.support.ErrorCode;
+import com.coworking.bookingservice.support.SqlBudgetExceededException;
+
+/**
+ * Глобальный обработчик ошибок REST API
+ *
+ * Переводит ожидаемые ошибки в ответ с HTTP-статусом и машиночитаемым кодом
+ * ({@link ErrorResponse}), поэтому контроллеры не перехватывают их сами.
+ * Ошибки разбора параметров и тела запроса тоже обрабатываются здесь:
+ * иначе ответ уходит через /error, куда нет доступа без аутентификации.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    public GlobalExceptionHandler(DatabaseCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ErrorResponse> handleBusiness(BusinessException e) {
+        return respond(e.getCode(), e.getMessage());
+    }
+
+    /**
+     * Остальные IllegalArgumentException — некорректные данные запроса без отдельного кода
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException e) {
+        return respond(ErrorCode.INVALID_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException e) {
+        return respond(ErrorCode.INVALID_REQUEST, "Некорректное значение параметра " + e.getName());
+    }
+
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleMissingParameter(MissingServletRequestParameterException e) {
+        return respond(ErrorCode.INVALID_REQUEST, "Не указан параметр " + e.getParameterName());
+    }
+
+    @ExceptionHandler(MissingRequestHeaderException.class)
+    public ResponseEntity<ErrorResponse> handleMissingHeader(MissingRequestHeaderException e) {
+        return respond(ErrorCode.INVALID_REQUEST, "Не указан заголовок " + e.getHeaderName());
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleNotValid(MethodArgumentNotValidException e) {
+        String message = e.getBindingResult().getFieldError() != null
+                ? e.getBindingResult().getFieldError().getDefaultMessage()
+                : "Некорректные данные запроса";
+        return respond(ErrorCode.INVALID_REQUEST, message);
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleUnreadableBody(HttpMessageNotReadableException e) {
+        return respond(ErrorCode.INVALID_REQUEST, "Некорректное тело запроса");
+    }
+
+    /**
+     * Конфликт версий, не разрешенный повторами
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailure(ConcurrencyFailureException e) {
+        return respond(ErrorCode.CONCURRENT_MODIFICATION, "Данные изменены параллельным запросом, повторите попытку");
+    }
+
+    /**
+     * Нарушено ограничение базы (например, уникальность бронирования отдельного
+     * места при гонке параллельных запросов, прошедших проверки приложения)
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        return respond(ErrorCode.DATA_CONFLICT, "Изменение противоречит текущим данным, повторите попытку");
+    }
+
+    /**
+     * Запрос превысил бюджет SQL-запросов в режиме app.sql-budget.enforce
+     * (исключение может прийти обернутым слоем доступа к данным)
+     */
+    @ExceptionHandler(SqlBudgetExceededException.class)
+    public ResponseEntity<ErrorResponse> handleSqlBudgetExceeded(SqlBudgetExceededException e) {
+        return respond(ErrorCode.SQL_BUDGET_EXCEEDED, "Превышен бюджет SQL-запросов на запрос");
+    }
+
+    /**
+     * База данных недоступна, а снимка для ответа нет
+     */
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(DatabaseUnavailableException e) {
+        ErrorCode code = ErrorCode.DATABASE_UNAVAILABLE;
+        return ResponseEntity.status(code.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(circuitBreaker.retryAfterSeconds()))
+                .body(new ErrorResponse(code.name(), e.getMessage()));
+    }
+
+    private ResponseEntity<ErrorResponse> respond(ErrorCode code, String message) {
+        return ResponseEntity.status(code.getStatus()).body(new ErrorResponse(code.name(), message));
+    }
+}
@@ -0,0 +1,67 @@
+package com.coworking.bookingservice.controller;
+
+import java.util.Map;
+
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.coworking.bookingservice.config.StartupWarmup;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * REST контроллер проверок состояния для оркестратора
+ *
+ * Формат ответов совпадает с группами liveness и readiness Spring Boot Actuator.
+ */
+@RestController
+@RequestMapping("/health")
+@Tag(name = "Состояние", description = "API проверок живости и готовности сервиса")
+public class HealthController {
+
+    private final ApplicationAvailability applicationAvailability;
+    private final StartupWarmup startupWarmup;
+
+    public HealthController(ApplicationAvailability applicationAvailability, StartupWarmup startupWarmup) {
+        this.applicationAvailability = applicationAvailability;
+        this.startupWarmup = startupWarmup;
+    }
+
+    /**
+     * Проверяет живость сервиса
+     *
+     * @return 200 UP или 503 DOWN
+     */
+    @GetMapping("/liveness")
+    @Operation(summary = "Проверка живости", description = "Возвращает UP, пока приложение работоспособно")
+    public ResponseEntity<Map<String, String>> liveness() {
+        boolean live = applicationAvailability.getLivenessState() == LivenessState.CORRECT;
+        return status(live, "DOWN");
+    }
+
+    /**
+     * Проверяет готовность сервиса принимать трафик
+     *
+     * @return 200 UP после завершения прогрева или 503 OUT_OF_SERVICE
+     */
+    @GetMapping("/readiness")
+    @Operation(summary = "Проверка готовности",
+               description = "Возвращает UP только после завершения прогрева при запуске и до начала остановки")
+    public ResponseEntity<Map<String, String>> readiness() {
+        boolean ready = startupWarmup.isComplete()
+                && applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+        return status(ready, "OUT_OF_SERVICE");
+    }
+
+    private static ResponseEntity<Map<String, String>> status(boolean up, String downStatus) {
+        return ResponseEntity.status(up ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("status", up ? "UP" : downStatus));
+    }
+}
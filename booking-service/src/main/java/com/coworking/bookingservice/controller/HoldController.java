@@ -0,0 +1,95 @@
+package com.coworking.bookingservice.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.coworking.bookingservice.dto.CreateHoldRequest;
+import com.coworking.bookingservice.dto.HoldDto;
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.jwtUtils.UserPrincipal;
+import com.coworking.bookingservice.service.HoldService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * REST контроллер для временных удержаний слотов
+ *
+ * Позволяет удержать слот на время подтверждения бронирования,
+ * подтвердить удержание или снять его.
+ */
+@RestController
+@RequestMapping("/holds")
+@Tag(name = "Удержания", description = "API для временного удержания слотов")
+public class HoldController {
+
+    private final HoldService holdService;
+
+    public HoldController(HoldService holdService) {
+        this.holdService = holdService;
+    }
+
+    /**
+     * Создает удержание слота
+     *
+     * @param request данные удержания
+     * @return созданное удержание
+     */
+    @PostMapping
+    @Operation(summary = "Удержать слот",
+               description = "Временно резервирует интервал рабочего места на указанное количество секунд")
+    public ResponseEntity<HoldDto> createHold(
+            @Parameter(description = "Данные удержания")
+            @RequestBody CreateHoldRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        HoldDto hold = holdService.createHold(userPrincipal.getUserId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    /**
+     * Подтверждает удержание, создавая бронирование
+     *
+     * @param id ID удержания
+     * @return созданное бронирование
+     */
+    @PostMapping("/{id}/confirm")
+    @Operation(summary = "Подтвердить удержание",
+               description = "Превращает удержание в бронирование (только владелец удержания)")
+    public ResponseEntity<ReservationDto> confirmHold(
+            @Parameter(description = "ID удержания")
+            @PathVariable String id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        ReservationDto reservation = holdService.confirmHold(id, userPrincipal.getUserId(),
+                userPrincipal.getRole());
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+
+    /**
+     * Снимает удержание
+     *
+     * @param id ID удержания
+     * @return 204 если удержание снято
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Снять удержание",
+               description = "Освобождает удерживаемый слот (только владелец удержания)")
+    public ResponseEntity<Void> releaseHold(
+            @Parameter(description = "ID удержания")
+            @PathVariable String id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean released = holdService.releaseHold(id, userPrincipal.getUserId());
+        return released ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
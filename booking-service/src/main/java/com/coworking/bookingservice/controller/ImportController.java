@@ -0,0 +1,125 @@
+package com.coworking.bookingservice.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.coworking.bookingservice.dto.ImportReport;
+import com.coworking.bookingservice.dto.ImportRowError;
+import com.coworking.bookingservice.importer.ImportFormat;
+import com.coworking.bookingservice.importer.ImportListener;
+import com.coworking.bookingservice.service.BulkImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * REST контроллер массового импорта (только для администраторов)
+ *
+ * Принимает файл CSV (text/csv) или NDJSON (application/x-ndjson) в теле запроса
+ * и обрабатывает его потоково. Ответ - NDJSON: ошибки строк и прогресс
+ * отправляются по мере обработки, последней строкой идет итоговый отчет.
+ */
+@RestController
+@RequestMapping("/admin/import")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Импорт", description = "API для массового импорта данных")
+public class ImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final BulkImportService bulkImportService;
+    private final ObjectMapper objectMapper;
+
+    public ImportController(BulkImportService bulkImportService, ObjectMapper objectMapper) {
+        this.bulkImportService = bulkImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Импортирует рабочие места
+     *
+     * @param request запрос с файлом импорта в теле
+     * @param response ответ, в который пишется поток отчетов
+     */
+    @PostMapping("/workspaces")
+    @Operation(summary = "Импортировать рабочие места",
+               description = "Потоково импортирует рабочие места из CSV или NDJSON (колонки: name, description, capacity, is_active)")
+    public void importWorkspaces(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImportFormat format = resolveFormat(request, response);
+        if (format == null) {
+            return;
+        }
+        bulkImportService.importWorkspaces(request.getInputStream(), format, streamingListener(response));
+    }
+
+    /**
+     * Импортирует исторические бронирования
+     *
+     * @param request запрос с файлом импорта в теле
+     * @param response ответ, в который пишется поток отчетов
+     */
+    @PostMapping("/reservations")
+    @Operation(summary = "Импортировать бронирования",
+               description = "Потоково импортирует бронирования из CSV или NDJSON (колонки: user_id, workspace_id, start_time, end_time, status)")
+    public void importReservations(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImportFormat format = resolveFormat(request, response);
+        if (format == null) {
+            return;
+        }
+        bulkImportService.importReservations(request.getInputStream(), format, streamingListener(response));
+    }
+
+    private ImportFormat resolveFormat(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            return ImportFormat.fromContentType(request.getContentType());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Создает получателя, который пишет события импорта в ответ построчно
+     */
+    private ImportListener streamingListener(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = response.getWriter();
+
+        return new ImportListener() {
+            @Override
+            public void onRowError(ImportRowError error) {
+                writeLine(error, false);
+            }
+
+            @Override
+            public void onProgress(ImportReport report) {
+                writeLine(report, true);
+            }
+
+            private void writeLine(Object value, boolean flush) {
+                try {
+                    writer.write(objectMapper.writeValueAsString(value));
+                    writer.write('\n');
+                    if (flush) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+}
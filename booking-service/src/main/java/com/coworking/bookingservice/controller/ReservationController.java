@@ -2,10 +2,16 @@ package com.coworking.bookingservice.controller;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,14 +20,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.coworking.bookingservice.dto.ClusterReservationRequest;
 import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.GroupReservationRequest;
+import com.coworking.bookingservice.dto.MultiGetItem;
 import com.coworking.bookingservice.dto.ReservationDto;
 import com.coworking.bookingservice.jwtUtils.UserPrincipal;
+import com.coworking.bookingservice.service.BookingQueue;
+import com.coworking.bookingservice.service.GroupBookingService;
 import com.coworking.bookingservice.service.ReservationService;
+import com.coworking.bookingservice.service.SeatMapService;
+import com.coworking.bookingservice.service.UserLookupService;
+import com.coworking.bookingservice.support.FieldSelection;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -39,9 +54,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final UserLookupService userLookupService;
+    private final BookingQueue bookingQueue;
+    private final GroupBookingService groupBookingService;
+    private final SeatMapService seatMapService;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService,
+                                 UserLookupService userLookupService,
+                                 BookingQueue bookingQueue,
+                                 GroupBookingService groupBookingService,
+                                 SeatMapService seatMapService) {
         this.reservationService = reservationService;
+        this.userLookupService = userLookupService;
+        this.bookingQueue = bookingQueue;
+        this.groupBookingService = groupBookingService;
+        this.seatMapService = seatMapService;
     }
 
     /**
@@ -54,17 +81,56 @@ public class ReservationController {
     @PostMapping
     @Operation(summary = "Создать бронирование",
                description = "Создает новое бронирование рабочего места на указанный период времени")
-    public ResponseEntity<ReservationDto> createReservation(
+    public CompletableFuture<ResponseEntity<ReservationDto>> createReservation(
             @Parameter(description = "Данные для создания бронирования")
             @RequestBody CreateReservationRequest request) {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            ReservationDto createdReservation = reservationService.createReservation(userPrincipal.getUserId(), request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdReservation);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (bookingQueue.isEnabled()) {
+            return bookingQueue.submit(userPrincipal.getUserId(), userPrincipal.getRole(), request)
+                    .handle((createdReservation, error) -> toCreatedResponse(createdReservation, error));
         }
+        ReservationDto createdReservation = reservationService.createReservation(userPrincipal.getUserId(),
+                userPrincipal.getRole(), request);
+        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CREATED).body(createdReservation));
+    }
+
+    /**
+     * Создает групповое бронирование
+     *
+     * @param request бронирования группы
+     * @return созданные бронирования
+     */
+    @PostMapping("/group")
+    @Operation(summary = "Создать групповое бронирование",
+               description = "Бронирует несколько рабочих мест на одинаковые или разные периоды по принципу «все или ничего»")
+    public ResponseEntity<List<ReservationDto>> createGroupReservation(
+            @Parameter(description = "Бронирования группы")
+            @RequestBody GroupReservationRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        List<ReservationDto> reservations = groupBookingService.createGroupReservation(
+                userPrincipal.getUserId(), userPrincipal.getRole(), request.getReservations());
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservations);
+    }
+
+    /**
+     * Бронирует группу соседних мест
+     *
+     * @param request размер группы, период и ограничения по этажам и зонам
+     * @return созданные бронирования
+     */
+    @PostMapping("/cluster")
+    @Operation(summary = "Забронировать группу соседних мест",
+               description = "Подбирает лучшую группу свободных соседних рабочих мест и бронирует ее по принципу «все или ничего»")
+    public ResponseEntity<List<ReservationDto>> createClusterReservation(
+            @Parameter(description = "Размер группы и период")
+            @RequestBody ClusterReservationRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        List<ReservationDto> reservations = seatMapService.bookCluster(userPrincipal.getUserId(),
+                userPrincipal.getRole(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservations);
     }
 
     /**
@@ -84,44 +150,67 @@ public class ReservationController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Получает несколько бронирований по ID одним запросом
+     *
+     * Администратор получает любые бронирования, остальные пользователи — только свои.
+     *
+     * @param ids ID бронирований через запятую
+     * @return результаты в порядке запрошенных ID или 400 при превышении лимита
+     */
+    @GetMapping(params = "ids")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Получить бронирования по списку ID",
+               description = "Возвращает бронирования в порядке запрошенных ID; отсутствующие и чужие (кроме администратора) отмечаются found = false")
+    public ResponseEntity<List<MultiGetItem<ReservationDto>>> getReservationsByIds(
+            @Parameter(description = "ID бронирований", example = "1,2,3")
+            @RequestParam List<Integer> ids) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Integer ownerId = "ADMIN".equalsIgnoreCase(userPrincipal.getRole()) ? null : userPrincipal.getUserId();
+        return ResponseEntity.ok(reservationService.getReservationsByIds(ids, ownerId));
+    }
+
     /**
      * Получает все бронирования пользователя
      *
      * @param userId ID пользователя (из токена аутентификации)
+     * @param fields поля ответа через запятую
      * @return список бронирований пользователя
      */
     @GetMapping("/user")
     @Operation(summary = "Получить бронирования пользователя", 
                description = "Возвращает все бронирования конкретного пользователя")
-    public ResponseEntity<List<ReservationDto>> getUserReservations() {
-        try{
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            List<ReservationDto> reservations = reservationService.getUserReservations(userPrincipal.getUserId());
-            return ResponseEntity.ok(reservations);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<List<ReservationDto>> getUserReservations(
+            @Parameter(description = "Поля ответа через запятую (по умолчанию все)", example = "id,workspaceName,startTime,endTime")
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, ReservationDto.class);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        List<ReservationDto> reservations = reservationService.getUserReservations(userPrincipal.getUserId(),
+                selection);
+        return ResponseEntity.ok(reservations);
     }
 
     /**
      * Получает активные бронирования пользователя
      *
      * @param userId ID пользователя (из токена аутентификации)
+     * @param fields поля ответа через запятую
      * @return список активных бронирований
      */
     @GetMapping("/user/active")
     @Operation(summary = "Получить активные бронирования пользователя",
                description = "Возвращает только активные бронирования пользователя")
-    public ResponseEntity<List<ReservationDto>> getUserActiveReservations() {
-        try{
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            List<ReservationDto> reservations = reservationService.getUserActiveReservations(userPrincipal.getUserId());
-            return ResponseEntity.ok(reservations);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<List<ReservationDto>> getUserActiveReservations(
+            @Parameter(description = "Поля ответа через запятую (по умолчанию все)", example = "id,workspaceName,startTime,endTime")
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, ReservationDto.class);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        List<ReservationDto> reservations = reservationService.getUserActiveReservations(
+                userPrincipal.getUserId(), selection);
+        return ResponseEntity.ok(reservations);
     }
 
     /**
@@ -129,12 +218,12 @@ public class ReservationController {
      * 
      * @param id ID бронирования
      * @param userId ID пользователя (для проверки прав) (получаем из токена аутентификации)
-     * @return 204 если успешно отменено
+     * @return 204 если успешно отменено или 409 с текущим состоянием при неразрешенном конфликте
      */
     @DeleteMapping("/{id}")
     @Operation(summary = "Отменить бронирование", 
                description = "Отменяет активное бронирование (только владелец бронирования)")
-    public ResponseEntity<Void> cancelReservation(
+    public ResponseEntity<ReservationDto> cancelReservation(
             @Parameter(description = "ID бронирования", example = "1")
             @PathVariable Integer id) {
         try {
@@ -142,8 +231,8 @@ public class ReservationController {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
             boolean cancelled = reservationService.cancelReservation(id, userPrincipal.getUserId());
             return cancelled ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException e) {
+            return currentStateConflict(id);
         }
     }
 
@@ -154,7 +243,7 @@ public class ReservationController {
      * @param userId ID пользователя (из токена аутентификации)
      * @param newStartTime новое время начала
      * @param newEndTime новое время окончания
-     * @return обновленное бронирование
+     * @return обновленное бронирование или 409 с текущим состоянием при неразрешенном конфликте
      */
     @PutMapping("/{id}/time")
     @Operation(summary = "Обновить время бронирования", 
@@ -172,8 +261,8 @@ public class ReservationController {
             return reservationService.updateReservationTime(id, userPrincipal.getUserId(), newStartTime, newEndTime)
                     .map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+        } catch (ConcurrencyFailureException e) {
+            return currentStateConflict(id);
         }
     }
 
@@ -181,16 +270,22 @@ public class ReservationController {
      * Получает бронирования рабочего места
      * 
      * @param workspaceId ID рабочего места
-     * @return список бронирований
+     * @param fields поля ответа через запятую
+     * @param authorization заголовок Authorization (передается в auth-service)
+     * @return список бронирований с именами пользователей
      */
     @GetMapping("/workspace/{workspaceId}")
     @Operation(summary = "Получить бронирования рабочего места", 
                description = "Возвращает все активные бронирования конкретного рабочего места")
     public ResponseEntity<List<ReservationDto>> getWorkspaceReservations(
             @Parameter(description = "ID рабочего места", example = "1")
-            @PathVariable Integer workspaceId) {
-        List<ReservationDto> reservations = reservationService.getWorkspaceReservations(workspaceId);
-        return ResponseEntity.ok(reservations);
+            @PathVariable Integer workspaceId,
+            @Parameter(description = "Поля ответа через запятую (по умолчанию все)", example = "id,workspaceName,startTime,endTime")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        FieldSelection selection = FieldSelection.parse(fields, ReservationDto.class);
+        List<ReservationDto> reservations = reservationService.getWorkspaceReservations(workspaceId, selection);
+        return ResponseEntity.ok(withUsernames(reservations, selection, authorization));
     }
 
     /**
@@ -198,7 +293,9 @@ public class ReservationController {
      * 
      * @param startTime время начала диапазона
      * @param endTime время окончания диапазона
-     * @return список бронирований
+     * @param fields поля ответа через запятую
+     * @param authorization заголовок Authorization (передается в auth-service)
+     * @return список бронирований с именами пользователей
      */
     @GetMapping("/range")
     @Operation(summary = "Получить бронирования в временном диапазоне", 
@@ -207,12 +304,65 @@ public class ReservationController {
             @Parameter(description = "Время начала диапазона", example = "2024-01-15 00:00:00")
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
             @Parameter(description = "Время окончания диапазона", example = "2024-01-15 23:59:59")
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime) {
-        try {
-            List<ReservationDto> reservations = reservationService.getReservationsInTimeRange(startTime, endTime);
-            return ResponseEntity.ok(reservations);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @Parameter(description = "Поля ответа через запятую (по умолчанию все)", example = "id,workspaceName,startTime,endTime")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        FieldSelection selection = FieldSelection.parse(fields, ReservationDto.class);
+        List<ReservationDto> reservations = reservationService.getReservationsInTimeRange(startTime, endTime,
+                selection);
+        return ResponseEntity.ok(withUsernames(reservations, selection, authorization));
+    }
+
+    /**
+     * Дополняет бронирования именами пользователей, если поле username запрошено
+     *
+     * @param reservations бронирования
+     * @param selection запрошенные поля
+     * @param authorization заголовок Authorization (передается в auth-service)
+     * @return бронирования
+     */
+    private List<ReservationDto> withUsernames(List<ReservationDto> reservations, FieldSelection selection,
+                                               String authorization) {
+        if (!selection.includes("username")) {
+            return reservations;
         }
+        return userLookupService.enrichWithUsernames(reservations, authorization);
+    }
+
+    /**
+     * Преобразует результат заявки из очереди записи в ответ
+     *
+     * @param createdReservation созданное бронирование
+     * @param error ошибка обработки заявки
+     * @return 201 или 503 при превышении времени ожидания; отклонение заявки
+     *         передается обработчику ошибок
+     */
+    private ResponseEntity<ReservationDto> toCreatedResponse(ReservationDto createdReservation, Throwable error) {
+        if (error == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdReservation);
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw new CompletionException(cause);
+    }
+
+    /**
+     * Формирует ответ 409 с текущим состоянием бронирования
+     *
+     * Используется, когда параллельное изменение не удалось разрешить повторами:
+     * клиент получает актуальную версию и сам решает, повторять ли запрос.
+     *
+     * @param id ID бронирования
+     * @return 409 с текущим бронированием или без тела, если оно удалено
+     */
+    private ResponseEntity<ReservationDto> currentStateConflict(Integer id) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(reservationService.getReservationById(id).orElse(null));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.coworking.bookingservice.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.coworking.bookingservice.dto.SpanDto;
+import com.coworking.bookingservice.tracing.SpanRingBuffer;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * REST контроллер трассировки (только для администраторов)
+ *
+ * Показывает последние трассы из кольцевого буфера в памяти сервиса.
+ */
+@RestController
+@RequestMapping("/admin/traces")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Трассировка", description = "API для просмотра трасс запросов")
+public class TraceController {
+
+    private final SpanRingBuffer spanRingBuffer;
+
+    public TraceController(SpanRingBuffer spanRingBuffer) {
+        this.spanRingBuffer = spanRingBuffer;
+    }
+
+    /**
+     * Получает последние трассы
+     *
+     * @param limit максимальное количество трасс
+     * @return первые спаны трасс, новые первыми
+     */
+    @GetMapping
+    @Operation(summary = "Получить последние трассы",
+               description = "Возвращает по одному (корневому) спану на трассу из кольцевого буфера")
+    public ResponseEntity<List<SpanDto>> getRecentTraces(
+            @Parameter(description = "Максимальное количество трасс", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(spanRingBuffer.getRecentTraces(limit));
+    }
+
+    /**
+     * Получает все спаны трассы
+     *
+     * @param traceId ID трассы (заголовок X-Trace-Id ответа)
+     * @return спаны трассы или 404, если трасса вытеснена из буфера
+     */
+    @GetMapping("/{traceId}")
+    @Operation(summary = "Получить трассу",
+               description = "Возвращает спаны трассы в порядке начала")
+    public ResponseEntity<List<SpanDto>> getTrace(
+            @Parameter(description = "ID трассы", example = "4bf92f3577b34da6a3ce929d0e0e4736")
+            @PathVariable String traceId) {
+        List<SpanDto> spans = spanRingBuffer.getTrace(traceId);
+        return spans.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(spans);
+    }
+}
@@ -0,0 +1,93 @@
+package com.coworking.bookingservice.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.WaitlistEntryDto;
+import com.coworking.bookingservice.jwtUtils.UserPrincipal;
+import com.coworking.bookingservice.service.WaitlistService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * REST контроллер листа ожидания
+ *
+ * Позволяет встать в очередь на занятый слот вместо повторного опроса
+ * доступных мест. При освобождении слота бронирование создается автоматически.
+ */
+@RestController
+@RequestMapping("/waitlist")
+@Tag(name = "Лист ожидания", description = "API для ожидания освобождения занятых слотов")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+     * Ставит пользователя в лист ожидания
+     *
+     * @param request желаемое рабочее место и период
+     * @return созданная запись
+     */
+    @PostMapping
+    @Operation(summary = "Встать в лист ожидания",
+               description = "Ставит пользователя в очередь на занятый слот рабочего места")
+    public ResponseEntity<WaitlistEntryDto> joinWaitlist(
+            @Parameter(description = "Рабочее место и период")
+            @RequestBody CreateReservationRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        WaitlistEntryDto entry = waitlistService.joinWaitlist(userPrincipal.getUserId(), userPrincipal.getRole(),
+                request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+    }
+
+    /**
+     * Получает записи пользователя в листе ожидания
+     *
+     * @return список записей
+     */
+    @GetMapping("/user")
+    @Operation(summary = "Получить записи пользователя",
+               description = "Возвращает записи листа ожидания текущего пользователя, включая продвинутые")
+    public ResponseEntity<List<WaitlistEntryDto>> getUserEntries() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(waitlistService.getUserEntries(userPrincipal.getUserId()));
+    }
+
+    /**
+     * Убирает пользователя из листа ожидания
+     *
+     * @param id ID записи
+     * @return 204 если запись отменена
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Покинуть лист ожидания",
+               description = "Отменяет ожидающую запись (только владелец записи)")
+    public ResponseEntity<Void> leaveWaitlist(
+            @Parameter(description = "ID записи", example = "1")
+            @PathVariable Integer id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean left = waitlistService.leaveWaitlist(id, userPrincipal.getUserId());
+        return left ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
@@ -3,6 +3,7 @@ package com.coworking.bookingservice.controller;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,8 +18,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.coworking.bookingservice.dto.BulkCancellationResult;
+import com.coworking.bookingservice.dto.MaintenanceWindowRequest;
+import com.coworking.bookingservice.dto.MultiGetItem;
 import com.coworking.bookingservice.dto.WorkspaceDto;
+import com.coworking.bookingservice.service.SeatMapService;
+import com.coworking.bookingservice.service.WorkspaceMaintenanceService;
 import com.coworking.bookingservice.service.WorkspaceService;
+import com.coworking.bookingservice.support.FieldSelection;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -36,29 +43,54 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class WorkspaceController {
 
     private final WorkspaceService workspaceService;
+    private final WorkspaceMaintenanceService workspaceMaintenanceService;
+    private final SeatMapService seatMapService;
 
-    public WorkspaceController(WorkspaceService workspaceService) {
+    public WorkspaceController(WorkspaceService workspaceService,
+                               WorkspaceMaintenanceService workspaceMaintenanceService,
+                               SeatMapService seatMapService) {
         this.workspaceService = workspaceService;
+        this.workspaceMaintenanceService = workspaceMaintenanceService;
+        this.seatMapService = seatMapService;
     }
 
     /**
      * Получает все активные рабочие места
      * 
+     * @param fields поля ответа через запятую
      * @return список активных рабочих мест
      */
     @GetMapping
     @Operation(summary = "Получить все активные рабочие места", 
                description = "Возвращает список всех активных рабочих мест в коворкинге")
-    public ResponseEntity<List<WorkspaceDto>> getAllWorkspaces() {
-        List<WorkspaceDto> workspaces = workspaceService.getAllActiveWorkspaces();
+    public ResponseEntity<List<WorkspaceDto>> getAllWorkspaces(
+            @Parameter(description = "Поля ответа через запятую (по умолчанию все)", example = "id,name,capacity")
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, WorkspaceDto.class);
+        List<WorkspaceDto> workspaces = workspaceService.getAllActiveWorkspaces(selection);
         return ResponseEntity.ok(workspaces);
     }
 
+    /**
+     * Получает несколько рабочих мест по ID одним запросом
+     * 
+     * @param ids ID рабочих мест через запятую
+     * @return результаты в порядке запрошенных ID или 400 при превышении лимита
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Получить рабочие места по списку ID", 
+               description = "Возвращает рабочие места в порядке запрошенных ID; отсутствующие отмечаются found = false")
+    public ResponseEntity<List<MultiGetItem<WorkspaceDto>>> getWorkspacesByIds(
+            @Parameter(description = "ID рабочих мест", example = "1,2,3")
+            @RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(workspaceService.getWorkspacesByIds(ids));
+    }
+
     /**
      * Получает рабочее место по ID
      * 
      * @param id ID рабочего места
-     * @return рабочее место или 404 если не найдено
+     * @return рабочее место, 404 если не найдено или 503 если база недоступна и снимка нет
      */
     @GetMapping("/{id}")
     @Operation(summary = "Получить рабочее место по ID", 
@@ -76,6 +108,7 @@ public class WorkspaceController {
      * 
      * @param startTime время начала
      * @param endTime время окончания
+     * @param fields поля ответа через запятую
      * @return список доступных рабочих мест
      */
     @GetMapping("/available")
@@ -85,13 +118,13 @@ public class WorkspaceController {
             @Parameter(description = "Время начала", example = "2024-01-15 10:00:00")
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
             @Parameter(description = "Время окончания", example = "2024-01-15 12:00:00")
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime) {
-        try {
-            List<WorkspaceDto> availableWorkspaces = workspaceService.getAvailableWorkspaces(startTime, endTime);
-            return ResponseEntity.ok(availableWorkspaces);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        }
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @Parameter(description = "Поля ответа через запятую (по умолчанию все)", example = "id,name,capacity")
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, WorkspaceDto.class);
+        List<WorkspaceDto> availableWorkspaces = workspaceService.getAvailableWorkspaces(startTime, endTime,
+                selection);
+        return ResponseEntity.ok(availableWorkspaces);
     }
 
     /**
@@ -100,6 +133,7 @@ public class WorkspaceController {
      * @param startTime время начала
      * @param endTime время окончания
      * @param minCapacity минимальная вместимость
+     * @param fields поля ответа через запятую
      * @return список доступных рабочих мест
      */
     @GetMapping("/available/capacity")
@@ -111,14 +145,113 @@ public class WorkspaceController {
             @Parameter(description = "Время окончания", example = "2024-01-15 12:00:00")
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
             @Parameter(description = "Минимальная вместимость", example = "5")
-            @RequestParam Integer minCapacity) {
-        try {
-            List<WorkspaceDto> availableWorkspaces = workspaceService.getAvailableWorkspacesWithCapacity(
-                    startTime, endTime, minCapacity);
-            return ResponseEntity.ok(availableWorkspaces);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        }
+            @RequestParam Integer minCapacity,
+            @Parameter(description = "Поля ответа через запятую (по умолчанию все)", example = "id,name,capacity")
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, WorkspaceDto.class);
+        List<WorkspaceDto> availableWorkspaces = workspaceService.getAvailableWorkspacesWithCapacity(
+                startTime, endTime, minCapacity, selection);
+        return ResponseEntity.ok(availableWorkspaces);
+    }
+
+    /**
+     * Ищет рабочие места по атрибутам и доступности
+     * 
+     * @param floors этажи (любой из)
+     * @param zones зоны (любая из)
+     * @param amenities удобства (все сразу)
+     * @param minCapacity минимальная вместимость
+     * @param maxCapacity максимальная вместимость
+     * @param startTime время начала (необязательно)
+     * @param endTime время окончания (необязательно)
+     * @param fields поля ответа через запятую (места берутся из индекса в памяти, сужается только ответ)
+     * @return список подходящих рабочих мест
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Поиск рабочих мест по атрибутам", 
+               description = "Фильтрует активные рабочие места по этажу, зоне, удобствам, вместимости и, если указан период, по доступности")
+    public ResponseEntity<List<WorkspaceDto>> searchWorkspaces(
+            @Parameter(description = "Этажи", example = "2,3")
+            @RequestParam(name = "floor", required = false) List<Integer> floors,
+            @Parameter(description = "Зоны", example = "quiet")
+            @RequestParam(name = "zone", required = false) List<String> zones,
+            @Parameter(description = "Удобства (требуются все)", example = "monitor,whiteboard")
+            @RequestParam(name = "amenity", required = false) List<String> amenities,
+            @Parameter(description = "Минимальная вместимость", example = "1")
+            @RequestParam(required = false) Integer minCapacity,
+            @Parameter(description = "Максимальная вместимость", example = "10")
+            @RequestParam(required = false) Integer maxCapacity,
+            @Parameter(description = "Время начала", example = "2024-01-15 10:00:00")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @Parameter(description = "Время окончания", example = "2024-01-15 12:00:00")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @Parameter(description = "Поля ответа через запятую (по умолчанию все)", example = "id,name,capacity")
+            @RequestParam(required = false) String fields) {
+        FieldSelection.parse(fields, WorkspaceDto.class);
+        List<WorkspaceDto> workspaces = workspaceService.searchWorkspaces(floors, zones, amenities,
+                minCapacity, maxCapacity, startTime, endTime);
+        return ResponseEntity.ok(workspaces);
+    }
+
+    /**
+     * Находит лучшую группу свободных соседних мест
+     * 
+     * @param size количество мест
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param floors допустимые этажи
+     * @param zones допустимые зоны
+     * @return места группы или пустой список, если группы нет
+     */
+    @GetMapping("/clusters")
+    @Operation(summary = "Найти группу соседних мест", 
+               description = "Возвращает лучшую группу из указанного количества свободных соседних рабочих мест на период")
+    public ResponseEntity<List<WorkspaceDto>> findCluster(
+            @Parameter(description = "Количество мест", example = "4")
+            @RequestParam int size,
+            @Parameter(description = "Время начала", example = "2024-01-15 10:00:00")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @Parameter(description = "Время окончания", example = "2024-01-15 12:00:00")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @Parameter(description = "Этажи", example = "2")
+            @RequestParam(name = "floor", required = false) List<Integer> floors,
+            @Parameter(description = "Зоны", example = "open-space")
+            @RequestParam(name = "zone", required = false) List<String> zones) {
+        return ResponseEntity.ok(seatMapService.findBestCluster(size, startTime, endTime, floors, zones));
+    }
+
+    /**
+     * Получает соседей рабочего места на схеме зала
+     * 
+     * @param id ID рабочего места
+     * @return ID соседних рабочих мест
+     */
+    @GetMapping("/{id}/neighbors")
+    @Operation(summary = "Получить соседей рабочего места", 
+               description = "Возвращает ID рабочих мест, соседних с указанным на схеме зала")
+    public ResponseEntity<List<Integer>> getNeighbors(
+            @Parameter(description = "ID рабочего места", example = "1")
+            @PathVariable Integer id) {
+        return ResponseEntity.ok(seatMapService.getNeighbors(id));
+    }
+
+    /**
+     * Заменяет соседей рабочего места (только для администраторов)
+     * 
+     * @param id ID рабочего места
+     * @param neighborIds ID соседних рабочих мест
+     * @return ID соседних рабочих мест
+     */
+    @PutMapping("/{id}/neighbors")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Задать соседей рабочего места", 
+               description = "Заменяет соседей рабочего места на схеме зала; соседство симметрично (требуются права администратора)")
+    public ResponseEntity<List<Integer>> setNeighbors(
+            @Parameter(description = "ID рабочего места", example = "1")
+            @PathVariable Integer id,
+            @Parameter(description = "ID соседних рабочих мест")
+            @RequestBody List<Integer> neighborIds) {
+        return ResponseEntity.ok(seatMapService.setNeighbors(id, neighborIds));
     }
 
     /**
@@ -128,18 +261,14 @@ public class WorkspaceController {
      * @return созданное рабочее место
      */
     @PostMapping
-    @PreAuthorize("hasRole('admin')")
+    @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Создать новое рабочее место", 
                description = "Создает новое рабочее место в коворкинге (требуются права администратора)")
     public ResponseEntity<WorkspaceDto> createWorkspace(
             @Parameter(description = "Данные рабочего места")
             @RequestBody WorkspaceDto workspaceDto) {
-        try {
-            WorkspaceDto createdWorkspace = workspaceService.createWorkspace(workspaceDto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdWorkspace);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        WorkspaceDto createdWorkspace = workspaceService.createWorkspace(workspaceDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdWorkspace);
     }
 
     /**
@@ -147,7 +276,7 @@ public class WorkspaceController {
      * 
      * @param id ID рабочего места
      * @param workspaceDto новые данные
-     * @return обновленное рабочее место
+     * @return обновленное рабочее место или 409 с текущим состоянием при неразрешенном конфликте
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -158,25 +287,58 @@ public class WorkspaceController {
             @PathVariable Integer id,
             @Parameter(description = "Новые данные рабочего места")
             @RequestBody WorkspaceDto workspaceDto) {
-        return workspaceService.updateWorkspace(id, workspaceDto)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return workspaceService.updateWorkspace(id, workspaceDto)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(workspaceService.getWorkspaceById(id).orElse(null));
+        }
     }
 
     /**
      * Деактивирует рабочее место (только для администраторов)
      * 
+     * Все будущие бронирования места отменяются.
+     * 
      * @param id ID рабочего места
-     * @return 204 если успешно деактивировано
+     * @return количество отмененных бронирований, 404 если место не найдено
+     *         или 409 при неразрешенном конфликте параллельного изменения
      */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Деактивировать рабочее место", 
-               description = "Деактивирует рабочее место (требуются права администратора)")
-    public ResponseEntity<Void> deactivateWorkspace(
+               description = "Деактивирует рабочее место и отменяет его будущие бронирования (требуются права администратора)")
+    public ResponseEntity<BulkCancellationResult> deactivateWorkspace(
             @Parameter(description = "ID рабочего места", example = "1")
             @PathVariable Integer id) {
-        boolean deactivated = workspaceService.deactivateWorkspace(id);
-        return deactivated ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        try {
+            return workspaceMaintenanceService.deactivateWorkspace(id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Закрывает рабочее место на обслуживание (только для администраторов)
+     * 
+     * @param id ID рабочего места
+     * @param request окно обслуживания
+     * @return количество отмененных бронирований
+     */
+    @PostMapping("/{id}/maintenance")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Закрыть рабочее место на обслуживание", 
+               description = "Запрещает бронирования в окне обслуживания и отменяет пересекающиеся бронирования (требуются права администратора)")
+    public ResponseEntity<BulkCancellationResult> closeForMaintenance(
+            @Parameter(description = "ID рабочего места", example = "1")
+            @PathVariable Integer id,
+            @Parameter(description = "Окно обслуживания")
+            @RequestBody MaintenanceWindowRequest request) {
+        BulkCancellationResult result = workspaceMaintenanceService.closeForMaintenance(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 } 
\ No newline at end of file
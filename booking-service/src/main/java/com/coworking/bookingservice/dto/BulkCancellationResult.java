@@ -0,0 +1,81 @@
+package com.coworking.bookingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO результата массовой отмены бронирований
+ * 
+ * Возвращается при деактивации рабочего места и при закрытии
+ * его на обслуживание
+ */
+@Schema(description = "Результат массовой отмены бронирований")
+public class BulkCancellationResult {
+
+    @Schema(description = "ID рабочего места", example = "1")
+    private Integer workspaceId;
+
+    @Schema(description = "ID окна обслуживания (только при закрытии на обслуживание)", example = "3")
+    private Integer closureId;
+
+    @Schema(description = "Отменено бронирований", example = "42")
+    private int cancelledReservations;
+
+    @Schema(description = "Затронуто пользователей", example = "17")
+    private int affectedUsers;
+
+    @Schema(description = "Отменено записей в листе ожидания", example = "5")
+    private int cancelledWaitlistEntries;
+
+    // Конструкторы
+    public BulkCancellationResult() {}
+
+    public BulkCancellationResult(Integer workspaceId, Integer closureId, int cancelledReservations,
+                                  int affectedUsers, int cancelledWaitlistEntries) {
+        this.workspaceId = workspaceId;
+        this.closureId = closureId;
+        this.cancelledReservations = cancelledReservations;
+        this.affectedUsers = affectedUsers;
+        this.cancelledWaitlistEntries = cancelledWaitlistEntries;
+    }
+
+    // Геттеры и сеттеры
+    public Integer getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(Integer workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    public Integer getClosureId() {
+        return closureId;
+    }
+
+    public void setClosureId(Integer closureId) {
+        this.closureId = closureId;
+    }
+
+    public int getCancelledReservations() {
+        return cancelledReservations;
+    }
+
+    public void setCancelledReservations(int cancelledReservations) {
+        this.cancelledReservations = cancelledReservations;
+    }
+
+    public int getAffectedUsers() {
+        return affectedUsers;
+    }
+
+    public void setAffectedUsers(int affectedUsers) {
+        this.affectedUsers = affectedUsers;
+    }
+
+    public int getCancelledWaitlistEntries() {
+        return cancelledWaitlistEntries;
+    }
+
+    public void setCancelledWaitlistEntries(int cancelledWaitlistEntries) {
+        this.cancelledWaitlistEntries = cancelledWaitlistEntries;
+    }
+}
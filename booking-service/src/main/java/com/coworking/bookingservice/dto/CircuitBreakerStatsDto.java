@@ -0,0 +1,184 @@
+package com.coworking.bookingservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO состояния автомата защиты базы данных
+ * 
+ * Текущее состояние, доли медленных и сбойных чтений в окне и счетчики
+ * переходов и ответов из снимков с момента запуска сервиса
+ */
+@Schema(description = "Состояние автомата защиты базы данных")
+public class CircuitBreakerStatsDto {
+
+    @Schema(description = "Состояние автомата (CLOSED, OPEN, HALF_OPEN)", example = "OPEN")
+    private String state;
+
+    @Schema(description = "Время перехода в текущее состояние")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime stateSince;
+
+    @Schema(description = "Учтенных вызовов в окне", example = "50")
+    private int bufferedCalls;
+
+    @Schema(description = "Доля сбоев базы в окне", example = "0.1")
+    private double failureRate;
+
+    @Schema(description = "Доля медленных вызовов в окне", example = "0.45")
+    private double slowCallRate;
+
+    @Schema(description = "Размыканий", example = "3")
+    private long openedCount;
+
+    @Schema(description = "Переходов к пробным запросам", example = "3")
+    private long halfOpenedCount;
+
+    @Schema(description = "Замыканий", example = "2")
+    private long closedCount;
+
+    @Schema(description = "Ответов из снимков", example = "1200")
+    private long staleResponses;
+
+    @Schema(description = "Чтений без подходящего снимка (ответ 503)", example = "15")
+    private long snapshotMisses;
+
+    @Schema(description = "Отклоненных записей (ответ 503)", example = "40")
+    private long rejectedWrites;
+
+    @Schema(description = "Возраст последнего отданного снимка, секунд", example = "12")
+    private long lastStalenessSeconds;
+
+    @Schema(description = "Наибольший возраст отданного снимка, секунд", example = "95")
+    private long maxStalenessSeconds;
+
+    // Конструкторы
+    public CircuitBreakerStatsDto() {}
+
+    public CircuitBreakerStatsDto(String state, LocalDateTime stateSince, int bufferedCalls, double failureRate,
+                                  double slowCallRate, long openedCount, long halfOpenedCount, long closedCount,
+                                  long staleResponses, long snapshotMisses, long rejectedWrites,
+                                  long lastStalenessSeconds, long maxStalenessSeconds) {
+        this.state = state;
+        this.stateSince = stateSince;
+        this.bufferedCalls = bufferedCalls;
+        this.failureRate = failureRate;
+        this.slowCallRate = slowCallRate;
+        this.openedCount = openedCount;
+        this.halfOpenedCount = halfOpenedCount;
+        this.closedCount = closedCount;
+        this.staleResponses = staleResponses;
+        this.snapshotMisses = snapshotMisses;
+        this.rejectedWrites = rejectedWrites;
+        this.lastStalenessSeconds = lastStalenessSeconds;
+        this.maxStalenessSeconds = maxStalenessSeconds;
+    }
+
+    // Геттеры и сеттеры
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public LocalDateTime getStateSince() {
+        return stateSince;
+    }
+
+    public void setStateSince(LocalDateTime stateSince) {
+        this.stateSince = stateSince;
+    }
+
+    public int getBufferedCalls() {
+        return bufferedCalls;
+    }
+
+    public void setBufferedCalls(int bufferedCalls) {
+        this.bufferedCalls = bufferedCalls;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public double getSlowCallRate() {
+        return slowCallRate;
+    }
+
+    public void setSlowCallRate(double slowCallRate) {
+        this.slowCallRate = slowCallRate;
+    }
+
+    public long getOpenedCount() {
+        return openedCount;
+    }
+
+    public void setOpenedCount(long openedCount) {
+        this.openedCount = openedCount;
+    }
+
+    public long getHalfOpenedCount() {
+        return halfOpenedCount;
+    }
+
+    public void setHalfOpenedCount(long halfOpenedCount) {
+        this.halfOpenedCount = halfOpenedCount;
+    }
+
+    public long getClosedCount() {
+        return closedCount;
+    }
+
+    public void setClosedCount(long closedCount) {
+        this.closedCount = closedCount;
+    }
+
+    public long getStaleResponses() {
+        return staleResponses;
+    }
+
+    public void setStaleResponses(long staleResponses) {
+        this.staleResponses = staleResponses;
+    }
+
+    public long getSnapshotMisses() {
+        return snapshotMisses;
+    }
+
+    public void setSnapshotMisses(long snapshotMisses) {
+        this.snapshotMisses = snapshotMisses;
+    }
+
+    public long getRejectedWrites() {
+        return rejectedWrites;
+    }
+
+    public void setRejectedWrites(long rejectedWrites) {
+        this.rejectedWrites = rejectedWrites;
+    }
+
+    public long getLastStalenessSeconds() {
+        return lastStalenessSeconds;
+    }
+
+    public void setLastStalenessSeconds(long lastStalenessSeconds) {
+        this.lastStalenessSeconds = lastStalenessSeconds;
+    }
+
+    public long getMaxStalenessSeconds() {
+        return maxStalenessSeconds;
+    }
+
+    public void setMaxStalenessSeconds(long maxStalenessSeconds) {
+        this.maxStalenessSeconds = maxStalenessSeconds;
+    }
+}
@@ -0,0 +1,91 @@
+package com.coworking.bookingservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO для запроса на бронирование группы соседних мест
+ * 
+ * Сервис сам подбирает лучшую группу из size свободных соседних мест
+ * и бронирует ее по принципу «все или ничего»
+ */
+@Schema(description = "Запрос на бронирование группы соседних мест")
+public class ClusterReservationRequest {
+
+    @Schema(description = "Количество мест", example = "4")
+    @NotNull(message = "Количество мест обязательно")
+    @Min(value = 1, message = "Количество мест должно быть не менее 1")
+    private Integer size;
+
+    @Schema(description = "Время начала бронирования", example = "2024-01-15 10:00:00")
+    @NotNull(message = "Время начала обязательно")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime startTime;
+
+    @Schema(description = "Время окончания бронирования", example = "2024-01-15 12:00:00")
+    @NotNull(message = "Время окончания обязательно")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime endTime;
+
+    @Schema(description = "Допустимые этажи (необязательно)", example = "[2]")
+    private List<Integer> floors;
+
+    @Schema(description = "Допустимые зоны (необязательно)", example = "[\"open-space\"]")
+    private List<String> zones;
+
+    // Конструкторы
+    public ClusterReservationRequest() {}
+
+    public ClusterReservationRequest(Integer size, LocalDateTime startTime, LocalDateTime endTime) {
+        this.size = size;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    // Геттеры и сеттеры
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public List<Integer> getFloors() {
+        return floors;
+    }
+
+    public void setFloors(List<Integer> floors) {
+        this.floors = floors;
+    }
+
+    public List<String> getZones() {
+        return zones;
+    }
+
+    public void setZones(List<String> zones) {
+        this.zones = zones;
+    }
+}
@@ -0,0 +1,104 @@
+package com.coworking.bookingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO статистики конфликтов параллельного изменения
+ * 
+ * Счетчики одной операции с повтором при конфликте с момента запуска сервиса
+ */
+@Schema(description = "Статистика конфликтов и повторов операции")
+public class ConflictStatsDto {
+
+    @Schema(description = "Операция (Класс.метод)", example = "ReservationService.updateReservationTime")
+    private String operation;
+
+    @Schema(description = "Вызовов", example = "1200")
+    private long invocations;
+
+    @Schema(description = "Попыток, завершившихся конфликтом", example = "18")
+    private long conflicts;
+
+    @Schema(description = "Повторов", example = "16")
+    private long retries;
+
+    @Schema(description = "Вызовов, завершившихся конфликтом после всех попыток", example = "2")
+    private long exhausted;
+
+    @Schema(description = "Конфликтов на вызов", example = "0.015")
+    private double conflictRate;
+
+    @Schema(description = "Повторов на вызов", example = "0.013")
+    private double retryRate;
+
+    // Конструкторы
+    public ConflictStatsDto() {}
+
+    public ConflictStatsDto(String operation, long invocations, long conflicts, long retries, long exhausted,
+                            double conflictRate, double retryRate) {
+        this.operation = operation;
+        this.invocations = invocations;
+        this.conflicts = conflicts;
+        this.retries = retries;
+        this.exhausted = exhausted;
+        this.conflictRate = conflictRate;
+        this.retryRate = retryRate;
+    }
+
+    // Геттеры и сеттеры
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public long getInvocations() {
+        return invocations;
+    }
+
+    public void setInvocations(long invocations) {
+        this.invocations = invocations;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(long conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public void setRetries(long retries) {
+        this.retries = retries;
+    }
+
+    public long getExhausted() {
+        return exhausted;
+    }
+
+    public void setExhausted(long exhausted) {
+        this.exhausted = exhausted;
+    }
+
+    public double getConflictRate() {
+        return conflictRate;
+    }
+
+    public void setConflictRate(double conflictRate) {
+        this.conflictRate = conflictRate;
+    }
+
+    public double getRetryRate() {
+        return retryRate;
+    }
+
+    public void setRetryRate(double retryRate) {
+        this.retryRate = retryRate;
+    }
+}
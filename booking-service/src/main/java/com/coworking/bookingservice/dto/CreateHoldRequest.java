@@ -0,0 +1,90 @@
+package com.coworking.bookingservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO для запроса на временное удержание слота
+ * 
+ * Используется, чтобы зарезервировать интервал рабочего места на время подтверждения бронирования
+ */
+@Schema(description = "Запрос на временное удержание слота")
+public class CreateHoldRequest {
+
+    @Schema(description = "ID рабочего места", example = "1")
+    @NotNull(message = "ID рабочего места обязателен")
+    private Integer workspaceId;
+
+    @Schema(description = "Время начала бронирования", example = "2024-01-15 10:00:00")
+    @NotNull(message = "Время начала обязательно")
+    @Future(message = "Время начала должно быть в будущем")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime startTime;
+
+    @Schema(description = "Время окончания бронирования", example = "2024-01-15 12:00:00")
+    @NotNull(message = "Время окончания обязательно")
+    @Future(message = "Время окончания должно быть в будущем")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime endTime;
+
+    @Schema(description = "Длительность удержания в секундах (по умолчанию из настроек)", example = "60")
+    private Integer ttlSeconds;
+
+    // Конструкторы
+    public CreateHoldRequest() {}
+
+    public CreateHoldRequest(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime, Integer ttlSeconds) {
+        this.workspaceId = workspaceId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    // Геттеры и сеттеры
+    public Integer getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(Integer workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Integer ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "CreateHoldRequest{" +
+                "workspaceId=" + workspaceId +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", ttlSeconds=" + ttlSeconds +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.coworking.bookingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO ответа об ошибке
+ * 
+ * Возвращается глобальным обработчиком ошибок вместе со статусом 4xx/5xx
+ */
+@Schema(description = "Ошибка обработки запроса")
+public class ErrorResponse {
+
+    @Schema(description = "Машиночитаемый код ошибки", example = "SLOT_BOOKED")
+    private String code;
+
+    @Schema(description = "Причина ошибки", example = "Место уже забронировано на указанное время")
+    private String message;
+
+    // Конструкторы
+    public ErrorResponse() {}
+
+    public ErrorResponse(String code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    // Геттеры и сеттеры
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "ErrorResponse{" +
+                "code='" + code + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
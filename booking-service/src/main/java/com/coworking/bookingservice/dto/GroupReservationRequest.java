@@ -0,0 +1,34 @@
+package com.coworking.bookingservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO для запроса на групповое бронирование
+ * 
+ * Содержит несколько бронирований, которые создаются по принципу «все или ничего»
+ */
+@Schema(description = "Запрос на групповое бронирование")
+public class GroupReservationRequest {
+
+    @Schema(description = "Бронирования группы (рабочие места и периоды)")
+    private List<CreateReservationRequest> reservations = new ArrayList<>();
+
+    // Конструкторы
+    public GroupReservationRequest() {}
+
+    public GroupReservationRequest(List<CreateReservationRequest> reservations) {
+        this.reservations = reservations;
+    }
+
+    // Геттеры и сеттеры
+    public List<CreateReservationRequest> getReservations() {
+        return reservations;
+    }
+
+    public void setReservations(List<CreateReservationRequest> reservations) {
+        this.reservations = reservations;
+    }
+}
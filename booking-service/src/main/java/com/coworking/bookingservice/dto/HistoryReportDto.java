@@ -0,0 +1,149 @@
+package com.coworking.bookingservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO отчета по истории бронирований
+ * 
+ * Итоги по завершенным и отмененным бронированиям за период из хранилища
+ * истории; бронирования, завершившиеся после coveredUntil, еще не учтены
+ */
+@Schema(description = "Отчет по истории бронирований")
+public class HistoryReportDto {
+
+    @Schema(description = "Начало периода")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime startTime;
+
+    @Schema(description = "Конец периода")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime endTime;
+
+    @Schema(description = "ID рабочего места (если задан)", example = "1")
+    private Integer workspaceId;
+
+    @Schema(description = "ID пользователя (если задан)", example = "2")
+    private Integer userId;
+
+    @Schema(description = "Завершенных бронирований, пересекающихся с периодом", example = "1840")
+    private long completedReservations;
+
+    @Schema(description = "Отмененных бронирований, пересекающихся с периодом", example = "230")
+    private long cancelledReservations;
+
+    @Schema(description = "Забронированных минут завершенных бронирований в пределах периода", example = "220800")
+    private long bookedMinutes;
+
+    @Schema(description = "Доля отмененных среди всех", example = "0.111")
+    private double cancellationRate;
+
+    @Schema(description = "Прочитанных записей истории (без пропущенных по индексу времени)", example = "65536")
+    private long scannedRecords;
+
+    @Schema(description = "Время завершения последнего выгруженного бронирования")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime coveredUntil;
+
+    // Конструкторы
+    public HistoryReportDto() {}
+
+    public HistoryReportDto(LocalDateTime startTime, LocalDateTime endTime, Integer workspaceId, Integer userId,
+                            long completedReservations, long cancelledReservations, long bookedMinutes,
+                            double cancellationRate, long scannedRecords, LocalDateTime coveredUntil) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.workspaceId = workspaceId;
+        this.userId = userId;
+        this.completedReservations = completedReservations;
+        this.cancelledReservations = cancelledReservations;
+        this.bookedMinutes = bookedMinutes;
+        this.cancellationRate = cancellationRate;
+        this.scannedRecords = scannedRecords;
+        this.coveredUntil = coveredUntil;
+    }
+
+    // Геттеры и сеттеры
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Integer getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(Integer workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public long getCompletedReservations() {
+        return completedReservations;
+    }
+
+    public void setCompletedReservations(long completedReservations) {
+        this.completedReservations = completedReservations;
+    }
+
+    public long getCancelledReservations() {
+        return cancelledReservations;
+    }
+
+    public void setCancelledReservations(long cancelledReservations) {
+        this.cancelledReservations = cancelledReservations;
+    }
+
+    public long getBookedMinutes() {
+        return bookedMinutes;
+    }
+
+    public void setBookedMinutes(long bookedMinutes) {
+        this.bookedMinutes = bookedMinutes;
+    }
+
+    public double getCancellationRate() {
+        return cancellationRate;
+    }
+
+    public void setCancellationRate(double cancellationRate) {
+        this.cancellationRate = cancellationRate;
+    }
+
+    public long getScannedRecords() {
+        return scannedRecords;
+    }
+
+    public void setScannedRecords(long scannedRecords) {
+        this.scannedRecords = scannedRecords;
+    }
+
+    public LocalDateTime getCoveredUntil() {
+        return coveredUntil;
+    }
+
+    public void setCoveredUntil(LocalDateTime coveredUntil) {
+        this.coveredUntil = coveredUntil;
+    }
+}
@@ -0,0 +1,96 @@
+package com.coworking.bookingservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO временного удержания слота
+ * 
+ * Используется для ответов API удержаний
+ */
+@Schema(description = "Временное удержание слота")
+public class HoldDto {
+
+    @Schema(description = "Идентификатор удержания", example = "1b4e28ba-2fa1-11d2-883f-0016d3cca427")
+    private String id;
+
+    @Schema(description = "ID рабочего места", example = "1")
+    private Integer workspaceId;
+
+    @Schema(description = "Время начала бронирования")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime startTime;
+
+    @Schema(description = "Время окончания бронирования")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime endTime;
+
+    @Schema(description = "Момент истечения удержания (мс от эпохи)", example = "1705312800000")
+    private long expiresAt;
+
+    // Конструкторы
+    public HoldDto() {}
+
+    public HoldDto(String id, Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime, long expiresAt) {
+        this.id = id;
+        this.workspaceId = workspaceId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.expiresAt = expiresAt;
+    }
+
+    // Геттеры и сеттеры
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Integer getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(Integer workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "HoldDto{" +
+                "id='" + id + '\'' +
+                ", workspaceId=" + workspaceId +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
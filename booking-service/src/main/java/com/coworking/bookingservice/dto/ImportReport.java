@@ -0,0 +1,93 @@
+package com.coworking.bookingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO отчета о ходе массового импорта
+ * 
+ * Отправляется после каждой пачки строк (type = progress)
+ * и один раз по окончании импорта (type = summary)
+ */
+@Schema(description = "Отчет о ходе импорта")
+public class ImportReport {
+
+    @Schema(description = "Обработано строк", example = "10000")
+    private long processedRows;
+
+    @Schema(description = "Импортировано строк", example = "9950")
+    private long importedRows;
+
+    @Schema(description = "Строк с ошибками", example = "50")
+    private long failedRows;
+
+    @Schema(description = "Время с начала импорта в миллисекундах", example = "1500")
+    private long elapsedMillis;
+
+    @Schema(description = "Завершен ли импорт", example = "false")
+    private boolean finished;
+
+    // Конструкторы
+    public ImportReport() {}
+
+    // Геттеры и сеттеры
+    @Schema(description = "Тип записи в потоке ответа", example = "progress")
+    public String getType() {
+        return finished ? "summary" : "progress";
+    }
+
+    public long getProcessedRows() {
+        return processedRows;
+    }
+
+    public void setProcessedRows(long processedRows) {
+        this.processedRows = processedRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public void setFailedRows(long failedRows) {
+        this.failedRows = failedRows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void setFinished(boolean finished) {
+        this.finished = finished;
+    }
+
+    @Schema(description = "Скорость обработки, строк в секунду", example = "6666.7")
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? processedRows * 1000.0 / elapsedMillis : processedRows;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "processedRows=" + processedRows +
+                ", importedRows=" + importedRows +
+                ", failedRows=" + failedRows +
+                ", elapsedMillis=" + elapsedMillis +
+                ", finished=" + finished +
+                '}';
+    }
+}
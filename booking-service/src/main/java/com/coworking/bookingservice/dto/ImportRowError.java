@@ -0,0 +1,58 @@
+package com.coworking.bookingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO ошибки в строке файла импорта
+ * 
+ * Отправляется клиенту сразу после обработки строки, не дожидаясь конца импорта
+ */
+@Schema(description = "Ошибка в строке импорта")
+public class ImportRowError {
+
+    @Schema(description = "Тип записи в потоке ответа", example = "error")
+    private final String type = "error";
+
+    @Schema(description = "Номер строки в файле", example = "42")
+    private long line;
+
+    @Schema(description = "Причина ошибки", example = "Место уже забронировано на указанное время")
+    private String message;
+
+    // Конструкторы
+    public ImportRowError() {}
+
+    public ImportRowError(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    // Геттеры и сеттеры
+    public String getType() {
+        return type;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportRowError{" +
+                "line=" + line +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package com.coworking.bookingservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO для запроса на закрытие рабочего места на обслуживание
+ */
+@Schema(description = "Запрос на закрытие рабочего места на обслуживание")
+public class MaintenanceWindowRequest {
+
+    @Schema(description = "Начало окна обслуживания", example = "2024-01-15 10:00:00")
+    @NotNull(message = "Время начала обязательно")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime startTime;
+
+    @Schema(description = "Окончание окна обслуживания", example = "2024-01-15 18:00:00")
+    @NotNull(message = "Время окончания обязательно")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime endTime;
+
+    @Schema(description = "Причина закрытия", example = "Замена мебели")
+    private String reason;
+
+    // Конструкторы
+    public MaintenanceWindowRequest() {}
+
+    public MaintenanceWindowRequest(LocalDateTime startTime, LocalDateTime endTime, String reason) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.reason = reason;
+    }
+
+    // Геттеры и сеттеры
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
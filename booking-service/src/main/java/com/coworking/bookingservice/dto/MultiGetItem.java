@@ -0,0 +1,58 @@
+package com.coworking.bookingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Элемент ответа множественного запроса по ID
+ * 
+ * Элементы возвращаются в порядке запрошенных ID; для отсутствующего
+ * объекта found = false, а item не заполняется.
+ *
+ * @param <T> тип объекта
+ */
+@Schema(description = "Результат поиска одного объекта по ID")
+public class MultiGetItem<T> {
+
+    @Schema(description = "Запрошенный ID", example = "1")
+    private Integer id;
+
+    @Schema(description = "Найден ли объект", example = "true")
+    private boolean found;
+
+    @Schema(description = "Объект (если найден)")
+    private T item;
+
+    // Конструкторы
+    public MultiGetItem() {}
+
+    public MultiGetItem(Integer id, T item) {
+        this.id = id;
+        this.found = item != null;
+        this.item = item;
+    }
+
+    // Геттеры и сеттеры
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    public void setItem(T item) {
+        this.item = item;
+    }
+}
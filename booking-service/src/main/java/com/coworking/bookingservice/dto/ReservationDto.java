@@ -2,6 +2,8 @@ package com.coworking.bookingservice.dto;
 
 import java.time.LocalDateTime;
 
+import com.coworking.bookingservice.support.FieldSelection;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
  * Используется для API запросов и ответов при работе с бронированиями
  */
 @Schema(description = "Данные бронирования")
+@JsonFilter(FieldSelection.FILTER_ID)
 public class ReservationDto {
 
     @Schema(description = "Уникальный идентификатор", example = "1")
@@ -20,6 +23,9 @@ public class ReservationDto {
     @Schema(description = "ID пользователя", example = "123")
     private Integer userId;
 
+    @Schema(description = "Имя пользователя (из auth-service)", example = "ivan")
+    private String username;
+
     @Schema(description = "ID рабочего места", example = "1")
     private Integer workspaceId;
 
@@ -79,6 +85,14 @@ public class ReservationDto {
         this.userId = userId;
     }
 
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
     public Integer getWorkspaceId() {
         return workspaceId;
     }
@@ -0,0 +1,130 @@
+package com.coworking.bookingservice.dto;
+
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO завершенного спана трассировки
+ * 
+ * Используется кольцевым буфером трассировки и экспортом в OTLP
+ */
+@Schema(description = "Спан трассировки")
+public class SpanDto {
+
+    @Schema(description = "ID трассы (32 hex-символа)", example = "4bf92f3577b34da6a3ce929d0e0e4736")
+    private String traceId;
+
+    @Schema(description = "ID спана (16 hex-символов)", example = "00f067aa0ba902b7")
+    private String spanId;
+
+    @Schema(description = "ID родительского спана", example = "a3ce929d0e0e4736")
+    private String parentSpanId;
+
+    @Schema(description = "Название операции", example = "ReservationService.createReservation")
+    private String name;
+
+    @Schema(description = "Вид спана", example = "SERVER")
+    private String kind;
+
+    @Schema(description = "Начало (нс от эпохи)", example = "1705312800000000000")
+    private long startEpochNanos;
+
+    @Schema(description = "Длительность в микросекундах", example = "1530")
+    private long durationMicros;
+
+    @Schema(description = "Статус (OK или ERROR)", example = "OK")
+    private String status;
+
+    @Schema(description = "Атрибуты спана")
+    private Map<String, Object> attributes;
+
+    // Конструкторы
+    public SpanDto() {}
+
+    public SpanDto(String traceId, String spanId, String parentSpanId, String name, String kind,
+                   long startEpochNanos, long durationMicros, String status, Map<String, Object> attributes) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = startEpochNanos;
+        this.durationMicros = durationMicros;
+        this.status = status;
+        this.attributes = attributes;
+    }
+
+    // Геттеры и сеттеры
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public void setSpanId(String spanId) {
+        this.spanId = spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public void setParentSpanId(String parentSpanId) {
+        this.parentSpanId = parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public void setStartEpochNanos(long startEpochNanos) {
+        this.startEpochNanos = startEpochNanos;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public void setDurationMicros(long durationMicros) {
+        this.durationMicros = durationMicros;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(Map<String, Object> attributes) {
+        this.attributes = attributes;
+    }
+}
@@ -0,0 +1,55 @@
+package com.coworking.bookingservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO с краткой информацией о пользователе
+ * 
+ * Используется для чтения ответов auth-service при обогащении бронирований
+ * именами пользователей.
+ */
+@Schema(description = "Краткие данные пользователя")
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserInfoDto {
+
+    @Schema(description = "ID пользователя", example = "123")
+    private String id;
+
+    @Schema(description = "Имя пользователя", example = "ivan")
+    private String username;
+
+    // Конструкторы
+    public UserInfoDto() {}
+
+    public UserInfoDto(String id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    // Геттеры и сеттеры
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    @Override
+    public String toString() {
+        return "UserInfoDto{" +
+                "id='" + id + '\'' +
+                ", username='" + username + '\'' +
+                '}';
+    }
+}
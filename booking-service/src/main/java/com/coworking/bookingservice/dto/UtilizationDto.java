@@ -0,0 +1,90 @@
+package com.coworking.bookingservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO загрузки рабочего места за интервал
+ * 
+ * Используется для ответов аналитики, построенных по почасовым агрегатам занятости
+ */
+@Schema(description = "Загрузка рабочего места за интервал")
+public class UtilizationDto {
+
+    /**
+     * Шаг группировки аналитики
+     */
+    public enum Granularity {
+        HOUR,
+        DAY
+    }
+
+    @Schema(description = "ID рабочего места", example = "1")
+    private Integer workspaceId;
+
+    @Schema(description = "Начало интервала")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime bucketStart;
+
+    @Schema(description = "Забронировано минут за интервал", example = "45")
+    private long bookedMinutes;
+
+    @Schema(description = "Доля забронированного времени (0..1)", example = "0.75")
+    private double utilization;
+
+    // Конструкторы
+    public UtilizationDto() {}
+
+    public UtilizationDto(Integer workspaceId, LocalDateTime bucketStart, long bookedMinutes, double utilization) {
+        this.workspaceId = workspaceId;
+        this.bucketStart = bucketStart;
+        this.bookedMinutes = bookedMinutes;
+        this.utilization = utilization;
+    }
+
+    // Геттеры и сеттеры
+    public Integer getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(Integer workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getBookedMinutes() {
+        return bookedMinutes;
+    }
+
+    public void setBookedMinutes(long bookedMinutes) {
+        this.bookedMinutes = bookedMinutes;
+    }
+
+    public double getUtilization() {
+        return utilization;
+    }
+
+    public void setUtilization(double utilization) {
+        this.utilization = utilization;
+    }
+
+    @Override
+    public String toString() {
+        return "UtilizationDto{" +
+                "workspaceId=" + workspaceId +
+                ", bucketStart=" + bucketStart +
+                ", bookedMinutes=" + bookedMinutes +
+                ", utilization=" + utilization +
+                '}';
+    }
+}
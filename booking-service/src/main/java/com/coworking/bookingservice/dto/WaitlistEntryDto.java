@@ -0,0 +1,111 @@
+package com.coworking.bookingservice.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO записи в листе ожидания
+ * 
+ * Используется для ответов API листа ожидания
+ */
+@Schema(description = "Запись в листе ожидания")
+public class WaitlistEntryDto {
+
+    @Schema(description = "Уникальный идентификатор", example = "1")
+    private Integer id;
+
+    @Schema(description = "ID рабочего места", example = "1")
+    private Integer workspaceId;
+
+    @Schema(description = "Время начала бронирования")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime startTime;
+
+    @Schema(description = "Время окончания бронирования")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+    private LocalDateTime endTime;
+
+    @Schema(description = "Статус записи", example = "WAITING")
+    private String status;
+
+    @Schema(description = "ID созданного бронирования (после продвижения)", example = "42")
+    private Integer reservationId;
+
+    @Schema(description = "Дата постановки в лист ожидания")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    // Конструкторы
+    public WaitlistEntryDto() {}
+
+    public WaitlistEntryDto(Integer id, Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime,
+                            String status, Integer reservationId, LocalDateTime createdAt) {
+        this.id = id;
+        this.workspaceId = workspaceId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+        this.reservationId = reservationId;
+        this.createdAt = createdAt;
+    }
+
+    // Геттеры и сеттеры
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(Integer workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Integer reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
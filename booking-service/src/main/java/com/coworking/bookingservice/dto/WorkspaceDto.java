@@ -1,7 +1,10 @@
 package com.coworking.bookingservice.dto;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
+import com.coworking.bookingservice.support.FieldSelection;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,6 +15,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
  * Используется для API ответов при получении информации о рабочих местах
  */
 @Schema(description = "Данные рабочего места")
+@JsonFilter(FieldSelection.FILTER_ID)
 public class WorkspaceDto {
 
     @Schema(description = "Уникальный идентификатор", example = "1")
@@ -26,9 +30,27 @@ public class WorkspaceDto {
     @Schema(description = "Вместимость (количество человек)", example = "1")
     private Integer capacity;
 
+    @Schema(description = "Этаж", example = "2")
+    private Integer floor;
+
+    @Schema(description = "Зона", example = "quiet")
+    private String zone;
+
+    @Schema(description = "Координата X на плане этажа", example = "3")
+    private Integer posX;
+
+    @Schema(description = "Координата Y на плане этажа", example = "1")
+    private Integer posY;
+
+    @Schema(description = "Удобства", example = "[\"monitor\", \"whiteboard\"]")
+    private Set<String> amenities;
+
     @Schema(description = "Активно ли рабочее место", example = "true")
     private Boolean isActive;
 
+    @Schema(description = "Общая зона: пересекающиеся бронирования допускаются в пределах вместимости", example = "false")
+    private Boolean isShared;
+
     @Schema(description = "Дата создания")
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
@@ -78,6 +100,46 @@ public class WorkspaceDto {
         this.capacity = capacity;
     }
 
+    public Integer getFloor() {
+        return floor;
+    }
+
+    public void setFloor(Integer floor) {
+        this.floor = floor;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public Integer getPosX() {
+        return posX;
+    }
+
+    public void setPosX(Integer posX) {
+        this.posX = posX;
+    }
+
+    public Integer getPosY() {
+        return posY;
+    }
+
+    public void setPosY(Integer posY) {
+        this.posY = posY;
+    }
+
+    public Set<String> getAmenities() {
+        return amenities;
+    }
+
+    public void setAmenities(Set<String> amenities) {
+        this.amenities = amenities;
+    }
+
     public Boolean getIsActive() {
         return isActive;
     }
@@ -86,6 +148,14 @@ public class WorkspaceDto {
         this.isActive = isActive;
     }
 
+    public Boolean getIsShared() {
+        return isShared;
+    }
+
+    public void setIsShared(Boolean isShared) {
+        this.isShared = isShared;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -101,6 +171,7 @@ public class WorkspaceDto {
                 ", name='" + name + '\'' +
                 ", capacity=" + capacity +
                 ", isActive=" + isActive +
+                ", isShared=" + isShared +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.coworking.bookingservice.entity;
+
+/**
+ * Статусы записи в листе ожидания
+ * 
+ * WAITING - пользователь ожидает освобождения слота
+ * PROMOTED - запись превращена в бронирование
+ * CANCELLED - пользователь покинул лист ожидания
+ */
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED,
+    CANCELLED
+}
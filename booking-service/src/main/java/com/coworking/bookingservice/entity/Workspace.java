@@ -2,19 +2,26 @@ package com.coworking.bookingservice.entity;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -25,6 +32,7 @@ import jakarta.validation.constraints.NotNull;
  * Представляет физическое место, которое можно забронировать.
  * Каждое место имеет уникальный идентификатор, название, описание
  * и вместимость (количество человек, которые могут работать одновременно).
+ * Этаж, зона и удобства используются для поиска по атрибутам.
  */
 @Entity
 @Table(name = "workspaces", schema = "booking")
@@ -46,9 +54,39 @@ public class Workspace {
     @Column(name = "capacity", nullable = false)
     private Integer capacity;
 
+    @Column(name = "floor")
+    private Integer floor;
+
+    @Column(name = "zone", length = 50)
+    private String zone;
+
+    // Координаты на плане этажа
+    @Column(name = "pos_x")
+    private Integer posX;
+
+    @Column(name = "pos_y")
+    private Integer posY;
+
+    // Удобства (monitor, whiteboard, phone_booth и т.п.), в нижнем регистре
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "workspace_amenities", schema = "booking",
+            joinColumns = @JoinColumn(name = "workspace_id"))
+    @Column(name = "amenity", nullable = false, length = 50)
+    @BatchSize(size = 100)
+    private Set<String> amenities = new HashSet<>();
+
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
+    // Общая зона: одновременно бронируется до capacity гостей
+    @Column(name = "is_shared", nullable = false)
+    private Boolean isShared = false;
+
+    // Версия строки: параллельные изменения обнаруживаются при фиксации
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -75,6 +113,14 @@ public class Workspace {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -99,6 +145,46 @@ public class Workspace {
         this.capacity = capacity;
     }
 
+    public Integer getFloor() {
+        return floor;
+    }
+
+    public void setFloor(Integer floor) {
+        this.floor = floor;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public Integer getPosX() {
+        return posX;
+    }
+
+    public void setPosX(Integer posX) {
+        this.posX = posX;
+    }
+
+    public Integer getPosY() {
+        return posY;
+    }
+
+    public void setPosY(Integer posY) {
+        this.posY = posY;
+    }
+
+    public Set<String> getAmenities() {
+        return amenities;
+    }
+
+    public void setAmenities(Set<String> amenities) {
+        this.amenities = amenities;
+    }
+
     public Boolean getIsActive() {
         return isActive;
     }
@@ -107,6 +193,14 @@ public class Workspace {
         this.isActive = isActive;
     }
 
+    public Boolean getIsShared() {
+        return isShared;
+    }
+
+    public void setIsShared(Boolean isShared) {
+        this.isShared = isShared;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -130,6 +224,7 @@ public class Workspace {
                 ", name='" + name + '\'' +
                 ", capacity=" + capacity +
                 ", isActive=" + isActive +
+                ", isShared=" + isShared +
                 '}';
     }
 } 
\ No newline at end of file
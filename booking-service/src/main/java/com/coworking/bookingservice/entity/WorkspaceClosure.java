@@ -0,0 +1,117 @@
+package com.coworking.bookingservice.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Сущность закрытия рабочего места на обслуживание
+ * 
+ * В течение окна обслуживания рабочее место нельзя забронировать или
+ * удержать, а пересекающиеся бронирования отменяются при создании окна.
+ */
+@Entity
+@Table(name = "workspace_closures", schema = "booking")
+public class WorkspaceClosure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @NotNull(message = "ID рабочего места обязателен")
+    @Column(name = "workspace_id", nullable = false)
+    private Integer workspaceId;
+
+    @NotNull(message = "Время начала обязательно")
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @NotNull(message = "Время окончания обязательно")
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(name = "reason")
+    private String reason;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Конструкторы
+    public WorkspaceClosure() {}
+
+    public WorkspaceClosure(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime, String reason) {
+        this.workspaceId = workspaceId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.reason = reason;
+    }
+
+    // Геттеры и сеттеры
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(Integer workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Проверяет, пересекается ли окно обслуживания с интервалом
+     * 
+     * @param otherStart время начала интервала
+     * @param otherEnd время окончания интервала
+     * @return true если есть пересечение
+     */
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return startTime.isBefore(otherEnd) && endTime.isAfter(otherStart);
+    }
+}
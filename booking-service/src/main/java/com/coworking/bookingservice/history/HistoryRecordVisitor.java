@@ -0,0 +1,14 @@
+package com.coworking.bookingservice.history;
+
+/**
+ * Получатель записей при скане истории бронирований
+ *
+ * Поля передаются примитивами прямо из отображенного файла, поэтому скан
+ * не создает объектов на запись. Время — секунды эпохи (локальное время
+ * бронирования, смещение UTC).
+ */
+@FunctionalInterface
+public interface HistoryRecordVisitor {
+
+    void visit(int reservationId, int userId, int workspaceId, int status, long start, long end, long finalizedAt);
+}
@@ -0,0 +1,218 @@
+package com.coworking.bookingservice.history;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Файл сегмента истории бронирований, отображенный в память
+ *
+ * Заголовок (64 байта): сигнатура, версия формата, размер записи, емкость и
+ * число записей. Далее записи фиксированной длины {@link #RECORD_SIZE}:
+ * ID бронирования, пользователя и рабочего места, статус, начало, конец и
+ * время завершения (секунды эпохи). Файл создается сразу на полную емкость
+ * и отображается целиком; записи читаются абсолютными get без копирования.
+ *
+ * Индекс по времени: для каждого блока из {@link #BLOCK_RECORDS} записей в
+ * памяти хранятся минимальное начало и максимальный конец, поэтому скан
+ * периода пропускает блоки и сегменты, не пересекающиеся с ним. Индекс
+ * строится при открытии чтением файла.
+ *
+ * Пишет один поток; число записей публикуется после записи данных и
+ * индекса, поэтому читатели видят только полностью записанные записи.
+ */
+final class HistorySegment implements AutoCloseable {
+
+    static final int RECORD_SIZE = 40;
+    static final int BLOCK_RECORDS = 1024;
+
+    private static final int MAGIC = 0x52485331; // "RHS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int COUNT_OFFSET = 16;
+
+    // Смещения полей записи
+    private static final int RESERVATION_ID = 0;
+    private static final int USER_ID = 4;
+    private static final int WORKSPACE_ID = 8;
+    private static final int STATUS = 12;
+    private static final int START = 16;
+    private static final int END = 24;
+    private static final int FINALIZED_AT = 32;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long[] blockMinStart;
+    private final long[] blockMaxEnd;
+    private volatile long minStart = Long.MAX_VALUE;
+    private volatile long maxEnd = Long.MIN_VALUE;
+    private volatile int count;
+
+    private HistorySegment(Path file, FileChannel channel, int capacity) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        int blocks = (capacity + BLOCK_RECORDS - 1) / BLOCK_RECORDS;
+        this.blockMinStart = new long[blocks];
+        this.blockMaxEnd = new long[blocks];
+        Arrays.fill(blockMinStart, Long.MAX_VALUE);
+        Arrays.fill(blockMaxEnd, Long.MIN_VALUE);
+    }
+
+    /**
+     * Создает пустой сегмент
+     *
+     * @param file путь нового файла (не должен существовать)
+     * @param capacity емкость в записях
+     */
+    static HistorySegment create(Path file, int capacity) throws IOException {
+        if (capacity < 1 || HEADER_SIZE + (long) capacity * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Недопустимая емкость сегмента истории: " + capacity);
+        }
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        HistorySegment segment = new HistorySegment(file, channel, capacity);
+        segment.buffer.putInt(0, MAGIC);
+        segment.buffer.putInt(4, VERSION);
+        segment.buffer.putInt(8, RECORD_SIZE);
+        segment.buffer.putInt(CAPACITY_OFFSET, capacity);
+        segment.buffer.putInt(COUNT_OFFSET, 0);
+        return segment;
+    }
+
+    /**
+     * Открывает существующий сегмент и строит индекс по времени
+     *
+     * @throws IOException если файл не является сегментом истории этого формата
+     */
+    static HistorySegment open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE) {
+                throw new IOException("Неизвестный формат сегмента истории: " + file);
+            }
+            int capacity = header.getInt(CAPACITY_OFFSET);
+            int stored = header.getInt(COUNT_OFFSET);
+            if (capacity < 1 || stored < 0 || stored > capacity
+                    || channel.size() < HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+                throw new IOException("Поврежден заголовок сегмента истории: " + file);
+            }
+            HistorySegment segment = new HistorySegment(file, channel, capacity);
+            for (int i = 0; i < stored; i++) {
+                int position = position(i);
+                segment.index(i, segment.buffer.getLong(position + START), segment.buffer.getLong(position + END));
+            }
+            segment.count = stored;
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    /**
+     * Дописывает запись (только поток записи)
+     */
+    void append(int reservationId, int userId, int workspaceId, int status,
+                long start, long end, long finalizedAt) {
+        int index = count;
+        if (index == capacity) {
+            throw new IllegalStateException("Сегмент истории заполнен: " + file);
+        }
+        int position = position(index);
+        buffer.putInt(position + RESERVATION_ID, reservationId);
+        buffer.putInt(position + USER_ID, userId);
+        buffer.putInt(position + WORKSPACE_ID, workspaceId);
+        buffer.putInt(position + STATUS, status);
+        buffer.putLong(position + START, start);
+        buffer.putLong(position + END, end);
+        buffer.putLong(position + FINALIZED_AT, finalizedAt);
+        index(index, start, end);
+        buffer.putInt(COUNT_OFFSET, index + 1);
+        count = index + 1;
+    }
+
+    /**
+     * Сбрасывает измененные страницы на диск
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Передает посетителю записи, пересекающиеся с периодом [from, to)
+     *
+     * @param workspaceId ID рабочего места или {@link ReservationHistoryStore#ANY}
+     * @param userId ID пользователя или {@link ReservationHistoryStore#ANY}
+     * @return количество прочитанных записей (без пропущенных по индексу)
+     */
+    long scan(long from, long to, int workspaceId, int userId, HistoryRecordVisitor visitor) {
+        int stored = count;
+        if (stored == 0 || minStart >= to || maxEnd <= from) {
+            return 0;
+        }
+        long scanned = 0;
+        for (int block = 0, first = 0; first < stored; block++, first += BLOCK_RECORDS) {
+            if (blockMinStart[block] >= to || blockMaxEnd[block] <= from) {
+                continue;
+            }
+            int last = Math.min(stored, first + BLOCK_RECORDS);
+            scanned += last - first;
+            for (int i = first; i < last; i++) {
+                int position = position(i);
+                long start = buffer.getLong(position + START);
+                long end = buffer.getLong(position + END);
+                if (start >= to || end <= from) {
+                    continue;
+                }
+                int recordWorkspaceId = buffer.getInt(position + WORKSPACE_ID);
+                int recordUserId = buffer.getInt(position + USER_ID);
+                if ((workspaceId != ReservationHistoryStore.ANY && recordWorkspaceId != workspaceId)
+                        || (userId != ReservationHistoryStore.ANY && recordUserId != userId)) {
+                    continue;
+                }
+                visitor.visit(buffer.getInt(position + RESERVATION_ID), recordUserId, recordWorkspaceId,
+                        buffer.getInt(position + STATUS), start, end, buffer.getLong(position + FINALIZED_AT));
+            }
+        }
+        return scanned;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Отображение освобождается сборщиком мусора; файл можно удалить сразу
+        channel.close();
+    }
+
+    private void index(int index, long start, long end) {
+        int block = index / BLOCK_RECORDS;
+        blockMinStart[block] = Math.min(blockMinStart[block], start);
+        blockMaxEnd[block] = Math.max(blockMaxEnd[block], end);
+        minStart = Math.min(minStart, start);
+        maxEnd = Math.max(maxEnd, end);
+    }
+
+    private static int position(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
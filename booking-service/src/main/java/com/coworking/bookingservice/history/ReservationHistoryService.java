@@ -0,0 +1,383 @@
+package com.coworking.bookingservice.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.coworking.bookingservice.dto.HistoryReportDto;
+import com.coworking.bookingservice.service.ReservationsChangedEvent;
+
+/**
+ * Сервис истории бронирований для отчетов
+ *
+ * Периодически выгружает из booking.reservations завершившиеся (по времени
+ * окончания) и отмененные (по времени изменения) бронирования в
+ * {@link ReservationHistoryStore}, и отчеты за годы истории сканируют файлы
+ * сегментов, не нагружая основную базу. Выгрузка отстает от текущего
+ * времени на app.history.ingest-lag, чтобы не пропустить транзакции,
+ * зафиксированные позже своего updated_at.
+ *
+ * Хранилище полностью перестраивается из базы при первом запуске, после
+ * массового импорта и по запросу администратора. Каждая перестройка пишет
+ * новое поколение (каталог gen-NNNNNN с маркером готовности) и затем
+ * удаляет предыдущее. Бронирование попадает в историю один раз: отмена уже
+ * выгруженного завершившегося бронирования учитывается только перестройкой.
+ */
+@Service
+public class ReservationHistoryService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationHistoryService.class);
+
+    // Завершившиеся и отмененные в интервале выгрузки; параметры: от, до, от, до
+    private static final String FINALIZED_SQL = """
+            SELECT id, user_id, workspace_id, status, start_time, end_time, end_time AS finalized_at
+            FROM booking.reservations
+            WHERE status IN ('ACTIVE', 'COMPLETED') AND end_time >= ? AND end_time <= ?
+            UNION ALL
+            SELECT id, user_id, workspace_id, status, start_time, end_time, updated_at
+            FROM booking.reservations
+            WHERE status = 'CANCELLED' AND updated_at >= ? AND updated_at <= ?
+            ORDER BY finalized_at
+            """;
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String GENERATION_PREFIX = "gen-";
+    private static final String READY_MARKER = "READY";
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final long ingestIntervalMillis;
+    private final long ingestLagMillis;
+    private final ScheduledExecutorService executor;
+    private volatile ReservationHistoryStore store;
+
+    public ReservationHistoryService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.history.enabled:true}") boolean enabled,
+                                     @Value("${app.history.directory:data/reservation-history}") String directory,
+                                     @Value("${app.history.segment-records:1048576}") int segmentRecords,
+                                     @Value("${app.history.ingest-interval:60000}") long ingestIntervalMillis,
+                                     @Value("${app.history.ingest-lag:60000}") long ingestLagMillis) {
+        // Отдельный шаблон с размером выборки: PostgreSQL читает результат курсором
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentRecords = segmentRecords;
+        this.ingestIntervalMillis = ingestIntervalMillis;
+        this.ingestLagMillis = ingestLagMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "history-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Открывает хранилище и запускает периодическую выгрузку
+     *
+     * Все изменения хранилища выполняются в потоке выгрузки.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        executor.scheduleWithFixedDelay(this::ingestSafely, 0, ingestIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Перестраивает хранилище после массовых изменений без списка пользователей (импорт)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsChanged(ReservationsChangedEvent event) {
+        if (enabled && event.userIds() == null) {
+            executor.execute(this::rebuildSafely);
+        }
+    }
+
+    /**
+     * Проверяет, открыто ли хранилище
+     */
+    public boolean isReady() {
+        return store != null;
+    }
+
+    /**
+     * Полностью перестраивает хранилище из таблицы бронирований
+     *
+     * @return количество записей в новом хранилище
+     * @throws IllegalStateException если история отключена
+     */
+    public long rebuild() {
+        if (!enabled) {
+            throw new IllegalStateException("История бронирований отключена");
+        }
+        try {
+            return executor.submit(this::rebuildStore).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Перестройка истории прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не удалось перестроить историю бронирований", e.getCause());
+        }
+    }
+
+    /**
+     * Строит отчет по завершенным и отмененным бронированиям, пересекающимся с периодом
+     *
+     * @param startTime начало периода
+     * @param endTime конец периода
+     * @param workspaceId ID рабочего места (необязательно)
+     * @param userId ID пользователя (необязательно)
+     * @return количество бронирований и забронированные минуты в пределах периода
+     * @throws IllegalArgumentException если период задан неверно
+     * @throws IllegalStateException если хранилище еще не открыто
+     */
+    public HistoryReportDto report(LocalDateTime startTime, LocalDateTime endTime,
+                                   Integer workspaceId, Integer userId) {
+        if (!startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Время начала должно быть раньше времени окончания");
+        }
+        ReservationHistoryStore current = store;
+        if (current == null) {
+            throw new IllegalStateException("История бронирований еще не загружена");
+        }
+        ReportAccumulator accumulator = new ReportAccumulator(toEpochSecond(startTime), toEpochSecond(endTime));
+        long scanned = current.scan(accumulator.from, accumulator.to,
+                workspaceId != null ? workspaceId : ReservationHistoryStore.ANY,
+                userId != null ? userId : ReservationHistoryStore.ANY,
+                accumulator);
+        long maxFinalizedAt = current.getMaxFinalizedAt();
+        return new HistoryReportDto(startTime, endTime, workspaceId, userId,
+                accumulator.completed, accumulator.cancelled, accumulator.bookedSeconds / 60,
+                accumulator.completed + accumulator.cancelled == 0 ? 0.0
+                        : (double) accumulator.cancelled / (accumulator.completed + accumulator.cancelled),
+                scanned,
+                maxFinalizedAt == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(maxFinalizedAt, 0, ZoneOffset.UTC));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        executor.shutdownNow();
+        ReservationHistoryStore current = store;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void ingestSafely() {
+        try {
+            ingest();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Не удалось выгрузить историю бронирований: {}", e.getMessage());
+        }
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuildStore();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Не удалось перестроить историю бронирований: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Дописывает бронирования, завершившиеся после последней выгрузки
+     *
+     * При первом вызове открывает последнее готовое поколение или строит новое.
+     */
+    private void ingest() throws IOException {
+        if (store == null && !openLatestGeneration()) {
+            rebuildStore();
+            return;
+        }
+        ReservationHistoryStore current = store;
+        long maxFinalizedAt = current.getMaxFinalizedAt();
+        // Записи с тем же временем повторно пропускаются хранилищем
+        LocalDateTime from = maxFinalizedAt == Long.MIN_VALUE
+                ? BEGINNING
+                : LocalDateTime.ofEpochSecond(maxFinalizedAt, 0, ZoneOffset.UTC);
+        LocalDateTime upTo = ingestHorizon();
+        if (upTo.isAfter(from)) {
+            long appended = load(current, from, upTo);
+            if (appended > 0) {
+                log.debug("История бронирований: дописано {} записей", appended);
+            }
+        }
+    }
+
+    private long rebuildStore() throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Path generation = directory.resolve(String.format("%s%06d", GENERATION_PREFIX, lastGeneration() + 1));
+        ReservationHistoryStore fresh = ReservationHistoryStore.open(generation, segmentRecords);
+        try {
+            load(fresh, BEGINNING, ingestHorizon());
+            Files.createFile(generation.resolve(READY_MARKER));
+        } catch (IOException | RuntimeException e) {
+            fresh.close();
+            deleteGeneration(generation);
+            throw e;
+        }
+        ReservationHistoryStore previous = store;
+        store = fresh;
+        if (previous != null) {
+            previous.close();
+        }
+        deleteGenerationsExcept(generation);
+        log.info("История бронирований перестроена: {} записей, сегментов {}, {} мс",
+                fresh.size(), fresh.getSegmentCount(), System.currentTimeMillis() - startedAt);
+        return fresh.size();
+    }
+
+    /**
+     * Открывает последнее готовое поколение и удаляет остальные
+     *
+     * @return false если готового поколения нет
+     */
+    private boolean openLatestGeneration() throws IOException {
+        Path latest = generations().stream()
+                .filter(generation -> Files.exists(generation.resolve(READY_MARKER)))
+                .reduce((first, second) -> second)
+                .orElse(null);
+        if (latest == null) {
+            return false;
+        }
+        store = ReservationHistoryStore.open(latest, segmentRecords);
+        deleteGenerationsExcept(latest);
+        log.info("История бронирований открыта: {} записей, сегментов {}",
+                store.size(), store.getSegmentCount());
+        return true;
+    }
+
+    /**
+     * Читает бронирования, завершившиеся в интервале, и дописывает их в хранилище
+     *
+     * @return количество новых записей
+     */
+    private long load(ReservationHistoryStore target, LocalDateTime from, LocalDateTime upTo) {
+        long[] appended = new long[1];
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(FINALIZED_SQL, rs -> {
+            try {
+                boolean added = target.append(rs.getInt(1), rs.getInt(2), rs.getInt(3),
+                        "CANCELLED".equals(rs.getString(4))
+                                ? ReservationHistoryStore.STATUS_CANCELLED
+                                : ReservationHistoryStore.STATUS_COMPLETED,
+                        toEpochSecond(rs.getObject(5, LocalDateTime.class)),
+                        toEpochSecond(rs.getObject(6, LocalDateTime.class)),
+                        toEpochSecond(rs.getObject(7, LocalDateTime.class)));
+                if (added) {
+                    appended[0]++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, from, upTo, from, upTo));
+        target.flush();
+        return appended[0];
+    }
+
+    private LocalDateTime ingestHorizon() {
+        return LocalDateTime.now().minusNanos(ingestLagMillis * 1_000_000);
+    }
+
+    private List<Path> generations() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing
+                    .filter(path -> Files.isDirectory(path)
+                            && path.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private int lastGeneration() throws IOException {
+        List<Path> existing = generations();
+        if (existing.isEmpty()) {
+            return 0;
+        }
+        String name = existing.get(existing.size() - 1).getFileName().toString();
+        return Integer.parseInt(name.substring(GENERATION_PREFIX.length()));
+    }
+
+    private void deleteGenerationsExcept(Path kept) throws IOException {
+        for (Path generation : generations()) {
+            if (!generation.equals(kept)) {
+                deleteGeneration(generation);
+            }
+        }
+    }
+
+    private static void deleteGeneration(Path generation) {
+        try (Stream<Path> files = Files.walk(generation)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось удалить поколение истории {}: {}", generation, e.getMessage());
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Накопитель отчета: один объект на скан, записи не создают объектов
+     */
+    private static final class ReportAccumulator implements HistoryRecordVisitor {
+
+        private final long from;
+        private final long to;
+        private long completed;
+        private long cancelled;
+        private long bookedSeconds;
+
+        ReportAccumulator(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void visit(int reservationId, int userId, int workspaceId, int status,
+                          long start, long end, long finalizedAt) {
+            if (status == ReservationHistoryStore.STATUS_CANCELLED) {
+                cancelled++;
+                return;
+            }
+            completed++;
+            bookedSeconds += Math.min(end, to) - Math.max(start, from);
+        }
+    }
+}
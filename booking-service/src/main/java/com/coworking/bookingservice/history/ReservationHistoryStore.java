@@ -0,0 +1,170 @@
+package com.coworking.bookingservice.history;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Хранилище истории завершенных и отмененных бронирований
+ *
+ * Записи только дописываются в сегменты segment-NNNNNN.dat каталога; когда
+ * сегмент заполнен, создается следующий. Каждое бронирование попадает в
+ * хранилище один раз: повторное добавление того же ID пропускается, поэтому
+ * выгрузку можно повторять с перекрытием. Запись выполняет один поток, сканы
+ * могут идти параллельно с ней.
+ */
+public class ReservationHistoryStore implements AutoCloseable {
+
+    /**
+     * Значение фильтра по ID рабочего места или пользователя: без фильтра
+     */
+    public static final int ANY = 0;
+
+    public static final int STATUS_COMPLETED = 0;
+    public static final int STATUS_CANCELLED = 1;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final RoaringBitmap reservationIds = new RoaringBitmap();
+    private volatile List<HistorySegment> segments;
+    private volatile long maxFinalizedAt = Long.MIN_VALUE;
+
+    private ReservationHistoryStore(Path directory, int segmentRecords, List<HistorySegment> segments) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.segments = List.copyOf(segments);
+    }
+
+    /**
+     * Открывает хранилище в каталоге, создавая каталог при необходимости
+     *
+     * @param directory каталог сегментов
+     * @param segmentRecords емкость новых сегментов в записях
+     */
+    public static ReservationHistoryStore open(Path directory, int segmentRecords) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+        List<HistorySegment> opened = new ArrayList<>(files.size());
+        try {
+            for (Path file : files) {
+                opened.add(HistorySegment.open(file));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (HistorySegment segment : opened) {
+                segment.close();
+            }
+            throw e;
+        }
+        ReservationHistoryStore store = new ReservationHistoryStore(directory, segmentRecords, opened);
+        store.scan(Long.MIN_VALUE, Long.MAX_VALUE, ANY, ANY,
+                (reservationId, userId, workspaceId, status, start, end, finalizedAt) -> {
+                    store.reservationIds.add(reservationId);
+                    store.maxFinalizedAt = Math.max(store.maxFinalizedAt, finalizedAt);
+                });
+        return store;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Возвращает наибольшее время завершения среди записей или Long.MIN_VALUE для пустого хранилища
+     */
+    public long getMaxFinalizedAt() {
+        return maxFinalizedAt;
+    }
+
+    public long size() {
+        long size = 0;
+        for (HistorySegment segment : segments) {
+            size += segment.getCount();
+        }
+        return size;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Дописывает бронирование, если его еще нет в хранилище (только поток записи)
+     *
+     * @return true если запись добавлена
+     */
+    public boolean append(int reservationId, int userId, int workspaceId, int status,
+                          long start, long end, long finalizedAt) throws IOException {
+        if (reservationIds.contains(reservationId)) {
+            return false;
+        }
+        List<HistorySegment> current = segments;
+        HistorySegment last = current.isEmpty() ? null : current.get(current.size() - 1);
+        if (last == null || last.isFull()) {
+            if (last != null) {
+                last.force();
+            }
+            last = HistorySegment.create(
+                    directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, current.size() + 1, SEGMENT_SUFFIX)),
+                    segmentRecords);
+            List<HistorySegment> extended = new ArrayList<>(current);
+            extended.add(last);
+            segments = List.copyOf(extended);
+        }
+        last.append(reservationId, userId, workspaceId, status, start, end, finalizedAt);
+        reservationIds.add(reservationId);
+        maxFinalizedAt = Math.max(maxFinalizedAt, finalizedAt);
+        return true;
+    }
+
+    /**
+     * Сбрасывает дописанные записи на диск
+     */
+    public void flush() {
+        List<HistorySegment> current = segments;
+        if (!current.isEmpty()) {
+            current.get(current.size() - 1).force();
+        }
+    }
+
+    /**
+     * Передает посетителю записи, пересекающиеся с периодом [from, to)
+     *
+     * @param from начало периода (секунды эпохи) или Long.MIN_VALUE
+     * @param to конец периода (секунды эпохи) или Long.MAX_VALUE
+     * @param workspaceId ID рабочего места или {@link #ANY}
+     * @param userId ID пользователя или {@link #ANY}
+     * @param visitor получатель записей
+     * @return количество прочитанных записей
+     */
+    public long scan(long from, long to, int workspaceId, int userId, HistoryRecordVisitor visitor) {
+        long scanned = 0;
+        for (HistorySegment segment : segments) {
+            scanned += segment.scan(from, to, workspaceId, userId, visitor);
+        }
+        return scanned;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (HistorySegment segment : segments) {
+            segment.close();
+        }
+    }
+}
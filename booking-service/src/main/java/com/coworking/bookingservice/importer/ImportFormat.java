@@ -0,0 +1,33 @@
+package com.coworking.bookingservice.importer;
+
+/**
+ * Форматы файлов массового импорта
+ * 
+ * CSV - строка заголовка с именами колонок, далее по одной записи в строке
+ * NDJSON - по одному JSON-объекту в строке
+ */
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    /**
+     * Определяет формат по Content-Type запроса
+     * 
+     * @param contentType значение заголовка Content-Type
+     * @return формат импорта
+     * @throws IllegalArgumentException если формат не поддерживается
+     */
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            throw new IllegalArgumentException("Не указан Content-Type");
+        }
+        String type = contentType.toLowerCase();
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Неподдерживаемый формат импорта: " + contentType);
+    }
+}
@@ -0,0 +1,26 @@
+package com.coworking.bookingservice.importer;
+
+import com.coworking.bookingservice.dto.ImportReport;
+import com.coworking.bookingservice.dto.ImportRowError;
+
+/**
+ * Получатель событий массового импорта
+ * 
+ * Позволяет передавать клиенту ошибки строк и прогресс по мере обработки файла.
+ */
+public interface ImportListener {
+
+    /**
+     * Вызывается для каждой отклоненной строки
+     * 
+     * @param error ошибка строки
+     */
+    void onRowError(ImportRowError error);
+
+    /**
+     * Вызывается после каждой пачки строк и по окончании импорта
+     * 
+     * @param report текущий отчет
+     */
+    void onProgress(ImportReport report);
+}
@@ -0,0 +1,156 @@
+package com.coworking.bookingservice.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Потоковое чтение строк файла импорта
+ *
+ * Читает CSV или NDJSON построчно, не загружая файл в память целиком.
+ * Каждая строка возвращается как набор значений по именам колонок.
+ * Поля CSV могут быть заключены в двойные кавычки, но не могут содержать
+ * переводы строк.
+ */
+public class ImportRowReader {
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long lineNumber;
+
+    public ImportRowReader(InputStream inputStream, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Читает следующую непустую строку
+     *
+     * @return значения по именам колонок или null, если файл закончился
+     * @throws IOException при ошибке чтения потока
+     * @throws IllegalArgumentException если строку не удалось разобрать
+     */
+    public Map<String, String> next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        if (format == ImportFormat.NDJSON) {
+            return parseJson(line);
+        }
+        if (header == null) {
+            header = parseCsvLine(line).stream()
+                    .map(name -> name.trim().toLowerCase())
+                    .toList();
+            return next();
+        }
+        return parseCsv(line);
+    }
+
+    /**
+     * Возвращает номер последней прочитанной строки (начиная с 1)
+     *
+     * @return номер строки
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private Map<String, String> parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Строка должна содержать JSON-объект");
+        }
+        Map<String, String> row = new HashMap<>();
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            if (!field.getValue().isNull()) {
+                row.put(toColumnName(field.getKey()), field.getValue().asText());
+            }
+        }
+        return row;
+    }
+
+    private Map<String, String> parseCsv(String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Ожидалось колонок: " + header.size() + ", получено: " + values.size());
+        }
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).trim();
+            if (!value.isEmpty()) {
+                row.put(header.get(i), value);
+            }
+        }
+        return row;
+    }
+
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка в строке CSV");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * Приводит имя поля JSON (workspaceId) к имени колонки CSV (workspace_id)
+     */
+    private String toColumnName(String fieldName) {
+        StringBuilder name = new StringBuilder();
+        for (char c : fieldName.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                name.append('_').append(Character.toLowerCase(c));
+            } else {
+                name.append(c);
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.coworking.bookingservice.jwtUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Подписанные токены подписки на календарь пользователя
+ *
+ * Календарные клиенты не умеют передавать заголовок Authorization, поэтому
+ * ссылка на ленту содержит токен вида «userId.подпись», где подпись —
+ * HMAC-SHA256 от ID пользователя. Токен бессрочный и не требует хранения.
+ */
+@Component
+public class CalendarFeedTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    // Разделяет подписи лент и другие возможные применения того же секрета
+    private static final String PURPOSE = "calendar-feed:";
+
+    private final SecretKeySpec key;
+
+    public CalendarFeedTokens(@Value("${app.calendar.feed-secret:${jwt.secret}}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * Выдает токен ленты пользователя
+     *
+     * @param userId ID пользователя
+     * @return токен для ссылки на ленту
+     */
+    public String issue(Integer userId) {
+        return userId + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(userId));
+    }
+
+    /**
+     * Проверяет токен ленты
+     *
+     * @param token токен из ссылки
+     * @return ID пользователя или пустой Optional, если токен поддельный
+     */
+    public Optional<Integer> verify(String token) {
+        int dot = token != null ? token.indexOf('.') : -1;
+        if (dot <= 0) {
+            return Optional.empty();
+        }
+        try {
+            Integer userId = Integer.valueOf(token.substring(0, dot));
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            return MessageDigest.isEqual(signature, sign(userId)) ? Optional.of(userId) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(Integer userId) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal((PURPOSE + userId).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 недоступен", e);
+        }
+    }
+}
@@ -8,6 +8,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.coworking.bookingservice.tracing.Span;
+import com.coworking.bookingservice.tracing.Tracer;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.security.WeakKeyException;
 import jakarta.servlet.FilterChain;
@@ -23,6 +26,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtils utils;
 
+    @Autowired
+    private Tracer tracer;
+
     @SuppressWarnings("null")
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -37,6 +43,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
+        Span span = tracer.startSpan("JwtAuthFilter.authenticate", Span.Kind.INTERNAL);
         try {
             String token = authHeader.substring(7);
             Claims claims = utils.extractClaims(token);
@@ -53,10 +60,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     userPrincipal.getAuthorities());
             
             SecurityContextHolder.getContext().setAuthentication(authentication);
+            span.setAttribute("user.role", role);
             
         } catch (WeakKeyException e) {
+            span.recordException(e);
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT");
             return;
+        } finally {
+            span.end();
         }
         
         filterChain.doFilter(request, response);
@@ -19,6 +19,10 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/reservations/**").permitAll()
+                // Ленты календаря защищены подписанным токеном в ссылке
+                .requestMatchers("/calendar/users/**", "/calendar/workspaces/**").permitAll()
+                // Проверки состояния вызываются оркестратором без токена
+                .requestMatchers("/health/**").permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthFilter(), UsernamePasswordAuthenticationFilter.class);
@@ -1,9 +1,11 @@
 package com.coworking.bookingservice.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,6 +29,7 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
      * @param userId ID пользователя
      * @return список активных бронирований
      */
+    @EntityGraph(attributePaths = "workspace")
     List<Reservation> findByUserIdAndStatusOrderByStartTimeDesc(Integer userId, ReservationStatus status);
 
     /**
@@ -35,6 +38,7 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
      * @param workspaceId ID рабочего места
      * @return список активных бронирований
      */
+    @EntityGraph(attributePaths = "workspace")
     List<Reservation> findByWorkspaceIdAndStatusOrderByStartTime(Integer workspaceId, ReservationStatus status);
 
     /**
@@ -43,6 +47,7 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
      * @param userId ID пользователя
      * @return список всех бронирований пользователя
      */
+    @EntityGraph(attributePaths = "workspace")
     List<Reservation> findByUserIdOrderByStartTimeDesc(Integer userId);
 
     /**
@@ -67,6 +72,25 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
                                                  @Param("endTime") LocalDateTime endTime,
                                                  @Param("excludeReservationId") Integer excludeReservationId);
 
+    /**
+     * Находит активные бронирования нескольких рабочих мест, пересекающиеся с периодом
+     * 
+     * @param workspaceIds ID рабочих мест
+     * @param startTime время начала периода
+     * @param endTime время окончания периода
+     * @return список пересекающихся бронирований
+     */
+    @Query("""
+            SELECT r FROM Reservation r 
+            WHERE r.workspace.id IN :workspaceIds 
+            AND r.status = 'ACTIVE'
+            AND r.startTime < :endTime 
+            AND r.endTime > :startTime
+            """)
+    List<Reservation> findActiveOverlappingForWorkspaces(@Param("workspaceIds") Collection<Integer> workspaceIds,
+                                                         @Param("startTime") LocalDateTime startTime,
+                                                         @Param("endTime") LocalDateTime endTime);
+
     /**
      * Находит бронирования в указанном временном диапазоне
      * 
@@ -74,6 +98,7 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
      * @param endTime время окончания диапазона
      * @return список бронирований в диапазоне
      */
+    @EntityGraph(attributePaths = "workspace")
     @Query("""
             SELECT r FROM Reservation r 
             WHERE r.startTime >= :startTime 
@@ -103,6 +128,25 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
                                                        @Param("startTime") LocalDateTime startTime,
                                                        @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * Находит ID рабочих мест, занятых в указанный период
+     * 
+     * Отвечает из частичного индекса idx_reservations_active_end_start
+     * без чтения таблицы.
+     * 
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @return ID занятых рабочих мест
+     */
+    @Query("""
+            SELECT DISTINCT r.workspace.id FROM Reservation r
+            WHERE r.status = 'ACTIVE'
+            AND r.startTime < :endTime
+            AND r.endTime > :startTime
+            """)
+    List<Integer> findBusyWorkspaceIds(@Param("startTime") LocalDateTime startTime,
+                                       @Param("endTime") LocalDateTime endTime);
+
     /**
      * Находит бронирование по ID с загрузкой связанного рабочего места
      * 
@@ -112,6 +156,15 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
     @Query("SELECT r FROM Reservation r JOIN FETCH r.workspace WHERE r.id = :id")
     Optional<Reservation> findByIdWithWorkspace(@Param("id") Integer id);
 
+    /**
+     * Находит бронирования по списку ID с загрузкой рабочих мест одним запросом
+     * 
+     * @param ids ID бронирований
+     * @return найденные бронирования (без определенного порядка)
+     */
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.workspace WHERE r.id IN :ids")
+    List<Reservation> findAllByIdWithWorkspace(@Param("ids") Collection<Integer> ids);
+
     /**
      * Подсчитывает количество активных бронирований пользователя
      * 
@@ -119,4 +172,14 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
      * @return количество активных бронирований
      */
     Integer countByUserIdAndStatus(Integer userId, ReservationStatus status);
+
+    /**
+     * Подсчитывает бронирования пользователя в статусе, заканчивающиеся после указанного момента
+     * 
+     * @param userId ID пользователя
+     * @param status статус
+     * @param time момент времени
+     * @return количество бронирований
+     */
+    long countByUserIdAndStatusAndEndTimeAfter(Integer userId, ReservationStatus status, LocalDateTime time);
 } 
\ No newline at end of file
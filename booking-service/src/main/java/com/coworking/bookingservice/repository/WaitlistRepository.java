@@ -0,0 +1,70 @@
+package com.coworking.bookingservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.coworking.bookingservice.entity.WaitlistEntry;
+import com.coworking.bookingservice.entity.WaitlistStatus;
+
+/**
+ * Репозиторий для работы с листом ожидания
+ */
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Integer> {
+
+    /**
+     * Находит записи пользователя в листе ожидания
+     * 
+     * @param userId ID пользователя
+     * @return список записей, новые первыми
+     */
+    List<WaitlistEntry> findByUserIdOrderByCreatedAtDesc(Integer userId);
+
+    /**
+     * Проверяет, ожидает ли пользователь уже этот слот
+     * 
+     * @param userId ID пользователя
+     * @param workspaceId ID рабочего места
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param status статус записи
+     * @return true если запись уже существует
+     */
+    boolean existsByUserIdAndWorkspaceIdAndStartTimeAndEndTimeAndStatus(Integer userId, Integer workspaceId,
+                                                                        LocalDateTime startTime,
+                                                                        LocalDateTime endTime,
+                                                                        WaitlistStatus status);
+
+    /**
+     * Находит ожидающие записи, пересекающиеся с освободившимся интервалом
+     * 
+     * Условие по tsrange совпадает с выражением GiST-индекса
+     * idx_waitlist_waiting_interval, поэтому поиск идет по индексу интервалов,
+     * а не просмотром всех ожидающих. Найденные записи блокируются, записи,
+     * уже обрабатываемые параллельной транзакцией, пропускаются.
+     * 
+     * @param workspaceId ID рабочего места
+     * @param startTime начало освободившегося интервала
+     * @param endTime окончание освободившегося интервала
+     * @param now текущее время (прошедшие слоты не продвигаются)
+     * @return записи в порядке постановки в очередь
+     */
+    @Query(value = """
+            SELECT * FROM booking.waitlist_entries w
+            WHERE w.workspace_id = :workspaceId
+            AND w.status = 'WAITING'
+            AND tsrange(w.start_time, w.end_time) && tsrange(CAST(:startTime AS timestamp), CAST(:endTime AS timestamp))
+            AND w.start_time > :now
+            ORDER BY w.created_at, w.id
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<WaitlistEntry> lockWaitingOverlapping(@Param("workspaceId") Integer workspaceId,
+                                               @Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime,
+                                               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,70 @@
+package com.coworking.bookingservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.coworking.bookingservice.entity.WorkspaceClosure;
+
+/**
+ * Репозиторий для работы с окнами обслуживания рабочих мест
+ */
+@Repository
+public interface WorkspaceClosureRepository extends JpaRepository<WorkspaceClosure, Integer> {
+
+    /**
+     * Проверяет, закрыто ли рабочее место на какую-либо часть периода
+     * 
+     * @param workspaceId ID рабочего места
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @return true если период пересекается с окном обслуживания
+     */
+    @Query("""
+            SELECT COUNT(c) > 0 FROM WorkspaceClosure c
+            WHERE c.workspaceId = :workspaceId
+            AND c.startTime < :endTime
+            AND c.endTime > :startTime
+            """)
+    boolean existsOverlapping(@Param("workspaceId") Integer workspaceId,
+                              @Param("startTime") LocalDateTime startTime,
+                              @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Находит ID рабочих мест, закрытых на какую-либо часть периода
+     * 
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @return ID рабочих мест
+     */
+    @Query("""
+            SELECT DISTINCT c.workspaceId FROM WorkspaceClosure c
+            WHERE c.startTime < :endTime
+            AND c.endTime > :startTime
+            """)
+    List<Integer> findClosedWorkspaceIds(@Param("startTime") LocalDateTime startTime,
+                                         @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * Находит окна обслуживания нескольких рабочих мест, пересекающиеся с периодом
+     * 
+     * @param workspaceIds ID рабочих мест
+     * @param startTime начало периода
+     * @param endTime окончание периода
+     * @return список окон обслуживания
+     */
+    @Query("""
+            SELECT c FROM WorkspaceClosure c
+            WHERE c.workspaceId IN :workspaceIds
+            AND c.startTime < :endTime
+            AND c.endTime > :startTime
+            """)
+    List<WorkspaceClosure> findOverlappingForWorkspaces(@Param("workspaceIds") Collection<Integer> workspaceIds,
+                                                        @Param("startTime") LocalDateTime startTime,
+                                                        @Param("endTime") LocalDateTime endTime);
+}
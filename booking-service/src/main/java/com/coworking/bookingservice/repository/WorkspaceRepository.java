@@ -1,14 +1,19 @@
 package com.coworking.bookingservice.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.coworking.bookingservice.entity.Workspace;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * Репозиторий для работы с рабочими местами
  * 
@@ -25,6 +30,25 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, Integer> {
      */
     List<Workspace> findByIsActiveTrue();
 
+    /**
+     * Находит все активные рабочие места вместе с удобствами одним запросом
+     * 
+     * @return список активных рабочих мест
+     */
+    @EntityGraph(attributePaths = "amenities")
+    @Query("SELECT w FROM Workspace w WHERE w.isActive = true")
+    List<Workspace> findActiveWithAmenities();
+
+    /**
+     * Находит рабочие места по списку ID вместе с удобствами одним запросом
+     * 
+     * @param ids ID рабочих мест
+     * @return найденные рабочие места (без определенного порядка)
+     */
+    @EntityGraph(attributePaths = "amenities")
+    @Query("SELECT w FROM Workspace w WHERE w.id IN :ids")
+    List<Workspace> findAllByIdWithAmenities(@Param("ids") Collection<Integer> ids);
+
     /**
      * Находит рабочие места с указанной вместимостью или больше
      * 
@@ -33,9 +57,26 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, Integer> {
      */
     List<Workspace> findByCapacityGreaterThanEqualAndIsActiveTrue(Integer minCapacity);
 
+    /**
+     * Блокирует рабочие места на запись в порядке возрастания ID
+     * 
+     * Единый порядок захвата блокировок исключает взаимоблокировки между
+     * параллельными групповыми бронированиями.
+     * 
+     * @param ids ID рабочих мест
+     * @return заблокированные рабочие места
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Workspace w WHERE w.id IN :ids ORDER BY w.id")
+    List<Workspace> lockAllByIdOrderById(@Param("ids") Collection<Integer> ids);
+
     /**
      * Находит доступные рабочие места на указанный период времени
      * 
+     * Места, закрытые на обслуживание в этот период, не возвращаются.
+     * Общие зоны возвращаются независимо от бронирований: их вместимость
+     * проверяет вызывающий код.
+     * 
      * @param startTime время начала
      * @param endTime время окончания
      * @return список доступных рабочих мест
@@ -43,12 +84,18 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, Integer> {
     @Query("""
             SELECT DISTINCT w FROM Workspace w
             WHERE w.isActive = true 
-            AND w.id NOT IN (
+            AND (w.isShared = true OR w.id NOT IN (
                 SELECT DISTINCT r.workspace.id 
                 FROM Reservation r 
                 WHERE r.status = 'ACTIVE' 
                 AND r.startTime < :endTime 
                 AND r.endTime > :startTime
+            ))
+            AND NOT EXISTS (
+                SELECT 1 FROM WorkspaceClosure c
+                WHERE c.workspaceId = w.id
+                AND c.startTime < :endTime
+                AND c.endTime > :startTime
             )
             ORDER BY w.name
             """)
@@ -67,12 +114,18 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, Integer> {
             SELECT DISTINCT w FROM Workspace w 
             WHERE w.isActive = true 
             AND w.capacity >= :minCapacity
-            AND w.id NOT IN (
+            AND (w.isShared = true OR w.id NOT IN (
                 SELECT DISTINCT r.workspace.id 
                 FROM Reservation r 
                 WHERE r.status = 'ACTIVE' 
                 AND r.startTime < :endTime 
                 AND r.endTime > :startTime
+            ))
+            AND NOT EXISTS (
+                SELECT 1 FROM WorkspaceClosure c
+                WHERE c.workspaceId = w.id
+                AND c.startTime < :endTime
+                AND c.endTime > :startTime
             )
             ORDER BY w.capacity DESC, w.name
             """)
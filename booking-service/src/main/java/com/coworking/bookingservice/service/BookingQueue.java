@@ -0,0 +1,248 @@
+package com.coworking.bookingservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.service.ReservationService.QueuedBooking;
+import com.coworking.bookingservice.service.ReservationService.QueuedBookingResult;
+
+/**
+ * Очередь записи бронирований с групповой фиксацией
+ *
+ * Заявки на одно рабочее место всегда попадают в одну и ту же полосу
+ * (workspaceId по модулю числа полос), каждую полосу обслуживает один поток.
+ * Пока поток фиксирует текущую пачку, новые заявки копятся в очереди и
+ * следующей пачкой разрешаются в памяти и сохраняются одной транзакцией.
+ * Режим включается настройкой app.booking.queue.enabled.
+ *
+ * Таймаут ожидания действует только пока заявка лежит в очереди: заявка,
+ * взятая в пачку, дожидается результата фиксации, чтобы клиент не получил
+ * ошибку по бронированию, которое все же будет создано.
+ */
+@Component
+public class BookingQueue implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingQueue.class);
+
+    private final ReservationService reservationService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long latencyBoundMillis;
+    private final Stripe[] stripes;
+
+    public BookingQueue(ReservationService reservationService,
+                        @Value("${app.booking.queue.enabled:false}") boolean enabled,
+                        @Value("${app.booking.queue.stripes:8}") int stripeCount,
+                        @Value("${app.booking.queue.max-batch-size:64}") int maxBatchSize,
+                        @Value("${app.booking.queue.latency-bound:2000}") long latencyBoundMillis) {
+        this.reservationService = reservationService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.latencyBoundMillis = latencyBoundMillis;
+        this.stripes = new Stripe[enabled ? stripeCount : 0];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(i);
+        }
+    }
+
+    /**
+     * Проверяет, включен ли режим очереди записи
+     *
+     * @return true если бронирования нужно создавать через очередь
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ставит заявку на бронирование в очередь
+     *
+     * Некорректные заявки отклоняются сразу, без постановки в очередь.
+     * Если заявка не попала в пачку за app.booking.queue.latency-bound
+     * миллисекунд, она снимается с очереди, и future завершается
+     * TimeoutException. Заявка из пачки таймаутом не завершается.
+     *
+     * @param userId ID пользователя
+     * @param role роль пользователя
+     * @param request данные для создания бронирования
+     * @return future с созданным бронированием или IllegalArgumentException
+     */
+    public CompletableFuture<ReservationDto> submit(Integer userId, String role, CreateReservationRequest request) {
+        if (!enabled) {
+            throw new IllegalStateException("Очередь записи бронирований отключена");
+        }
+        reservationService.validateCreateRequest(request);
+
+        Stripe stripe = stripes[Math.floorMod(request.getWorkspaceId(), stripes.length)];
+        PendingBooking pending = new PendingBooking(new QueuedBooking(userId, role, request));
+        stripe.enqueue(pending);
+        CompletableFuture.delayedExecutor(latencyBoundMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (pending.cancel()) {
+                stripe.queue.remove(pending);
+                pending.future().completeExceptionally(new TimeoutException(
+                        "Заявка не обработана за " + latencyBoundMillis + " мс"));
+            }
+        });
+        return pending.future();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (Stripe stripe : stripes) {
+            stripe.executor.shutdown();
+        }
+        for (Stripe stripe : stripes) {
+            stripe.executor.awaitTermination(latencyBoundMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Фиксирует пачку заявок одной транзакцией
+     */
+    private void commit(List<PendingBooking> batch) {
+        List<QueuedBooking> bookings = batch.stream().map(PendingBooking::booking).toList();
+        List<QueuedBookingResult> results;
+        try {
+            results = reservationService.createQueuedReservations(bookings);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось зафиксировать пачку из {} бронирований, повтор по одному: {}",
+                    batch.size(), e.getMessage());
+            commitOneByOne(batch);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            QueuedBookingResult result = results.get(i);
+            CompletableFuture<ReservationDto> future = batch.get(i).future();
+            if (result.reservation() != null) {
+                future.complete(result.reservation());
+            } else {
+                future.completeExceptionally(result.error().toException());
+            }
+        }
+    }
+
+    private void commitOneByOne(List<PendingBooking> batch) {
+        for (PendingBooking pending : batch) {
+            try {
+                pending.future().complete(reservationService.createReservation(
+                        pending.booking().userId(), pending.booking().role(), pending.booking().request()));
+            } catch (RuntimeException e) {
+                pending.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Полоса очереди с единственным потоком записи
+     */
+    private class Stripe {
+
+        private final Queue<PendingBooking> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final ExecutorService executor;
+
+        Stripe(int index) {
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "booking-writer-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        void enqueue(PendingBooking pending) {
+            queue.add(pending);
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+                PendingBooking pending;
+                while (batch.size() < maxBatchSize && (pending = queue.poll()) != null) {
+                    // Заявки, по которым клиент уже получил таймаут, не фиксируем
+                    if (pending.take()) {
+                        batch.add(pending);
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                    continue;
+                }
+
+                draining.set(false);
+                // Заявка могла прийти между последним poll и сбросом флага
+                if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Заявка в очереди
+     *
+     * Заявку либо берет в пачку поток записи, либо снимает таймаут — что
+     * случится раньше; второе действие после этого не выполняется.
+     */
+    private static final class PendingBooking {
+
+        private static final int QUEUED = 0;
+        private static final int TAKEN = 1;
+        private static final int CANCELLED = 2;
+
+        private final QueuedBooking booking;
+        private final CompletableFuture<ReservationDto> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        PendingBooking(QueuedBooking booking) {
+            this.booking = booking;
+        }
+
+        QueuedBooking booking() {
+            return booking;
+        }
+
+        CompletableFuture<ReservationDto> future() {
+            return future;
+        }
+
+        /**
+         * Забирает заявку в пачку
+         *
+         * @return false если заявка уже снята по таймауту
+         */
+        boolean take() {
+            return state.compareAndSet(QUEUED, TAKEN);
+        }
+
+        /**
+         * Снимает заявку по таймауту
+         *
+         * @return false если заявка уже взята в пачку
+         */
+        boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+    }
+}
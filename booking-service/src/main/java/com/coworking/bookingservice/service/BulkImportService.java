@@ -0,0 +1,539 @@
+package com.coworking.bookingservice.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.coworking.bookingservice.dto.ImportReport;
+import com.coworking.bookingservice.dto.ImportRowError;
+import com.coworking.bookingservice.entity.ReservationStatus;
+import com.coworking.bookingservice.importer.ImportFormat;
+import com.coworking.bookingservice.importer.ImportListener;
+import com.coworking.bookingservice.importer.ImportRowReader;
+import com.coworking.bookingservice.service.OccupancyRollupService.OccupancyInterval;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Сервис массового импорта рабочих мест и исторических бронирований
+ *
+ * Читает файл потоково и обрабатывает его пачками: каждая пачка проверяется
+ * на пересечения одним запросом к БД и вставляется одним JDBC batch
+ * в отдельной транзакции.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final String INSERT_WORKSPACE_SQL = """
+            INSERT INTO booking.workspaces (name, description, capacity, is_active, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_RESERVATION_SQL = """
+            INSERT INTO booking.reservations (user_id, workspace_id, start_time, end_time, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Пересечения ищутся только для обычных мест: в общей зоне пересечения
+    // допустимы в пределах вместимости
+    private static final String FIND_CONFLICTS_SQL = """
+            SELECT c.idx
+            FROM unnest(?, ?, ?, ?) AS c(idx, workspace_id, start_time, end_time)
+            JOIN booking.workspaces w ON w.id = c.workspace_id
+            WHERE NOT w.is_shared
+            AND EXISTS (
+                SELECT 1 FROM booking.reservations r
+                WHERE r.workspace_id = c.workspace_id
+                AND r.status = 'ACTIVE'
+                AND r.start_time < c.end_time
+                AND r.end_time > c.start_time
+            )
+            """;
+
+    // Блокировка общих зон пачки: импорт и бронирования через API заполняют зону по очереди
+    private static final String LOCK_SHARED_WORKSPACES_SQL = """
+            SELECT id, capacity FROM booking.workspaces
+            WHERE id = ANY(?) AND is_shared
+            ORDER BY id
+            FOR UPDATE
+            """;
+
+    private static final String FIND_SHARED_OVERLAPS_SQL = """
+            SELECT DISTINCT r.id, r.workspace_id, r.start_time, r.end_time
+            FROM booking.reservations r
+            JOIN unnest(?, ?, ?) AS c(workspace_id, start_time, end_time)
+                ON r.workspace_id = c.workspace_id
+                AND r.start_time < c.end_time
+                AND r.end_time > c.start_time
+            WHERE r.status = 'ACTIVE'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final OccupancyRollupService occupancyRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public BulkImportService(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             OccupancyRollupService occupancyRollupService,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.occupancyRollupService = occupancyRollupService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Импортирует рабочие места
+     *
+     * Колонки: name, description, capacity, is_active
+     *
+     * @param inputStream поток с файлом импорта
+     * @param format формат файла
+     * @param listener получатель ошибок и прогресса
+     * @return итоговый отчет
+     * @throws IOException при ошибке чтения потока
+     */
+    public ImportReport importWorkspaces(InputStream inputStream, ImportFormat format, ImportListener listener)
+            throws IOException {
+        ImportRowReader reader = new ImportRowReader(inputStream, format, objectMapper);
+        ImportProgress progress = new ImportProgress(listener);
+        List<WorkspaceRow> chunk = new ArrayList<>(batchSize);
+
+        Map<String, String> fields;
+        while ((fields = nextRow(reader, progress)) != null) {
+            try {
+                chunk.add(parseWorkspace(fields));
+            } catch (IllegalArgumentException e) {
+                progress.rowFailed(reader.getLineNumber(), e.getMessage());
+                continue;
+            }
+            if (chunk.size() >= batchSize) {
+                flushWorkspaces(chunk, progress);
+            }
+        }
+        flushWorkspaces(chunk, progress);
+        eventPublisher.publishEvent(new WorkspacesChangedEvent(null));
+        return progress.finish("рабочих мест");
+    }
+
+    /**
+     * Импортирует исторические бронирования
+     *
+     * Колонки: user_id, workspace_id, start_time, end_time, status (по умолчанию ACTIVE).
+     * Активные бронирования, пересекающиеся с уже существующими или с другими
+     * строками файла, отклоняются; в общей зоне отклоняются только бронирования,
+     * с которыми число одновременных гостей превысило бы вместимость.
+     *
+     * @param inputStream поток с файлом импорта
+     * @param format формат файла
+     * @param listener получатель ошибок и прогресса
+     * @return итоговый отчет
+     * @throws IOException при ошибке чтения потока
+     */
+    public ImportReport importReservations(InputStream inputStream, ImportFormat format, ImportListener listener)
+            throws IOException {
+        Set<Integer> workspaceIds = new HashSet<>(
+                jdbcTemplate.queryForList("SELECT id FROM booking.workspaces", Integer.class));
+        ImportRowReader reader = new ImportRowReader(inputStream, format, objectMapper);
+        ImportProgress progress = new ImportProgress(listener);
+        List<ReservationRow> chunk = new ArrayList<>(batchSize);
+
+        Map<String, String> fields;
+        while ((fields = nextRow(reader, progress)) != null) {
+            try {
+                ReservationRow row = parseReservation(reader.getLineNumber(), fields);
+                if (!workspaceIds.contains(row.workspaceId())) {
+                    throw new IllegalArgumentException("Рабочее место не найдено: " + row.workspaceId());
+                }
+                chunk.add(row);
+            } catch (IllegalArgumentException e) {
+                progress.rowFailed(reader.getLineNumber(), e.getMessage());
+                continue;
+            }
+            if (chunk.size() >= batchSize) {
+                flushReservations(chunk, progress);
+            }
+        }
+        flushReservations(chunk, progress);
+        eventPublisher.publishEvent(new ReservationsChangedEvent(null, null));
+        return progress.finish("бронирований");
+    }
+
+    /**
+     * Читает следующую строку, учитывая ошибки разбора как отклоненные строки
+     */
+    private Map<String, String> nextRow(ImportRowReader reader, ImportProgress progress) throws IOException {
+        while (true) {
+            try {
+                return reader.next();
+            } catch (IllegalArgumentException e) {
+                progress.rowFailed(reader.getLineNumber(), e.getMessage());
+            }
+        }
+    }
+
+    private void flushWorkspaces(List<WorkspaceRow> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_WORKSPACE_SQL, chunk, chunk.size(), (ps, row) -> {
+                    ps.setString(1, row.name());
+                    ps.setString(2, row.description());
+                    ps.setInt(3, row.capacity());
+                    ps.setBoolean(4, row.active());
+                    ps.setTimestamp(5, now);
+                }));
+        progress.chunkImported(chunk.size());
+        chunk.clear();
+    }
+
+    private void flushReservations(List<ReservationRow> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ReservationRow> accepted = transactionTemplate.execute(status -> {
+            List<ReservationRow> rows = rejectConflicts(chunk, progress);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_RESERVATION_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setInt(1, row.userId());
+                ps.setInt(2, row.workspaceId());
+                ps.setTimestamp(3, Timestamp.valueOf(row.startTime()));
+                ps.setTimestamp(4, Timestamp.valueOf(row.endTime()));
+                ps.setString(5, row.status().name());
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            });
+            occupancyRollupService.applyDeltas(rows.stream()
+                    .filter(row -> row.status() != ReservationStatus.CANCELLED)
+                    .map(row -> new OccupancyInterval(row.workspaceId(), row.startTime(), row.endTime()))
+                    .toList(), 1);
+            return rows;
+        });
+        progress.chunkImported(accepted.size());
+        chunk.clear();
+    }
+
+    /**
+     * Отклоняет активные бронирования пачки, пересекающиеся между собой или с бронированиями в БД
+     *
+     * @return строки, которые можно вставить
+     */
+    private List<ReservationRow> rejectConflicts(List<ReservationRow> chunk, ImportProgress progress) {
+        List<ReservationRow> accepted = new ArrayList<>(chunk.size());
+        List<ReservationRow> active = new ArrayList<>();
+        for (ReservationRow row : chunk) {
+            if (row.status() == ReservationStatus.ACTIVE) {
+                active.add(row);
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        Map<Integer, Integer> sharedCapacities = lockSharedWorkspaces(active);
+        List<ReservationRow> shared = new ArrayList<>();
+        active.removeIf(row -> sharedCapacities.containsKey(row.workspaceId()) && shared.add(row));
+        accepted.addAll(admitShared(shared, sharedCapacities, progress));
+
+        // Пересечения внутри пачки: после сортировки достаточно сравнить с последним принятым
+        active.sort(Comparator.comparing(ReservationRow::workspaceId).thenComparing(ReservationRow::startTime));
+        List<ReservationRow> candidates = new ArrayList<>(active.size());
+        ReservationRow last = null;
+        for (ReservationRow row : active) {
+            if (last != null && last.workspaceId().equals(row.workspaceId())
+                    && row.startTime().isBefore(last.endTime())) {
+                progress.rowFailed(row.line(), "Пересекается с бронированием в строке " + last.line());
+                continue;
+            }
+            candidates.add(row);
+            last = row;
+        }
+
+        Set<Integer> conflicting = findConflicts(candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            ReservationRow row = candidates.get(i);
+            if (conflicting.contains(i)) {
+                progress.rowFailed(row.line(), "Место уже забронировано на указанное время");
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Блокирует общие зоны, в которые попадают строки пачки, и возвращает их вместимость
+     *
+     * @return вместимость по ID общей зоны
+     */
+    private Map<Integer, Integer> lockSharedWorkspaces(List<ReservationRow> rows) {
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+        Integer[] workspaceIds = rows.stream().map(ReservationRow::workspaceId).distinct().toArray(Integer[]::new);
+        Map<Integer, Integer> capacities = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_SHARED_WORKSPACES_SQL);
+            ps.setArray(1, connection.createArrayOf("integer", workspaceIds));
+            return ps;
+        }, rs -> {
+            capacities.put(rs.getInt(1), rs.getInt(2));
+        });
+        return capacities;
+    }
+
+    /**
+     * Принимает строки общих зон в порядке файла, пока число одновременных гостей
+     * с учетом бронирований в БД и уже принятых строк не превышает вместимость
+     *
+     * @return принятые строки
+     */
+    private List<ReservationRow> admitShared(List<ReservationRow> rows, Map<Integer, Integer> capacities,
+                                             ImportProgress progress) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<LocalDateTime[]>> occupied = findSharedOverlaps(rows);
+        List<ReservationRow> accepted = new ArrayList<>(rows.size());
+        for (ReservationRow row : rows) {
+            List<LocalDateTime[]> intervals = occupied.computeIfAbsent(row.workspaceId(), id -> new ArrayList<>());
+            if (maxGuests(intervals, row.startTime(), row.endTime()) >= capacities.get(row.workspaceId())) {
+                progress.rowFailed(row.line(), "Зона заполнена на указанное время");
+                continue;
+            }
+            intervals.add(new LocalDateTime[] {row.startTime(), row.endTime()});
+            accepted.add(row);
+        }
+        return accepted;
+    }
+
+    /**
+     * Читает активные бронирования общих зон, пересекающиеся со строками, одним запросом
+     *
+     * @return интервалы [начало, окончание] по ID зоны
+     */
+    private Map<Integer, List<LocalDateTime[]>> findSharedOverlaps(List<ReservationRow> rows) {
+        Integer[] workspaceIds = new Integer[rows.size()];
+        Timestamp[] startTimes = new Timestamp[rows.size()];
+        Timestamp[] endTimes = new Timestamp[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ReservationRow row = rows.get(i);
+            workspaceIds[i] = row.workspaceId();
+            startTimes[i] = Timestamp.valueOf(row.startTime());
+            endTimes[i] = Timestamp.valueOf(row.endTime());
+        }
+
+        Map<Integer, List<LocalDateTime[]>> occupied = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_SHARED_OVERLAPS_SQL);
+            ps.setArray(1, connection.createArrayOf("integer", workspaceIds));
+            ps.setArray(2, connection.createArrayOf("timestamp", startTimes));
+            ps.setArray(3, connection.createArrayOf("timestamp", endTimes));
+            return ps;
+        }, rs -> {
+            occupied.computeIfAbsent(rs.getInt(2), id -> new ArrayList<>()).add(new LocalDateTime[] {
+                    rs.getObject(3, LocalDateTime.class), rs.getObject(4, LocalDateTime.class)});
+        });
+        return occupied;
+    }
+
+    /**
+     * Наибольшее число интервалов, одновременно занятых в [from, to)
+     *
+     * Окончание интервала в тот же момент, что и начало другого, не считается пересечением.
+     */
+    private static int maxGuests(List<LocalDateTime[]> intervals, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+        for (LocalDateTime[] interval : intervals) {
+            if (interval[0].isBefore(to) && interval[1].isAfter(from)) {
+                starts.add(interval[0]);
+                ends.add(interval[1]);
+            }
+        }
+        starts.sort(null);
+        ends.sort(null);
+        int guests = 0;
+        int max = 0;
+        int e = 0;
+        for (LocalDateTime start : starts) {
+            while (!ends.get(e).isAfter(start)) {
+                e++;
+                guests--;
+            }
+            max = Math.max(max, ++guests);
+        }
+        return max;
+    }
+
+    /**
+     * Находит строки, пересекающиеся с активными бронированиями в БД, одним запросом
+     *
+     * @return индексы пересекающихся строк в списке
+     */
+    private Set<Integer> findConflicts(List<ReservationRow> rows) {
+        if (rows.isEmpty()) {
+            return Set.of();
+        }
+        Integer[] indexes = new Integer[rows.size()];
+        Integer[] workspaceIds = new Integer[rows.size()];
+        Timestamp[] startTimes = new Timestamp[rows.size()];
+        Timestamp[] endTimes = new Timestamp[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ReservationRow row = rows.get(i);
+            indexes[i] = i;
+            workspaceIds[i] = row.workspaceId();
+            startTimes[i] = Timestamp.valueOf(row.startTime());
+            endTimes[i] = Timestamp.valueOf(row.endTime());
+        }
+
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_CONFLICTS_SQL);
+            ps.setArray(1, connection.createArrayOf("integer", indexes));
+            ps.setArray(2, connection.createArrayOf("integer", workspaceIds));
+            ps.setArray(3, connection.createArrayOf("timestamp", startTimes));
+            ps.setArray(4, connection.createArrayOf("timestamp", endTimes));
+            return ps;
+        }, (rs, rowNum) -> rs.getInt(1)));
+    }
+
+    private WorkspaceRow parseWorkspace(Map<String, String> fields) {
+        String name = fields.get("name");
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Название рабочего места обязательно");
+        }
+        if (name.length() > 100) {
+            throw new IllegalArgumentException("Название рабочего места длиннее 100 символов");
+        }
+        Integer capacity = parseInteger(fields, "capacity", "Вместимость");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Вместимость должна быть не менее 1");
+        }
+        String active = fields.get("is_active");
+        return new WorkspaceRow(name, fields.get("description"), capacity,
+                active == null || Boolean.parseBoolean(active));
+    }
+
+    private ReservationRow parseReservation(long line, Map<String, String> fields) {
+        Integer userId = parseInteger(fields, "user_id", "ID пользователя");
+        Integer workspaceId = parseInteger(fields, "workspace_id", "ID рабочего места");
+        LocalDateTime startTime = parseDateTime(fields, "start_time", "Время начала");
+        LocalDateTime endTime = parseDateTime(fields, "end_time", "Время окончания");
+        if (!startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Время начала должно быть раньше времени окончания");
+        }
+
+        ReservationStatus status = ReservationStatus.ACTIVE;
+        String statusValue = fields.get("status");
+        if (statusValue != null) {
+            try {
+                status = ReservationStatus.valueOf(statusValue.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Неизвестный статус: " + statusValue);
+            }
+        }
+        return new ReservationRow(line, userId, workspaceId, startTime, endTime, status);
+    }
+
+    private Integer parseInteger(Map<String, String> fields, String column, String title) {
+        String value = fields.get(column);
+        if (value == null) {
+            throw new IllegalArgumentException(title + " обязательно");
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(title + " должно быть числом: " + value);
+        }
+    }
+
+    private LocalDateTime parseDateTime(Map<String, String> fields, String column, String title) {
+        String value = fields.get(column);
+        if (value == null) {
+            throw new IllegalArgumentException(title + " обязательно");
+        }
+        // Принимаем как ISO-8601, так и формат API "yyyy-MM-dd HH:mm:ss"
+        String normalized = value.replace(' ', 'T');
+        if (normalized.endsWith("Z")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        try {
+            return LocalDateTime.parse(normalized);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(title + " имеет некорректный формат: " + value);
+        }
+    }
+
+    /**
+     * Строка импорта рабочего места
+     */
+    private record WorkspaceRow(String name, String description, Integer capacity, boolean active) {}
+
+    /**
+     * Строка импорта бронирования
+     */
+    private record ReservationRow(long line, Integer userId, Integer workspaceId,
+                                  LocalDateTime startTime, LocalDateTime endTime, ReservationStatus status) {}
+
+    /**
+     * Счетчики импорта и уведомление получателя
+     */
+    private static class ImportProgress {
+
+        private final ImportListener listener;
+        private final ImportReport report = new ImportReport();
+        private final long startedAt = System.currentTimeMillis();
+
+        ImportProgress(ImportListener listener) {
+            this.listener = listener;
+        }
+
+        void rowFailed(long line, String message) {
+            report.setProcessedRows(report.getProcessedRows() + 1);
+            report.setFailedRows(report.getFailedRows() + 1);
+            listener.onRowError(new ImportRowError(line, message));
+        }
+
+        void chunkImported(int imported) {
+            report.setImportedRows(report.getImportedRows() + imported);
+            report.setProcessedRows(report.getImportedRows() + report.getFailedRows());
+            report.setElapsedMillis(System.currentTimeMillis() - startedAt);
+            listener.onProgress(report);
+        }
+
+        ImportReport finish(String subject) {
+            report.setElapsedMillis(System.currentTimeMillis() - startedAt);
+            report.setFinished(true);
+            listener.onProgress(report);
+            log.info("Импорт {} завершен: {}, {} строк/с", subject, report,
+                    String.format("%.1f", report.getRowsPerSecond()));
+            return report;
+        }
+    }
+}
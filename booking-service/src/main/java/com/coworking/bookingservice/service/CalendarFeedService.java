@@ -0,0 +1,395 @@
+package com.coworking.bookingservice.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.coworking.bookingservice.support.ICalendarWriter;
+
+/**
+ * Сервис календарных лент (iCalendar) пользователей и рабочих мест
+ *
+ * Календарные клиенты опрашивают ленту каждые несколько минут, поэтому
+ * отрисованная лента хранится в памяти до изменения бронирований этого
+ * пользователя или рабочего места. У каждой ленты есть поколение: оно
+ * меняется при инвалидации и служит ETag, так что повторный опрос без
+ * изменений отвечается 304 без обращения к базе. При промахе лента пишется
+ * в ответ потоково, прямо из курсора JDBC, и одновременно копируется в кэш,
+ * если не превышает лимит размера.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final String USER_KEY = "user:";
+    private static final String WORKSPACE_KEY = "workspace:";
+    private static final int FETCH_SIZE = 500;
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final String REFRESH_INTERVAL = "PT15M";
+
+    private static final String USER_FEED_SQL = """
+            SELECT r.id, r.start_time, r.end_time, r.updated_at, r.version, w.name AS workspace_name
+            FROM booking.reservations r
+            JOIN booking.workspaces w ON w.id = r.workspace_id
+            WHERE r.user_id = ? AND r.status IN ('ACTIVE', 'COMPLETED') AND r.end_time >= ?
+            ORDER BY r.start_time
+            """;
+
+    private static final String WORKSPACE_FEED_SQL = """
+            SELECT r.id, r.start_time, r.end_time, r.updated_at, r.version
+            FROM booking.reservations r
+            WHERE r.workspace_id = ? AND r.status IN ('ACTIVE', 'COMPLETED') AND r.end_time >= ?
+            ORDER BY r.start_time
+            """;
+
+    private static final String WORKSPACE_NAME_SQL = "SELECT name FROM booking.workspaces WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<String, FeedState> feeds = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    // Отличает ETag разных запусков сервиса: поколения начинаются заново
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final int pastDays;
+    private final long cacheTtlMillis;
+    private final int maxFeedBytes;
+    private final long maxCachedBytes;
+    private volatile long defaultLastModified = System.currentTimeMillis();
+
+    public CalendarFeedService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.calendar.past-days:30}") int pastDays,
+                               @Value("${app.calendar.cache-ttl:3600000}") long cacheTtlMillis,
+                               @Value("${app.calendar.max-feed-bytes:1048576}") int maxFeedBytes,
+                               @Value("${app.calendar.max-cached-bytes:67108864}") long maxCachedBytes) {
+        // Отдельный шаблон с размером выборки: PostgreSQL читает результат курсором
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pastDays = pastDays;
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.maxFeedBytes = maxFeedBytes;
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    /**
+     * Получает ленту бронирований пользователя
+     *
+     * @param userId ID пользователя
+     * @return лента (содержимое отрисовывается при записи в ответ)
+     */
+    public CalendarFeed getUserFeed(Integer userId) {
+        String key = USER_KEY + userId;
+        return new CalendarFeed(key, currentState(key), writer -> writeUserFeed(writer, userId));
+    }
+
+    /**
+     * Получает ленту занятости рабочего места
+     *
+     * Лента не содержит сведений о пользователях, только занятые интервалы.
+     *
+     * @param workspaceId ID рабочего места
+     * @return лента или пустой Optional, если место не найдено
+     */
+    public Optional<CalendarFeed> getWorkspaceFeed(Integer workspaceId) {
+        String key = WORKSPACE_KEY + workspaceId;
+        // Состояние создается только для существующего места, поэтому повторный опрос идет без запроса
+        if (!feeds.containsKey(key)
+                && jdbcTemplate.queryForList(WORKSPACE_NAME_SQL, String.class, workspaceId).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new CalendarFeed(key, currentState(key), writer -> writeWorkspaceFeed(writer, workspaceId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsChanged(ReservationsChangedEvent event) {
+        if (event.userIds() == null || event.workspaceIds() == null) {
+            invalidateAll();
+            return;
+        }
+        event.userIds().forEach(userId -> invalidate(USER_KEY + userId));
+        event.workspaceIds().forEach(workspaceId -> invalidate(WORKSPACE_KEY + workspaceId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsCancelled(ReservationsCancelledEvent event) {
+        invalidate(USER_KEY + event.userId());
+        invalidate(WORKSPACE_KEY + event.workspaceId());
+    }
+
+    // Название места входит в ленты всех его пользователей
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkspacesChanged(WorkspacesChangedEvent event) {
+        invalidateAll();
+    }
+
+    private FeedState currentState(String key) {
+        long now = System.currentTimeMillis();
+        FeedState state = feeds.computeIfAbsent(key, k -> newState(defaultLastModified));
+        // Окно прошлых бронирований сдвигается со временем, поэтому поколение живет ограниченно
+        if (now - state.createdAt > cacheTtlMillis) {
+            FeedState renewed = newState(now);
+            if (feeds.replace(key, state, renewed)) {
+                release(state);
+                return renewed;
+            }
+            return feeds.getOrDefault(key, renewed);
+        }
+        return state;
+    }
+
+    private void invalidate(String key) {
+        FeedState previous = feeds.replace(key, newState(System.currentTimeMillis()));
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    private void invalidateAll() {
+        long now = System.currentTimeMillis();
+        defaultLastModified = now;
+        for (String key : feeds.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    private FeedState newState(long lastModified) {
+        return new FeedState(generations.incrementAndGet(), lastModified, System.currentTimeMillis(), null);
+    }
+
+    private void store(String key, FeedState state, byte[] body) {
+        if (cachedBytes.addAndGet(body.length) > maxCachedBytes) {
+            cachedBytes.addAndGet(-body.length);
+            return;
+        }
+        // Если лента инвалидирована во время отрисовки, результат уже устарел
+        if (!feeds.replace(key, state, state.withBody(body))) {
+            cachedBytes.addAndGet(-body.length);
+        }
+    }
+
+    private void release(FeedState state) {
+        if (state.body != null) {
+            cachedBytes.addAndGet(-state.body.length);
+        }
+    }
+
+    private void render(CalendarFeed feed, OutputStream response) throws IOException {
+        CapturingOutputStream capture = new CapturingOutputStream(response, maxFeedBytes);
+        BufferedOutputStream buffered = new BufferedOutputStream(capture, STREAM_BUFFER_SIZE);
+        ICalendarWriter writer = new ICalendarWriter(buffered);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    feed.renderer.render(writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+        byte[] body = capture.getCaptured();
+        if (body != null) {
+            store(feed.key, feed.state, body);
+        }
+    }
+
+    private void writeUserFeed(ICalendarWriter writer, Integer userId) throws IOException {
+        writeHeader(writer, "Мои бронирования");
+        query(USER_FEED_SQL, userId, rs -> writeEvent(writer, rs,
+                "Бронирование: " + rs.getString("workspace_name"), rs.getString("workspace_name")));
+        writer.end("VCALENDAR");
+    }
+
+    private void writeWorkspaceFeed(ICalendarWriter writer, Integer workspaceId) throws IOException {
+        List<String> names = jdbcTemplate.queryForList(WORKSPACE_NAME_SQL, String.class, workspaceId);
+        String name = names.isEmpty() ? "Рабочее место " + workspaceId : names.get(0);
+        writeHeader(writer, "Занятость: " + name);
+        query(WORKSPACE_FEED_SQL, workspaceId, rs -> writeEvent(writer, rs, "Занято", name));
+        writer.end("VCALENDAR");
+    }
+
+    private void query(String sql, Integer id, RowWriter rowWriter) {
+        Timestamp from = Timestamp.valueOf(LocalDateTime.now().minusDays(pastDays));
+        jdbcTemplate.query((connection) -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setInt(1, id);
+            statement.setTimestamp(2, from);
+            return statement;
+        }, rs -> {
+            try {
+                rowWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeHeader(ICalendarWriter writer, String calendarName) throws IOException {
+        writer.begin("VCALENDAR")
+                .property("VERSION", "2.0")
+                .property("PRODID", "-//Coworking//Booking Service//RU")
+                .property("CALSCALE", "GREGORIAN")
+                .property("METHOD", "PUBLISH")
+                .text("X-WR-CALNAME", calendarName)
+                .property("REFRESH-INTERVAL;VALUE=DURATION", REFRESH_INTERVAL)
+                .property("X-PUBLISHED-TTL", REFRESH_INTERVAL);
+    }
+
+    private static void writeEvent(ICalendarWriter writer, ResultSet rs, String summary, String location)
+            throws SQLException, IOException {
+        LocalDateTime updatedAt = rs.getTimestamp("updated_at").toInstant()
+                .atOffset(ZoneOffset.UTC).toLocalDateTime();
+        writer.begin("VEVENT")
+                .property("UID", "reservation-" + rs.getInt("id") + "@booking-service")
+                .utcDateTime("DTSTAMP", updatedAt)
+                .localDateTime("DTSTART", rs.getTimestamp("start_time").toLocalDateTime())
+                .localDateTime("DTEND", rs.getTimestamp("end_time").toLocalDateTime())
+                .text("SUMMARY", summary)
+                .text("LOCATION", location)
+                .property("SEQUENCE", Long.toString(rs.getLong("version")))
+                .property("STATUS", "CONFIRMED")
+                .end("VEVENT");
+    }
+
+    /**
+     * Календарная лента, готовая к записи в ответ
+     */
+    public final class CalendarFeed {
+
+        private final String key;
+        private final FeedState state;
+        private final FeedRenderer renderer;
+
+        private CalendarFeed(String key, FeedState state, FeedRenderer renderer) {
+            this.key = key;
+            this.state = state;
+            this.renderer = renderer;
+        }
+
+        /**
+         * ETag ленты (без кавычек): меняется при каждой инвалидации
+         */
+        public String getEtag() {
+            return bootId + "-" + state.generation;
+        }
+
+        /**
+         * Время последнего изменения ленты в миллисекундах
+         */
+        public long getLastModified() {
+            return state.lastModified;
+        }
+
+        /**
+         * Пишет ленту в поток: из кэша или потоково из базы
+         *
+         * @param out поток ответа
+         * @throws IOException при ошибке записи
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            if (state.body != null) {
+                out.write(state.body);
+                return;
+            }
+            render(this, out);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FeedRenderer {
+        void render(ICalendarWriter writer) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Поколение ленты и, если она уже отрисована, ее содержимое
+     */
+    private static final class FeedState {
+
+        private final long generation;
+        private final long lastModified;
+        private final long createdAt;
+        private final byte[] body;
+
+        FeedState(long generation, long lastModified, long createdAt, byte[] body) {
+            this.generation = generation;
+            this.lastModified = lastModified;
+            this.createdAt = createdAt;
+            this.body = body;
+        }
+
+        FeedState withBody(byte[] content) {
+            return new FeedState(generation, lastModified, createdAt, content);
+        }
+    }
+
+    /**
+     * Пишет в ответ и копирует записанное, пока копия не превысит лимит
+     */
+    private static final class CapturingOutputStream extends FilterOutputStream {
+
+        private final int limit;
+        private ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+        CapturingOutputStream(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            capture(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            capture(b, off, len);
+        }
+
+        byte[] getCaptured() {
+            return captured != null ? captured.toByteArray() : null;
+        }
+
+        private void capture(byte[] b, int off, int len) {
+            if (captured == null) {
+                return;
+            }
+            if (captured.size() + len > limit) {
+                captured = null;
+                return;
+            }
+            captured.write(b, off, len);
+        }
+    }
+}
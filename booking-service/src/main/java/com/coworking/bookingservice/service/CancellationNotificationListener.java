@@ -0,0 +1,29 @@
+package com.coworking.bookingservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Уведомляет пользователей о массовой отмене их бронирований
+ * 
+ * Сервиса уведомлений пока нет, поэтому уведомление записывается в журнал.
+ */
+@Component
+public class CancellationNotificationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CancellationNotificationListener.class);
+
+    /**
+     * Обрабатывает событие отмены бронирований пользователя
+     * 
+     * @param event событие отмены
+     */
+    @EventListener
+    public void onReservationsCancelled(ReservationsCancelledEvent event) {
+        log.info("Пользователю {} отменено бронирований: {} (рабочее место {}, причина: {}, ID: {})",
+                event.userId(), event.reservationIds().size(), event.workspaceId(), event.reason(),
+                event.reservationIds());
+    }
+}
@@ -0,0 +1,274 @@
+package com.coworking.bookingservice.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.dto.ReservationStatus;
+import com.coworking.bookingservice.entity.Reservation;
+import com.coworking.bookingservice.entity.Workspace;
+import com.coworking.bookingservice.entity.WorkspaceClosure;
+import com.coworking.bookingservice.repository.ReservationRepository;
+import com.coworking.bookingservice.repository.WorkspaceClosureRepository;
+import com.coworking.bookingservice.repository.WorkspaceRepository;
+import com.coworking.bookingservice.support.BusinessException;
+import com.coworking.bookingservice.support.ErrorCode;
+
+/**
+ * Сервис групповых бронирований
+ * 
+ * Создает несколько бронирований одной транзакцией по принципу «все или ничего».
+ * Рабочие места блокируются в порядке возрастания ID, конфликты проверяются
+ * одним запросом, а бронирования вставляются одним INSERT.
+ */
+@Service
+@Transactional
+public class GroupBookingService {
+
+    private static final String INSERT_GROUP_SQL = """
+            INSERT INTO booking.reservations (user_id, workspace_id, start_time, end_time, status)
+            SELECT ?, c.workspace_id, c.start_time, c.end_time, 'ACTIVE'
+            FROM unnest(?, ?, ?) AS c(workspace_id, start_time, end_time)
+            RETURNING id, workspace_id, start_time, end_time, created_at, updated_at
+            """;
+
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceClosureRepository workspaceClosureRepository;
+    private final OccupancyRollupService occupancyRollupService;
+    private final HoldRegistry holdRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReservationQuota reservationQuota;
+    private final SharedWorkspaceOccupancy sharedWorkspaceOccupancy;
+    private final int maxGroupSize;
+
+    public GroupBookingService(ReservationService reservationService,
+                               ReservationRepository reservationRepository,
+                               WorkspaceRepository workspaceRepository,
+                               WorkspaceClosureRepository workspaceClosureRepository,
+                               OccupancyRollupService occupancyRollupService,
+                               HoldRegistry holdRegistry,
+                               JdbcTemplate jdbcTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               ReservationQuota reservationQuota,
+                               SharedWorkspaceOccupancy sharedWorkspaceOccupancy,
+                               @Value("${app.booking.group.max-size:50}") int maxGroupSize) {
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.workspaceRepository = workspaceRepository;
+        this.workspaceClosureRepository = workspaceClosureRepository;
+        this.occupancyRollupService = occupancyRollupService;
+        this.holdRegistry = holdRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.reservationQuota = reservationQuota;
+        this.sharedWorkspaceOccupancy = sharedWorkspaceOccupancy;
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    /**
+     * Создает групповое бронирование
+     * 
+     * @param userId ID пользователя
+     * @param role роль пользователя (определяет лимит активных бронирований)
+     * @param requests бронирования группы
+     * @return созданные бронирования в порядке запроса
+     * @throws BusinessException если группа некорректна (INVALID_REQUEST, INVALID_TIME_RANGE), место недоступно
+     *         (WORKSPACE_NOT_FOUND, WORKSPACE_INACTIVE, WORKSPACE_CLOSED), занято (SLOT_BOOKED, SLOT_HELD,
+     *         ZONE_FULL) или превышен лимит (QUOTA_EXCEEDED)
+     */
+    public List<ReservationDto> createGroupReservation(Integer userId, String role,
+                                                       List<CreateReservationRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST,
+                    "Групповое бронирование должно содержать хотя бы одно место");
+        }
+        if (requests.size() > maxGroupSize) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST, "Групповое бронирование не может содержать более "
+                    + maxGroupSize + " мест");
+        }
+        requests.forEach(reservationService::validateCreateRequest);
+
+        // Блокируем места в порядке возрастания ID, чтобы избежать взаимоблокировок
+        TreeSet<Integer> workspaceIds = requests.stream()
+                .map(CreateReservationRequest::getWorkspaceId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Integer, Workspace> workspaces = workspaceRepository.lockAllByIdOrderById(workspaceIds)
+                .stream()
+                .collect(Collectors.toMap(Workspace::getId, Function.identity()));
+        for (Integer workspaceId : workspaceIds) {
+            Workspace workspace = workspaces.get(workspaceId);
+            if (workspace == null) {
+                throw new BusinessException(ErrorCode.WORKSPACE_NOT_FOUND, "Рабочее место не найдено: " + workspaceId);
+            }
+            if (!workspace.getIsActive()) {
+                throw new BusinessException(ErrorCode.WORKSPACE_INACTIVE, "Рабочее место неактивно: " + workspaceId);
+            }
+        }
+
+        checkInternalOverlaps(requests, workspaces);
+        checkConflicts(userId, requests, workspaces);
+        reservationQuota.acquire(userId, role, requests.size());
+
+        List<ReservationDto> created = insertGroup(userId, requests, workspaces);
+        occupancyRollupService.applyDeltas(requests.stream()
+                .map(request -> new OccupancyRollupService.OccupancyInterval(
+                        request.getWorkspaceId(), request.getStartTime(), request.getEndTime()))
+                .toList(), 1);
+        eventPublisher.publishEvent(new ReservationsChangedEvent(Set.of(userId), workspaceIds));
+        return created;
+    }
+
+    /**
+     * Проверяет, что бронирования группы не пересекаются между собой
+     * 
+     * В общей зоне несколько мест группы на одно время допустимы: их
+     * суммарную вместимость проверяет SharedWorkspaceOccupancy.
+     */
+    private void checkInternalOverlaps(List<CreateReservationRequest> requests, Map<Integer, Workspace> workspaces) {
+        Map<Integer, List<CreateReservationRequest>> byWorkspace = requests.stream()
+                .filter(request -> !workspaces.get(request.getWorkspaceId()).getIsShared())
+                .collect(Collectors.groupingBy(CreateReservationRequest::getWorkspaceId));
+        for (List<CreateReservationRequest> sameWorkspace : byWorkspace.values()) {
+            sameWorkspace.sort(Comparator.comparing(CreateReservationRequest::getStartTime));
+            for (int i = 1; i < sameWorkspace.size(); i++) {
+                if (sameWorkspace.get(i).getStartTime().isBefore(sameWorkspace.get(i - 1).getEndTime())) {
+                    throw new BusinessException(ErrorCode.INVALID_REQUEST,
+                            "Бронирования группы пересекаются на рабочем месте "
+                            + sameWorkspace.get(i).getWorkspaceId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет конфликты со всеми существующими бронированиями одним запросом
+     * 
+     * В общих зонах вместо пересечений проверяется вместимость, и место в зоне
+     * сразу занимается (при откате группы оно освобождается).
+     */
+    private void checkConflicts(Integer userId, List<CreateReservationRequest> requests,
+                                Map<Integer, Workspace> workspaces) {
+        Set<Integer> workspaceIds = workspaces.keySet();
+        LocalDateTime from = requests.stream()
+                .map(CreateReservationRequest::getStartTime)
+                .min(LocalDateTime::compareTo)
+                .orElseThrow();
+        LocalDateTime to = requests.stream()
+                .map(CreateReservationRequest::getEndTime)
+                .max(LocalDateTime::compareTo)
+                .orElseThrow();
+
+        Map<Integer, List<Reservation>> schedule = reservationRepository
+                .findActiveOverlappingForWorkspaces(workspaceIds, from, to)
+                .stream()
+                .collect(Collectors.groupingBy(reservation -> reservation.getWorkspace().getId()));
+        Map<Integer, List<WorkspaceClosure>> closures = workspaceClosureRepository
+                .findOverlappingForWorkspaces(workspaceIds, from, to)
+                .stream()
+                .collect(Collectors.groupingBy(WorkspaceClosure::getWorkspaceId));
+        for (CreateReservationRequest request : requests) {
+            boolean booked = schedule.getOrDefault(request.getWorkspaceId(), List.of()).stream()
+                    .anyMatch(existing -> existing.getStartTime().isBefore(request.getEndTime())
+                            && existing.getEndTime().isAfter(request.getStartTime()));
+            boolean closed = closures.getOrDefault(request.getWorkspaceId(), List.of()).stream()
+                    .anyMatch(closure -> closure.overlaps(request.getStartTime(), request.getEndTime()));
+            if (closed) {
+                throw new BusinessException(ErrorCode.WORKSPACE_CLOSED, "Место " + request.getWorkspaceId()
+                        + " закрыто на обслуживание в указанное время");
+            }
+            Workspace workspace = workspaces.get(request.getWorkspaceId());
+            if (workspace.getIsShared()) {
+                if (!sharedWorkspaceOccupancy.tryAdmit(workspace, request.getStartTime(), request.getEndTime(),
+                        userId)) {
+                    throw new BusinessException(ErrorCode.ZONE_FULL, "В зоне " + request.getWorkspaceId()
+                            + " все места заняты на указанное время");
+                }
+                continue;
+            }
+            if (booked) {
+                throw new BusinessException(ErrorCode.SLOT_BOOKED, "Место " + request.getWorkspaceId()
+                        + " уже забронировано на указанное время");
+            }
+            if (holdRegistry.hasOverlappingHold(request.getWorkspaceId(), request.getStartTime(),
+                    request.getEndTime(), userId)) {
+                throw new BusinessException(ErrorCode.SLOT_HELD, "Место " + request.getWorkspaceId()
+                        + " временно удерживается другим пользователем");
+            }
+        }
+    }
+
+    /**
+     * Вставляет все бронирования группы одним запросом
+     */
+    private List<ReservationDto> insertGroup(Integer userId, List<CreateReservationRequest> requests,
+                                             Map<Integer, Workspace> workspaces) {
+        Integer[] workspaceIds = new Integer[requests.size()];
+        Timestamp[] startTimes = new Timestamp[requests.size()];
+        Timestamp[] endTimes = new Timestamp[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            workspaceIds[i] = requests.get(i).getWorkspaceId();
+            startTimes[i] = Timestamp.valueOf(requests.get(i).getStartTime().truncatedTo(ChronoUnit.MICROS));
+            endTimes[i] = Timestamp.valueOf(requests.get(i).getEndTime().truncatedTo(ChronoUnit.MICROS));
+        }
+
+        // Строки RETURNING сопоставляем по (место, начало, окончание); совпадать
+        // они могут только у мест общей зоны, и такие строки взаимозаменяемы
+        Map<SlotKey, Deque<ReservationDto>> inserted = new HashMap<>();
+        jdbcTemplate.query((Connection connection) -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_GROUP_SQL);
+            ps.setInt(1, userId);
+            ps.setArray(2, connection.createArrayOf("integer", workspaceIds));
+            ps.setArray(3, connection.createArrayOf("timestamp", startTimes));
+            ps.setArray(4, connection.createArrayOf("timestamp", endTimes));
+            return ps;
+        }, rs -> {
+            ReservationDto dto = new ReservationDto();
+            dto.setId(rs.getInt("id"));
+            dto.setWorkspaceId(rs.getInt("workspace_id"));
+            dto.setStartTime(rs.getTimestamp("start_time").toLocalDateTime());
+            dto.setEndTime(rs.getTimestamp("end_time").toLocalDateTime());
+            dto.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            dto.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            inserted.computeIfAbsent(new SlotKey(dto.getWorkspaceId(), dto.getStartTime(), dto.getEndTime()),
+                    key -> new ArrayDeque<>()).add(dto);
+        });
+
+        List<ReservationDto> result = new ArrayList<>(requests.size());
+        for (CreateReservationRequest request : requests) {
+            ReservationDto dto = inserted.get(new SlotKey(request.getWorkspaceId(),
+                    request.getStartTime().truncatedTo(ChronoUnit.MICROS),
+                    request.getEndTime().truncatedTo(ChronoUnit.MICROS))).poll();
+            dto.setUserId(userId);
+            dto.setWorkspaceName(workspaces.get(request.getWorkspaceId()).getName());
+            dto.setStatus(ReservationStatus.ACTIVE);
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private record SlotKey(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime) {}
+}
@@ -0,0 +1,210 @@
+package com.coworking.bookingservice.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.coworking.bookingservice.support.HierarchicalTimingWheel;
+
+/**
+ * Хранилище временных удержаний слотов в памяти
+ *
+ * Удержание резервирует интервал рабочего места на несколько секунд, пока
+ * пользователь подтверждает бронирование. Истечение удержаний обслуживает
+ * иерархическое колесо таймеров, поэтому просмотр всех удержаний не нужен.
+ */
+@Component
+public class HoldRegistry implements DisposableBean {
+
+    private final Map<String, Hold> holdsById = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Hold>> holdsByWorkspace = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel<Hold> timingWheel;
+    private final ScheduledExecutorService ticker;
+
+    public HoldRegistry(@Value("${app.holds.tick-millis:100}") long tickMillis) {
+        this.timingWheel = new HierarchicalTimingWheel<>(tickMillis, 6, 4, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireHolds, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Добавляет удержание
+     *
+     * @param userId ID пользователя
+     * @param workspaceId ID рабочего места
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param expiresAtMillis момент истечения в миллисекундах
+     * @return созданное удержание
+     */
+    public Hold add(Integer userId, Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime,
+                    long expiresAtMillis) {
+        Hold hold = new Hold(UUID.randomUUID().toString(), userId, workspaceId, startTime, endTime, expiresAtMillis);
+        holdsById.put(hold.id(), hold);
+        holdsByWorkspace.computeIfAbsent(workspaceId, id -> ConcurrentHashMap.newKeySet()).add(hold);
+        hold.timeout = timingWheel.schedule(hold, expiresAtMillis);
+        return hold;
+    }
+
+    /**
+     * Находит удержание по ID
+     *
+     * @param holdId ID удержания
+     * @return Optional с удержанием
+     */
+    public Optional<Hold> find(String holdId) {
+        return Optional.ofNullable(holdsById.get(holdId));
+    }
+
+    /**
+     * Снимает удержание
+     *
+     * @param hold удержание
+     * @return true если удержание было снято этим вызовом
+     */
+    public boolean remove(Hold hold) {
+        if (!holdsById.remove(hold.id(), hold)) {
+            return false;
+        }
+        Set<Hold> workspaceHolds = holdsByWorkspace.get(hold.workspaceId());
+        if (workspaceHolds != null) {
+            workspaceHolds.remove(hold);
+        }
+        if (hold.timeout != null) {
+            timingWheel.cancel(hold.timeout);
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет, пересекается ли интервал с удержаниями других пользователей
+     *
+     * @param workspaceId ID рабочего места
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param userId ID пользователя, чьи удержания не учитываются (может быть null)
+     * @return true если есть пересекающееся удержание
+     */
+    public boolean hasOverlappingHold(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime,
+                                      Integer userId) {
+        Set<Hold> workspaceHolds = holdsByWorkspace.get(workspaceId);
+        if (workspaceHolds == null) {
+            return false;
+        }
+        return workspaceHolds.stream()
+                .anyMatch(hold -> !hold.userId().equals(userId) && hold.overlaps(startTime, endTime));
+    }
+
+    /**
+     * Считает удержания других пользователей, пересекающиеся с интервалом
+     *
+     * @param workspaceId ID рабочего места
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param userId ID пользователя, чьи удержания не учитываются (может быть null)
+     * @return количество пересекающихся удержаний
+     */
+    public int countOverlappingHolds(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime,
+                                     Integer userId) {
+        Set<Hold> workspaceHolds = holdsByWorkspace.get(workspaceId);
+        if (workspaceHolds == null) {
+            return 0;
+        }
+        return (int) workspaceHolds.stream()
+                .filter(hold -> !hold.userId().equals(userId) && hold.overlaps(startTime, endTime))
+                .count();
+    }
+
+    /**
+     * Возвращает ID рабочих мест, удерживаемых в указанный период
+     *
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @return ID рабочих мест
+     */
+    public Set<Integer> getHeldWorkspaceIds(LocalDateTime startTime, LocalDateTime endTime) {
+        return holdsByWorkspace.entrySet().stream()
+                .filter(entry -> entry.getValue().stream().anyMatch(hold -> hold.overlaps(startTime, endTime)))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void destroy() {
+        ticker.shutdownNow();
+    }
+
+    private void expireHolds() {
+        for (Hold hold : timingWheel.advance(System.currentTimeMillis())) {
+            hold.timeout = null;
+            remove(hold);
+        }
+    }
+
+    /**
+     * Удержание интервала рабочего места
+     */
+    public static final class Hold {
+
+        private final String id;
+        private final Integer userId;
+        private final Integer workspaceId;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final long expiresAtMillis;
+        private volatile HierarchicalTimingWheel.Timeout<Hold> timeout;
+
+        Hold(String id, Integer userId, Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime,
+             long expiresAtMillis) {
+            this.id = id;
+            this.userId = userId;
+            this.workspaceId = workspaceId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public Integer userId() {
+            return userId;
+        }
+
+        public Integer workspaceId() {
+            return workspaceId;
+        }
+
+        public LocalDateTime startTime() {
+            return startTime;
+        }
+
+        public LocalDateTime endTime() {
+            return endTime;
+        }
+
+        public long expiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return startTime.isBefore(otherEnd) && endTime.isAfter(otherStart);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.coworking.bookingservice.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.coworking.bookingservice.dto.CreateHoldRequest;
+import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.HoldDto;
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.entity.Workspace;
+import com.coworking.bookingservice.repository.ReservationRepository;
+import com.coworking.bookingservice.repository.WorkspaceClosureRepository;
+import com.coworking.bookingservice.repository.WorkspaceRepository;
+import com.coworking.bookingservice.service.HoldRegistry.Hold;
+import com.coworking.bookingservice.support.BusinessException;
+import com.coworking.bookingservice.support.ErrorCode;
+
+/**
+ * Сервис временных удержаний слотов
+ * 
+ * Позволяет зарезервировать интервал рабочего места на время подтверждения
+ * и затем превратить удержание в настоящее бронирование.
+ */
+@Service
+public class HoldService {
+
+    // Количество полос блокировок по рабочим местам
+    private static final int LOCK_STRIPES = 64;
+
+    private final HoldRegistry holdRegistry;
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceClosureRepository workspaceClosureRepository;
+    private final SharedWorkspaceOccupancy sharedWorkspaceOccupancy;
+    private final int defaultTtlSeconds;
+    private final int maxTtlSeconds;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public HoldService(HoldRegistry holdRegistry,
+                       ReservationService reservationService,
+                       ReservationRepository reservationRepository,
+                       WorkspaceRepository workspaceRepository,
+                       WorkspaceClosureRepository workspaceClosureRepository,
+                       SharedWorkspaceOccupancy sharedWorkspaceOccupancy,
+                       @Value("${app.holds.default-ttl-seconds:60}") int defaultTtlSeconds,
+                       @Value("${app.holds.max-ttl-seconds:600}") int maxTtlSeconds) {
+        this.holdRegistry = holdRegistry;
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.workspaceRepository = workspaceRepository;
+        this.workspaceClosureRepository = workspaceClosureRepository;
+        this.sharedWorkspaceOccupancy = sharedWorkspaceOccupancy;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Создает удержание слота
+     * 
+     * @param userId ID пользователя
+     * @param request данные удержания
+     * @return созданное удержание
+     * @throws BusinessException если данные некорректны (INVALID_REQUEST, INVALID_TIME_RANGE), место недоступно
+     *         (WORKSPACE_NOT_FOUND, WORKSPACE_INACTIVE, WORKSPACE_CLOSED) или слот занят (SLOT_BOOKED, SLOT_HELD, ZONE_FULL)
+     */
+    public HoldDto createHold(Integer userId, CreateHoldRequest request) {
+        CreateReservationRequest reservationRequest = toReservationRequest(request);
+        reservationService.validateCreateRequest(reservationRequest);
+
+        int ttlSeconds = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        if (ttlSeconds < 1 || ttlSeconds > maxTtlSeconds) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST,
+                    "Длительность удержания должна быть от 1 до " + maxTtlSeconds + " секунд");
+        }
+
+        Workspace workspace = workspaceRepository.findById(request.getWorkspaceId())
+                .orElseThrow(() -> new BusinessException(ErrorCode.WORKSPACE_NOT_FOUND, "Рабочее место не найдено"));
+        if (!workspace.getIsActive()) {
+            throw new BusinessException(ErrorCode.WORKSPACE_INACTIVE, "Рабочее место неактивно");
+        }
+
+        return withWorkspaceLock(request.getWorkspaceId(), () -> {
+            if (workspace.getIsShared()) {
+                if (workspaceClosureRepository.existsOverlapping(request.getWorkspaceId(), request.getStartTime(),
+                        request.getEndTime())) {
+                    throw new BusinessException(ErrorCode.WORKSPACE_CLOSED,
+                            "Рабочее место закрыто на обслуживание в указанное время");
+                }
+                // Каждое удержание в общей зоне занимает одно место
+                if (!sharedWorkspaceOccupancy.hasRoom(workspace.getId(), workspace.getCapacity(),
+                        request.getStartTime(), request.getEndTime(), null)) {
+                    throw new BusinessException(ErrorCode.ZONE_FULL, "Все места в зоне заняты на указанное время");
+                }
+                Hold hold = holdRegistry.add(userId, request.getWorkspaceId(), request.getStartTime(),
+                        request.getEndTime(), System.currentTimeMillis() + ttlSeconds * 1000L);
+                return convertToDto(hold);
+            }
+            if (holdRegistry.hasOverlappingHold(request.getWorkspaceId(), request.getStartTime(),
+                    request.getEndTime(), null)) {
+                throw new BusinessException(ErrorCode.SLOT_HELD, "Слот временно удерживается другим пользователем");
+            }
+            if (workspaceClosureRepository.existsOverlapping(request.getWorkspaceId(), request.getStartTime(),
+                    request.getEndTime())) {
+                throw new BusinessException(ErrorCode.WORKSPACE_CLOSED,
+                        "Рабочее место закрыто на обслуживание в указанное время");
+            }
+            if (!reservationRepository.findOverlappingReservations(request.getWorkspaceId(),
+                    request.getStartTime(), request.getEndTime(), null).isEmpty()) {
+                throw new BusinessException(ErrorCode.SLOT_BOOKED, "Место уже забронировано на указанное время");
+            }
+            Hold hold = holdRegistry.add(userId, request.getWorkspaceId(), request.getStartTime(),
+                    request.getEndTime(), System.currentTimeMillis() + ttlSeconds * 1000L);
+            return convertToDto(hold);
+        });
+    }
+
+    /**
+     * Подтверждает удержание, создавая бронирование
+     * 
+     * Удержание снимается только после создания бронирования (транзакция
+     * ReservationService к этому моменту зафиксирована): если бронирование
+     * отклонено, слот остается за пользователем и подтверждение можно
+     * повторить. Собственные удержания пользователя проверка пересечений
+     * не учитывает.
+     * 
+     * @param holdId ID удержания
+     * @param userId ID пользователя
+     * @param role роль пользователя
+     * @return созданное бронирование
+     * @throws BusinessException с кодом HOLD_NOT_FOUND, если удержание не найдено, истекло или принадлежит
+     *         другому пользователю
+     */
+    public ReservationDto confirmHold(String holdId, Integer userId, String role) {
+        Hold hold = findOwnHold(holdId, userId);
+        return withWorkspaceLock(hold.workspaceId(), () -> {
+            // Повторное подтверждение того же удержания ждет блокировку и не находит его
+            if (holdRegistry.find(hold.id()).isEmpty()) {
+                throw new BusinessException(ErrorCode.HOLD_NOT_FOUND, "Удержание не найдено или истекло");
+            }
+            ReservationDto reservation = reservationService.createReservation(userId, role,
+                    new CreateReservationRequest(hold.workspaceId(), hold.startTime(), hold.endTime()));
+            holdRegistry.remove(hold);
+            return reservation;
+        });
+    }
+
+    /**
+     * Снимает удержание
+     * 
+     * @param holdId ID удержания
+     * @param userId ID пользователя
+     * @return true если удержание было снято
+     */
+    public boolean releaseHold(String holdId, Integer userId) {
+        return holdRegistry.find(holdId)
+                .filter(hold -> hold.userId().equals(userId))
+                .map(holdRegistry::remove)
+                .orElse(false);
+    }
+
+    private Hold findOwnHold(String holdId, Integer userId) {
+        Hold hold = holdRegistry.find(holdId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.HOLD_NOT_FOUND, "Удержание не найдено или истекло"));
+        if (!hold.userId().equals(userId)) {
+            throw new BusinessException(ErrorCode.ACCESS_DENIED, "Нет прав для подтверждения этого удержания");
+        }
+        return hold;
+    }
+
+    private <T> T withWorkspaceLock(Integer workspaceId, Supplier<T> action) {
+        ReentrantLock lock = locks[Math.floorMod(workspaceId, LOCK_STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CreateReservationRequest toReservationRequest(CreateHoldRequest request) {
+        return new CreateReservationRequest(request.getWorkspaceId(), request.getStartTime(), request.getEndTime());
+    }
+
+    private HoldDto convertToDto(Hold hold) {
+        return new HoldDto(hold.id(), hold.workspaceId(), hold.startTime(), hold.endTime(), hold.expiresAtMillis());
+    }
+}
@@ -0,0 +1,191 @@
+package com.coworking.bookingservice.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.coworking.bookingservice.dto.UtilizationDto;
+
+/**
+ * Сервис почасовых агрегатов занятости рабочих мест
+ *
+ * Хранит в booking.occupancy_hourly количество забронированных минут по каждому
+ * рабочему месту и часу. Агрегаты обновляются приращениями в той же транзакции,
+ * что и изменение бронирования, поэтому аналитика не читает сырые бронирования.
+ * Учитываются активные и завершенные бронирования.
+ */
+@Service
+@Transactional
+public class OccupancyRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyRollupService.class);
+
+    private static final String UPSERT_DELTA_SQL = """
+            INSERT INTO booking.occupancy_hourly (workspace_id, bucket_start, booked_minutes)
+            VALUES (?, ?, ?)
+            ON CONFLICT (workspace_id, bucket_start)
+            DO UPDATE SET booked_minutes = booking.occupancy_hourly.booked_minutes + EXCLUDED.booked_minutes
+            """;
+
+    private static final String REBUILD_SQL = """
+            INSERT INTO booking.occupancy_hourly (workspace_id, bucket_start, booked_minutes)
+            SELECT r.workspace_id, h.bucket,
+                   SUM(FLOOR(EXTRACT(EPOCH FROM (LEAST(r.end_time, h.bucket + INTERVAL '1 hour')
+                                                 - GREATEST(r.start_time, h.bucket))) / 60))::int
+            FROM booking.reservations r
+            CROSS JOIN LATERAL generate_series(date_trunc('hour', r.start_time),
+                                               r.end_time - INTERVAL '1 microsecond',
+                                               INTERVAL '1 hour') AS h(bucket)
+            WHERE r.status IN ('ACTIVE', 'COMPLETED')
+            GROUP BY r.workspace_id, h.bucket
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OccupancyRollupService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Добавляет интервал бронирования в агрегаты
+     *
+     * @param workspaceId ID рабочего места
+     * @param startTime время начала
+     * @param endTime время окончания
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addInterval(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime) {
+        applyDeltas(List.of(new OccupancyInterval(workspaceId, startTime, endTime)), 1);
+    }
+
+    /**
+     * Вычитает интервал бронирования из агрегатов
+     *
+     * @param workspaceId ID рабочего места
+     * @param startTime время начала
+     * @param endTime время окончания
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeInterval(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime) {
+        applyDeltas(List.of(new OccupancyInterval(workspaceId, startTime, endTime)), -1);
+    }
+
+    /**
+     * Применяет приращения для набора интервалов одним batch-запросом
+     *
+     * @param intervals интервалы бронирований
+     * @param sign 1 для добавления, -1 для вычитания
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDeltas(Collection<OccupancyInterval> intervals, int sign) {
+        Map<BucketKey, Long> deltas = new LinkedHashMap<>();
+        for (OccupancyInterval interval : intervals) {
+            LocalDateTime bucket = interval.startTime().truncatedTo(ChronoUnit.HOURS);
+            while (bucket.isBefore(interval.endTime())) {
+                LocalDateTime next = bucket.plusHours(1);
+                LocalDateTime from = interval.startTime().isAfter(bucket) ? interval.startTime() : bucket;
+                LocalDateTime to = interval.endTime().isBefore(next) ? interval.endTime() : next;
+                long minutes = Duration.between(from, to).toMinutes();
+                if (minutes > 0) {
+                    deltas.merge(new BucketKey(interval.workspaceId(), bucket), sign * minutes, Long::sum);
+                }
+                bucket = next;
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<BucketKey, Long>> rows = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_DELTA_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getKey().workspaceId());
+            ps.setTimestamp(2, Timestamp.valueOf(row.getKey().bucketStart()));
+            ps.setInt(3, row.getValue().intValue());
+        });
+    }
+
+    /**
+     * Возвращает загрузку рабочих мест из агрегатов
+     *
+     * @param startTime начало периода (включительно)
+     * @param endTime конец периода (не включительно)
+     * @param granularity шаг группировки
+     * @param workspaceId ID рабочего места или null для всех мест
+     * @return загрузка по рабочим местам и интервалам
+     */
+    @Transactional(readOnly = true)
+    public List<UtilizationDto> getUtilization(LocalDateTime startTime, LocalDateTime endTime,
+                                               UtilizationDto.Granularity granularity, Integer workspaceId) {
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Время начала должно быть раньше времени окончания");
+        }
+        String unit = granularity == UtilizationDto.Granularity.DAY ? "day" : "hour";
+        long bucketMinutes = granularity == UtilizationDto.Granularity.DAY ? 24 * 60 : 60;
+
+        String sql = """
+                SELECT workspace_id, date_trunc('%s', bucket_start) AS bucket, SUM(booked_minutes) AS minutes
+                FROM booking.occupancy_hourly
+                WHERE bucket_start >= ? AND bucket_start < ?
+                %s
+                GROUP BY workspace_id, bucket
+                ORDER BY workspace_id, bucket
+                """.formatted(unit, workspaceId != null ? "AND workspace_id = ?" : "");
+
+        List<Object> params = new ArrayList<>();
+        params.add(Timestamp.valueOf(startTime));
+        params.add(Timestamp.valueOf(endTime));
+        if (workspaceId != null) {
+            params.add(workspaceId);
+        }
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            long minutes = rs.getLong("minutes");
+            return new UtilizationDto(
+                    rs.getInt("workspace_id"),
+                    rs.getTimestamp("bucket").toLocalDateTime(),
+                    minutes,
+                    (double) minutes / bucketMinutes);
+        }, params.toArray());
+    }
+
+    /**
+     * Полностью пересчитывает агрегаты по таблице бронирований
+     *
+     * На время пересчета таблица агрегатов блокируется, поэтому параллельные
+     * изменения бронирований ждут его окончания.
+     *
+     * @return количество записанных почасовых агрегатов
+     */
+    public int rebuild() {
+        long startedAt = System.currentTimeMillis();
+        jdbcTemplate.execute("LOCK TABLE booking.occupancy_hourly IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM booking.occupancy_hourly");
+        int rows = jdbcTemplate.update(REBUILD_SQL);
+        log.info("Агрегаты занятости пересчитаны: {} записей за {} мс", rows, System.currentTimeMillis() - startedAt);
+        return rows;
+    }
+
+    /**
+     * Интервал бронирования рабочего места
+     *
+     * @param workspaceId ID рабочего места
+     * @param startTime время начала
+     * @param endTime время окончания
+     */
+    public record OccupancyInterval(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime) {}
+
+    private record BucketKey(Integer workspaceId, LocalDateTime bucketStart) {}
+}
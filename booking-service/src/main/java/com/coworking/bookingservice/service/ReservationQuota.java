@@ -0,0 +1,314 @@
+package com.coworking.bookingservice.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.coworking.bookingservice.entity.ReservationStatus;
+import com.coworking.bookingservice.repository.ReservationRepository;
+import com.coworking.bookingservice.support.BusinessError;
+import com.coworking.bookingservice.support.ErrorCode;
+
+/**
+ * Лимит активных бронирований пользователя по ролям
+ *
+ * Учитываются активные бронирования, которые еще не закончились. Счетчики
+ * хранятся в памяти по полосам (userId по модулю числа полос, одна блокировка
+ * на полосу) и загружаются из базы при первом бронировании пользователя,
+ * поэтому обычное бронирование не выполняет COUNT. Счетчик обновляется при
+ * создании и отмене; расхождения (завершившиеся бронирования, откаты
+ * параллельных транзакций) исправляет периодическая сверка, а перед отказом
+ * по лимиту счетчик пересчитывается. Запросы к базе выполняются вне
+ * блокировки полосы.
+ */
+@Component
+public class ReservationQuota implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationQuota.class);
+
+    private static final String RECONCILE_SQL = """
+            SELECT user_id, COUNT(*) FROM booking.reservations
+            WHERE user_id = ANY(?) AND status = 'ACTIVE' AND end_time > ?
+            GROUP BY user_id
+            """;
+
+    private static final int RECONCILE_CHUNK_SIZE = 1000;
+
+    private final ReservationRepository reservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Environment environment;
+    private final int defaultLimit;
+    private final Map<String, Integer> limitsByRole = new ConcurrentHashMap<>();
+    private final Stripe[] stripes;
+    private final ScheduledExecutorService reconciler;
+
+    public ReservationQuota(ReservationRepository reservationRepository,
+                            JdbcTemplate jdbcTemplate,
+                            Environment environment,
+                            @Value("${app.booking.quota.default:20}") int defaultLimit,
+                            @Value("${app.booking.quota.stripes:16}") int stripeCount,
+                            @Value("${app.booking.quota.reconcile-interval:300000}") long reconcileIntervalMillis) {
+        this.reservationRepository = reservationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.environment = environment;
+        this.defaultLimit = defaultLimit;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quota-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcileSafely, reconcileIntervalMillis, reconcileIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Занимает место в лимите под новые бронирования
+     *
+     * Если транзакция вызывающего кода откатится, место освобождается.
+     *
+     * @param userId ID пользователя
+     * @param role роль пользователя
+     * @param count количество новых бронирований
+     * @throws com.coworking.bookingservice.support.BusinessException с кодом QUOTA_EXCEEDED, если лимит будет превышен
+     */
+    public void acquire(Integer userId, String role, int count) {
+        BusinessError error = tryAcquire(userId, role, count);
+        if (error != null) {
+            throw error.toException();
+        }
+    }
+
+    /**
+     * Учитывает новые бронирования, если лимит позволяет, без исключения при отказе
+     *
+     * @param userId ID пользователя
+     * @param role роль пользователя
+     * @param count количество новых бронирований
+     * @return ошибка превышения лимита или null, если бронирования учтены
+     */
+    public BusinessError tryAcquire(Integer userId, String role, int count) {
+        int limit = limitFor(role);
+        Stripe stripe = stripeFor(userId);
+        Integer seen;
+        boolean acquired = false;
+        synchronized (stripe) {
+            seen = stripe.counts.get(userId);
+            if (seen != null && fits(limit, seen, count)) {
+                stripe.counts.put(userId, seen + count);
+                acquired = true;
+            }
+        }
+        if (acquired) {
+            afterCompletion(userId, -count, false);
+            return null;
+        }
+
+        // Счетчика нет или он упирается в лимит (мог устареть: часть бронирований уже
+        // завершилась). COUNT выполняется вне блокировки, чтобы медленный запрос не
+        // задерживал остальных пользователей полосы
+        int actual = countActive(userId);
+        synchronized (stripe) {
+            Integer current = stripe.counts.get(userId);
+            // Изменение счетчика за время запроса точнее прочитанного значения;
+            // счетчик мог и пропасть (сброс после импорта)
+            if (current == null || Objects.equals(current, seen)) {
+                current = actual;
+            }
+            if (!fits(limit, current, count)) {
+                stripe.counts.put(userId, current);
+                return new BusinessError(ErrorCode.QUOTA_EXCEEDED, "Превышен лимит активных бронирований: " + limit);
+            }
+            stripe.counts.put(userId, current + count);
+        }
+        afterCompletion(userId, -count, false);
+        return null;
+    }
+
+    /**
+     * Освобождает место в лимите после фиксации отмены
+     *
+     * @param userId ID пользователя
+     * @param count количество отмененных бронирований
+     */
+    public void recordCancelled(Integer userId, int count) {
+        afterCompletion(userId, -count, true);
+    }
+
+    /**
+     * Освобождает лимит после массовой отмены (событие публикуется после фиксации)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsCancelled(ReservationsCancelledEvent event) {
+        adjust(event.userId(), -event.reservationIds().size());
+    }
+
+    /**
+     * Сбрасывает счетчики после массовых изменений без списка пользователей (импорт)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsChanged(ReservationsChangedEvent event) {
+        if (event.userIds() == null) {
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.counts.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Сверяет загруженные счетчики с базой
+     *
+     * Счетчики пересчитываются одним запросом на пачку пользователей;
+     * пользователи без активных бронирований получают 0.
+     */
+    public void reconcile() {
+        List<Integer> userIds = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                userIds.addAll(stripe.counts.keySet());
+            }
+        }
+        load(userIds, true);
+    }
+
+    /**
+     * Загружает счетчики пользователей заранее (прогрев при запуске)
+     *
+     * Уже загруженные счетчики не меняются.
+     *
+     * @param userIds ID пользователей
+     */
+    public void preload(Collection<Integer> userIds) {
+        load(new ArrayList<>(userIds), false);
+    }
+
+    /**
+     * Читает счетчики пользователей из базы пачками
+     *
+     * @param replace true — заменить загруженные счетчики, false — загрузить только отсутствующие
+     */
+    private void load(List<Integer> userIds, boolean replace) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < userIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            Integer[] chunk = userIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, userIds.size()))
+                    .toArray(Integer[]::new);
+            Map<Integer, Integer> actual = new HashMap<>();
+            jdbcTemplate.query(RECONCILE_SQL, ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("integer", chunk));
+                ps.setObject(2, now);
+            }, rs -> {
+                actual.put(rs.getInt(1), rs.getInt(2));
+            });
+            for (Integer userId : chunk) {
+                Stripe stripe = stripeFor(userId);
+                synchronized (stripe) {
+                    if (replace) {
+                        stripe.counts.computeIfPresent(userId, (id, count) -> actual.getOrDefault(id, 0));
+                    } else {
+                        stripe.counts.putIfAbsent(userId, actual.getOrDefault(userId, 0));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        reconciler.shutdownNow();
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сверить лимиты активных бронирований: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Применяет изменение после завершения текущей транзакции
+     *
+     * @param delta изменение счетчика
+     * @param onCommit true — применить при фиксации, false — при откате
+     */
+    private void afterCompletion(Integer userId, int delta, boolean onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                adjust(userId, delta);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    adjust(userId, delta);
+                }
+            }
+        });
+    }
+
+    /**
+     * Изменяет загруженный счетчик; незагруженный будет прочитан из базы при первом бронировании
+     */
+    private void adjust(Integer userId, int delta) {
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            stripe.counts.computeIfPresent(userId, (id, count) -> Math.max(0, count + delta));
+        }
+    }
+
+    private static boolean fits(int limit, int current, int count) {
+        return limit <= 0 || current + count <= limit;
+    }
+
+    private int countActive(Integer userId) {
+        return (int) reservationRepository.countByUserIdAndStatusAndEndTimeAfter(userId, ReservationStatus.ACTIVE,
+                LocalDateTime.now());
+    }
+
+    /**
+     * Возвращает лимит роли (app.booking.quota.roles.<роль>) или лимит по умолчанию; 0 — без лимита
+     */
+    private int limitFor(String role) {
+        String key = role != null ? role.toLowerCase(Locale.ROOT) : "";
+        return limitsByRole.computeIfAbsent(key, name -> environment.getProperty(
+                "app.booking.quota.roles." + name, Integer.class, defaultLimit));
+    }
+
+    private Stripe stripeFor(Integer userId) {
+        return stripes[Math.floorMod(userId, stripes.length)];
+    }
+
+    /**
+     * Полоса счетчиков под одной блокировкой
+     */
+    private static class Stripe {
+        private final Map<Integer, Integer> counts = new HashMap<>();
+    }
+}
@@ -1,20 +1,38 @@
 package com.coworking.bookingservice.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.MultiGetItem;
 import com.coworking.bookingservice.dto.ReservationDto;
 import com.coworking.bookingservice.entity.Reservation;
 import com.coworking.bookingservice.entity.ReservationStatus;
 import com.coworking.bookingservice.entity.Workspace;
+import com.coworking.bookingservice.entity.WorkspaceClosure;
 import com.coworking.bookingservice.repository.ReservationRepository;
+import com.coworking.bookingservice.repository.WorkspaceClosureRepository;
 import com.coworking.bookingservice.repository.WorkspaceRepository;
+import com.coworking.bookingservice.support.BusinessError;
+import com.coworking.bookingservice.support.BusinessException;
+import com.coworking.bookingservice.support.ErrorCode;
+import com.coworking.bookingservice.support.FieldSelection;
+import com.coworking.bookingservice.support.MultiGet;
+import com.coworking.bookingservice.support.RetryOnConflict;
+import com.coworking.bookingservice.support.SqlProjection;
 
 /**
  * Сервис для работы с бронированиями
@@ -26,39 +44,106 @@ import com.coworking.bookingservice.repository.WorkspaceRepository;
 @Transactional
 public class ReservationService {
 
+    /**
+     * Столбцы полей ReservationDto для узкой выборки; username заполняется
+     * из auth-service по userId
+     */
+    private static final SqlProjection<ReservationDto> PROJECTION = new SqlProjection<>(ReservationDto::new)
+            .column("id", "r.id", (dto, rs, i) -> dto.setId(rs.getObject(i, Integer.class)))
+            .column("userId", "r.user_id", (dto, rs, i) -> dto.setUserId(rs.getObject(i, Integer.class)))
+            .column("username", "r.user_id", (dto, rs, i) -> dto.setUserId(rs.getObject(i, Integer.class)))
+            .column("workspaceId", "r.workspace_id", (dto, rs, i) -> dto.setWorkspaceId(rs.getObject(i, Integer.class)))
+            .column("workspaceName", "w.name", (dto, rs, i) -> dto.setWorkspaceName(rs.getString(i)))
+            .column("startTime", "r.start_time", (dto, rs, i) -> dto.setStartTime(rs.getObject(i, LocalDateTime.class)))
+            .column("endTime", "r.end_time", (dto, rs, i) -> dto.setEndTime(rs.getObject(i, LocalDateTime.class)))
+            .column("status", "r.status", (dto, rs, i) -> dto.setStatus(
+                    com.coworking.bookingservice.dto.ReservationStatus.valueOf(rs.getString(i))))
+            .column("createdAt", "r.created_at", (dto, rs, i) -> dto.setCreatedAt(rs.getObject(i, LocalDateTime.class)))
+            .column("updatedAt", "r.updated_at", (dto, rs, i) -> dto.setUpdatedAt(rs.getObject(i, LocalDateTime.class)));
+
     private final ReservationRepository reservationRepository;
     private final WorkspaceRepository workspaceRepository;
+    private final OccupancyRollupService occupancyRollupService;
+    private final HoldRegistry holdRegistry;
+    private final WaitlistService waitlistService;
+    private final WorkspaceClosureRepository workspaceClosureRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReservationQuota reservationQuota;
+    private final SharedWorkspaceOccupancy sharedWorkspaceOccupancy;
+    private final int maxMultiGetIds;
 
     public ReservationService(ReservationRepository reservationRepository, 
-                            WorkspaceRepository workspaceRepository) {
+                            WorkspaceRepository workspaceRepository,
+                            OccupancyRollupService occupancyRollupService,
+                            HoldRegistry holdRegistry,
+                            WaitlistService waitlistService,
+                            WorkspaceClosureRepository workspaceClosureRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            JdbcTemplate jdbcTemplate,
+                            ReservationQuota reservationQuota,
+                            SharedWorkspaceOccupancy sharedWorkspaceOccupancy,
+                            @Value("${app.multi-get.max-ids:100}") int maxMultiGetIds) {
         this.reservationRepository = reservationRepository;
         this.workspaceRepository = workspaceRepository;
+        this.occupancyRollupService = occupancyRollupService;
+        this.holdRegistry = holdRegistry;
+        this.waitlistService = waitlistService;
+        this.workspaceClosureRepository = workspaceClosureRepository;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.reservationQuota = reservationQuota;
+        this.sharedWorkspaceOccupancy = sharedWorkspaceOccupancy;
+        this.maxMultiGetIds = maxMultiGetIds;
     }
 
     /**
      * Создает новое бронирование
      * 
+     * Общая зона принимает пересекающиеся бронирования, пока хватает мест.
+     * 
      * @param userId ID пользователя
+     * @param role роль пользователя (определяет лимит активных бронирований)
      * @param request данные для создания бронирования
      * @return созданное бронирование
-     * @throws IllegalArgumentException если место недоступно или данные некорректны
+     * @throws BusinessException если данные некорректны (INVALID_REQUEST, INVALID_TIME_RANGE), место недоступно
+     *         (WORKSPACE_NOT_FOUND, WORKSPACE_INACTIVE, WORKSPACE_CLOSED), занято (SLOT_BOOKED, SLOT_HELD,
+     *         ZONE_FULL) или превышен лимит (QUOTA_EXCEEDED)
      */
-    public ReservationDto createReservation(Integer userId, CreateReservationRequest request) {
+    public ReservationDto createReservation(Integer userId, String role, CreateReservationRequest request) {
         validateCreateRequest(request);
         
         Workspace workspace = workspaceRepository.findById(request.getWorkspaceId())
-                .orElseThrow(() -> new IllegalArgumentException("Рабочее место не найдено"));
+                .orElseThrow(() -> new BusinessException(ErrorCode.WORKSPACE_NOT_FOUND, "Рабочее место не найдено"));
         
         if (!workspace.getIsActive()) {
-            throw new IllegalArgumentException("Рабочее место неактивно");
+            throw new BusinessException(ErrorCode.WORKSPACE_INACTIVE, "Рабочее место неактивно");
+        }
+
+        if (workspaceClosureRepository.existsOverlapping(request.getWorkspaceId(), request.getStartTime(),
+                request.getEndTime())) {
+            throw new BusinessException(ErrorCode.WORKSPACE_CLOSED,
+                    "Рабочее место закрыто на обслуживание в указанное время");
         }
         
-        // Проверяем доступность места
-        List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservations(
-                request.getWorkspaceId(), request.getStartTime(), request.getEndTime(), null);
-        
-        if (!overlappingReservations.isEmpty()) {
-            throw new IllegalArgumentException("Место уже забронировано на указанное время");
+        if (workspace.getIsShared()) {
+            reservationQuota.acquire(userId, role, 1);
+            sharedWorkspaceOccupancy.admit(workspace, request.getStartTime(), request.getEndTime(), userId);
+        } else {
+            // Проверяем доступность места
+            List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservations(
+                    request.getWorkspaceId(), request.getStartTime(), request.getEndTime(), null);
+            
+            if (!overlappingReservations.isEmpty()) {
+                throw new BusinessException(ErrorCode.SLOT_BOOKED, "Место уже забронировано на указанное время");
+            }
+
+            if (holdRegistry.hasOverlappingHold(request.getWorkspaceId(), request.getStartTime(),
+                    request.getEndTime(), userId)) {
+                throw new BusinessException(ErrorCode.SLOT_HELD, "Слот временно удерживается другим пользователем");
+            }
+
+            reservationQuota.acquire(userId, role, 1);
         }
         
         Reservation reservation = new Reservation();
@@ -69,9 +154,131 @@ public class ReservationService {
         reservation.setStatus(ReservationStatus.ACTIVE);
         
         Reservation savedReservation = reservationRepository.save(reservation);
+        occupancyRollupService.addInterval(workspace.getId(), savedReservation.getStartTime(), savedReservation.getEndTime());
+        eventPublisher.publishEvent(ReservationsChangedEvent.of(userId, workspace.getId()));
         return convertToDto(savedReservation);
     }
 
+    /**
+     * Создает пачку бронирований из очереди записи одной транзакцией
+     * 
+     * Текущее расписание всех рабочих мест пачки загружается одним запросом,
+     * конфликты разрешаются в памяти в порядке поступления заявок, принятые
+     * бронирования сохраняются вместе.
+     * 
+     * @param bookings заявки в порядке поступления
+     * @return результаты в том же порядке
+     */
+    public List<QueuedBookingResult> createQueuedReservations(List<QueuedBooking> bookings) {
+        Set<Integer> workspaceIds = bookings.stream()
+                .map(booking -> booking.request().getWorkspaceId())
+                .collect(Collectors.toSet());
+        LocalDateTime from = bookings.stream()
+                .map(booking -> booking.request().getStartTime())
+                .min(LocalDateTime::compareTo)
+                .orElseThrow();
+        LocalDateTime to = bookings.stream()
+                .map(booking -> booking.request().getEndTime())
+                .max(LocalDateTime::compareTo)
+                .orElseThrow();
+
+        Map<Integer, Workspace> workspaces = workspaceRepository.findAllById(workspaceIds)
+                .stream()
+                .collect(Collectors.toMap(Workspace::getId, Function.identity()));
+        Map<Integer, List<Reservation>> schedule = new HashMap<>();
+        for (Reservation existing : reservationRepository.findActiveOverlappingForWorkspaces(workspaceIds, from, to)) {
+            schedule.computeIfAbsent(existing.getWorkspace().getId(), id -> new ArrayList<>()).add(existing);
+        }
+        Map<Integer, List<WorkspaceClosure>> closures = workspaceClosureRepository
+                .findOverlappingForWorkspaces(workspaceIds, from, to)
+                .stream()
+                .collect(Collectors.groupingBy(WorkspaceClosure::getWorkspaceId));
+
+        Reservation[] created = new Reservation[bookings.size()];
+        BusinessError[] errors = new BusinessError[bookings.size()];
+        List<Reservation> accepted = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            QueuedBooking booking = bookings.get(i);
+            CreateReservationRequest request = booking.request();
+            Workspace workspace = workspaces.get(request.getWorkspaceId());
+            if (workspace == null) {
+                errors[i] = new BusinessError(ErrorCode.WORKSPACE_NOT_FOUND, "Рабочее место не найдено");
+                continue;
+            }
+            if (!workspace.getIsActive()) {
+                errors[i] = new BusinessError(ErrorCode.WORKSPACE_INACTIVE, "Рабочее место неактивно");
+                continue;
+            }
+            if (closures.getOrDefault(workspace.getId(), List.of()).stream()
+                    .anyMatch(closure -> closure.overlaps(request.getStartTime(), request.getEndTime()))) {
+                errors[i] = new BusinessError(ErrorCode.WORKSPACE_CLOSED,
+                        "Рабочее место закрыто на обслуживание в указанное время");
+                continue;
+            }
+
+            Reservation reservation = new Reservation(booking.userId(), workspace,
+                    request.getStartTime(), request.getEndTime());
+            reservation.setStatus(ReservationStatus.ACTIVE);
+            if (workspace.getIsShared()) {
+                if (!sharedWorkspaceOccupancy.hasRoom(workspace.getId(), workspace.getCapacity(),
+                        request.getStartTime(), request.getEndTime(), booking.userId())) {
+                    errors[i] = new BusinessError(ErrorCode.ZONE_FULL, "Все места в зоне заняты на указанное время");
+                    continue;
+                }
+                errors[i] = reservationQuota.tryAcquire(booking.userId(), booking.role(), 1);
+                if (errors[i] != null) {
+                    continue;
+                }
+                // Место занимается сразу, поэтому следующие заявки пачки его уже видят;
+                // место, занятое параллельно после проверки, исправит сверка лимита
+                if (!sharedWorkspaceOccupancy.tryAdmit(workspace, request.getStartTime(), request.getEndTime(),
+                        booking.userId())) {
+                    errors[i] = new BusinessError(ErrorCode.ZONE_FULL, "Все места в зоне заняты на указанное время");
+                    continue;
+                }
+                accepted.add(reservation);
+                created[i] = reservation;
+                continue;
+            }
+            List<Reservation> workspaceSchedule = schedule.computeIfAbsent(workspace.getId(), id -> new ArrayList<>());
+            if (workspaceSchedule.stream().anyMatch(reservation::overlapsWith)) {
+                errors[i] = new BusinessError(ErrorCode.SLOT_BOOKED, "Место уже забронировано на указанное время");
+                continue;
+            }
+            if (holdRegistry.hasOverlappingHold(workspace.getId(), request.getStartTime(),
+                    request.getEndTime(), booking.userId())) {
+                errors[i] = new BusinessError(ErrorCode.SLOT_HELD,
+                        "Слот временно удерживается другим пользователем");
+                continue;
+            }
+            errors[i] = reservationQuota.tryAcquire(booking.userId(), booking.role(), 1);
+            if (errors[i] != null) {
+                continue;
+            }
+
+            workspaceSchedule.add(reservation);
+            accepted.add(reservation);
+            created[i] = reservation;
+        }
+
+        reservationRepository.saveAll(accepted);
+        occupancyRollupService.applyDeltas(accepted.stream()
+                .map(reservation -> new OccupancyRollupService.OccupancyInterval(
+                        reservation.getWorkspace().getId(), reservation.getStartTime(), reservation.getEndTime()))
+                .toList(), 1);
+        if (!accepted.isEmpty()) {
+            eventPublisher.publishEvent(new ReservationsChangedEvent(
+                    accepted.stream().map(Reservation::getUserId).collect(Collectors.toSet()),
+                    accepted.stream().map(reservation -> reservation.getWorkspace().getId()).collect(Collectors.toSet())));
+        }
+
+        List<QueuedBookingResult> results = new ArrayList<>(bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            results.add(new QueuedBookingResult(created[i] != null ? convertToDto(created[i]) : null, errors[i]));
+        }
+        return results;
+    }
+
     /**
      * Получает бронирование по ID
      * 
@@ -84,6 +291,29 @@ public class ReservationService {
                 .map(this::convertToDto);
     }
 
+    /**
+     * Получает бронирования по списку ID одним запросом
+     * 
+     * Бронирования других пользователей отмечаются как отсутствующие, если
+     * указан владелец, поэтому по ответу нельзя узнать, существует ли чужое
+     * бронирование.
+     * 
+     * @param ids ID бронирований (повторы допускаются)
+     * @param ownerId ID пользователя, чьи бронирования возвращаются (null — любые)
+     * @return результаты в порядке запрошенных ID с отметками об отсутствии
+     * @throws BusinessException с кодом INVALID_REQUEST, если список пуст или длиннее допустимого
+     */
+    @Transactional(readOnly = true)
+    public List<MultiGetItem<ReservationDto>> getReservationsByIds(List<Integer> ids, Integer ownerId) {
+        Set<Integer> distinctIds = MultiGet.distinctIds(ids, maxMultiGetIds);
+        Map<Integer, ReservationDto> found = reservationRepository.findAllByIdWithWorkspace(distinctIds)
+                .stream()
+                .filter(reservation -> ownerId == null || ownerId.equals(reservation.getUserId()))
+                .map(this::convertToDto)
+                .collect(Collectors.toMap(ReservationDto::getId, Function.identity()));
+        return MultiGet.inRequestOrder(ids, found);
+    }
+
     /**
      * Получает все бронирования пользователя
      * 
@@ -98,6 +328,21 @@ public class ReservationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Получает все бронирования пользователя с выборкой полей
+     * 
+     * @param userId ID пользователя
+     * @param fields запрошенные поля
+     * @return список бронирований пользователя
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationDto> getUserReservations(Integer userId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getUserReservations(userId);
+        }
+        return queryProjected(fields, "r.user_id = ?", "r.start_time DESC", userId);
+    }
+
     /**
      * Получает активные бронирования пользователя
      * 
@@ -112,24 +357,58 @@ public class ReservationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Получает активные бронирования пользователя с выборкой полей
+     * 
+     * @param userId ID пользователя
+     * @param fields запрошенные поля
+     * @return список активных бронирований
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationDto> getUserActiveReservations(Integer userId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getUserActiveReservations(userId);
+        }
+        return queryProjected(fields, "r.user_id = ? AND r.status = 'ACTIVE'", "r.start_time DESC", userId);
+    }
+
     /**
      * Отменяет бронирование
      * 
+     * Освободившийся интервал сразу предлагается листу ожидания.
+     * При параллельном изменении того же бронирования вызов повторяется.
+     * 
      * @param reservationId ID бронирования
      * @param userId ID пользователя (для проверки прав)
      * @return true если бронирование было отменено
+     * @throws org.springframework.dao.ConcurrencyFailureException если конфликт не разрешился за все попытки
      */
+    @RetryOnConflict
     public boolean cancelReservation(Integer reservationId, Integer userId) {
         return reservationRepository.findById(reservationId)
                 .map(reservation -> {
                     if (!reservation.getUserId().equals(userId)) {
-                        throw new IllegalArgumentException("Нет прав для отмены этого бронирования");
+                        throw new BusinessException(ErrorCode.ACCESS_DENIED, "Нет прав для отмены этого бронирования");
                     }
                     if (!reservation.isActive()) {
-                        throw new IllegalArgumentException("Бронирование уже отменено или завершено");
+                        throw new BusinessException(ErrorCode.RESERVATION_NOT_ACTIVE,
+                                "Бронирование уже отменено или завершено");
+                    }
+                    // Общая зона блокируется до изменения строки: перечитанная занятость еще видит бронирование
+                    if (reservation.getWorkspace().getIsShared()) {
+                        sharedWorkspaceOccupancy.release(reservation.getWorkspace().getId(),
+                                reservation.getStartTime(), reservation.getEndTime());
                     }
                     reservation.setStatus(ReservationStatus.CANCELLED);
                     reservationRepository.save(reservation);
+                    if (reservation.getEndTime().isAfter(LocalDateTime.now())) {
+                        reservationQuota.recordCancelled(userId, 1);
+                    }
+                    occupancyRollupService.removeInterval(reservation.getWorkspace().getId(),
+                            reservation.getStartTime(), reservation.getEndTime());
+                    eventPublisher.publishEvent(ReservationsChangedEvent.of(userId, reservation.getWorkspace().getId()));
+                    waitlistService.promoteWaiters(reservation.getWorkspace().getId(),
+                            reservation.getStartTime(), reservation.getEndTime());
                     return true;
                 })
                 .orElse(false);
@@ -138,12 +417,16 @@ public class ReservationService {
     /**
      * Обновляет время бронирования
      * 
+     * При параллельном изменении того же бронирования вызов повторяется.
+     * 
      * @param reservationId ID бронирования
      * @param userId ID пользователя
      * @param newStartTime новое время начала
      * @param newEndTime новое время окончания
      * @return обновленное бронирование
+     * @throws org.springframework.dao.ConcurrencyFailureException если конфликт не разрешился за все попытки
      */
+    @RetryOnConflict
     public Optional<ReservationDto> updateReservationTime(Integer reservationId, Integer userId,
                                                          LocalDateTime newStartTime, LocalDateTime newEndTime) {
         validateTimeRange(newStartTime, newEndTime);
@@ -151,24 +434,51 @@ public class ReservationService {
         return reservationRepository.findById(reservationId)
                 .map(reservation -> {
                     if (!reservation.getUserId().equals(userId)) {
-                        throw new IllegalArgumentException("Нет прав для изменения этого бронирования");
+                        throw new BusinessException(ErrorCode.ACCESS_DENIED,
+                                "Нет прав для изменения этого бронирования");
                     }
                     if (!reservation.isActive()) {
-                        throw new IllegalArgumentException("Нельзя изменить отмененное или завершенное бронирование");
+                        throw new BusinessException(ErrorCode.RESERVATION_NOT_ACTIVE,
+                                "Нельзя изменить отмененное или завершенное бронирование");
                     }
                     
-                    // Проверяем доступность места на новое время
-                    List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservations(
-                            reservation.getWorkspace().getId(), newStartTime, newEndTime, reservationId);
-                    
-                    if (!overlappingReservations.isEmpty()) {
-                        throw new IllegalArgumentException("Место уже забронировано на новое время");
+                    Workspace workspace = reservation.getWorkspace();
+                    Integer workspaceId = workspace.getId();
+                    if (workspaceClosureRepository.existsOverlapping(workspaceId, newStartTime, newEndTime)) {
+                        throw new BusinessException(ErrorCode.WORKSPACE_CLOSED,
+                                "Рабочее место закрыто на обслуживание в новое время");
+                    }
+
+                    if (workspace.getIsShared()) {
+                        sharedWorkspaceOccupancy.move(workspace, reservation.getStartTime(), reservation.getEndTime(),
+                                newStartTime, newEndTime, userId);
+                    } else {
+                        // Проверяем доступность места на новое время
+                        List<Reservation> overlappingReservations = reservationRepository.findOverlappingReservations(
+                                workspaceId, newStartTime, newEndTime, reservationId);
+                        
+                        if (!overlappingReservations.isEmpty()) {
+                            throw new BusinessException(ErrorCode.SLOT_BOOKED,
+                                    "Место уже забронировано на новое время");
+                        }
+                        if (holdRegistry.hasOverlappingHold(workspaceId, newStartTime, newEndTime, userId)) {
+                            throw new BusinessException(ErrorCode.SLOT_HELD,
+                                    "Новое время временно удерживается другим пользователем");
+                        }
                     }
                     
+                    occupancyRollupService.removeInterval(workspaceId, reservation.getStartTime(), reservation.getEndTime());
+                    occupancyRollupService.addInterval(workspaceId, newStartTime, newEndTime);
+
+                    LocalDateTime oldStartTime = reservation.getStartTime();
+                    LocalDateTime oldEndTime = reservation.getEndTime();
                     reservation.setStartTime(newStartTime);
                     reservation.setEndTime(newEndTime);
                     
                     Reservation savedReservation = reservationRepository.save(reservation);
+                    eventPublisher.publishEvent(ReservationsChangedEvent.of(userId, workspaceId));
+                    // Старый интервал мог освободиться для ожидающих
+                    waitlistService.promoteWaiters(workspaceId, oldStartTime, oldEndTime);
                     return convertToDto(savedReservation);
                 });
     }
@@ -187,6 +497,21 @@ public class ReservationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Получает активные бронирования рабочего места с выборкой полей
+     * 
+     * @param workspaceId ID рабочего места
+     * @param fields запрошенные поля
+     * @return список бронирований
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationDto> getWorkspaceReservations(Integer workspaceId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getWorkspaceReservations(workspaceId);
+        }
+        return queryProjected(fields, "r.workspace_id = ? AND r.status = 'ACTIVE'", "r.start_time", workspaceId);
+    }
+
     /**
      * Получает бронирования в указанном временном диапазоне
      * 
@@ -204,6 +529,43 @@ public class ReservationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Получает бронирования в указанном временном диапазоне с выборкой полей
+     * 
+     * @param startTime время начала диапазона
+     * @param endTime время окончания диапазона
+     * @param fields запрошенные поля
+     * @return список бронирований
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationDto> getReservationsInTimeRange(LocalDateTime startTime, LocalDateTime endTime,
+                                                           FieldSelection fields) {
+        if (fields.isAll()) {
+            return getReservationsInTimeRange(startTime, endTime);
+        }
+        validateTimeRange(startTime, endTime);
+        return queryProjected(fields, "r.start_time >= ? AND r.end_time <= ?", "r.start_time", startTime, endTime);
+    }
+
+    /**
+     * Читает бронирования только с запрошенными столбцами
+     * 
+     * Рабочие места присоединяются, только если запрошено их название.
+     * 
+     * @param fields запрошенные поля
+     * @param where условие отбора
+     * @param orderBy порядок сортировки
+     * @param args параметры условия
+     * @return список DTO с заполненными запрошенными полями
+     */
+    private List<ReservationDto> queryProjected(FieldSelection fields, String where, String orderBy, Object... args) {
+        SqlProjection.Selection<ReservationDto> selection = PROJECTION.select(fields);
+        String sql = "SELECT " + selection.getSelectList() + " FROM booking.reservations r"
+                + (fields.includes("workspaceName") ? " JOIN booking.workspaces w ON w.id = r.workspace_id" : "")
+                + " WHERE " + where + " ORDER BY " + orderBy;
+        return jdbcTemplate.query(sql, selection, args);
+    }
+
     /**
      * Конвертирует сущность в DTO
      * 
@@ -228,13 +590,26 @@ public class ReservationService {
      * Валидирует запрос на создание бронирования
      * 
      * @param request запрос
-     * @throws IllegalArgumentException если данные некорректны
+     * @throws BusinessException с кодом INVALID_REQUEST или INVALID_TIME_RANGE, если данные некорректны
+     */
+    void validateCreateRequest(CreateReservationRequest request) {
+        BusinessError error = checkCreateRequest(request);
+        if (error != null) {
+            throw error.toException();
+        }
+    }
+
+    /**
+     * Проверяет запрос на создание бронирования без исключения
+     * 
+     * @param request запрос
+     * @return ошибка или null, если данные корректны
      */
-    private void validateCreateRequest(CreateReservationRequest request) {
+    BusinessError checkCreateRequest(CreateReservationRequest request) {
         if (request.getWorkspaceId() == null) {
-            throw new IllegalArgumentException("ID рабочего места обязателен");
+            return new BusinessError(ErrorCode.INVALID_REQUEST, "ID рабочего места обязателен");
         }
-        validateTimeRange(request.getStartTime(), request.getEndTime());
+        return checkTimeRange(request.getStartTime(), request.getEndTime());
     }
 
     /**
@@ -242,20 +617,54 @@ public class ReservationService {
      * 
      * @param startTime время начала
      * @param endTime время окончания
-     * @throws IllegalArgumentException если диапазон некорректный
+     * @throws BusinessException с кодом INVALID_TIME_RANGE, если диапазон некорректный
      */
     private void validateTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
+        BusinessError error = checkTimeRange(startTime, endTime);
+        if (error != null) {
+            throw error.toException();
+        }
+    }
+
+    /**
+     * Проверяет временной диапазон без исключения
+     * 
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @return ошибка или null, если диапазон корректный
+     */
+    private BusinessError checkTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
         if (startTime == null || endTime == null) {
-            throw new IllegalArgumentException("Время начала и окончания не может быть null");
+            return new BusinessError(ErrorCode.INVALID_TIME_RANGE, "Время начала и окончания не может быть null");
         }
         if (startTime.isAfter(endTime)) {
-            throw new IllegalArgumentException("Время начала не может быть позже времени окончания");
+            return new BusinessError(ErrorCode.INVALID_TIME_RANGE,
+                    "Время начала не может быть позже времени окончания");
         }
         if (startTime.isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Время начала не может быть в прошлом");
+            return new BusinessError(ErrorCode.INVALID_TIME_RANGE, "Время начала не может быть в прошлом");
         }
         if (startTime.isEqual(endTime)) {
-            throw new IllegalArgumentException("Время начала и окончания не может быть одинаковым");
+            return new BusinessError(ErrorCode.INVALID_TIME_RANGE,
+                    "Время начала и окончания не может быть одинаковым");
         }
+        return null;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Заявка на бронирование из очереди записи
+     * 
+     * @param userId ID пользователя
+     * @param role роль пользователя
+     * @param request данные для создания бронирования
+     */
+    public record QueuedBooking(Integer userId, String role, CreateReservationRequest request) {}
+
+    /**
+     * Результат обработки заявки из очереди записи
+     * 
+     * @param reservation созданное бронирование (null, если заявка отклонена)
+     * @param error причина отклонения с кодом (null, если бронирование создано)
+     */
+    public record QueuedBookingResult(ReservationDto reservation, BusinessError error) {}
+}
@@ -0,0 +1,16 @@
+package com.coworking.bookingservice.service;
+
+import java.util.List;
+
+/**
+ * Событие массовой отмены бронирований одного пользователя
+ * 
+ * Публикуется после фиксации отмены, одно событие на пользователя.
+ * 
+ * @param userId ID пользователя
+ * @param workspaceId ID рабочего места
+ * @param reservationIds ID отмененных бронирований
+ * @param reason причина отмены
+ */
+public record ReservationsCancelledEvent(Integer userId, Integer workspaceId, List<Integer> reservationIds,
+                                         String reason) {}
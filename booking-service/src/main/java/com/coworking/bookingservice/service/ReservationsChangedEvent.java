@@ -0,0 +1,22 @@
+package com.coworking.bookingservice.service;
+
+import java.util.Set;
+
+/**
+ * Событие изменения бронирований
+ * 
+ * Публикуется при создании, изменении и отмене бронирований и при их импорте.
+ * Слушатели получают его после фиксации транзакции.
+ * 
+ * @param userIds ID пользователей, чьи бронирования изменились (null при массовом изменении)
+ * @param workspaceIds ID затронутых рабочих мест (null при массовом изменении)
+ */
+public record ReservationsChangedEvent(Set<Integer> userIds, Set<Integer> workspaceIds) {
+
+    /**
+     * Событие об изменении одного бронирования
+     */
+    public static ReservationsChangedEvent of(Integer userId, Integer workspaceId) {
+        return new ReservationsChangedEvent(Set.of(userId), Set.of(workspaceId));
+    }
+}
@@ -0,0 +1,323 @@
+package com.coworking.bookingservice.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.coworking.bookingservice.dto.ClusterReservationRequest;
+import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.dto.WorkspaceDto;
+import com.coworking.bookingservice.repository.WorkspaceRepository;
+import com.coworking.bookingservice.support.BusinessException;
+import com.coworking.bookingservice.support.ErrorCode;
+
+/**
+ * Сервис схемы зала: соседство рабочих мест и бронирование групп соседних мест
+ * 
+ * Граф соседства хранится в памяти и перестраивается после изменений рабочих
+ * мест. Группа подбирается обходом графа по битовой карте свободных мест:
+ * от каждого свободного места группа жадно наращивается соседями, которые
+ * имеют больше всего связей с уже выбранными местами. Лучшей считается группа
+ * с наибольшим числом внутренних связей, при равенстве - с наименьшей суммой
+ * попарных расстояний на плане этажа.
+ */
+@Service
+public class SeatMapService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatMapService.class);
+
+    private static final String SELECT_EDGES_SQL = "SELECT workspace_id, neighbor_id FROM booking.workspace_adjacency";
+
+    private static final String DELETE_EDGES_SQL = """
+            DELETE FROM booking.workspace_adjacency WHERE workspace_id = ? OR neighbor_id = ?
+            """;
+
+    private static final String INSERT_EDGE_SQL = """
+            INSERT INTO booking.workspace_adjacency (workspace_id, neighbor_id) VALUES (?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceService workspaceService;
+    private final GroupBookingService groupBookingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxClusterSize;
+    private volatile Map<Integer, int[]> adjacency;
+
+    public SeatMapService(JdbcTemplate jdbcTemplate,
+                          WorkspaceRepository workspaceRepository,
+                          WorkspaceService workspaceService,
+                          GroupBookingService groupBookingService,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${app.booking.group.max-size:50}") int maxClusterSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.workspaceRepository = workspaceRepository;
+        this.workspaceService = workspaceService;
+        this.groupBookingService = groupBookingService;
+        this.eventPublisher = eventPublisher;
+        this.maxClusterSize = maxClusterSize;
+    }
+
+    /**
+     * Получает соседей рабочего места
+     * 
+     * @param workspaceId ID рабочего места
+     * @return ID соседних рабочих мест по возрастанию
+     */
+    public List<Integer> getNeighbors(Integer workspaceId) {
+        int[] neighbors = getAdjacency().getOrDefault(workspaceId, new int[0]);
+        return Arrays.stream(neighbors).boxed().toList();
+    }
+
+    /**
+     * Заменяет соседей рабочего места
+     * 
+     * Соседство симметрично: место становится соседом каждого из указанных.
+     * 
+     * @param workspaceId ID рабочего места
+     * @param neighborIds ID новых соседей
+     * @return ID соседей по возрастанию
+     * @throws BusinessException с кодом WORKSPACE_NOT_FOUND или INVALID_REQUEST, если место или соседи не найдены
+     */
+    @Transactional
+    public List<Integer> setNeighbors(Integer workspaceId, List<Integer> neighborIds) {
+        if (!workspaceRepository.existsById(workspaceId)) {
+            throw new BusinessException(ErrorCode.WORKSPACE_NOT_FOUND, "Рабочее место не найдено");
+        }
+        TreeSet<Integer> neighbors = new TreeSet<>(neighborIds != null ? neighborIds : List.of());
+        if (neighbors.contains(workspaceId)) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST, "Рабочее место не может быть соседом самому себе");
+        }
+        if (workspaceRepository.findAllById(neighbors).size() != neighbors.size()) {
+            throw new BusinessException(ErrorCode.WORKSPACE_NOT_FOUND, "Соседнее рабочее место не найдено");
+        }
+
+        jdbcTemplate.update(DELETE_EDGES_SQL, workspaceId, workspaceId);
+        List<Integer> ordered = new ArrayList<>(neighbors);
+        jdbcTemplate.batchUpdate(INSERT_EDGE_SQL, ordered, ordered.size(), (ps, neighborId) -> {
+            ps.setInt(1, Math.min(workspaceId, neighborId));
+            ps.setInt(2, Math.max(workspaceId, neighborId));
+        });
+        eventPublisher.publishEvent(new WorkspacesChangedEvent(workspaceId));
+        return ordered;
+    }
+
+    /**
+     * Находит лучшую группу свободных соседних мест на период
+     * 
+     * Места группы образуют связный подграф графа соседства.
+     * 
+     * @param size количество мест
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param floors допустимые этажи (может быть null)
+     * @param zones допустимые зоны (может быть null)
+     * @return места группы по возрастанию ID или пустой список, если группы нет
+     * @throws BusinessException с кодом INVALID_REQUEST или INVALID_TIME_RANGE, если параметры некорректны
+     */
+    public List<WorkspaceDto> findBestCluster(int size, LocalDateTime startTime, LocalDateTime endTime,
+                                              List<Integer> floors, List<String> zones) {
+        if (size < 1 || size > maxClusterSize) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST,
+                    "Количество мест должно быть от 1 до " + maxClusterSize);
+        }
+        if (startTime == null || endTime == null) {
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE, "Время начала и окончания не может быть null");
+        }
+
+        Map<Integer, WorkspaceDto> free = workspaceService
+                .searchWorkspaces(floors, zones, null, null, null, startTime, endTime)
+                .stream()
+                .collect(Collectors.toMap(WorkspaceDto::getId, Function.identity()));
+        RoaringBitmap freeIds = new RoaringBitmap();
+        free.keySet().forEach(freeIds::add);
+
+        Map<Integer, int[]> graph = getAdjacency();
+        Cluster best = null;
+        for (int seed : freeIds) {
+            Cluster cluster = grow(seed, size, freeIds, graph, free);
+            if (cluster != null && (best == null || cluster.isBetterThan(best))) {
+                best = cluster;
+            }
+        }
+        if (best == null) {
+            return List.of();
+        }
+        return best.members().stream()
+                .sorted()
+                .map(free::get)
+                .toList();
+    }
+
+    /**
+     * Бронирует лучшую группу свободных соседних мест
+     * 
+     * @param userId ID пользователя
+     * @param role роль пользователя (определяет лимит активных бронирований)
+     * @param request размер группы, период и ограничения по этажам и зонам
+     * @return созданные бронирования
+     * @throws BusinessException если параметры некорректны (INVALID_REQUEST), подходящей группы нет или она
+     *         занята параллельно (NOT_ENOUGH_SEATS) или превышен лимит (QUOTA_EXCEEDED)
+     */
+    public List<ReservationDto> bookCluster(Integer userId, String role, ClusterReservationRequest request) {
+        if (request.getSize() == null) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST, "Количество мест обязательно");
+        }
+        List<WorkspaceDto> cluster = findBestCluster(request.getSize(), request.getStartTime(),
+                request.getEndTime(), request.getFloors(), request.getZones());
+        if (cluster.isEmpty()) {
+            throw new BusinessException(ErrorCode.NOT_ENOUGH_SEATS, "Нет " + request.getSize()
+                    + " свободных соседних мест на указанное время");
+        }
+        // Групповое бронирование заново проверяет места под блокировками
+        return groupBookingService.createGroupReservation(userId, role, cluster.stream()
+                .map(workspace -> new CreateReservationRequest(workspace.getId(),
+                        request.getStartTime(), request.getEndTime()))
+                .toList());
+    }
+
+    /**
+     * Перестраивает граф соседства по текущему состоянию базы
+     */
+    public synchronized void rebuild() {
+        Map<Integer, Set<Integer>> edges = new HashMap<>();
+        jdbcTemplate.query(SELECT_EDGES_SQL, rs -> {
+            int workspaceId = rs.getInt("workspace_id");
+            int neighborId = rs.getInt("neighbor_id");
+            edges.computeIfAbsent(workspaceId, id -> new TreeSet<>()).add(neighborId);
+            edges.computeIfAbsent(neighborId, id -> new TreeSet<>()).add(workspaceId);
+        });
+        Map<Integer, int[]> graph = new HashMap<>();
+        edges.forEach((id, neighbors) -> graph.put(id,
+                neighbors.stream().mapToInt(Integer::intValue).toArray()));
+        adjacency = graph;
+        log.info("Граф соседства рабочих мест перестроен: {} мест", graph.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkspacesChanged(WorkspacesChangedEvent event) {
+        rebuild();
+    }
+
+    private Map<Integer, int[]> getAdjacency() {
+        Map<Integer, int[]> current = adjacency;
+        if (current == null) {
+            rebuild();
+            current = adjacency;
+        }
+        return current;
+    }
+
+    /**
+     * Жадно наращивает группу от заданного места
+     * 
+     * @return группа или null, если связная компонента свободных мест меньше size
+     */
+    private Cluster grow(int seed, int size, RoaringBitmap freeIds, Map<Integer, int[]> graph,
+                         Map<Integer, WorkspaceDto> free) {
+        Set<Integer> members = new LinkedHashSet<>();
+        members.add(seed);
+        // Кандидат -> количество связей с местами группы
+        Map<Integer, Integer> frontier = new HashMap<>();
+        addNeighbors(seed, members, frontier, freeIds, graph);
+
+        int internalEdges = 0;
+        while (members.size() < size) {
+            if (frontier.isEmpty()) {
+                return null;
+            }
+            Comparator<Map.Entry<Integer, Integer>> byLinks = Map.Entry.comparingByValue();
+            Map.Entry<Integer, Integer> next = frontier.entrySet().stream()
+                    .max(byLinks
+                            .thenComparing(entry -> -distanceTo(entry.getKey(), members, free))
+                            .thenComparing(entry -> -entry.getKey()))
+                    .orElseThrow();
+            int candidate = next.getKey();
+            internalEdges += next.getValue();
+            frontier.remove(candidate);
+            members.add(candidate);
+            addNeighbors(candidate, members, frontier, freeIds, graph);
+        }
+
+        long pairwiseDistance = 0;
+        List<Integer> ordered = new ArrayList<>(members);
+        for (int i = 0; i < ordered.size(); i++) {
+            pairwiseDistance += distanceTo(ordered.get(i), ordered.subList(i + 1, ordered.size()), free);
+        }
+        return new Cluster(ordered, internalEdges, pairwiseDistance);
+    }
+
+    private void addNeighbors(int workspaceId, Set<Integer> members, Map<Integer, Integer> frontier,
+                              RoaringBitmap freeIds, Map<Integer, int[]> graph) {
+        for (int neighbor : graph.getOrDefault(workspaceId, new int[0])) {
+            if (freeIds.contains(neighbor) && !members.contains(neighbor)) {
+                frontier.merge(neighbor, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Сумма манхэттенских расстояний от места до мест группы на плане этажа
+     * 
+     * Места без координат считаются совпадающими.
+     */
+    private long distanceTo(int workspaceId, Iterable<Integer> others, Map<Integer, WorkspaceDto> free) {
+        WorkspaceDto workspace = free.get(workspaceId);
+        if (workspace.getPosX() == null || workspace.getPosY() == null) {
+            return 0;
+        }
+        long distance = 0;
+        for (Integer otherId : others) {
+            WorkspaceDto other = free.get(otherId);
+            if (other.getPosX() != null && other.getPosY() != null) {
+                distance += Math.abs(workspace.getPosX() - other.getPosX())
+                        + Math.abs(workspace.getPosY() - other.getPosY());
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Группа соседних мест
+     * 
+     * @param members места группы в порядке добавления
+     * @param internalEdges количество связей между местами группы
+     * @param pairwiseDistance сумма попарных расстояний на плане этажа
+     */
+    private record Cluster(List<Integer> members, int internalEdges, long pairwiseDistance) {
+
+        boolean isBetterThan(Cluster other) {
+            if (internalEdges != other.internalEdges) {
+                return internalEdges > other.internalEdges;
+            }
+            return pairwiseDistance < other.pairwiseDistance;
+        }
+    }
+}
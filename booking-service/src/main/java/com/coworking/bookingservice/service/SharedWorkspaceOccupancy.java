@@ -0,0 +1,505 @@
+package com.coworking.bookingservice.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.coworking.bookingservice.entity.Workspace;
+import com.coworking.bookingservice.repository.ReservationRepository;
+import com.coworking.bookingservice.support.BusinessException;
+import com.coworking.bookingservice.support.ErrorCode;
+import com.coworking.bookingservice.support.SlotSegmentTree;
+
+/**
+ * Занятость общих зон
+ *
+ * В общей зоне (isShared) бронирования могут пересекаться, пока число
+ * одновременных гостей не превышает вместимость. Для каждой зоны в памяти
+ * хранится дерево отрезков над временем в микросекундах (точность колонок
+ * timestamp), поэтому интервалы учитываются точно, без округления до слотов.
+ * Бронирование прибавляет 1 к своему интервалу, а проверка свободного места —
+ * это максимум по интервалу, так что допуск выполняется за O(log n) без
+ * перебора пересекающихся строк. Завершившиеся интервалы вычитаются из
+ * дерева, и их узлы освобождаются.
+ *
+ * Решение о допуске принимает дерево. Изменения зоны в транзакции (допуск,
+ * перенос, отмена) выполняются под блокировкой строки зоны
+ * (SELECT ... FOR UPDATE), поэтому все экземпляры сервиса изменяют зону по
+ * очереди. Триггеры базы (V10) записывают в строку зоны новую версию при
+ * любом изменении ее активных интервалов; под блокировкой версия сверяется
+ * с версией дерева, и при расхождении (бронирования другого экземпляра,
+ * импорт, массовая отмена) зона перечитывается из базы. Изменения дерева
+ * учитываются сразу и возвращаются при откате транзакции; после фиксации
+ * дерево получает версию, записанную транзакцией.
+ *
+ * Проверка без блокировки (hasRoom) — предварительная: она пользуется деревом
+ * как есть и перечитывает его из базы не реже заданного интервала.
+ */
+@Component
+public class SharedWorkspaceOccupancy {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedWorkspaceOccupancy.class);
+
+    private static final String ACTIVE_INTERVALS_SQL = """
+            SELECT start_time, end_time FROM booking.reservations
+            WHERE workspace_id = ? AND status = 'ACTIVE' AND end_time > ?
+            """;
+
+    private static final String OCCUPANCY_VERSION_SQL = "SELECT occupancy_version FROM booking.workspaces WHERE id = ?";
+
+    private static final String LOCK_WORKSPACE_SQL = OCCUPANCY_VERSION_SQL + " FOR UPDATE";
+
+    // 2^53 микросекунд покрывают почти три века после 1970 года
+    private static final int DOMAIN_BITS = 53;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReservationRepository reservationRepository;
+    private final HoldRegistry holdRegistry;
+    private final long rebuildIntervalMillis;
+    private final Map<Integer, SharedSpace> spaces = new ConcurrentHashMap<>();
+
+    public SharedWorkspaceOccupancy(JdbcTemplate jdbcTemplate,
+                                    ReservationRepository reservationRepository,
+                                    HoldRegistry holdRegistry,
+                                    @Value("${app.booking.shared.rebuild-interval:3600000}") long rebuildIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reservationRepository = reservationRepository;
+        this.holdRegistry = holdRegistry;
+        this.rebuildIntervalMillis = rebuildIntervalMillis;
+    }
+
+    /**
+     * Проверяет, есть ли в общей зоне место на весь интервал
+     *
+     * Удержания других пользователей занимают по месту каждое. Проверка не
+     * блокирует зону; окончательное решение принимают tryAdmit и move.
+     *
+     * @param workspaceId ID рабочего места
+     * @param capacity вместимость зоны
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param userId ID пользователя, чьи удержания не учитываются (может быть null)
+     * @return true если найдется место еще для одного гостя
+     */
+    public boolean hasRoom(Integer workspaceId, int capacity, LocalDateTime startTime, LocalDateTime endTime,
+                           Integer userId) {
+        long from = point(startTime);
+        long to = point(endTime);
+        SharedSpace space = space(workspaceId);
+        synchronized (space) {
+            boolean expired = space.stale
+                    || System.currentTimeMillis() - space.loadedAtMillis >= rebuildIntervalMillis;
+            // Незавершенные транзакции зоны уже изменили дерево, и перечитывание потеряло бы их изменения
+            if (space.tree == null || (expired && space.inFlight == 0)) {
+                load(workspaceId, space, jdbcTemplate.queryForObject(OCCUPANCY_VERSION_SQL, Long.class, workspaceId));
+            }
+            return space.max(from, to) + holdRegistry.countOverlappingHolds(workspaceId, startTime, endTime, userId)
+                    < capacity;
+        }
+    }
+
+    /**
+     * Занимает место в общей зоне под новое бронирование
+     *
+     * Если транзакция вызывающего кода откатится, место освобождается.
+     *
+     * @param workspace общая зона
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param userId ID пользователя
+     * @throws BusinessException с кодом ZONE_FULL, если все места заняты хотя бы в один момент интервала
+     */
+    public void admit(Workspace workspace, LocalDateTime startTime, LocalDateTime endTime, Integer userId) {
+        if (!tryAdmit(workspace, startTime, endTime, userId)) {
+            throw new BusinessException(ErrorCode.ZONE_FULL, "Все места в зоне заняты на указанное время");
+        }
+    }
+
+    /**
+     * Занимает место в общей зоне, если оно есть
+     *
+     * В транзакции строка зоны блокируется до ее завершения.
+     *
+     * @param workspace общая зона
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param userId ID пользователя
+     * @return true если место занято
+     */
+    public boolean tryAdmit(Workspace workspace, LocalDateTime startTime, LocalDateTime endTime, Integer userId) {
+        Integer workspaceId = workspace.getId();
+        long from = point(startTime);
+        long to = point(endTime);
+        SharedSpace space = lock(workspaceId);
+        synchronized (space) {
+            int holds = holdRegistry.countOverlappingHolds(workspaceId, startTime, endTime, userId);
+            if (space.max(from, to) + holds >= workspace.getCapacity()) {
+                return false;
+            }
+            space.add(from, to);
+            afterCompletion(space, committed -> {
+                if (!committed) {
+                    space.remove(from, to);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Переносит бронирование общей зоны на новое время
+     *
+     * Собственный старый интервал не мешает новому. Если транзакция
+     * откатится, бронирование возвращается на старое время.
+     *
+     * @param workspace общая зона
+     * @param oldStartTime прежнее время начала
+     * @param oldEndTime прежнее время окончания
+     * @param newStartTime новое время начала
+     * @param newEndTime новое время окончания
+     * @param userId ID пользователя
+     * @throws BusinessException с кодом ZONE_FULL, если на новое время все места заняты
+     */
+    public void move(Workspace workspace, LocalDateTime oldStartTime, LocalDateTime oldEndTime,
+                     LocalDateTime newStartTime, LocalDateTime newEndTime, Integer userId) {
+        Integer workspaceId = workspace.getId();
+        long oldFrom = point(oldStartTime);
+        long oldTo = point(oldEndTime);
+        long newFrom = point(newStartTime);
+        long newTo = point(newEndTime);
+        SharedSpace space = lock(workspaceId);
+        synchronized (space) {
+            boolean removed = space.remove(oldFrom, oldTo);
+            int holds = holdRegistry.countOverlappingHolds(workspaceId, newStartTime, newEndTime, userId);
+            if (space.max(newFrom, newTo) + holds >= workspace.getCapacity()) {
+                if (removed) {
+                    space.add(oldFrom, oldTo);
+                }
+                throw new BusinessException(ErrorCode.ZONE_FULL, "Все места в зоне заняты на новое время");
+            }
+            space.add(newFrom, newTo);
+            afterCompletion(space, committed -> {
+                if (!committed) {
+                    space.remove(newFrom, newTo);
+                    if (removed) {
+                        space.add(oldFrom, oldTo);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Освобождает место в общей зоне под отменяемое бронирование
+     *
+     * Вызывается до изменения строки бронирования: зона блокируется и при
+     * необходимости перечитывается, пока бронирование еще активно. Место
+     * освобождается сразу, чтобы его видели ожидающие в той же транзакции,
+     * и возвращается при откате.
+     *
+     * @param workspaceId ID рабочего места
+     * @param startTime время начала отменяемого бронирования
+     * @param endTime время окончания отменяемого бронирования
+     */
+    public void release(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime) {
+        long from = point(startTime);
+        long to = point(endTime);
+        SharedSpace space = lock(workspaceId);
+        synchronized (space) {
+            if (!space.remove(from, to)) {
+                // Интервал уже завершился
+                return;
+            }
+            afterCompletion(space, committed -> {
+                if (!committed) {
+                    space.add(from, to);
+                }
+            });
+        }
+    }
+
+    /**
+     * Перечитывает зону после массовой отмены ее бронирований
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsCancelled(ReservationsCancelledEvent event) {
+        SharedSpace space = spaces.get(event.workspaceId());
+        if (space != null) {
+            synchronized (space) {
+                space.stale = true;
+            }
+        }
+    }
+
+    /**
+     * Перечитывает все зоны после массовых изменений без списка мест (импорт)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsChanged(ReservationsChangedEvent event) {
+        if (event.workspaceIds() != null) {
+            return;
+        }
+        for (SharedSpace space : spaces.values()) {
+            synchronized (space) {
+                space.stale = true;
+            }
+        }
+    }
+
+    /**
+     * Блокирует строку зоны до конца транзакции и сверяет версию дерева с базой
+     *
+     * Зона блокируется один раз за транзакцию, до первого изменения дерева в
+     * ней. Все изменения зоны выполняются под этой блокировкой, поэтому
+     * незавершенных изменений других транзакций у зоны в этот момент нет, и
+     * перечитанное дерево совпадает с зафиксированным состоянием. Вне
+     * транзакции зона не блокируется.
+     *
+     * @return состояние зоны с актуальным деревом
+     */
+    private SharedSpace lock(Integer workspaceId) {
+        SharedSpace space = space(workspaceId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (space) {
+                if (space.tree == null || space.stale) {
+                    load(workspaceId, space,
+                            jdbcTemplate.queryForObject(OCCUPANCY_VERSION_SQL, Long.class, workspaceId));
+                }
+            }
+            return space;
+        }
+        Map<Integer, Long> locked = lockedZones();
+        if (!locked.containsKey(workspaceId)) {
+            Long version = jdbcTemplate.queryForObject(LOCK_WORKSPACE_SQL, Long.class, workspaceId);
+            synchronized (space) {
+                if (space.tree == null || space.stale || !space.matches(version)) {
+                    load(workspaceId, space, version);
+                }
+                space.version = version;
+                locked.put(workspaceId, space.generation);
+            }
+        }
+        return space;
+    }
+
+    /**
+     * Возвращает зоны, заблокированные текущей транзакцией (ID зоны → поколение дерева)
+     *
+     * Перед фиксацией транзакция записывает в дерево каждой зоны версию,
+     * которую ее изменения оставили в базе.
+     */
+    private Map<Integer, Long> lockedZones() {
+        @SuppressWarnings("unchecked")
+        Map<Integer, Long> locked = (Map<Integer, Long>) TransactionSynchronizationManager.getResource(this);
+        if (locked != null) {
+            return locked;
+        }
+        Map<Integer, Long> registered = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, registered);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private final Map<Integer, Long> versions = new HashMap<>();
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Изменения бронирований должны дойти до триггеров версии
+                reservationRepository.flush();
+                registered.forEach((workspaceId, generation) -> {
+                    Long version = jdbcTemplate.queryForObject(OCCUPANCY_VERSION_SQL, Long.class, workspaceId);
+                    versions.put(workspaceId, version);
+                    SharedSpace space = space(workspaceId);
+                    synchronized (space) {
+                        // Строка зоны освободится при фиксации раньше, чем выполнится afterCompletion:
+                        // следующая транзакция должна принять эту версию без перечитывания
+                        if (space.generation == generation) {
+                            space.pendingVersion = version;
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SharedWorkspaceOccupancy.this);
+                if (status != STATUS_COMMITTED) {
+                    return;
+                }
+                versions.forEach((workspaceId, version) -> {
+                    SharedSpace space = space(workspaceId);
+                    synchronized (space) {
+                        if (space.generation == registered.get(workspaceId)) {
+                            space.version = version;
+                        }
+                    }
+                });
+            }
+        });
+        return registered;
+    }
+
+    private SharedSpace space(Integer workspaceId) {
+        return spaces.computeIfAbsent(workspaceId, id -> new SharedSpace());
+    }
+
+    /**
+     * Перечитывает дерево зоны из базы (под монитором зоны)
+     *
+     * Действия незавершенных транзакций, изменивших прежнее дерево, после
+     * перечитывания не выполняются: новое дерево уже отражает базу.
+     */
+    private void load(Integer workspaceId, SharedSpace space, Long version) {
+        LocalDateTime now = LocalDateTime.now();
+        long loadedAtMillis = System.currentTimeMillis();
+        space.reset();
+        int[] loaded = new int[1];
+        jdbcTemplate.query(ACTIVE_INTERVALS_SQL, rs -> {
+            space.add(point(rs.getObject(1, LocalDateTime.class)), point(rs.getObject(2, LocalDateTime.class)));
+            loaded[0]++;
+        }, workspaceId, now);
+        space.version = version;
+        space.loadedAtMillis = loadedAtMillis;
+        space.stale = false;
+        log.debug("Занятость общей зоны {} загружена: {} бронирований, {} узлов",
+                workspaceId, loaded[0], space.tree.getNodeCount());
+    }
+
+    /**
+     * Выполняет действие после завершения текущей транзакции под монитором зоны
+     *
+     * До завершения зона считается занятой незавершенной транзакцией и не
+     * перечитывается проверкой без блокировки. Если дерево перечитано до
+     * завершения, действие пропускается. Вне транзакции изменение считается
+     * зафиксированным.
+     */
+    private void afterCompletion(SharedSpace space, CompletionAction action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run(true);
+            return;
+        }
+        long generation = space.generation;
+        space.inFlight++;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (space) {
+                    space.inFlight--;
+                    if (space.generation == generation) {
+                        action.run(status == STATUS_COMMITTED);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Переводит время в микросекунды от начала эпохи (точность timestamp в PostgreSQL)
+     */
+    private static long point(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        if (seconds < 0 || seconds >= (1L << DOMAIN_BITS) / 1_000_000) {
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE, "Время вне допустимого диапазона");
+        }
+        return seconds * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    @FunctionalInterface
+    private interface CompletionAction {
+        void run(boolean committed);
+    }
+
+    /**
+     * Интервал бронирования в микросекундах; упорядочен по окончанию, чтобы
+     * завершившиеся интервалы снимались с начала
+     */
+    private record Interval(long to, long from) implements Comparable<Interval> {
+
+        @Override
+        public int compareTo(Interval other) {
+            int byEnd = Long.compare(to, other.to);
+            return byEnd != 0 ? byEnd : Long.compare(from, other.from);
+        }
+    }
+
+    /**
+     * Состояние одной общей зоны (изменяется под монитором объекта)
+     *
+     * Дерево строится по списку интервалов; интервал, который уже
+     * завершился, снимается с дерева при следующем обращении к зоне.
+     */
+    private static final class SharedSpace {
+        private SlotSegmentTree tree;
+        private final TreeMap<Interval, Integer> intervals = new TreeMap<>();
+        // Версия занятости в базе, которой соответствует дерево
+        private Long version;
+        // Версия, записанная транзакцией, которая фиксируется прямо сейчас
+        private Long pendingVersion;
+        // Увеличивается при каждом перечитывании дерева
+        private long generation;
+        private long loadedAtMillis;
+        private boolean stale;
+        private int inFlight;
+
+        private boolean matches(Long current) {
+            return current.equals(version) || current.equals(pendingVersion);
+        }
+
+        private void reset() {
+            tree = new SlotSegmentTree(DOMAIN_BITS);
+            intervals.clear();
+            pendingVersion = null;
+            generation++;
+        }
+
+        private int max(long from, long to) {
+            expire(point(LocalDateTime.now()));
+            return tree.max(from, to);
+        }
+
+        private void add(long from, long to) {
+            tree.add(from, to, 1);
+            intervals.merge(new Interval(to, from), 1, Integer::sum);
+        }
+
+        /**
+         * Снимает интервал с дерева
+         *
+         * @return false если такого интервала нет (например, он уже завершился)
+         */
+        private boolean remove(long from, long to) {
+            Interval interval = new Interval(to, from);
+            Integer count = intervals.get(interval);
+            if (count == null) {
+                return false;
+            }
+            if (count == 1) {
+                intervals.remove(interval);
+            } else {
+                intervals.put(interval, count - 1);
+            }
+            tree.add(from, to, -1);
+            return true;
+        }
+
+        /**
+         * Снимает с дерева интервалы, закончившиеся к указанному моменту
+         */
+        private void expire(long now) {
+            Map.Entry<Interval, Integer> first;
+            while ((first = intervals.firstEntry()) != null && first.getKey().to() <= now) {
+                intervals.pollFirstEntry();
+                tree.add(first.getKey().from(), first.getKey().to(), -first.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.coworking.bookingservice.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.coworking.bookingservice.client.AuthServiceClient;
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.dto.UserInfoDto;
+
+/**
+ * Сервис получения имен пользователей из auth-service
+ *
+ * Собирает все уникальные ID пользователей страницы в один пакетный запрос,
+ * кэширует результаты с TTL и при недоступности auth-service оставляет
+ * имена пустыми вместо ошибки.
+ */
+@Service
+public class UserLookupService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLookupService.class);
+
+    // Порог размера кэша, после которого удаляются истекшие записи
+    private static final int CACHE_CLEANUP_THRESHOLD = 10_000;
+
+    private final AuthServiceClient authServiceClient;
+    private final long cacheTtlMillis;
+    private final Map<Integer, CachedUsername> cache = new ConcurrentHashMap<>();
+
+    public UserLookupService(AuthServiceClient authServiceClient,
+                             @Value("${app.auth-service.cache-ttl:300000}") long cacheTtlMillis) {
+        this.authServiceClient = authServiceClient;
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    /**
+     * Заполняет имена пользователей в списке бронирований
+     *
+     * @param reservations список бронирований
+     * @param authorization заголовок Authorization вызывающего пользователя
+     * @return тот же список с заполненными именами
+     */
+    public List<ReservationDto> enrichWithUsernames(List<ReservationDto> reservations, String authorization) {
+        Set<Integer> userIds = new LinkedHashSet<>();
+        for (ReservationDto reservation : reservations) {
+            if (reservation.getUserId() != null) {
+                userIds.add(reservation.getUserId());
+            }
+        }
+
+        Map<Integer, String> usernames = getUsernames(userIds, authorization);
+        for (ReservationDto reservation : reservations) {
+            reservation.setUsername(usernames.get(reservation.getUserId()));
+        }
+        return reservations;
+    }
+
+    /**
+     * Получает имена пользователей по ID, обращаясь к auth-service только за отсутствующими в кэше
+     *
+     * @param userIds ID пользователей
+     * @param authorization заголовок Authorization вызывающего пользователя
+     * @return имена пользователей по ID (без ненайденных)
+     */
+    public Map<Integer, String> getUsernames(Set<Integer> userIds, String authorization) {
+        Map<Integer, String> result = new HashMap<>();
+        Set<Integer> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+
+        for (Integer userId : userIds) {
+            CachedUsername cached = cache.get(userId);
+            if (cached != null && cached.expiresAt() > now) {
+                if (cached.username() != null) {
+                    result.put(userId, cached.username());
+                }
+            } else {
+                missing.add(userId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        List<UserInfoDto> users = fetchUsers(missing, authorization);
+        if (users == null) {
+            return result;
+        }
+
+        if (cache.size() > CACHE_CLEANUP_THRESHOLD) {
+            cache.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+
+        long expiresAt = System.currentTimeMillis() + cacheTtlMillis;
+        Map<Integer, String> fetched = new HashMap<>();
+        for (UserInfoDto user : users) {
+            Integer userId = parseUserId(user.getId());
+            if (userId != null) {
+                fetched.put(userId, user.getUsername());
+            }
+        }
+        // Ненайденных пользователей тоже кэшируем, чтобы не запрашивать их повторно
+        for (Integer userId : missing) {
+            String username = fetched.get(userId);
+            cache.put(userId, new CachedUsername(username, expiresAt));
+            if (username != null) {
+                result.put(userId, username);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Выполняет пакетный запрос к auth-service
+     *
+     * @return список пользователей или null, если auth-service недоступен
+     */
+    private List<UserInfoDto> fetchUsers(Set<Integer> userIds, String authorization) {
+        try {
+            Duration timeout = authServiceClient.getTimeout();
+            return authServiceClient.getUsersByIds(userIds, authorization).block(timeout.plusMillis(100));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось получить пользователей из auth-service: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Integer parseUserId(String id) {
+        try {
+            return id != null ? Integer.valueOf(id) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Запись кэша имени пользователя
+     *
+     * @param username имя пользователя (null, если пользователь не найден)
+     * @param expiresAt момент истечения записи
+     */
+    private record CachedUsername(String username, long expiresAt) {}
+}
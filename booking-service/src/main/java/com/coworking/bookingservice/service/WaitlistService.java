@@ -0,0 +1,250 @@
+package com.coworking.bookingservice.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.WaitlistEntryDto;
+import com.coworking.bookingservice.entity.Reservation;
+import com.coworking.bookingservice.entity.ReservationStatus;
+import com.coworking.bookingservice.entity.WaitlistEntry;
+import com.coworking.bookingservice.entity.WaitlistStatus;
+import com.coworking.bookingservice.entity.Workspace;
+import com.coworking.bookingservice.repository.ReservationRepository;
+import com.coworking.bookingservice.repository.WaitlistRepository;
+import com.coworking.bookingservice.repository.WorkspaceClosureRepository;
+import com.coworking.bookingservice.repository.WorkspaceRepository;
+import com.coworking.bookingservice.support.BusinessException;
+import com.coworking.bookingservice.support.ErrorCode;
+
+/**
+ * Сервис листа ожидания
+ * 
+ * Пользователь может встать в очередь на занятый слот. Когда отмена или
+ * перенос бронирования освобождает интервал, первые по времени постановки
+ * подходящие записи превращаются в бронирования в той же транзакции.
+ */
+@Service
+@Transactional
+public class WaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final ReservationRepository reservationRepository;
+    private final WorkspaceRepository workspaceRepository;
+    private final OccupancyRollupService occupancyRollupService;
+    private final HoldRegistry holdRegistry;
+    private final WorkspaceClosureRepository workspaceClosureRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReservationQuota reservationQuota;
+    private final SharedWorkspaceOccupancy sharedWorkspaceOccupancy;
+
+    public WaitlistService(WaitlistRepository waitlistRepository,
+                           ReservationRepository reservationRepository,
+                           WorkspaceRepository workspaceRepository,
+                           OccupancyRollupService occupancyRollupService,
+                           HoldRegistry holdRegistry,
+                           WorkspaceClosureRepository workspaceClosureRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           ReservationQuota reservationQuota,
+                           SharedWorkspaceOccupancy sharedWorkspaceOccupancy) {
+        this.waitlistRepository = waitlistRepository;
+        this.reservationRepository = reservationRepository;
+        this.workspaceRepository = workspaceRepository;
+        this.occupancyRollupService = occupancyRollupService;
+        this.holdRegistry = holdRegistry;
+        this.workspaceClosureRepository = workspaceClosureRepository;
+        this.eventPublisher = eventPublisher;
+        this.reservationQuota = reservationQuota;
+        this.sharedWorkspaceOccupancy = sharedWorkspaceOccupancy;
+    }
+
+    /**
+     * Ставит пользователя в лист ожидания
+     * 
+     * @param userId ID пользователя
+     * @param role роль пользователя (определяет лимит при продвижении)
+     * @param request желаемое рабочее место и период
+     * @return созданная запись
+     * @throws BusinessException если данные некорректны (INVALID_REQUEST, INVALID_TIME_RANGE), место недоступно
+     *         (WORKSPACE_NOT_FOUND, WORKSPACE_INACTIVE, WORKSPACE_CLOSED), запись уже есть (WAITLIST_DUPLICATE)
+     *         или слот свободен (SLOT_AVAILABLE)
+     */
+    public WaitlistEntryDto joinWaitlist(Integer userId, String role, CreateReservationRequest request) {
+        if (request.getWorkspaceId() == null) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST, "ID рабочего места обязателен");
+        }
+        validateTimeRange(request.getStartTime(), request.getEndTime());
+
+        Workspace workspace = workspaceRepository.findById(request.getWorkspaceId())
+                .orElseThrow(() -> new BusinessException(ErrorCode.WORKSPACE_NOT_FOUND, "Рабочее место не найдено"));
+        if (!workspace.getIsActive()) {
+            throw new BusinessException(ErrorCode.WORKSPACE_INACTIVE, "Рабочее место неактивно");
+        }
+
+        if (workspaceClosureRepository.existsOverlapping(workspace.getId(), request.getStartTime(),
+                request.getEndTime())) {
+            throw new BusinessException(ErrorCode.WORKSPACE_CLOSED,
+                    "Рабочее место закрыто на обслуживание в указанное время");
+        }
+        if (waitlistRepository.existsByUserIdAndWorkspaceIdAndStartTimeAndEndTimeAndStatus(userId,
+                workspace.getId(), request.getStartTime(), request.getEndTime(), WaitlistStatus.WAITING)) {
+            throw new BusinessException(ErrorCode.WAITLIST_DUPLICATE, "Вы уже в листе ожидания на этот слот");
+        }
+        if (isFree(workspace, request.getStartTime(), request.getEndTime(), userId)) {
+            throw new BusinessException(ErrorCode.SLOT_AVAILABLE,
+                    "Место свободно на указанное время, создайте бронирование");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry(userId, workspace, request.getStartTime(), request.getEndTime());
+        entry.setUserRole(role);
+        return convertToDto(waitlistRepository.save(entry));
+    }
+
+    /**
+     * Получает записи пользователя в листе ожидания
+     * 
+     * @param userId ID пользователя
+     * @return список записей
+     */
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getUserEntries(Integer userId) {
+        return waitlistRepository.findByUserIdOrderByCreatedAtDesc(userId)
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Убирает пользователя из листа ожидания
+     * 
+     * @param entryId ID записи
+     * @param userId ID пользователя (для проверки прав)
+     * @return true если запись была найдена и отменена
+     */
+    public boolean leaveWaitlist(Integer entryId, Integer userId) {
+        return waitlistRepository.findById(entryId)
+                .map(entry -> {
+                    if (!entry.getUserId().equals(userId)) {
+                        throw new BusinessException(ErrorCode.ACCESS_DENIED, "Нет прав для изменения этой записи");
+                    }
+                    if (!entry.isWaiting()) {
+                        throw new BusinessException(ErrorCode.WAITLIST_NOT_WAITING,
+                                "Запись уже продвинута или отменена");
+                    }
+                    entry.setStatus(WaitlistStatus.CANCELLED);
+                    waitlistRepository.save(entry);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Продвигает ожидающих на освободившийся интервал
+     * 
+     * Вызывается в транзакции, освободившей интервал. Кандидаты выбираются по
+     * индексу интервалов в порядке постановки в очередь; каждый следующий
+     * кандидат проверяется с учетом уже созданных в этом вызове бронирований.
+     * Ожидающий, который исчерпал лимит активных бронирований, пропускается
+     * и остается в очереди.
+     * 
+     * @param workspaceId ID рабочего места
+     * @param startTime начало освободившегося интервала
+     * @param endTime окончание освободившегося интервала
+     * @return количество созданных бронирований
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int promoteWaiters(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime) {
+        Optional<Workspace> workspace = workspaceRepository.findById(workspaceId);
+        if (workspace.isEmpty() || !workspace.get().getIsActive()) {
+            return 0;
+        }
+        // Освобождение должно быть видно запросам пересечений
+        reservationRepository.flush();
+
+        int promoted = 0;
+        for (WaitlistEntry entry : waitlistRepository.lockWaitingOverlapping(workspaceId, startTime, endTime,
+                LocalDateTime.now())) {
+            if (!isFree(workspace.get(), entry.getStartTime(), entry.getEndTime(), entry.getUserId())) {
+                continue;
+            }
+            if (reservationQuota.tryAcquire(entry.getUserId(), entry.getUserRole(), 1) != null) {
+                continue;
+            }
+            if (workspace.get().getIsShared() && !sharedWorkspaceOccupancy.tryAdmit(workspace.get(),
+                    entry.getStartTime(), entry.getEndTime(), entry.getUserId())) {
+                // Место заняли после проверки: учтенное бронирование возвращается в лимит
+                reservationQuota.recordCancelled(entry.getUserId(), 1);
+                continue;
+            }
+            Reservation reservation = new Reservation(entry.getUserId(), workspace.get(),
+                    entry.getStartTime(), entry.getEndTime());
+            reservation.setStatus(ReservationStatus.ACTIVE);
+            Reservation saved = reservationRepository.saveAndFlush(reservation);
+            occupancyRollupService.addInterval(workspaceId, saved.getStartTime(), saved.getEndTime());
+
+            entry.setStatus(WaitlistStatus.PROMOTED);
+            entry.setReservationId(saved.getId());
+            waitlistRepository.save(entry);
+            eventPublisher.publishEvent(ReservationsChangedEvent.of(entry.getUserId(), workspaceId));
+            promoted++;
+        }
+        return promoted;
+    }
+
+    private boolean isFree(Workspace workspace, LocalDateTime startTime, LocalDateTime endTime, Integer userId) {
+        Integer workspaceId = workspace.getId();
+        if (workspaceClosureRepository.existsOverlapping(workspaceId, startTime, endTime)) {
+            return false;
+        }
+        if (workspace.getIsShared()) {
+            return sharedWorkspaceOccupancy.hasRoom(workspaceId, workspace.getCapacity(), startTime, endTime, userId);
+        }
+        return reservationRepository.findOverlappingReservations(workspaceId, startTime, endTime, null).isEmpty()
+                && !holdRegistry.hasOverlappingHold(workspaceId, startTime, endTime, userId);
+    }
+
+    /**
+     * Конвертирует сущность в DTO
+     * 
+     * @param entry запись листа ожидания
+     * @return DTO записи
+     */
+    private WaitlistEntryDto convertToDto(WaitlistEntry entry) {
+        return new WaitlistEntryDto(
+                entry.getId(),
+                entry.getWorkspace().getId(),
+                entry.getStartTime(),
+                entry.getEndTime(),
+                entry.getStatus().name(),
+                entry.getReservationId(),
+                entry.getCreatedAt()
+        );
+    }
+
+    /**
+     * Валидирует временной диапазон
+     * 
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @throws BusinessException с кодом INVALID_TIME_RANGE, если диапазон некорректный
+     */
+    private void validateTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE, "Время начала и окончания не может быть null");
+        }
+        if (!startTime.isBefore(endTime)) {
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE,
+                    "Время начала должно быть раньше времени окончания");
+        }
+        if (startTime.isBefore(LocalDateTime.now())) {
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE, "Время начала не может быть в прошлом");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.coworking.bookingservice.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.coworking.bookingservice.dto.BulkCancellationResult;
+import com.coworking.bookingservice.dto.MaintenanceWindowRequest;
+import com.coworking.bookingservice.entity.Workspace;
+import com.coworking.bookingservice.entity.WorkspaceClosure;
+import com.coworking.bookingservice.repository.WorkspaceClosureRepository;
+import com.coworking.bookingservice.repository.WorkspaceRepository;
+import com.coworking.bookingservice.service.OccupancyRollupService.OccupancyInterval;
+import com.coworking.bookingservice.support.BusinessException;
+import com.coworking.bookingservice.support.ErrorCode;
+
+/**
+ * Сервис вывода рабочих мест из эксплуатации
+ * 
+ * Деактивация и закрытие на обслуживание отменяют затронутые бронирования
+ * без загрузки сущностей: одним UPDATE ... RETURNING на пачку строк, каждая
+ * пачка в отдельной транзакции. После отмены каждому затронутому
+ * пользователю публикуется одно событие ReservationsCancelledEvent.
+ */
+@Service
+public class WorkspaceMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkspaceMaintenanceService.class);
+
+    // Будущие бронирования: start_time >= ?
+    private static final String FUTURE_CRITERIA = "start_time >= ?";
+
+    // Пересечение с окном: start_time < конец AND end_time > начало
+    private static final String WINDOW_CRITERIA = "start_time < ? AND end_time > ?";
+
+    private static final String CANCEL_CHUNK_SQL = """
+            UPDATE booking.reservations SET status = 'CANCELLED', updated_at = CURRENT_TIMESTAMP,
+                version = version + 1
+            WHERE id IN (
+                SELECT id FROM booking.reservations
+                WHERE workspace_id = ? AND status = 'ACTIVE' AND %s
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE
+            )
+            RETURNING id, user_id, start_time, end_time
+            """;
+
+    private static final String CANCEL_WAITLIST_SQL = """
+            UPDATE booking.waitlist_entries SET status = 'CANCELLED'
+            WHERE workspace_id = ? AND status = 'WAITING' AND %s
+            """;
+
+    private static final String DEACTIVATION_REASON = "Рабочее место деактивировано";
+    private static final String MAINTENANCE_REASON = "Рабочее место закрыто на обслуживание";
+
+    private final WorkspaceService workspaceService;
+    private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceClosureRepository workspaceClosureRepository;
+    private final OccupancyRollupService occupancyRollupService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public WorkspaceMaintenanceService(WorkspaceService workspaceService,
+                                       WorkspaceRepository workspaceRepository,
+                                       WorkspaceClosureRepository workspaceClosureRepository,
+                                       OccupancyRollupService occupancyRollupService,
+                                       JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${app.booking.cancel-chunk-size:500}") int chunkSize) {
+        this.workspaceService = workspaceService;
+        this.workspaceRepository = workspaceRepository;
+        this.workspaceClosureRepository = workspaceClosureRepository;
+        this.occupancyRollupService = occupancyRollupService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Деактивирует рабочее место и отменяет все его будущие бронирования
+     * 
+     * Новые бронирования отклоняются сразу после фиксации деактивации,
+     * поэтому отмена пачками не конкурирует с ними.
+     * 
+     * @param workspaceId ID рабочего места
+     * @return результат отмены или пустой Optional, если место не найдено
+     */
+    public Optional<BulkCancellationResult> deactivateWorkspace(Integer workspaceId) {
+        if (!workspaceService.deactivateWorkspace(workspaceId)) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return Optional.of(cancelAffected(workspaceId, null, DEACTIVATION_REASON, FUTURE_CRITERIA, now));
+    }
+
+    /**
+     * Закрывает рабочее место на обслуживание и отменяет пересекающиеся бронирования
+     * 
+     * @param workspaceId ID рабочего места
+     * @param request окно обслуживания
+     * @return результат отмены
+     * @throws BusinessException с кодом WORKSPACE_NOT_FOUND или INVALID_TIME_RANGE, если место не найдено
+     *         или окно некорректно
+     */
+    public BulkCancellationResult closeForMaintenance(Integer workspaceId, MaintenanceWindowRequest request) {
+        validateWindow(request);
+
+        // Окно фиксируется первым: с этого момента новые бронирования в нем отклоняются
+        WorkspaceClosure closure = transactionTemplate.execute(status -> {
+            Workspace workspace = workspaceRepository.findById(workspaceId)
+                    .orElseThrow(() -> new BusinessException(ErrorCode.WORKSPACE_NOT_FOUND,
+                            "Рабочее место не найдено"));
+            return workspaceClosureRepository.save(new WorkspaceClosure(workspace.getId(),
+                    request.getStartTime(), request.getEndTime(), request.getReason()));
+        });
+
+        // Завершившиеся бронирования внутри уже начавшегося окна не трогаем
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = request.getStartTime().isAfter(now) ? request.getStartTime() : now;
+        String reason = request.getReason() != null && !request.getReason().isBlank()
+                ? MAINTENANCE_REASON + ": " + request.getReason()
+                : MAINTENANCE_REASON;
+        return cancelAffected(workspaceId, closure.getId(), reason, WINDOW_CRITERIA,
+                request.getEndTime(), from);
+    }
+
+    /**
+     * Отменяет бронирования и записи листа ожидания по условию пачками
+     */
+    private BulkCancellationResult cancelAffected(Integer workspaceId, Integer closureId, String reason,
+                                                  String criteria, Object... criteriaArgs) {
+        String chunkSql = CANCEL_CHUNK_SQL.formatted(criteria);
+        Object[] chunkArgs = new Object[criteriaArgs.length + 2];
+        chunkArgs[0] = workspaceId;
+        System.arraycopy(criteriaArgs, 0, chunkArgs, 1, criteriaArgs.length);
+        chunkArgs[chunkArgs.length - 1] = chunkSize;
+
+        Map<Integer, List<Integer>> cancelledByUser = new LinkedHashMap<>();
+        int cancelled = 0;
+        int chunkCount;
+        do {
+            List<CancelledRow> chunk = transactionTemplate.execute(status -> {
+                List<CancelledRow> rows = jdbcTemplate.query(chunkSql, (rs, rowNum) -> new CancelledRow(
+                        rs.getInt("id"),
+                        rs.getInt("user_id"),
+                        rs.getTimestamp("start_time").toLocalDateTime(),
+                        rs.getTimestamp("end_time").toLocalDateTime()), chunkArgs);
+                occupancyRollupService.applyDeltas(rows.stream()
+                        .map(row -> new OccupancyInterval(workspaceId, row.startTime(), row.endTime()))
+                        .toList(), -1);
+                return rows;
+            });
+            for (CancelledRow row : chunk) {
+                cancelledByUser.computeIfAbsent(row.userId(), id -> new ArrayList<>()).add(row.id());
+            }
+            chunkCount = chunk.size();
+            cancelled += chunkCount;
+        } while (chunkCount == chunkSize);
+
+        Object[] waitlistArgs = new Object[criteriaArgs.length + 1];
+        waitlistArgs[0] = workspaceId;
+        System.arraycopy(criteriaArgs, 0, waitlistArgs, 1, criteriaArgs.length);
+        Integer cancelledWaitlistEntries = transactionTemplate.execute(status ->
+                jdbcTemplate.update(CANCEL_WAITLIST_SQL.formatted(criteria), waitlistArgs));
+
+        cancelledByUser.forEach((userId, reservationIds) -> eventPublisher.publishEvent(
+                new ReservationsCancelledEvent(userId, workspaceId, reservationIds, reason)));
+        log.info("{} (рабочее место {}): отменено бронирований {}, пользователей {}, записей листа ожидания {}",
+                reason, workspaceId, cancelled, cancelledByUser.size(), cancelledWaitlistEntries);
+
+        return new BulkCancellationResult(workspaceId, closureId, cancelled, cancelledByUser.size(),
+                cancelledWaitlistEntries);
+    }
+
+    /**
+     * Валидирует окно обслуживания
+     * 
+     * @param request окно обслуживания
+     * @throws BusinessException с кодом INVALID_TIME_RANGE, если окно некорректно
+     */
+    private void validateWindow(MaintenanceWindowRequest request) {
+        if (request.getStartTime() == null || request.getEndTime() == null) {
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE, "Время начала и окончания не может быть null");
+        }
+        if (!request.getStartTime().isBefore(request.getEndTime())) {
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE,
+                    "Время начала должно быть раньше времени окончания");
+        }
+        if (!request.getEndTime().isAfter(LocalDateTime.now())) {
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE,
+                    "Окно обслуживания не может закончиться в прошлом");
+        }
+    }
+
+    private record CancelledRow(Integer id, Integer userId, LocalDateTime startTime, LocalDateTime endTime) {}
+}
@@ -0,0 +1,219 @@
+package com.coworking.bookingservice.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.coworking.bookingservice.dto.WorkspaceDto;
+import com.coworking.bookingservice.entity.Workspace;
+import com.coworking.bookingservice.repository.WorkspaceRepository;
+
+/**
+ * Индекс активных рабочих мест по атрибутам на битовых картах
+ * 
+ * Для каждого значения этажа, зоны, удобства и вместимости хранится сжатая
+ * битовая карта ID рабочих мест. Поиск по нескольким критериям сводится к
+ * объединению карт внутри критерия и пересечению карт между критериями.
+ * Индекс неизменяем и целиком перестраивается после фиксации изменений
+ * рабочих мест, поэтому поиск не требует блокировок.
+ */
+@Component
+public class WorkspaceSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkspaceSearchIndex.class);
+
+    private final WorkspaceRepository workspaceRepository;
+    private volatile Snapshot snapshot;
+
+    public WorkspaceSearchIndex(WorkspaceRepository workspaceRepository) {
+        this.workspaceRepository = workspaceRepository;
+    }
+
+    /**
+     * Находит рабочие места, удовлетворяющие всем заданным критериям
+     * 
+     * Внутри критерия значения объединяются (любой из этажей), удобства
+     * требуются все сразу. Пустой или null критерий не ограничивает поиск.
+     * 
+     * @param floors этажи
+     * @param zones зоны
+     * @param amenities удобства
+     * @param minCapacity минимальная вместимость (может быть null)
+     * @param maxCapacity максимальная вместимость (может быть null)
+     * @return битовая карта ID подходящих рабочих мест
+     */
+    public RoaringBitmap search(Collection<Integer> floors, Collection<String> zones, Collection<String> amenities,
+                                Integer minCapacity, Integer maxCapacity) {
+        Snapshot current = getSnapshot();
+        RoaringBitmap result = current.all.clone();
+        if (floors != null && !floors.isEmpty()) {
+            result.and(union(current.byFloor, floors));
+        }
+        if (zones != null && !zones.isEmpty()) {
+            result.and(union(current.byZone, zones.stream().map(WorkspaceSearchIndex::normalize).toList()));
+        }
+        if (amenities != null) {
+            for (String amenity : amenities) {
+                RoaringBitmap bitmap = current.byAmenity.get(normalize(amenity));
+                if (bitmap == null) {
+                    return new RoaringBitmap();
+                }
+                result.and(bitmap);
+            }
+        }
+        if (minCapacity != null || maxCapacity != null) {
+            NavigableMap<Integer, RoaringBitmap> range = current.byCapacity.subMap(
+                    minCapacity != null ? minCapacity : Integer.MIN_VALUE, true,
+                    maxCapacity != null ? maxCapacity : Integer.MAX_VALUE, true);
+            result.and(FastAggregation.or(range.values().iterator()));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает данные рабочих мест из индекса в порядке названия
+     * 
+     * @param ids битовая карта ID
+     * @return рабочие места
+     */
+    public List<WorkspaceDto> getWorkspaces(RoaringBitmap ids) {
+        Snapshot current = getSnapshot();
+        List<WorkspaceDto> result = new ArrayList<>(ids.getCardinality());
+        ids.forEach((int id) -> {
+            WorkspaceDto workspace = current.workspaces.get(id);
+            if (workspace != null) {
+                result.add(workspace);
+            }
+        });
+        result.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return result;
+    }
+
+    /**
+     * Возвращает вместимость общих зон индекса
+     * 
+     * @return вместимость по ID рабочего места (только места с isShared)
+     */
+    public Map<Integer, Integer> getSharedCapacities() {
+        return getSnapshot().sharedCapacities;
+    }
+
+    /**
+     * Перестраивает индекс по текущему состоянию базы
+     */
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        List<Workspace> workspaces = workspaceRepository.findActiveWithAmenities();
+
+        Map<Integer, WorkspaceDto> byId = new HashMap<>();
+        RoaringBitmap all = new RoaringBitmap();
+        Map<Integer, RoaringBitmap> byFloor = new HashMap<>();
+        Map<String, RoaringBitmap> byZone = new HashMap<>();
+        Map<String, RoaringBitmap> byAmenity = new HashMap<>();
+        TreeMap<Integer, RoaringBitmap> byCapacity = new TreeMap<>();
+        Map<Integer, Integer> sharedCapacities = new HashMap<>();
+        for (Workspace workspace : workspaces) {
+            int id = workspace.getId();
+            all.add(id);
+            if (workspace.getFloor() != null) {
+                byFloor.computeIfAbsent(workspace.getFloor(), key -> new RoaringBitmap()).add(id);
+            }
+            if (workspace.getZone() != null) {
+                byZone.computeIfAbsent(normalize(workspace.getZone()), key -> new RoaringBitmap()).add(id);
+            }
+            for (String amenity : workspace.getAmenities()) {
+                byAmenity.computeIfAbsent(normalize(amenity), key -> new RoaringBitmap()).add(id);
+            }
+            byCapacity.computeIfAbsent(workspace.getCapacity(), key -> new RoaringBitmap()).add(id);
+            if (Boolean.TRUE.equals(workspace.getIsShared())) {
+                sharedCapacities.put(id, workspace.getCapacity());
+            }
+
+            WorkspaceDto dto = new WorkspaceDto(id, workspace.getName(), workspace.getDescription(),
+                    workspace.getCapacity(), workspace.getIsActive(), workspace.getCreatedAt());
+            dto.setFloor(workspace.getFloor());
+            dto.setZone(workspace.getZone());
+            dto.setPosX(workspace.getPosX());
+            dto.setPosY(workspace.getPosY());
+            dto.setIsShared(workspace.getIsShared());
+            dto.setAmenities(Set.copyOf(workspace.getAmenities()));
+            byId.put(id, dto);
+        }
+
+        // Сжимаем непрерывные диапазоны ID в run-контейнеры
+        all.runOptimize();
+        byFloor.values().forEach(RoaringBitmap::runOptimize);
+        byZone.values().forEach(RoaringBitmap::runOptimize);
+        byAmenity.values().forEach(RoaringBitmap::runOptimize);
+        byCapacity.values().forEach(RoaringBitmap::runOptimize);
+        snapshot = new Snapshot(all, byId, byFloor, byZone, byAmenity, byCapacity,
+                Map.copyOf(sharedCapacities));
+        log.info("Индекс поиска рабочих мест перестроен: {} мест за {} мс",
+                byId.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkspacesChanged(WorkspacesChangedEvent event) {
+        rebuild();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static <K> RoaringBitmap union(Map<K, RoaringBitmap> bitmaps, Collection<K> keys) {
+        List<RoaringBitmap> selected = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            RoaringBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                selected.add(bitmap);
+            }
+        }
+        return selected.isEmpty() ? new RoaringBitmap() : FastAggregation.or(selected.iterator());
+    }
+
+    /**
+     * Приводит значение атрибута к единому виду
+     * 
+     * @param value значение
+     * @return значение без пробелов по краям в нижнем регистре
+     */
+    static String normalize(String value) {
+        return value.trim().toLowerCase();
+    }
+
+    /**
+     * Неизменяемое состояние индекса
+     */
+    private record Snapshot(RoaringBitmap all,
+                            Map<Integer, WorkspaceDto> workspaces,
+                            Map<Integer, RoaringBitmap> byFloor,
+                            Map<String, RoaringBitmap> byZone,
+                            Map<String, RoaringBitmap> byAmenity,
+                            NavigableMap<Integer, RoaringBitmap> byCapacity,
+                            Map<Integer, Integer> sharedCapacities) {}
+}
@@ -1,16 +1,34 @@
 package com.coworking.bookingservice.service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.coworking.bookingservice.dto.MultiGetItem;
 import com.coworking.bookingservice.dto.WorkspaceDto;
 import com.coworking.bookingservice.entity.Workspace;
+import com.coworking.bookingservice.repository.ReservationRepository;
+import com.coworking.bookingservice.repository.WorkspaceClosureRepository;
 import com.coworking.bookingservice.repository.WorkspaceRepository;
+import com.coworking.bookingservice.support.BusinessException;
+import com.coworking.bookingservice.support.ErrorCode;
+import com.coworking.bookingservice.support.FieldSelection;
+import com.coworking.bookingservice.support.MultiGet;
+import com.coworking.bookingservice.support.RetryOnConflict;
+import com.coworking.bookingservice.support.ServeStaleWhenDegraded;
+import com.coworking.bookingservice.support.SqlProjection;
 
 /**
  * Сервис для работы с рабочими местами
@@ -22,10 +40,73 @@ import com.coworking.bookingservice.repository.WorkspaceRepository;
 @Transactional
 public class WorkspaceService {
 
+    /**
+     * Столбцы полей WorkspaceDto для узкой выборки; удобства читаются
+     * отдельным запросом
+     */
+    private static final SqlProjection<WorkspaceDto> PROJECTION = new SqlProjection<>(WorkspaceDto::new)
+            .column("id", "w.id", (dto, rs, i) -> dto.setId(rs.getObject(i, Integer.class)))
+            .column("name", "w.name", (dto, rs, i) -> dto.setName(rs.getString(i)))
+            .column("description", "w.description", (dto, rs, i) -> dto.setDescription(rs.getString(i)))
+            .column("capacity", "w.capacity", (dto, rs, i) -> dto.setCapacity(rs.getObject(i, Integer.class)))
+            .column("floor", "w.floor", (dto, rs, i) -> dto.setFloor(rs.getObject(i, Integer.class)))
+            .column("zone", "w.zone", (dto, rs, i) -> dto.setZone(rs.getString(i)))
+            .column("posX", "w.pos_x", (dto, rs, i) -> dto.setPosX(rs.getObject(i, Integer.class)))
+            .column("posY", "w.pos_y", (dto, rs, i) -> dto.setPosY(rs.getObject(i, Integer.class)))
+            .column("isActive", "w.is_active", (dto, rs, i) -> dto.setIsActive(rs.getObject(i, Boolean.class)))
+            .column("isShared", "w.is_shared", (dto, rs, i) -> dto.setIsShared(rs.getObject(i, Boolean.class)))
+            .column("createdAt", "w.created_at", (dto, rs, i) -> dto.setCreatedAt(rs.getObject(i, LocalDateTime.class)));
+
+    // Свободно от активных бронирований (кроме общих зон) и окон обслуживания;
+    // параметры: конец, начало, конец, начало
+    private static final String AVAILABLE_WHERE = """
+            w.is_active = true
+            AND (w.is_shared OR NOT EXISTS (
+                SELECT 1 FROM booking.reservations r
+                WHERE r.workspace_id = w.id
+                AND r.status = 'ACTIVE'
+                AND r.start_time < ?
+                AND r.end_time > ?
+            ))
+            AND NOT EXISTS (
+                SELECT 1 FROM booking.workspace_closures c
+                WHERE c.workspace_id = w.id
+                AND c.start_time < ?
+                AND c.end_time > ?
+            )
+            """;
+
+    private static final String AMENITIES_SQL =
+            "SELECT workspace_id, amenity FROM booking.workspace_amenities WHERE workspace_id = ANY(?)";
+
     private final WorkspaceRepository workspaceRepository;
+    private final HoldRegistry holdRegistry;
+    private final ReservationRepository reservationRepository;
+    private final WorkspaceClosureRepository workspaceClosureRepository;
+    private final WorkspaceSearchIndex workspaceSearchIndex;
+    private final SharedWorkspaceOccupancy sharedWorkspaceOccupancy;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxMultiGetIds;
 
-    public WorkspaceService(WorkspaceRepository workspaceRepository) {
+    public WorkspaceService(WorkspaceRepository workspaceRepository,
+                            HoldRegistry holdRegistry,
+                            ReservationRepository reservationRepository,
+                            WorkspaceClosureRepository workspaceClosureRepository,
+                            WorkspaceSearchIndex workspaceSearchIndex,
+                            SharedWorkspaceOccupancy sharedWorkspaceOccupancy,
+                            ApplicationEventPublisher eventPublisher,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${app.multi-get.max-ids:100}") int maxMultiGetIds) {
         this.workspaceRepository = workspaceRepository;
+        this.holdRegistry = holdRegistry;
+        this.reservationRepository = reservationRepository;
+        this.workspaceClosureRepository = workspaceClosureRepository;
+        this.workspaceSearchIndex = workspaceSearchIndex;
+        this.sharedWorkspaceOccupancy = sharedWorkspaceOccupancy;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxMultiGetIds = maxMultiGetIds;
     }
 
     /**
@@ -34,6 +115,7 @@ public class WorkspaceService {
      * @return список активных рабочих мест
      */
     @Transactional(readOnly = true)
+    @ServeStaleWhenDegraded
     public List<WorkspaceDto> getAllActiveWorkspaces() {
         return workspaceRepository.findByIsActiveTrue()
                 .stream()
@@ -41,6 +123,21 @@ public class WorkspaceService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Получает все активные рабочие места с выборкой полей
+     * 
+     * @param fields запрошенные поля
+     * @return список активных рабочих мест
+     */
+    @Transactional(readOnly = true)
+    @ServeStaleWhenDegraded
+    public List<WorkspaceDto> getAllActiveWorkspaces(FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAllActiveWorkspaces();
+        }
+        return queryProjected(fields, Set.of(), "w.is_active = true", "w.id");
+    }
+
     /**
      * Получает рабочее место по ID
      * 
@@ -48,11 +145,31 @@ public class WorkspaceService {
      * @return Optional с рабочим местом
      */
     @Transactional(readOnly = true)
+    @ServeStaleWhenDegraded
     public Optional<WorkspaceDto> getWorkspaceById(Integer id) {
         return workspaceRepository.findById(id)
                 .map(this::convertToDto);
     }
 
+    /**
+     * Получает рабочие места по списку ID одним запросом
+     * 
+     * Как и при запросе по одному ID, возвращаются в том числе неактивные места.
+     * 
+     * @param ids ID рабочих мест (повторы допускаются)
+     * @return результаты в порядке запрошенных ID с отметками об отсутствии
+     * @throws BusinessException с кодом INVALID_REQUEST, если список пуст или длиннее допустимого
+     */
+    @Transactional(readOnly = true)
+    public List<MultiGetItem<WorkspaceDto>> getWorkspacesByIds(List<Integer> ids) {
+        Set<Integer> distinctIds = MultiGet.distinctIds(ids, maxMultiGetIds);
+        Map<Integer, WorkspaceDto> found = workspaceRepository.findAllByIdWithAmenities(distinctIds)
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toMap(WorkspaceDto::getId, workspace -> workspace));
+        return MultiGet.inRequestOrder(ids, found);
+    }
+
     /**
      * Получает доступные рабочие места на указанный период времени
      * 
@@ -61,15 +178,39 @@ public class WorkspaceService {
      * @return список доступных рабочих мест
      */
     @Transactional(readOnly = true)
+    @ServeStaleWhenDegraded
     public List<WorkspaceDto> getAvailableWorkspaces(LocalDateTime startTime, LocalDateTime endTime) {
         validateTimeRange(startTime, endTime);
         
+        Set<Integer> unavailableIds = getUnavailableIds(startTime, endTime);
         return workspaceRepository.findAvailableWorkspaces(startTime, endTime)
                 .stream()
+                .filter(workspace -> !unavailableIds.contains(workspace.getId()))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Получает доступные рабочие места на указанный период времени с выборкой полей
+     * 
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param fields запрошенные поля
+     * @return список доступных рабочих мест
+     */
+    @Transactional(readOnly = true)
+    @ServeStaleWhenDegraded
+    public List<WorkspaceDto> getAvailableWorkspaces(LocalDateTime startTime, LocalDateTime endTime,
+                                                     FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAvailableWorkspaces(startTime, endTime);
+        }
+        validateTimeRange(startTime, endTime);
+
+        return queryProjected(fields, getUnavailableIds(startTime, endTime),
+                AVAILABLE_WHERE, "w.name", endTime, startTime, endTime, startTime);
+    }
+
     /**
      * Получает доступные рабочие места с минимальной вместимостью
      * 
@@ -79,18 +220,90 @@ public class WorkspaceService {
      * @return список доступных рабочих мест
      */
     @Transactional(readOnly = true)
+    @ServeStaleWhenDegraded
     public List<WorkspaceDto> getAvailableWorkspacesWithCapacity(LocalDateTime startTime, 
                                                                 LocalDateTime endTime, 
                                                                 Integer minCapacity) {
         validateTimeRange(startTime, endTime);
         validateCapacity(minCapacity);
         
+        Set<Integer> unavailableIds = getUnavailableIds(startTime, endTime);
         return workspaceRepository.findAvailableWorkspacesWithCapacity(startTime, endTime, minCapacity)
                 .stream()
+                .filter(workspace -> !unavailableIds.contains(workspace.getId()))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Получает доступные рабочие места с минимальной вместимостью с выборкой полей
+     * 
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @param minCapacity минимальная вместимость
+     * @param fields запрошенные поля
+     * @return список доступных рабочих мест
+     */
+    @Transactional(readOnly = true)
+    @ServeStaleWhenDegraded
+    public List<WorkspaceDto> getAvailableWorkspacesWithCapacity(LocalDateTime startTime,
+                                                                LocalDateTime endTime,
+                                                                Integer minCapacity,
+                                                                FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAvailableWorkspacesWithCapacity(startTime, endTime, minCapacity);
+        }
+        validateTimeRange(startTime, endTime);
+        validateCapacity(minCapacity);
+
+        return queryProjected(fields, getUnavailableIds(startTime, endTime),
+                AVAILABLE_WHERE + "AND w.capacity >= ?", "w.capacity DESC, w.name",
+                endTime, startTime, endTime, startTime, minCapacity);
+    }
+
+    /**
+     * Ищет рабочие места по атрибутам и, если задан период, по доступности
+     * 
+     * Критерии пересекаются на битовых картах индекса; занятые, закрытые и
+     * удерживаемые в период места, а также заполненные общие зоны вычитаются
+     * из результата.
+     * 
+     * @param floors этажи (любой из)
+     * @param zones зоны (любая из)
+     * @param amenities удобства (все сразу)
+     * @param minCapacity минимальная вместимость
+     * @param maxCapacity максимальная вместимость
+     * @param startTime время начала (может быть null вместе с endTime)
+     * @param endTime время окончания (может быть null вместе с startTime)
+     * @return список подходящих рабочих мест
+     */
+    @Transactional(readOnly = true)
+    @ServeStaleWhenDegraded
+    public List<WorkspaceDto> searchWorkspaces(List<Integer> floors, List<String> zones, List<String> amenities,
+                                               Integer minCapacity, Integer maxCapacity,
+                                               LocalDateTime startTime, LocalDateTime endTime) {
+        if (minCapacity != null && maxCapacity != null && minCapacity > maxCapacity) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST,
+                    "Минимальная вместимость не может быть больше максимальной");
+        }
+        if ((startTime == null) != (endTime == null)) {
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE, "Время начала и окончания указываются вместе");
+        }
+
+        RoaringBitmap matches = workspaceSearchIndex.search(floors, zones, amenities, minCapacity, maxCapacity);
+        if (startTime != null && !matches.isEmpty()) {
+            validateTimeRange(startTime, endTime);
+            RoaringBitmap unavailable = new RoaringBitmap();
+            reservationRepository.findBusyWorkspaceIds(startTime, endTime).forEach(unavailable::add);
+            // Занятость общих зон определяется вместимостью, а не наличием бронирований
+            workspaceSearchIndex.getSharedCapacities().keySet().forEach(unavailable::remove);
+            workspaceClosureRepository.findClosedWorkspaceIds(startTime, endTime).forEach(unavailable::add);
+            getUnavailableIds(startTime, endTime).forEach(unavailable::add);
+            matches.andNot(unavailable);
+        }
+        return workspaceSearchIndex.getWorkspaces(matches);
+    }
+
     /**
      * Создает новое рабочее место
      * 
@@ -102,9 +315,11 @@ public class WorkspaceService {
         workspace.setName(workspaceDto.getName());
         workspace.setDescription(workspaceDto.getDescription());
         workspace.setCapacity(workspaceDto.getCapacity());
+        applyAttributes(workspace, workspaceDto);
         workspace.setIsActive(true);
         
         Workspace savedWorkspace = workspaceRepository.save(workspace);
+        eventPublisher.publishEvent(new WorkspacesChangedEvent(savedWorkspace.getId()));
         return convertToDto(savedWorkspace);
     }
 
@@ -114,15 +329,20 @@ public class WorkspaceService {
      * @param id ID рабочего места
      * @param workspaceDto новые данные
      * @return обновленное рабочее место
+     * @throws org.springframework.dao.ConcurrencyFailureException если конфликт не разрешился за все попытки
      */
+    @RetryOnConflict
     public Optional<WorkspaceDto> updateWorkspace(Integer id, WorkspaceDto workspaceDto) {
         return workspaceRepository.findById(id)
                 .map(workspace -> {
                     workspace.setName(workspaceDto.getName());
                     workspace.setDescription(workspaceDto.getDescription());
                     workspace.setCapacity(workspaceDto.getCapacity());
+                    applyAttributes(workspace, workspaceDto);
                     workspace.setIsActive(workspaceDto.getIsActive());
-                    return convertToDto(workspaceRepository.save(workspace));
+                    Workspace savedWorkspace = workspaceRepository.save(workspace);
+                    eventPublisher.publishEvent(new WorkspacesChangedEvent(savedWorkspace.getId()));
+                    return convertToDto(savedWorkspace);
                 });
     }
 
@@ -131,12 +351,15 @@ public class WorkspaceService {
      * 
      * @param id ID рабочего места
      * @return true если рабочее место было деактивировано
+     * @throws org.springframework.dao.ConcurrencyFailureException если конфликт не разрешился за все попытки
      */
+    @RetryOnConflict
     public boolean deactivateWorkspace(Integer id) {
         return workspaceRepository.findById(id)
                 .map(workspace -> {
                     workspace.setIsActive(false);
                     workspaceRepository.save(workspace);
+                    eventPublisher.publishEvent(new WorkspacesChangedEvent(workspace.getId()));
                     return true;
                 })
                 .orElse(false);
@@ -154,11 +377,82 @@ public class WorkspaceService {
     public boolean isWorkspaceAvailable(Integer workspaceId, LocalDateTime startTime, LocalDateTime endTime) {
         validateTimeRange(startTime, endTime);
         
+        if (getUnavailableIds(startTime, endTime).contains(workspaceId)) {
+            return false;
+        }
         List<Workspace> availableWorkspaces = workspaceRepository.findAvailableWorkspaces(startTime, endTime);
         return availableWorkspaces.stream()
                 .anyMatch(workspace -> workspace.getId().equals(workspaceId));
     }
 
+    /**
+     * Возвращает ID мест, недоступных в период помимо бронирований и закрытий
+     * 
+     * Отдельное место недоступно, если его удерживают; общая зона — если в
+     * ней не осталось мест с учетом бронирований и удержаний.
+     * 
+     * @param startTime время начала
+     * @param endTime время окончания
+     * @return ID недоступных рабочих мест
+     */
+    private Set<Integer> getUnavailableIds(LocalDateTime startTime, LocalDateTime endTime) {
+        Map<Integer, Integer> sharedCapacities = workspaceSearchIndex.getSharedCapacities();
+        Set<Integer> unavailable = new HashSet<>(holdRegistry.getHeldWorkspaceIds(startTime, endTime));
+        unavailable.removeAll(sharedCapacities.keySet());
+        sharedCapacities.forEach((workspaceId, capacity) -> {
+            if (!sharedWorkspaceOccupancy.hasRoom(workspaceId, capacity, startTime, endTime, null)) {
+                unavailable.add(workspaceId);
+            }
+        });
+        return unavailable;
+    }
+
+    /**
+     * Читает рабочие места только с запрошенными столбцами
+     * 
+     * ID читается всегда: по нему исключаются удерживаемые места и
+     * присоединяются удобства, которые загружаются одним запросом на все места.
+     * 
+     * @param fields запрошенные поля
+     * @param excludedIds ID мест, исключаемых из результата
+     * @param where условие отбора
+     * @param orderBy порядок сортировки
+     * @param args параметры условия
+     * @return список DTO с заполненными запрошенными полями
+     */
+    private List<WorkspaceDto> queryProjected(FieldSelection fields, Set<Integer> excludedIds, String where,
+                                              String orderBy, Object... args) {
+        SqlProjection.Selection<WorkspaceDto> selection = PROJECTION.select(fields, "id");
+        String sql = "SELECT " + selection.getSelectList() + " FROM booking.workspaces w"
+                + " WHERE " + where + " ORDER BY " + orderBy;
+        List<WorkspaceDto> workspaces = jdbcTemplate.query(sql, selection, args);
+        if (!excludedIds.isEmpty()) {
+            workspaces.removeIf(workspace -> excludedIds.contains(workspace.getId()));
+        }
+        if (fields.includes("amenities") && !workspaces.isEmpty()) {
+            loadAmenities(workspaces);
+        }
+        return workspaces;
+    }
+
+    /**
+     * Заполняет удобства рабочих мест одним запросом
+     * 
+     * @param workspaces рабочие места с заполненными ID
+     */
+    private void loadAmenities(List<WorkspaceDto> workspaces) {
+        Map<Integer, Set<String>> amenities = new HashMap<>();
+        Integer[] ids = workspaces.stream().map(WorkspaceDto::getId).toArray(Integer[]::new);
+        jdbcTemplate.query(AMENITIES_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", ids)),
+                rs -> {
+                    amenities.computeIfAbsent(rs.getInt(1), id -> new HashSet<>()).add(rs.getString(2));
+                });
+        for (WorkspaceDto workspace : workspaces) {
+            workspace.setAmenities(amenities.getOrDefault(workspace.getId(), Set.of()));
+        }
+    }
+
     /**
      * Конвертирует сущность в DTO
      * 
@@ -166,7 +460,7 @@ public class WorkspaceService {
      * @return DTO рабочего места
      */
     private WorkspaceDto convertToDto(Workspace workspace) {
-        return new WorkspaceDto(
+        WorkspaceDto dto = new WorkspaceDto(
                 workspace.getId(),
                 workspace.getName(),
                 workspace.getDescription(),
@@ -174,6 +468,39 @@ public class WorkspaceService {
                 workspace.getIsActive(),
                 workspace.getCreatedAt()
         );
+        dto.setIsShared(workspace.getIsShared());
+        dto.setFloor(workspace.getFloor());
+        dto.setZone(workspace.getZone());
+        dto.setPosX(workspace.getPosX());
+        dto.setPosY(workspace.getPosY());
+        dto.setAmenities(Set.copyOf(workspace.getAmenities()));
+        return dto;
+    }
+
+    /**
+     * Переносит атрибуты поиска из DTO в сущность
+     * 
+     * @param workspace сущность рабочего места
+     * @param workspaceDto данные рабочего места
+     */
+    private void applyAttributes(Workspace workspace, WorkspaceDto workspaceDto) {
+        workspace.setIsShared(Boolean.TRUE.equals(workspaceDto.getIsShared()));
+        workspace.setFloor(workspaceDto.getFloor());
+        workspace.setPosX(workspaceDto.getPosX());
+        workspace.setPosY(workspaceDto.getPosY());
+        workspace.setZone(workspaceDto.getZone() != null && !workspaceDto.getZone().isBlank()
+                ? WorkspaceSearchIndex.normalize(workspaceDto.getZone())
+                : null);
+        Set<String> amenities = new HashSet<>();
+        if (workspaceDto.getAmenities() != null) {
+            workspaceDto.getAmenities().stream()
+                    .filter(amenity -> amenity != null && !amenity.isBlank())
+                    .map(WorkspaceSearchIndex::normalize)
+                    .forEach(amenities::add);
+        }
+        // Коллекцию изменяем на месте, чтобы Hibernate записал только разницу
+        workspace.getAmenities().retainAll(amenities);
+        workspace.getAmenities().addAll(amenities);
     }
 
     /**
@@ -181,17 +508,18 @@ public class WorkspaceService {
      * 
      * @param startTime время начала
      * @param endTime время окончания
-     * @throws IllegalArgumentException если диапазон некорректный
+     * @throws BusinessException с кодом INVALID_TIME_RANGE, если диапазон некорректный
      */
     private void validateTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
         if (startTime == null || endTime == null) {
-            throw new IllegalArgumentException("Время начала и окончания не может быть null");
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE, "Время начала и окончания не может быть null");
         }
         if (startTime.isAfter(endTime)) {
-            throw new IllegalArgumentException("Время начала не может быть позже времени окончания");
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE,
+                    "Время начала не может быть позже времени окончания");
         }
         if (startTime.isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Время начала не может быть в прошлом");
+            throw new BusinessException(ErrorCode.INVALID_TIME_RANGE, "Время начала не может быть в прошлом");
         }
     }
 
@@ -199,11 +527,11 @@ public class WorkspaceService {
      * Валидирует вместимость
      * 
      * @param capacity вместимость
-     * @throws IllegalArgumentException если вместимость некорректная
+     * @throws BusinessException с кодом INVALID_REQUEST, если вместимость некорректная
      */
     private void validateCapacity(Integer capacity) {
         if (capacity == null || capacity < 1) {
-            throw new IllegalArgumentException("Вместимость должна быть не менее 1");
+            throw new BusinessException(ErrorCode.INVALID_REQUEST, "Вместимость должна быть не менее 1");
         }
     }
 } 
\ No newline at end of file
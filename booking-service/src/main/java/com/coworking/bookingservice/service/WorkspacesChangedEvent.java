@@ -0,0 +1,10 @@
+package com.coworking.bookingservice.service;
+
+/**
+ * Событие изменения рабочих мест
+ * 
+ * Публикуется при создании, изменении, деактивации и импорте рабочих мест.
+ * 
+ * @param workspaceId ID измененного рабочего места (null при массовом изменении)
+ */
+public record WorkspacesChangedEvent(Integer workspaceId) {}
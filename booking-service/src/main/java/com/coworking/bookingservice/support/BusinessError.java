@@ -0,0 +1,18 @@
+package com.coworking.bookingservice.support;
+
+/**
+ * Ожидаемая ошибка как значение
+ *
+ * Проверки, которые вызываются на горячем пути (пачки очереди записи,
+ * валидация заявок), возвращают ошибку вместо исключения; вызывающий код
+ * сам решает, собрать ли ее в результат или бросить {@link BusinessException}.
+ *
+ * @param code код ошибки
+ * @param message причина для клиента
+ */
+public record BusinessError(ErrorCode code, String message) {
+
+    public BusinessException toException() {
+        return new BusinessException(code, message);
+    }
+}
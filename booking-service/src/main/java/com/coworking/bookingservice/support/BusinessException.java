@@ -0,0 +1,32 @@
+package com.coworking.bookingservice.support;
+
+/**
+ * Ожидаемая бизнес-ошибка (конфликт бронирования, нарушение правила, неверные данные)
+ *
+ * Стек вызовов не заполняется: такие исключения бросаются часто и только
+ * переводятся в ответ с кодом ошибки, а захват стека — основная часть их
+ * стоимости. Наследует IllegalArgumentException, поэтому существующие
+ * обработчики IllegalArgumentException продолжают их перехватывать.
+ */
+public class BusinessException extends IllegalArgumentException {
+
+    private final ErrorCode code;
+
+    public BusinessException(ErrorCode code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    public BusinessError toError() {
+        return new BusinessError(code, getMessage());
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
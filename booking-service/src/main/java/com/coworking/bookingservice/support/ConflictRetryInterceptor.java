@@ -0,0 +1,89 @@
+package com.coworking.bookingservice.support;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Перехватчик повторов для методов с {@link RetryOnConflict}
+ *
+ * Стоит в цепочке прокси перед транзакционным перехватчиком, поэтому каждая
+ * попытка получает новую транзакцию и новый контекст персистентности, а
+ * конфликт версии, обнаруженный при фиксации, тоже приводит к повтору.
+ * Пауза перед повтором n выбирается случайно из [0, min(max, initial * 2^(n-1))].
+ */
+public class ConflictRetryInterceptor implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConflictRetryInterceptor.class);
+
+    private final Supplier<ConflictRetryMetrics> metrics;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public ConflictRetryInterceptor(Supplier<ConflictRetryMetrics> metrics, int maxAttempts,
+                                    long initialBackoffMillis, long maxBackoffMillis) {
+        if (maxAttempts < 1 || initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+            throw new IllegalArgumentException("Некорректные параметры повтора при конфликте");
+        }
+        this.metrics = metrics;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // Внутри внешней транзакции повтор бесполезен: она уже помечена на откат
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || !(invocation instanceof ProxyMethodInvocation proxyInvocation)) {
+            return invocation.proceed();
+        }
+        Method method = invocation.getMethod();
+        String operation = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        ConflictRetryMetrics retryMetrics = metrics.get();
+        retryMetrics.recordInvocation(operation);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Повторный proceed() той же цепочки невозможен, поэтому каждая попытка идет по копии
+                return proxyInvocation.invocableClone().proceed();
+            } catch (ConcurrencyFailureException e) {
+                retryMetrics.recordConflict(operation);
+                if (attempt >= maxAttempts) {
+                    retryMetrics.recordExhausted(operation);
+                    log.warn("Конфликт параллельного изменения в {} не разрешен за {} попыток: {}",
+                            operation, attempt, e.getMessage());
+                    throw e;
+                }
+                retryMetrics.recordRetry(operation);
+                log.debug("Конфликт параллельного изменения в {}, попытка {}: {}", operation, attempt, e.getMessage());
+                if (!pause(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private boolean pause(int attempt) {
+        long cap = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (cap == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
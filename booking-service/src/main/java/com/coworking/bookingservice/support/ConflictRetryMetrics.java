@@ -0,0 +1,76 @@
+package com.coworking.bookingservice.support;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.coworking.bookingservice.dto.ConflictStatsDto;
+
+/**
+ * Счетчики конфликтов и повторов методов с {@link RetryOnConflict}
+ *
+ * Считаются вызовы, конфликтные попытки, повторы и вызовы, завершившиеся
+ * конфликтом после исчерпания попыток. Счетчики накапливаются с момента
+ * запуска сервиса.
+ */
+@Component
+public class ConflictRetryMetrics {
+
+    private final Map<String, OperationCounters> counters = new ConcurrentHashMap<>();
+
+    public void recordInvocation(String operation) {
+        counters(operation).invocations.increment();
+    }
+
+    public void recordConflict(String operation) {
+        counters(operation).conflicts.increment();
+    }
+
+    public void recordRetry(String operation) {
+        counters(operation).retries.increment();
+    }
+
+    public void recordExhausted(String operation) {
+        counters(operation).exhausted.increment();
+    }
+
+    /**
+     * Возвращает текущие значения счетчиков
+     *
+     * @return статистика по операциям, отсортированная по имени
+     */
+    public List<ConflictStatsDto> snapshot() {
+        return counters.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .sorted(Comparator.comparing(ConflictStatsDto::getOperation))
+                .toList();
+    }
+
+    private OperationCounters counters(String operation) {
+        return counters.computeIfAbsent(operation, key -> new OperationCounters());
+    }
+
+    private static final class OperationCounters {
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+
+        ConflictStatsDto toDto(String operation) {
+            long invocationCount = invocations.sum();
+            long conflictCount = conflicts.sum();
+            long retryCount = retries.sum();
+            return new ConflictStatsDto(operation, invocationCount, conflictCount, retryCount, exhausted.sum(),
+                    rate(conflictCount, invocationCount), rate(retryCount, invocationCount));
+        }
+
+        private static double rate(long count, long invocations) {
+            return invocations == 0 ? 0.0 : (double) count / invocations;
+        }
+    }
+}
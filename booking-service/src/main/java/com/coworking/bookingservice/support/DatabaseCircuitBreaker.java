@@ -0,0 +1,277 @@
+package com.coworking.bookingservice.support;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.coworking.bookingservice.dto.CircuitBreakerStatsDto;
+
+/**
+ * Автомат защиты базы данных для читающих запросов
+ *
+ * Учитывает исходы последних app.db-breaker.window-size вызовов методов с
+ * {@link ServeStaleWhenDegraded}: успешный, медленный (дольше
+ * slow-call-threshold) или сбой базы (нет соединения, таймаут запроса,
+ * обрыв связи). Когда доля медленных и сбойных вызовов достигает
+ * failure-rate-threshold (при не менее min-calls учтенных), автомат
+ * размыкается: чтения обслуживаются из снимков, записи отклоняются с 503.
+ * Через open-duration автомат пропускает half-open-calls пробных чтений;
+ * если все они быстрые и успешные, автомат замыкается, иначе снова
+ * размыкается. Переходы и устаревание отданных снимков считаются с момента
+ * запуска сервиса.
+ */
+@Component
+public class DatabaseCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    /**
+     * Состояние автомата
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final byte SUCCESS = 0;
+    private static final byte SLOW = 1;
+    private static final byte FAILURE = 2;
+
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationMillis;
+    private final int halfOpenCalls;
+
+    // Кольцевой буфер исходов; состояние меняется под блокировкой this
+    private final byte[] outcomes;
+    private int bufferedCalls;
+    private int nextIndex;
+    private int slowCalls;
+    private int failedCalls;
+    private State state = State.CLOSED;
+    private long stateSinceMillis = System.currentTimeMillis();
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final Map<State, LongAdder> transitions = new EnumMap<>(State.class);
+    private final LongAdder staleResponses = new LongAdder();
+    private final LongAdder snapshotMisses = new LongAdder();
+    private final LongAdder rejectedWrites = new LongAdder();
+    private final AtomicLong lastStalenessMillis = new AtomicLong();
+    private final AtomicLong maxStalenessMillis = new AtomicLong();
+
+    public DatabaseCircuitBreaker(@Value("${app.db-breaker.window-size:50}") int windowSize,
+                                  @Value("${app.db-breaker.min-calls:10}") int minCalls,
+                                  @Value("${app.db-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                  @Value("${app.db-breaker.slow-call-threshold:1000}") long slowCallThresholdMillis,
+                                  @Value("${app.db-breaker.open-duration:10000}") long openDurationMillis,
+                                  @Value("${app.db-breaker.half-open-calls:3}") int halfOpenCalls) {
+        if (windowSize < 1 || minCalls < 1 || minCalls > windowSize || halfOpenCalls < 1
+                || failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Некорректные параметры автомата защиты базы данных");
+        }
+        this.outcomes = new byte[windowSize];
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThresholdMillis * 1_000_000;
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        for (State value : State.values()) {
+            transitions.put(value, new LongAdder());
+        }
+    }
+
+    /**
+     * Проверяет, можно ли обратиться к базе за чтением
+     *
+     * В полуоткрытом состоянии каждый разрешенный вызов занимает пробное место;
+     * вызывающий обязан сообщить исход через onSuccess, onFailure или onIgnored.
+     *
+     * @return true — выполнять запрос, false — отвечать из снимка
+     */
+    public synchronized boolean tryAcquire() {
+        expireOpenState();
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Проверяет, принимаются ли записи (автомат не разомкнут)
+     */
+    public synchronized boolean allowsWrites() {
+        expireOpenState();
+        return state != State.OPEN;
+    }
+
+    /**
+     * Возвращает число секунд до пробных запросов (для заголовка Retry-After)
+     */
+    public synchronized long retryAfterSeconds() {
+        long remaining = stateSinceMillis + openDurationMillis - System.currentTimeMillis();
+        return state == State.OPEN ? Math.max(1, (remaining + 999) / 1000) : 1;
+    }
+
+    /**
+     * Учитывает успешный вызов; вызов дольше порога считается медленным
+     *
+     * @param durationNanos длительность вызова
+     */
+    public void onSuccess(long durationNanos) {
+        record(durationNanos > slowCallThresholdNanos ? SLOW : SUCCESS);
+    }
+
+    /**
+     * Учитывает сбой базы
+     */
+    public void onFailure() {
+        record(FAILURE);
+    }
+
+    /**
+     * Возвращает пробное место вызова, завершившегося не по вине базы (ошибка валидации)
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public void recordStaleResponse(long stalenessMillis) {
+        staleResponses.increment();
+        lastStalenessMillis.set(stalenessMillis);
+        maxStalenessMillis.accumulateAndGet(stalenessMillis, Math::max);
+    }
+
+    public void recordSnapshotMiss() {
+        snapshotMisses.increment();
+    }
+
+    public void recordRejectedWrite() {
+        rejectedWrites.increment();
+    }
+
+    /**
+     * Проверяет, говорит ли исключение о недоступности или перегрузке базы
+     *
+     * Конфликты блокировок и ошибки данных к сбоям не относятся.
+     */
+    public static boolean isDatabaseFailure(Throwable e) {
+        if (e instanceof ConcurrencyFailureException) {
+            return false;
+        }
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof NonTransientDataAccessResourceException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    /**
+     * Возвращает текущее состояние и счетчики автомата
+     */
+    public synchronized CircuitBreakerStatsDto snapshot() {
+        expireOpenState();
+        return new CircuitBreakerStatsDto(
+                state.name(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(stateSinceMillis), ZoneId.systemDefault()),
+                bufferedCalls,
+                rate(failedCalls),
+                rate(slowCalls),
+                transitions.get(State.OPEN).sum(),
+                transitions.get(State.HALF_OPEN).sum(),
+                transitions.get(State.CLOSED).sum(),
+                staleResponses.sum(),
+                snapshotMisses.sum(),
+                rejectedWrites.sum(),
+                lastStalenessMillis.get() / 1000,
+                maxStalenessMillis.get() / 1000);
+    }
+
+    private synchronized void record(byte outcome) {
+        switch (state) {
+            case CLOSED -> {
+                if (bufferedCalls == outcomes.length) {
+                    forget(outcomes[nextIndex]);
+                } else {
+                    bufferedCalls++;
+                }
+                outcomes[nextIndex] = outcome;
+                nextIndex = (nextIndex + 1) % outcomes.length;
+                if (outcome == SLOW) {
+                    slowCalls++;
+                } else if (outcome == FAILURE) {
+                    failedCalls++;
+                }
+                if (bufferedCalls >= minCalls
+                        && (double) (slowCalls + failedCalls) / bufferedCalls >= failureRateThreshold) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            case HALF_OPEN -> {
+                if (outcome != SUCCESS) {
+                    transitionTo(State.OPEN);
+                } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            // Вызовы, начатые до размыкания, на состояние не влияют
+            case OPEN -> {
+            }
+        }
+    }
+
+    private void forget(byte outcome) {
+        if (outcome == SLOW) {
+            slowCalls--;
+        } else if (outcome == FAILURE) {
+            failedCalls--;
+        }
+    }
+
+    private void expireOpenState() {
+        if (state == State.OPEN && System.currentTimeMillis() - stateSinceMillis >= openDurationMillis) {
+            transitionTo(State.HALF_OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        log.warn("Автомат защиты базы данных: {} -> {} (медленных {}, сбоев {} из {})",
+                state, next, slowCalls, failedCalls, bufferedCalls);
+        state = next;
+        stateSinceMillis = System.currentTimeMillis();
+        transitions.get(next).increment();
+        halfOpenPermits = next == State.HALF_OPEN ? halfOpenCalls : 0;
+        halfOpenSuccesses = 0;
+        if (next == State.CLOSED) {
+            bufferedCalls = 0;
+            nextIndex = 0;
+            slowCalls = 0;
+            failedCalls = 0;
+        }
+    }
+
+    private double rate(int count) {
+        return bufferedCalls == 0 ? 0.0 : (double) count / bufferedCalls;
+    }
+}
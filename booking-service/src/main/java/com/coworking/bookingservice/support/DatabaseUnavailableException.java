@@ -0,0 +1,13 @@
+package com.coworking.bookingservice.support;
+
+/**
+ * База данных недоступна, а подходящего снимка для ответа нет
+ *
+ * Контроллеры отвечают на него 503.
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+
+    public DatabaseUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
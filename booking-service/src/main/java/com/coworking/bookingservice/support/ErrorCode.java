@@ -0,0 +1,48 @@
+package com.coworking.bookingservice.support;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Машиночитаемые коды ожидаемых ошибок API
+ *
+ * Код передается клиенту в поле code ответа об ошибке; HTTP-статус задает
+ * класс ошибки: 400 — некорректный запрос, 409 — конфликт с текущим
+ * состоянием (занятый слот, параллельное изменение), 422 — запрос
+ * корректен, но нарушает бизнес-правило, 500 — ошибка кода приложения.
+ */
+public enum ErrorCode {
+
+    INVALID_REQUEST(HttpStatus.BAD_REQUEST),
+    INVALID_TIME_RANGE(HttpStatus.BAD_REQUEST),
+    ACCESS_DENIED(HttpStatus.FORBIDDEN),
+
+    SLOT_BOOKED(HttpStatus.CONFLICT),
+    SLOT_HELD(HttpStatus.CONFLICT),
+    ZONE_FULL(HttpStatus.CONFLICT),
+    NOT_ENOUGH_SEATS(HttpStatus.CONFLICT),
+    RESERVATION_NOT_ACTIVE(HttpStatus.CONFLICT),
+    WAITLIST_DUPLICATE(HttpStatus.CONFLICT),
+    WAITLIST_NOT_WAITING(HttpStatus.CONFLICT),
+    SLOT_AVAILABLE(HttpStatus.CONFLICT),
+    CONCURRENT_MODIFICATION(HttpStatus.CONFLICT),
+    DATA_CONFLICT(HttpStatus.CONFLICT),
+
+    WORKSPACE_NOT_FOUND(HttpStatus.UNPROCESSABLE_ENTITY),
+    WORKSPACE_INACTIVE(HttpStatus.UNPROCESSABLE_ENTITY),
+    WORKSPACE_CLOSED(HttpStatus.UNPROCESSABLE_ENTITY),
+    HOLD_NOT_FOUND(HttpStatus.UNPROCESSABLE_ENTITY),
+    QUOTA_EXCEEDED(HttpStatus.UNPROCESSABLE_ENTITY),
+
+    SQL_BUDGET_EXCEEDED(HttpStatus.INTERNAL_SERVER_ERROR),
+    DATABASE_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE);
+
+    private final HttpStatus status;
+
+    ErrorCode(HttpStatus status) {
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,109 @@
+package com.coworking.bookingservice.support;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Набор полей ответа, запрошенный параметром fields
+ *
+ * Параметр задается списком имен полей DTO через запятую, например
+ * {@code fields=id,workspaceName,startTime,endTime}. Отсутствующий или пустой
+ * параметр означает все поля. Выборка сужает и SQL-проекцию (см.
+ * {@link SqlProjection}), и сериализацию: DTO с фильтром {@link #FILTER_ID}
+ * выводят только запрошенные поля.
+ */
+public final class FieldSelection {
+
+    /**
+     * Имя параметра запроса
+     */
+    public static final String PARAMETER = "fields";
+
+    /**
+     * ID фильтра Jackson на DTO, поддерживающих выборку полей
+     */
+    public static final String FILTER_ID = "fieldSelection";
+
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Возвращает выборку всех полей
+     */
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Разбирает параметр fields и проверяет имена по полям DTO
+     *
+     * @param fields значение параметра (может быть null)
+     * @param dtoType класс DTO ответа
+     * @return выборка полей
+     * @throws BusinessException с кодом INVALID_REQUEST, если указано неизвестное поле
+     */
+    public static FieldSelection parse(String fields, Class<?> dtoType) {
+        Set<String> requested = split(fields);
+        if (requested.isEmpty()) {
+            return ALL;
+        }
+        Set<String> known = Arrays.stream(dtoType.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+        for (String field : requested) {
+            if (!known.contains(field)) {
+                throw new BusinessException(ErrorCode.INVALID_REQUEST, "Неизвестное поле: " + field);
+            }
+        }
+        return new FieldSelection(Collections.unmodifiableSet(requested));
+    }
+
+    /**
+     * Разбирает параметр fields без проверки имен
+     *
+     * @param fields значение параметра (может быть null)
+     * @return имена полей в порядке указания; пустое множество означает все поля
+     */
+    public static Set<String> split(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                if (!field.isBlank()) {
+                    requested.add(field.trim());
+                }
+            }
+        }
+        return requested;
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    // Выборка входит в ключ снимков чтения (см. ServeStaleWhenDegraded)
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FieldSelection selection && Objects.equals(fields, selection.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(fields);
+    }
+}
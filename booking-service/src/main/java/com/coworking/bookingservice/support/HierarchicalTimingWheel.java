@@ -0,0 +1,208 @@
+package com.coworking.bookingservice.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Иерархическое колесо таймеров
+ *
+ * Добавление и отмена таймера выполняются за O(1): таймер помещается в слот
+ * двусвязного списка на уровне, соответствующем его удаленности. При каждом
+ * тике истекают только таймеры текущего слота нижнего уровня, а слоты верхних
+ * уровней перераспределяются вниз, когда до них доходит очередь. Таким образом
+ * истечение не требует просмотра всех таймеров.
+ *
+ * Класс потокобезопасен (все операции выполняются под монитором объекта).
+ *
+ * @param <T> тип полезной нагрузки таймера
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final Slot<T>[][] wheels;
+    private final long maxSpanTicks;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Создает колесо таймеров
+     *
+     * @param tickMillis длительность тика в миллисекундах
+     * @param wheelBits log2 количества слотов на уровне
+     * @param levels количество уровней
+     * @param startMillis текущее время в миллисекундах
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelBits, int levels, long startMillis) {
+        if (tickMillis < 1 || wheelBits < 1 || levels < 1 || (long) wheelBits * levels >= 62) {
+            throw new IllegalArgumentException("Некорректные параметры колеса таймеров");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.wheelMask = (1 << wheelBits) - 1;
+        this.wheels = new Slot[levels][1 << wheelBits];
+        for (Slot<T>[] wheel : wheels) {
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Slot<>();
+            }
+        }
+        this.maxSpanTicks = (1L << (wheelBits * levels)) - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Добавляет таймер
+     *
+     * @param payload полезная нагрузка
+     * @param deadlineMillis момент срабатывания в миллисекундах
+     * @return таймер, который можно отменить
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        // Округляем вверх, чтобы таймер не сработал раньше срока
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        Timeout<T> timeout = new Timeout<>(payload, Math.max(deadlineTick, currentTick + 1));
+        place(timeout, null);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Отменяет таймер
+     *
+     * @param timeout таймер
+     * @return true если таймер был отменен до срабатывания
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Продвигает колесо до указанного момента и возвращает истекшие таймеры
+     *
+     * @param nowMillis текущее время в миллисекундах
+     * @return полезные нагрузки истекших таймеров
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Сначала перераспределяем верхние уровни, затем истекает слот нижнего
+            for (int level = wheels.length - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (wheelBits * level)) - 1)) == 0) {
+                    Slot<T> slot = wheels[level][(int) ((currentTick >>> (wheelBits * level)) & wheelMask)];
+                    Timeout<T> timeout;
+                    while ((timeout = slot.poll()) != null) {
+                        place(timeout, expired);
+                    }
+                }
+            }
+            Slot<T> slot = wheels[0][(int) (currentTick & wheelMask)];
+            Timeout<T> timeout;
+            while ((timeout = slot.poll()) != null) {
+                expire(timeout, expired);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Возвращает количество ожидающих таймеров
+     *
+     * @return количество таймеров
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void place(Timeout<T> timeout, List<T> expired) {
+        long ticks = timeout.deadlineTick - currentTick;
+        if (ticks <= 0) {
+            expire(timeout, expired);
+            return;
+        }
+        // Слишком далекие таймеры кладем в последний слот диапазона и переносим позже
+        long tick = ticks > maxSpanTicks ? currentTick + maxSpanTicks : timeout.deadlineTick;
+        long span = tick - currentTick;
+        int level = 0;
+        while (level < wheels.length - 1 && span >= (1L << (wheelBits * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (wheelBits * level)) & wheelMask)].add(timeout);
+    }
+
+    private void expire(Timeout<T> timeout, List<T> expired) {
+        size--;
+        expired.add(timeout.payload);
+    }
+
+    /**
+     * Таймер колеса
+     *
+     * @param <T> тип полезной нагрузки
+     */
+    public static final class Timeout<T> {
+
+        private final T payload;
+        private final long deadlineTick;
+        private Slot<T> slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    /**
+     * Слот колеса: двусвязный список таймеров
+     */
+    private static final class Slot<T> {
+
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        Timeout<T> poll() {
+            Timeout<T> timeout = head;
+            if (timeout != null) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+    }
+}
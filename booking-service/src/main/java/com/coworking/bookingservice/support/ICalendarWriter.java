@@ -0,0 +1,110 @@
+package com.coworking.bookingservice.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Потоковая запись календаря в формате iCalendar (RFC 5545)
+ *
+ * Каждое свойство сразу пишется в поток: строки завершаются CRLF, текстовые
+ * значения экранируются, а строки длиннее 75 октетов переносятся без
+ * разрыва многобайтовых символов UTF-8. Буферизацию обеспечивает поток.
+ */
+public class ICalendarWriter {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final OutputStream out;
+
+    public ICalendarWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Начинает компонент (BEGIN:VCALENDAR, BEGIN:VEVENT)
+     */
+    public ICalendarWriter begin(String component) throws IOException {
+        return property("BEGIN", component);
+    }
+
+    /**
+     * Завершает компонент
+     */
+    public ICalendarWriter end(String component) throws IOException {
+        return property("END", component);
+    }
+
+    /**
+     * Пишет свойство со значением без экранирования (коды, числа, даты)
+     */
+    public ICalendarWriter property(String name, String value) throws IOException {
+        writeLine(name + ":" + value);
+        return this;
+    }
+
+    /**
+     * Пишет текстовое свойство с экранированием
+     */
+    public ICalendarWriter text(String name, String value) throws IOException {
+        return property(name, escape(value));
+    }
+
+    /**
+     * Пишет «плавающее» локальное время без часового пояса
+     */
+    public ICalendarWriter localDateTime(String name, LocalDateTime value) throws IOException {
+        return property(name, DATE_TIME.format(value));
+    }
+
+    /**
+     * Пишет время в UTC (с суффиксом Z)
+     *
+     * @param value время в UTC
+     */
+    public ICalendarWriter utcDateTime(String name, LocalDateTime value) throws IOException {
+        return property(name, DATE_TIME.format(value) + "Z");
+    }
+
+    private void writeLine(String line) throws IOException {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        int start = 0;
+        int limit = MAX_LINE_OCTETS;
+        while (bytes.length - start > limit) {
+            int end = start + limit;
+            // Не разрываем символ: байты продолжения имеют вид 10xxxxxx
+            while ((bytes[end] & 0xC0) == 0x80) {
+                end--;
+            }
+            out.write(bytes, start, end - start);
+            out.write(CRLF);
+            out.write(' ');
+            start = end;
+            // Пробел в начале строки продолжения входит в ее длину
+            limit = MAX_LINE_OCTETS - 1;
+        }
+        out.write(bytes, start, bytes.length - start);
+        out.write(CRLF);
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.coworking.bookingservice.support;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.coworking.bookingservice.dto.MultiGetItem;
+
+/**
+ * Общие шаги множественного запроса по ID
+ * 
+ * Запрошенные ID проверяются и схлопываются для одного запроса IN, а
+ * найденные объекты раскладываются обратно в порядке запроса.
+ */
+public final class MultiGet {
+
+    private MultiGet() {}
+
+    /**
+     * Проверяет запрошенные ID и возвращает их без повторов
+     *
+     * @param ids запрошенные ID
+     * @param maxIds максимальное количество ID в запросе
+     * @return различные ID в порядке первого появления
+     * @throws BusinessException с кодом INVALID_REQUEST, если список пуст, слишком длинный или содержит null
+     */
+    public static Set<Integer> distinctIds(List<Integer> ids, int maxIds) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST, "Не указаны ID");
+        }
+        if (ids.size() > maxIds) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST, "Слишком много ID в запросе: максимум " + maxIds);
+        }
+        if (ids.contains(null)) {
+            throw new BusinessException(ErrorCode.INVALID_REQUEST, "Пустой ID в запросе");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+
+    /**
+     * Раскладывает найденные объекты в порядке запрошенных ID
+     *
+     * @param ids запрошенные ID (повторы сохраняются)
+     * @param found найденные объекты по ID
+     * @return элементы ответа с отметками об отсутствии
+     */
+    public static <T> List<MultiGetItem<T>> inRequestOrder(List<Integer> ids, Map<Integer, T> found) {
+        List<MultiGetItem<T>> items = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            items.add(new MultiGetItem<>(id, found.get(id)));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,23 @@
+package com.coworking.bookingservice.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает транзакционный метод сервиса, который повторяется при конфликте
+ *
+ * Конфликтом считается ConcurrencyFailureException: устаревшая версия строки
+ * (оптимистичная блокировка), взаимоблокировка или сбой сериализации. Каждая
+ * попытка выполняется в новой транзакции, между попытками выдерживается
+ * пауза со случайной составляющей. Если метод вызван внутри уже открытой
+ * транзакции, повтор не выполняется: конфликт обрабатывает внешний вызов.
+ * Параметры задаются настройками app.booking.retry.*.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
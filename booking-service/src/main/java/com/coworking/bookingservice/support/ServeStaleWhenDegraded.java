@@ -0,0 +1,24 @@
+package com.coworking.bookingservice.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает читающий метод сервиса, защищенный автоматом {@link DatabaseCircuitBreaker}
+ *
+ * Успешный результат запоминается как снимок по аргументам вызова. Пока
+ * автомат разомкнут, метод не обращается к базе и возвращает последний снимок
+ * с теми же аргументами; ответ получает заголовки Age и Warning 110. Если
+ * снимка нет или он старше app.db-breaker.max-staleness, выбрасывается
+ * {@link DatabaseUnavailableException}. Сбой базы при замкнутом автомате тоже
+ * обслуживается из снимка, если он есть. Внутри уже открытой транзакции
+ * метод вызывается как обычно.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ServeStaleWhenDegraded {
+}
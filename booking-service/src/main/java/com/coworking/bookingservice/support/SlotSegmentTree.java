@@ -0,0 +1,169 @@
+package com.coworking.bookingservice.support;
+
+import java.util.Arrays;
+
+/**
+ * Разреженное дерево отрезков над временными слотами
+ *
+ * Поддерживает прибавление к диапазону слотов и максимум по диапазону за
+ * O(log n), где n — размер области значений. Узлы создаются только на путях
+ * затронутых диапазонов, поэтому дерево над 2^32 слотами занимает память
+ * пропорционально числу интервалов, а не длине календаря.
+ *
+ * Узлы хранятся в параллельных массивах; узел 0 — пустое поддерево с
+ * нулевым значением. Отложенное прибавление узла не проталкивается к детям:
+ * максимум узла равен его прибавлению плюс наибольшему из максимумов детей.
+ * Поддерево, все слоты которого снова стали нулевыми (например, прибавление
+ * отменено вычитанием того же диапазона), освобождается, а его узлы
+ * используются повторно, поэтому память не растет от снятых интервалов.
+ *
+ * Класс не потокобезопасен.
+ */
+public class SlotSegmentTree {
+
+    private static final int INITIAL_NODES = 64;
+
+    private final long size;
+    private int[] left;
+    private int[] right;
+    private int[] add;
+    private int[] max;
+    private int nodeCount;
+    // Освобожденные узлы связаны в список через left
+    private int freeHead;
+    private int freeCount;
+
+    /**
+     * Создает пустое дерево
+     *
+     * @param domainBits log2 количества слотов (слоты от 0 до 2^domainBits)
+     */
+    public SlotSegmentTree(int domainBits) {
+        if (domainBits < 1 || domainBits > 62) {
+            throw new IllegalArgumentException("Некорректный размер дерева слотов: " + domainBits);
+        }
+        this.size = 1L << domainBits;
+        this.left = new int[INITIAL_NODES];
+        this.right = new int[INITIAL_NODES];
+        this.add = new int[INITIAL_NODES];
+        this.max = new int[INITIAL_NODES];
+        // Узел 0 — пустое поддерево, узел 1 — корень
+        this.nodeCount = 2;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Возвращает число занятых узлов (вместе с корнем)
+     */
+    public int getNodeCount() {
+        return nodeCount - 1 - freeCount;
+    }
+
+    /**
+     * Прибавляет значение ко всем слотам диапазона [from, to)
+     *
+     * @param from первый слот
+     * @param to слот после последнего
+     * @param delta прибавляемое значение
+     */
+    public void add(long from, long to, int delta) {
+        checkRange(from, to);
+        add(1, 0, size, from, to, delta);
+    }
+
+    /**
+     * Возвращает наибольшее значение среди слотов диапазона [from, to)
+     *
+     * @param from первый слот
+     * @param to слот после последнего
+     * @return максимум по диапазону (0 для слотов, к которым ничего не прибавлялось)
+     */
+    public int max(long from, long to) {
+        checkRange(from, to);
+        return max(1, 0, size, from, to);
+    }
+
+    private int add(int node, long lo, long hi, long from, long to, int delta) {
+        if (node == 0) {
+            node = allocate();
+        }
+        if (from <= lo && hi <= to) {
+            add[node] += delta;
+            max[node] += delta;
+            return node;
+        }
+        long mid = (lo + hi) >>> 1;
+        if (from < mid) {
+            // Массивы могут быть перевыделены при рекурсии, поэтому ссылку записываем после вызова
+            int child = prune(add(left[node], lo, mid, from, to, delta));
+            left[node] = child;
+        }
+        if (to > mid) {
+            int child = prune(add(right[node], mid, hi, from, to, delta));
+            right[node] = child;
+        }
+        max[node] = add[node] + Math.max(max[left[node]], max[right[node]]);
+        return node;
+    }
+
+    private int max(int node, long lo, long hi, long from, long to) {
+        if (node == 0) {
+            return 0;
+        }
+        if (from <= lo && hi <= to) {
+            return max[node];
+        }
+        long mid = (lo + hi) >>> 1;
+        int best = Integer.MIN_VALUE;
+        if (from < mid) {
+            best = max(left[node], lo, mid, from, to);
+        }
+        if (to > mid) {
+            best = Math.max(best, max(right[node], mid, hi, from, to));
+        }
+        return add[node] + best;
+    }
+
+    /**
+     * Освобождает узел, если все слоты его поддерева нулевые
+     *
+     * @return узел или 0, если он освобожден
+     */
+    private int prune(int node) {
+        if (add[node] != 0 || left[node] != 0 || right[node] != 0) {
+            return node;
+        }
+        max[node] = 0;
+        left[node] = freeHead;
+        freeHead = node;
+        freeCount++;
+        return 0;
+    }
+
+    private int allocate() {
+        if (freeHead != 0) {
+            int node = freeHead;
+            freeHead = left[node];
+            left[node] = 0;
+            freeCount--;
+            return node;
+        }
+        if (nodeCount == left.length) {
+            int capacity = left.length * 2;
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            add = Arrays.copyOf(add, capacity);
+            max = Arrays.copyOf(max, capacity);
+        }
+        return nodeCount++;
+    }
+
+    private void checkRange(long from, long to) {
+        if (from < 0 || to > size || from >= to) {
+            throw new IllegalArgumentException("Некорректный диапазон слотов: [" + from + ", " + to + ")");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.coworking.bookingservice.support;
+
+/**
+ * Превышен бюджет SQL-запросов области подсчета
+ *
+ * Бросается проверками бюджета {@link SqlStatementCounter.Scope} и перед
+ * выполнением запроса сверх лимита области. Наследует IllegalStateException:
+ * превышение бюджета — ошибка кода приложения, а не данных запроса.
+ */
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
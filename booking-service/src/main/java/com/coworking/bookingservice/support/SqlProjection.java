@@ -0,0 +1,121 @@
+package com.coworking.bookingservice.support;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Соответствие полей DTO столбцам SQL для узкой проекции
+ *
+ * Для выборки полей строится список столбцов SELECT, в который попадают
+ * только нужные выражения (одинаковые выражения читаются один раз), и
+ * RowMapper, заполняющий только эти поля DTO. Поля без столбца (например,
+ * коллекции из отдельной таблицы) пропускаются и заполняются вызывающим кодом.
+ *
+ * @param <T> тип DTO
+ */
+public final class SqlProjection<T> {
+
+    private final Supplier<T> factory;
+    private final Map<String, Column<T>> columns = new LinkedHashMap<>();
+
+    public SqlProjection(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Добавляет столбец поля
+     *
+     * @param field имя поля DTO
+     * @param expression SQL-выражение столбца
+     * @param reader заполнение поля из результата
+     * @return эта проекция
+     */
+    public SqlProjection<T> column(String field, String expression, ColumnReader<T> reader) {
+        columns.put(field, new Column<>(expression, reader));
+        return this;
+    }
+
+    /**
+     * Строит проекцию для выборки полей
+     *
+     * @param selection запрошенные поля
+     * @param requiredFields поля, которые нужны вызывающему коду независимо от запроса
+     * @return список столбцов и RowMapper
+     */
+    public Selection<T> select(FieldSelection selection, String... requiredFields) {
+        List<String> expressions = new ArrayList<>();
+        List<Column<T>> selected = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<String> required = List.of(requiredFields);
+        for (Map.Entry<String, Column<T>> entry : columns.entrySet()) {
+            if (!selection.includes(entry.getKey()) && !required.contains(entry.getKey())) {
+                continue;
+            }
+            Column<T> column = entry.getValue();
+            int index = expressions.indexOf(column.expression());
+            if (index < 0) {
+                expressions.add(column.expression());
+                index = expressions.size() - 1;
+            }
+            selected.add(column);
+            // Индексы столбцов в JDBC начинаются с 1
+            indexes.add(index + 1);
+        }
+        return new Selection<>(factory, String.join(", ", expressions), selected, indexes);
+    }
+
+    /**
+     * Чтение значения столбца в поле DTO
+     *
+     * @param <T> тип DTO
+     */
+    @FunctionalInterface
+    public interface ColumnReader<T> {
+        void read(T target, ResultSet rs, int index) throws SQLException;
+    }
+
+    private record Column<T>(String expression, ColumnReader<T> reader) {}
+
+    /**
+     * Проекция для конкретной выборки полей
+     *
+     * @param <T> тип DTO
+     */
+    public static final class Selection<T> implements RowMapper<T> {
+
+        private final Supplier<T> factory;
+        private final String selectList;
+        private final List<Column<T>> columns;
+        private final List<Integer> indexes;
+
+        private Selection(Supplier<T> factory, String selectList, List<Column<T>> columns, List<Integer> indexes) {
+            this.factory = factory;
+            this.selectList = selectList;
+            this.columns = columns;
+            this.indexes = indexes;
+        }
+
+        /**
+         * Возвращает список столбцов для SELECT
+         */
+        public String getSelectList() {
+            return selectList;
+        }
+
+        @Override
+        public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+            T target = factory.get();
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).reader().read(target, rs, indexes.get(i));
+            }
+            return target;
+        }
+    }
+}
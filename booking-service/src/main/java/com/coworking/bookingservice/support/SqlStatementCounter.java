@@ -0,0 +1,236 @@
+package com.coworking.bookingservice.support;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Счетчик JDBC-запросов текущего потока
+ *
+ * Запросы считаются, пока в потоке открыта хотя бы одна область подсчета
+ * ({@link #open(boolean)}); области могут быть вложенными. Источником данных
+ * служит {@link StatementCountingDataSource}. Используется фильтром бюджета
+ * запросов на HTTP-запрос и может использоваться в тестах для проверки
+ * бюджетов вида «не более одного SELECT на вызов сервиса»:
+ *
+ * <pre>
+ * try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(true)) {
+ *     reservationService.getUserReservations(userId);
+ *     scope.assertSelectsAtMost(1);
+ * }
+ * </pre>
+ *
+ * Область с лимитом ({@link #open(boolean, int)}) не выполняет запрос сверх
+ * лимита и прерывает вызов исключением {@link SqlBudgetExceededException}.
+ */
+public final class SqlStatementCounter {
+
+    private static final String APPLICATION_PACKAGE = "com.coworking.bookingservice.";
+    private static final String SUPPORT_PACKAGE = APPLICATION_PACKAGE + "support.";
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlStatementCounter() {}
+
+    /**
+     * Открывает область подсчета в текущем потоке
+     *
+     * @param captureCallSites запоминать места вызова в коде приложения (дороже)
+     * @return область, которую нужно закрыть
+     */
+    public static Scope open(boolean captureCallSites) {
+        return open(captureCallSites, 0);
+    }
+
+    /**
+     * Открывает область подсчета с лимитом запросов в текущем потоке
+     *
+     * @param captureCallSites запоминать места вызова в коде приложения (дороже)
+     * @param limit максимальное количество запросов в области (0 — без лимита)
+     * @return область, которую нужно закрыть
+     */
+    public static Scope open(boolean captureCallSites, int limit) {
+        Scope scope = new Scope(captureCallSites, limit);
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    /**
+     * Учитывает запрос во всех открытых областях потока перед его выполнением
+     *
+     * @param sql текст запроса
+     * @throws SqlBudgetExceededException если запрос превышает лимит одной из областей
+     */
+    static void record(String sql) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            return;
+        }
+        StatementType type = StatementType.of(sql);
+        String callSite = null;
+        for (Scope scope : scopes) {
+            if (scope.captureCallSites && callSite == null) {
+                callSite = findCallSite();
+            }
+            scope.add(type, callSite);
+        }
+        for (Scope scope : scopes) {
+            if (scope.limit > 0) {
+                scope.assertTotalAtMost(scope.limit);
+            }
+        }
+    }
+
+    private static String findCallSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(SUPPORT_PACKAGE))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("<вне кода приложения>"));
+    }
+
+    /**
+     * Тип SQL-запроса
+     */
+    public enum StatementType {
+        SELECT,
+        INSERT,
+        UPDATE,
+        DELETE,
+        OTHER;
+
+        static StatementType of(String sql) {
+            if (sql == null) {
+                return OTHER;
+            }
+            String head = sql.stripLeading();
+            head = head.substring(0, Math.min(head.length(), 6)).toUpperCase(Locale.ROOT);
+            if (head.startsWith("SELECT") || head.startsWith("WITH")) {
+                return SELECT;
+            }
+            if (head.startsWith("INSERT")) {
+                return INSERT;
+            }
+            if (head.startsWith("UPDATE")) {
+                return UPDATE;
+            }
+            if (head.startsWith("DELETE")) {
+                return DELETE;
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * Область подсчета запросов
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final boolean captureCallSites;
+        private final int limit;
+        private final int[] counts = new int[StatementType.values().length];
+        private final Map<String, Integer> callSites = new LinkedHashMap<>();
+        private boolean closed;
+
+        private Scope(boolean captureCallSites, int limit) {
+            this.captureCallSites = captureCallSites;
+            this.limit = limit;
+        }
+
+        private void add(StatementType type, String callSite) {
+            counts[type.ordinal()]++;
+            if (callSite != null) {
+                callSites.merge(type + " " + callSite, 1, Integer::sum);
+            }
+        }
+
+        /**
+         * Возвращает количество запросов указанного типа
+         *
+         * @param type тип запроса
+         * @return количество запросов
+         */
+        public int getCount(StatementType type) {
+            return counts[type.ordinal()];
+        }
+
+        public int getSelectCount() {
+            return getCount(StatementType.SELECT);
+        }
+
+        /**
+         * Возвращает общее количество запросов
+         *
+         * @return количество запросов
+         */
+        public int getTotalCount() {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Возвращает места вызова с количеством запросов
+         * (заполняется, только если область открыта с captureCallSites)
+         *
+         * @return «ТИП Класс.метод:строка» → количество
+         */
+        public Map<String, Integer> getCallSites() {
+            return callSites;
+        }
+
+        /**
+         * Проверяет бюджет SELECT-запросов
+         *
+         * @param budget максимальное количество SELECT
+         * @throws SqlBudgetExceededException если бюджет превышен
+         */
+        public void assertSelectsAtMost(int budget) {
+            if (getSelectCount() > budget) {
+                throw new SqlBudgetExceededException("Выполнено SELECT: " + getSelectCount()
+                        + ", бюджет: " + budget + describeCallSites());
+            }
+        }
+
+        /**
+         * Проверяет бюджет всех запросов
+         *
+         * @param budget максимальное количество запросов
+         * @throws SqlBudgetExceededException если бюджет превышен
+         */
+        public void assertTotalAtMost(int budget) {
+            if (getTotalCount() > budget) {
+                throw new SqlBudgetExceededException("Выполнено запросов: " + getTotalCount()
+                        + ", бюджет: " + budget + describeCallSites());
+            }
+        }
+
+        /**
+         * Описывает места вызова для журнала
+         *
+         * @return строка с местами вызова или пустая строка
+         */
+        public String describeCallSites() {
+            if (callSites.isEmpty()) {
+                return "";
+            }
+            StringBuilder description = new StringBuilder();
+            callSites.forEach((site, count) -> description.append(System.lineSeparator())
+                    .append("    ").append(count).append(" x ").append(site));
+            return description.toString();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                SCOPES.get().remove(this);
+            }
+        }
+    }
+}
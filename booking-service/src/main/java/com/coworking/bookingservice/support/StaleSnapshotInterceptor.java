@@ -0,0 +1,122 @@
+package com.coworking.bookingservice.support;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Перехватчик методов с {@link ServeStaleWhenDegraded}
+ *
+ * Стоит в цепочке прокси перед транзакционным перехватчиком: при
+ * разомкнутом автомате транзакция не начинается и соединение из пула не
+ * запрашивается, поэтому потоки Tomcat не ждут медленную базу. Снимки
+ * хранятся по методу и списку аргументов, не более maxSnapshots на метод
+ * (вытесняются давно не запрошенные).
+ */
+public class StaleSnapshotInterceptor implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleSnapshotInterceptor.class);
+
+    // Предупреждение HTTP об устаревшем ответе (RFC 7234, раздел 5.5.1)
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private final Supplier<DatabaseCircuitBreaker> breaker;
+    private final int maxSnapshots;
+    private final long maxStalenessMillis;
+    private final Map<Method, Map<List<Object>, Snapshot>> snapshots = new ConcurrentHashMap<>();
+
+    public StaleSnapshotInterceptor(Supplier<DatabaseCircuitBreaker> breaker, int maxSnapshots,
+                                    long maxStalenessMillis) {
+        if (maxSnapshots < 1 || maxStalenessMillis < 0) {
+            throw new IllegalArgumentException("Некорректные параметры снимков чтения");
+        }
+        this.breaker = breaker;
+        this.maxSnapshots = maxSnapshots;
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // Внутри внешней транзакции соединение уже получено: снимок ничего не сэкономит
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        DatabaseCircuitBreaker circuitBreaker = breaker.get();
+        Method method = invocation.getMethod();
+        List<Object> key = Arrays.asList(invocation.getArguments().clone());
+        if (!circuitBreaker.tryAcquire()) {
+            return serveStale(circuitBreaker, method, key, null);
+        }
+
+        long started = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (RuntimeException e) {
+            if (!DatabaseCircuitBreaker.isDatabaseFailure(e)) {
+                circuitBreaker.onIgnored();
+                throw e;
+            }
+            circuitBreaker.onFailure();
+            log.warn("Сбой базы данных в {}.{}: {}", method.getDeclaringClass().getSimpleName(), method.getName(),
+                    e.getMessage());
+            return serveStale(circuitBreaker, method, key, e);
+        }
+        circuitBreaker.onSuccess(System.nanoTime() - started);
+        snapshotsOf(method).put(key, new Snapshot(result, System.currentTimeMillis()));
+        return result;
+    }
+
+    /**
+     * Возвращает снимок и помечает ответ устаревшим
+     *
+     * @param failure сбой базы при вызове (null — автомат разомкнут)
+     */
+    private Object serveStale(DatabaseCircuitBreaker circuitBreaker, Method method, List<Object> key,
+                              RuntimeException failure) {
+        Snapshot snapshot = snapshotsOf(method).get(key);
+        long staleness = snapshot != null ? System.currentTimeMillis() - snapshot.takenAtMillis() : -1;
+        if (snapshot == null || (maxStalenessMillis > 0 && staleness > maxStalenessMillis)) {
+            circuitBreaker.recordSnapshotMiss();
+            throw new DatabaseUnavailableException("База данных недоступна, снимок ответа отсутствует", failure);
+        }
+        circuitBreaker.recordStaleResponse(staleness);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null) {
+                response.setHeader(HttpHeaders.AGE, String.valueOf(staleness / 1000));
+                response.setHeader(HttpHeaders.WARNING, STALE_WARNING);
+            }
+        }
+        return snapshot.value();
+    }
+
+    private Map<List<Object>, Snapshot> snapshotsOf(Method method) {
+        return snapshots.computeIfAbsent(method, key -> Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<List<Object>, Snapshot> eldest) {
+                        return size() > maxSnapshots;
+                    }
+                }));
+    }
+
+    private record Snapshot(Object value, long takenAtMillis) {
+    }
+}
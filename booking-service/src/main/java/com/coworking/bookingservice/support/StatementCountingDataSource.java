@@ -0,0 +1,123 @@
+package com.coworking.bookingservice.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Источник данных, считающий выполненные JDBC-запросы
+ *
+ * Оборачивает соединения и запросы динамическими прокси и сообщает о каждом
+ * выполнении в {@link SqlStatementCounter}. Пакетное выполнение считается
+ * одним запросом. Вне открытой области подсчета накладные расходы сводятся
+ * к проверке ThreadLocal.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class
+                && (method.getName().equals("equals") || method.getName().equals("hashCode"));
+    }
+
+    // Прокси сравниваются по ссылке, иначе equals делегата никогда не совпадет с прокси
+    private static Object invokeIdentity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    /**
+     * Обработчик вызовов соединения: оборачивает создаваемые запросы
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return invokeIdentity(proxy, method, args);
+            }
+            Object result = StatementCountingDataSource.invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            return switch (method.getName()) {
+                case "createStatement" -> wrapStatement(Statement.class, result, null);
+                case "prepareStatement" -> wrapStatement(PreparedStatement.class, result, sql);
+                case "prepareCall" -> wrapStatement(CallableStatement.class, result, sql);
+                default -> result;
+            };
+        }
+
+        private static Object wrapStatement(Class<?> type, Object statement, String sql) {
+            return Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                    new Class<?>[] {type}, new StatementHandler(statement, sql));
+        }
+    }
+
+    /**
+     * Обработчик вызовов запроса: учитывает выполнение
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String preparedSql;
+
+        StatementHandler(Object target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return invokeIdentity(proxy, method, args);
+            }
+            if (method.getName().startsWith("execute")) {
+                // Statement.execute*(sql, ...) передает текст запроса первым аргументом
+                String sql = args != null && args.length > 0 && args[0] instanceof String
+                        ? (String) args[0] : preparedSql;
+                SqlStatementCounter.record(sql);
+            }
+            return StatementCountingDataSource.invoke(target, method, args);
+        }
+    }
+}
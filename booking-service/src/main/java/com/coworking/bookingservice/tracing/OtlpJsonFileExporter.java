@@ -0,0 +1,158 @@
+package com.coworking.bookingservice.tracing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.coworking.bookingservice.dto.SpanDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Экспорт спанов в файл в формате OTLP/JSON
+ *
+ * Каждая строка файла — ExportTraceServiceRequest с пачкой спанов, такой файл
+ * читает приемник otlpjsonfile коллектора OpenTelemetry. Спаны передаются
+ * фоновому потоку через ограниченную очередь; при переполнении спаны
+ * отбрасываются, а не задерживают запросы. Экспорт включается заданием
+ * app.tracing.export-file.
+ */
+@Component
+public class OtlpJsonFileExporter implements SpanExporter, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OtlpJsonFileExporter.class);
+
+    private static final int MAX_BATCH_SIZE = 512;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<SpanDto> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final String serviceName;
+    private final Path file;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public OtlpJsonFileExporter(@Value("${app.tracing.export-file:}") String exportFile,
+                                @Value("${app.tracing.export-queue-size:10000}") int queueSize,
+                                @Value("${spring.application.name:booking-service}") String serviceName) {
+        this.serviceName = serviceName;
+        this.file = exportFile.isBlank() ? null : Path.of(exportFile);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        if (file != null) {
+            this.worker = new Thread(this::drain, "trace-exporter");
+            this.worker.setDaemon(true);
+            this.worker.start();
+        } else {
+            this.worker = null;
+        }
+    }
+
+    @Override
+    public void export(SpanDto span) {
+        if (file != null && !queue.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (worker != null) {
+            running = false;
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void drain() {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            List<SpanDto> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            while (running || !queue.isEmpty()) {
+                SpanDto first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                writer.write(objectMapper.writeValueAsString(toExportRequest(batch)));
+                writer.newLine();
+                writer.flush();
+                batch.clear();
+
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    log.warn("Очередь экспорта трассировки переполнена, отброшено спанов: {}", lost);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Экспорт трассировки в {} остановлен: {}", file, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ObjectNode toExportRequest(List<SpanDto> batch) {
+        ObjectNode request = objectMapper.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        resourceSpans.putObject("resource").set("attributes",
+                toAttributes(Map.of("service.name", serviceName)));
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", Tracer.class.getName());
+        ArrayNode spans = scopeSpans.putArray("spans");
+        for (SpanDto span : batch) {
+            ObjectNode node = spans.addObject();
+            node.put("traceId", span.getTraceId());
+            node.put("spanId", span.getSpanId());
+            if (span.getParentSpanId() != null) {
+                node.put("parentSpanId", span.getParentSpanId());
+            }
+            node.put("name", span.getName());
+            node.put("kind", switch (Span.Kind.valueOf(span.getKind())) {
+                case INTERNAL -> 1;
+                case SERVER -> 2;
+                case CLIENT -> 3;
+            });
+            // 64-битные числа в OTLP/JSON передаются строками
+            node.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+            node.put("endTimeUnixNano", Long.toString(span.getStartEpochNanos() + span.getDurationMicros() * 1000));
+            node.set("attributes", toAttributes(span.getAttributes()));
+            node.putObject("status").put("code", "ERROR".equals(span.getStatus()) ? 2 : 1);
+        }
+        return request;
+    }
+
+    private ArrayNode toAttributes(Map<String, Object> attributes) {
+        ArrayNode array = objectMapper.createArrayNode();
+        attributes.forEach((key, value) -> {
+            ObjectNode attribute = array.addObject();
+            attribute.put("key", key);
+            ObjectNode anyValue = attribute.putObject("value");
+            if (value instanceof Boolean bool) {
+                anyValue.put("boolValue", bool);
+            } else if (value instanceof Integer || value instanceof Long) {
+                anyValue.put("intValue", value.toString());
+            } else if (value instanceof Number number) {
+                anyValue.put("doubleValue", number.doubleValue());
+            } else {
+                anyValue.put("stringValue", String.valueOf(value));
+            }
+        });
+        return array;
+    }
+}
@@ -0,0 +1,143 @@
+package com.coworking.bookingservice.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Спан трассировки
+ *
+ * Создается через {@link Tracer} и становится текущим в потоке до вызова
+ * {@link #end()}. Спан невыбранной трассы ничего не записывает, но тоже
+ * становится текущим, чтобы дочерние операции не выбирали трассу заново.
+ */
+public final class Span implements AutoCloseable {
+
+    /**
+     * Вид спана (соответствует SpanKind OpenTelemetry)
+     */
+    public enum Kind {
+        INTERNAL,
+        SERVER,
+        CLIENT
+    }
+
+    private final Tracer tracer;
+    private final Span parent;
+    private final String traceId;
+    private final String spanId;
+    private final String name;
+    private final Kind kind;
+    private final boolean sampled;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private Map<String, Object> attributes;
+    private boolean error;
+    private boolean ended;
+
+    Span(Tracer tracer, Span parent, String traceId, String spanId, String name, Kind kind, boolean sampled) {
+        this.tracer = tracer;
+        this.parent = parent;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.name = name;
+        this.kind = kind;
+        this.sampled = sampled;
+        this.startNanoTime = sampled ? System.nanoTime() : 0;
+        this.startEpochNanos = sampled ? tracer.toEpochNanos(startNanoTime) : 0;
+    }
+
+    /**
+     * Добавляет атрибут (для невыбранной трассы ничего не делает)
+     *
+     * @param key ключ
+     * @param value значение (строка, число или boolean)
+     * @return этот спан
+     */
+    public Span setAttribute(String key, Object value) {
+        if (sampled && value != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Отмечает спан ошибкой
+     *
+     * @param exception исключение
+     * @return этот спан
+     */
+    public Span recordException(Throwable exception) {
+        error = true;
+        setAttribute("exception.type", exception.getClass().getName());
+        return setAttribute("exception.message", exception.getMessage());
+    }
+
+    /**
+     * Отмечает спан ошибкой без исключения
+     *
+     * @return этот спан
+     */
+    public Span markError() {
+        error = true;
+        return this;
+    }
+
+    /**
+     * Завершает спан и возвращает текущим родительский
+     */
+    public void end() {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        tracer.onEnd(this);
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    Span getParent() {
+        return parent;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long getStartNanoTime() {
+        return startNanoTime;
+    }
+
+    Map<String, Object> getAttributes() {
+        return attributes != null ? attributes : Map.of();
+    }
+
+    boolean isError() {
+        return error;
+    }
+}
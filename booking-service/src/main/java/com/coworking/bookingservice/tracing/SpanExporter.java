@@ -0,0 +1,19 @@
+package com.coworking.bookingservice.tracing;
+
+import com.coworking.bookingservice.dto.SpanDto;
+
+/**
+ * Получатель завершенных спанов
+ *
+ * Вызывается в потоке, завершившем спан, поэтому реализация не должна
+ * блокироваться.
+ */
+public interface SpanExporter {
+
+    /**
+     * Принимает завершенный спан
+     *
+     * @param span спан
+     */
+    void export(SpanDto span);
+}
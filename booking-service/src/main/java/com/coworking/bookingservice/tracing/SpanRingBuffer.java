@@ -0,0 +1,80 @@
+package com.coworking.bookingservice.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.coworking.bookingservice.dto.SpanDto;
+
+/**
+ * Кольцевой буфер последних завершенных спанов
+ *
+ * Запись без блокировок: каждый спан занимает следующую ячейку, самые старые
+ * спаны перезаписываются. Используется административным API трассировки.
+ */
+@Component
+public class SpanRingBuffer implements SpanExporter {
+
+    private final AtomicReferenceArray<SpanDto> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SpanRingBuffer(@Value("${app.tracing.ring-buffer-size:4096}") int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void export(SpanDto span) {
+        slots.set((int) (sequence.getAndIncrement() % slots.length()), span);
+    }
+
+    /**
+     * Возвращает первые спаны последних трасс, новые первыми
+     *
+     * @param limit максимальное количество трасс
+     * @return по одному спану на трассу
+     */
+    public List<SpanDto> getRecentTraces(int limit) {
+        // Корень трассы начинается раньше всех ее спанов; если он еще не завершен
+        // или уже вытеснен, трассу представляет самый ранний из оставшихся спанов
+        Map<String, SpanDto> roots = new HashMap<>();
+        for (SpanDto span : snapshot()) {
+            roots.merge(span.getTraceId(), span,
+                    (known, candidate) -> candidate.getStartEpochNanos() < known.getStartEpochNanos() ? candidate : known);
+        }
+        return roots.values().stream()
+                .sorted(Comparator.comparingLong(SpanDto::getStartEpochNanos).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Возвращает спаны трассы в порядке начала
+     *
+     * @param traceId ID трассы
+     * @return спаны трассы (пустой список, если трасса вытеснена)
+     */
+    public List<SpanDto> getTrace(String traceId) {
+        return snapshot().stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .sorted(Comparator.comparingLong(SpanDto::getStartEpochNanos))
+                .toList();
+    }
+
+    private List<SpanDto> snapshot() {
+        List<SpanDto> spans = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SpanDto span = slots.get(i);
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+}
@@ -0,0 +1,51 @@
+package com.coworking.bookingservice.tracing;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Генерация и разбор идентификаторов трасс в формате W3C Trace Context
+ */
+final class TraceIds {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private TraceIds() {}
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return HEX.toHexDigits(random.nextLong()) + HEX.toHexDigits(random.nextLong() | 1);
+    }
+
+    static String newSpanId() {
+        return HEX.toHexDigits(ThreadLocalRandom.current().nextLong() | 1);
+    }
+
+    /**
+     * Проверяет значение заголовка traceparent: 00-{32 hex}-{16 hex}-{2 hex}
+     *
+     * @param traceparent значение заголовка
+     * @return true если формат корректен
+     */
+    static boolean isValidTraceparent(String traceparent) {
+        return traceparent != null
+                && traceparent.length() == 55
+                && traceparent.startsWith("00-")
+                && traceparent.charAt(35) == '-'
+                && traceparent.charAt(52) == '-'
+                && isHex(traceparent, 3, 35)
+                && isHex(traceparent, 36, 52)
+                && isHex(traceparent, 53, 55)
+                && !traceparent.startsWith("00000000000000000000000000000000", 3)
+                && !traceparent.startsWith("0000000000000000", 36);
+    }
+
+    private static boolean isHex(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (Character.digit(value.charAt(i), 16) < 0 || Character.isUpperCase(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
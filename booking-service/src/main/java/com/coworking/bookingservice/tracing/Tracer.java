@@ -0,0 +1,123 @@
+package com.coworking.bookingservice.tracing;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.coworking.bookingservice.dto.SpanDto;
+
+/**
+ * Трассировщик запросов
+ *
+ * Ведет текущий спан в ThreadLocal и передает завершенные спаны экспортерам.
+ * Решение о записи трассы принимается один раз для корневого спана с
+ * вероятностью app.tracing.sample-rate и наследуется дочерними спанами.
+ */
+@Component
+public class Tracer {
+
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final List<SpanExporter> exporters;
+    private final boolean enabled;
+    private final double sampleRate;
+    // Смещение монотонных часов относительно эпохи: точность отметок выше миллисекунды
+    private final long epochOffsetNanos = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+
+    public Tracer(List<SpanExporter> exporters,
+                  @Value("${app.tracing.enabled:true}") boolean enabled,
+                  @Value("${app.tracing.sample-rate:0.1}") double sampleRate) {
+        this.exporters = exporters;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Проверяет, включена ли трассировка
+     *
+     * @return true если спаны создаются
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Начинает спан как дочерний к текущему или как корень новой трассы
+     *
+     * @param name название операции
+     * @param kind вид спана
+     * @return спан, ставший текущим
+     */
+    public Span startSpan(String name, Span.Kind kind) {
+        Span parent = current.get();
+        if (parent != null) {
+            return push(new Span(this, parent, parent.getTraceId(),
+                    parent.isSampled() ? TraceIds.newSpanId() : null, name, kind, parent.isSampled()));
+        }
+        return startRoot(name, kind, null, null, null);
+    }
+
+    /**
+     * Начинает корневой спан, при необходимости продолжая внешнюю трассу
+     *
+     * @param name название операции
+     * @param kind вид спана
+     * @param traceId ID внешней трассы или null
+     * @param parentSpanId ID внешнего родительского спана или null
+     * @param sampled решение внешней стороны о записи или null
+     * @return спан, ставший текущим
+     */
+    public Span startRoot(String name, Span.Kind kind, String traceId, String parentSpanId, Boolean sampled) {
+        boolean record = sampled != null ? sampled : ThreadLocalRandom.current().nextDouble() < sampleRate;
+        Span remoteParent = parentSpanId != null
+                ? new Span(this, null, traceId, parentSpanId, null, kind, false)
+                : null;
+        return push(new Span(this, remoteParent, record ? (traceId != null ? traceId : TraceIds.newTraceId()) : null,
+                record ? TraceIds.newSpanId() : null, name, kind, record));
+    }
+
+    /**
+     * Возвращает текущий спан потока
+     *
+     * @return спан или null
+     */
+    public Span currentSpan() {
+        return current.get();
+    }
+
+    long toEpochNanos(long nanoTime) {
+        return nanoTime + epochOffsetNanos;
+    }
+
+    private Span push(Span span) {
+        current.set(span);
+        return span;
+    }
+
+    void onEnd(Span span) {
+        // Внешний родитель (из заголовка traceparent) не является спаном этого потока
+        Span parent = span.getParent();
+        if (parent != null && parent.getName() != null) {
+            current.set(parent);
+        } else {
+            current.remove();
+        }
+        if (!span.isSampled()) {
+            return;
+        }
+        SpanDto data = new SpanDto(
+                span.getTraceId(),
+                span.getSpanId(),
+                parent != null ? parent.getSpanId() : null,
+                span.getName(),
+                span.getKind().name(),
+                span.getStartEpochNanos(),
+                (System.nanoTime() - span.getStartNanoTime()) / 1000,
+                span.isError() ? "ERROR" : "OK",
+                span.getAttributes());
+        for (SpanExporter exporter : exporters) {
+            exporter.export(data);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.coworking.bookingservice.tracing;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Фильтр, открывающий корневой спан HTTP-запроса
+ *
+ * Стоит первым в цепочке, поэтому спан охватывает фильтры безопасности,
+ * контроллер и сериализацию ответа. Продолжает внешнюю трассу из заголовка
+ * traceparent (W3C Trace Context) и возвращает ID трассы в X-Trace-Id.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String TRACEPARENT_HEADER = "traceparent";
+    private static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !tracer.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String name = request.getMethod() + " " + request.getRequestURI();
+        String traceparent = request.getHeader(TRACEPARENT_HEADER);
+        Span span = TraceIds.isValidTraceparent(traceparent)
+                ? tracer.startRoot(name, Span.Kind.SERVER, traceparent.substring(3, 35),
+                        traceparent.substring(36, 52), (Integer.parseInt(traceparent.substring(53), 16) & 1) == 1)
+                : tracer.startRoot(name, Span.Kind.SERVER, null, null, null);
+        try {
+            if (span.isSampled()) {
+                response.setHeader(TRACE_ID_HEADER, span.getTraceId());
+                span.setAttribute("http.method", request.getMethod());
+                span.setAttribute("http.target", request.getRequestURI());
+            }
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Ответ асинхронного контроллера еще не сформирован, статус неизвестен
+                span.setAttribute("http.async", true);
+            } else {
+                span.setAttribute("http.status_code", response.getStatus());
+                if (response.getStatus() >= 500) {
+                    span.markError();
+                }
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.coworking.bookingservice.tracing;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.http.ResponseEntity;
+
+import com.coworking.bookingservice.dto.CreateReservationRequest;
+
+/**
+ * Перехватчик вызовов контроллеров, сервисов и репозиториев
+ *
+ * Оборачивает вызов в спан «Класс.метод». В атрибуты попадают ID рабочего
+ * места (из параметра workspaceId или запроса на бронирование) и краткое
+ * описание результата: размер коллекции, наличие значения, HTTP-статус.
+ */
+class TracingInterceptor implements MethodInterceptor {
+
+    private final Supplier<Tracer> tracer;
+    private final String layer;
+    private final String spanPrefix;
+
+    TracingInterceptor(Supplier<Tracer> tracer, String layer, String spanPrefix) {
+        this.tracer = tracer;
+        this.layer = layer;
+        this.spanPrefix = spanPrefix;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Span span = tracer.get().startSpan(spanPrefix + method.getName(), Span.Kind.INTERNAL);
+        try {
+            if (span.isSampled()) {
+                span.setAttribute("code.layer", layer);
+                recordArguments(span, method, invocation.getArguments());
+            }
+            Object result = invocation.proceed();
+            if (span.isSampled()) {
+                recordResult(span, result);
+            }
+            return result;
+        } catch (Throwable e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private void recordArguments(Span span, Method method, Object[] arguments) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < arguments.length && i < parameters.length; i++) {
+            Object argument = arguments[i];
+            if ("workspaceId".equals(parameters[i].getName()) && argument instanceof Integer) {
+                span.setAttribute("workspace.id", argument);
+            } else if (argument instanceof CreateReservationRequest request) {
+                span.setAttribute("workspace.id", request.getWorkspaceId());
+            } else if (argument instanceof Collection<?> collection) {
+                span.setAttribute("arg." + parameters[i].getName() + ".size", collection.size());
+            }
+        }
+    }
+
+    private void recordResult(Span span, Object result) {
+        if (result instanceof ResponseEntity<?> response) {
+            span.setAttribute("http.status_code", response.getStatusCode().value());
+            result = response.getBody();
+        }
+        if (result instanceof Collection<?> collection) {
+            span.setAttribute("result.size", collection.size());
+        } else if (result instanceof Optional<?> optional) {
+            span.setAttribute("result.present", optional.isPresent());
+        } else if (result instanceof Boolean || result instanceof Number) {
+            span.setAttribute("result", result);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.coworking.bookingservice.tracing;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Подключает трассировку к контроллерам, сервисам и репозиториям
+ *
+ * Работает после остальных постпроцессоров: если бин уже является прокси
+ * (транзакции, проверка прав, репозитории Spring Data), перехватчик
+ * добавляется первым в его цепочку, иначе бин оборачивается новым прокси.
+ * Так спан охватывает и транзакцию, и проверку прав.
+ */
+@Component
+public class TracingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private static final String BASE_PACKAGE = "com.coworking.bookingservice.";
+
+    private final ObjectProvider<Tracer> tracerProvider;
+    private final boolean enabled;
+    private volatile Tracer tracer;
+
+    public TracingPostProcessor(ObjectProvider<Tracer> tracerProvider, Environment environment) {
+        this.tracerProvider = tracerProvider;
+        this.enabled = environment.getProperty("app.tracing.enabled", Boolean.class, true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled) {
+            return bean;
+        }
+        Class<?> targetClass = AopProxyUtils.ultimateTargetClass(bean);
+        String packageName = targetClass.getPackageName() + ".";
+        if (packageName.equals(BASE_PACKAGE + "controller.")
+                && AnnotatedElementUtils.hasAnnotation(targetClass, RestController.class)) {
+            return addTracing(bean, "controller", targetClass.getSimpleName());
+        }
+        if (packageName.equals(BASE_PACKAGE + "service.")
+                && AnnotatedElementUtils.hasAnnotation(targetClass, Service.class)) {
+            return addTracing(bean, "service", targetClass.getSimpleName());
+        }
+        if (bean instanceof Advised advised) {
+            for (Class<?> proxiedInterface : advised.getProxiedInterfaces()) {
+                if (proxiedInterface.getPackageName().equals(BASE_PACKAGE + "repository")) {
+                    return addTracing(bean, "repository", proxiedInterface.getSimpleName());
+                }
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    private Object addTracing(Object bean, String layer, String className) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new TracingInterceptor(this::tracer, layer, className + "."));
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvisor(0, advisor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    // Трассировщик берется при первом вызове, чтобы не создавать его раньше постпроцессоров
+    private Tracer tracer() {
+        Tracer result = tracer;
+        if (result == null) {
+            result = tracerProvider.getObject();
+            tracer = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+-- Версия занятости общей зоны (SharedWorkspaceOccupancy)
+--
+-- Любое изменение активных интервалов общей зоны (вставка, отмена, перенос,
+-- импорт, массовая отмена, смена типа места) записывает в строку зоны новое
+-- значение из последовательности. Экземпляр сервиса сверяет версию под
+-- блокировкой строки зоны со своей копией занятости и перечитывает зону
+-- только при расхождении. Значения последовательности не повторяются даже
+-- после отката, поэтому версия откатившейся транзакции не совпадет с чужой.
+-- Для отдельных мест триггеры не срабатывают (условия WHEN).
+
+ALTER TABLE booking.workspaces ADD COLUMN IF NOT EXISTS occupancy_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE SEQUENCE IF NOT EXISTS booking.occupancy_version_seq;
+
+CREATE OR REPLACE FUNCTION booking.touch_shared_occupancy() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' AND OLD.in_shared_zone THEN
+        UPDATE booking.workspaces SET occupancy_version = nextval('booking.occupancy_version_seq')
+        WHERE id = OLD.workspace_id;
+    END IF;
+    IF TG_OP <> 'DELETE' AND NEW.in_shared_zone
+            AND (TG_OP = 'INSERT' OR NOT OLD.in_shared_zone OR NEW.workspace_id <> OLD.workspace_id) THEN
+        UPDATE booking.workspaces SET occupancy_version = nextval('booking.occupancy_version_seq')
+        WHERE id = NEW.workspace_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_reservations_shared_occupancy_insert ON booking.reservations;
+CREATE TRIGGER trg_reservations_shared_occupancy_insert
+AFTER INSERT ON booking.reservations
+FOR EACH ROW WHEN (NEW.in_shared_zone)
+EXECUTE FUNCTION booking.touch_shared_occupancy();
+
+DROP TRIGGER IF EXISTS trg_reservations_shared_occupancy_update ON booking.reservations;
+CREATE TRIGGER trg_reservations_shared_occupancy_update
+AFTER UPDATE OF workspace_id, start_time, end_time, status, in_shared_zone ON booking.reservations
+FOR EACH ROW WHEN (OLD.in_shared_zone OR NEW.in_shared_zone)
+EXECUTE FUNCTION booking.touch_shared_occupancy();
+
+DROP TRIGGER IF EXISTS trg_reservations_shared_occupancy_delete ON booking.reservations;
+CREATE TRIGGER trg_reservations_shared_occupancy_delete
+AFTER DELETE ON booking.reservations
+FOR EACH ROW WHEN (OLD.in_shared_zone)
+EXECUTE FUNCTION booking.touch_shared_occupancy();
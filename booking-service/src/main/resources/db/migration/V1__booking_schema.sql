@@ -0,0 +1,97 @@
+-- Базовая схема сервиса бронирования
+--
+-- Повторяет схему, которую раньше создавал init-db.sql, поэтому все операторы
+-- идемпотентны: на существующей базе миграция ничего не меняет.
+
+-- Расширение для составных GiST-индексов (целое + интервал)
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Таблица рабочих мест
+CREATE TABLE IF NOT EXISTS booking.workspaces (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    description TEXT,
+    capacity INTEGER NOT NULL DEFAULT 1,
+    is_active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Таблица бронирований
+CREATE TABLE IF NOT EXISTS booking.reservations (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    workspace_id INTEGER NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    status VARCHAR(20) DEFAULT 'ACTIVE',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (workspace_id) REFERENCES booking.workspaces(id),
+    CONSTRAINT valid_time_range CHECK (end_time > start_time)
+);
+
+-- Почасовые агрегаты занятости рабочих мест (забронированные минуты)
+CREATE TABLE IF NOT EXISTS booking.occupancy_hourly (
+    workspace_id INTEGER NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    booked_minutes INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (workspace_id, bucket_start),
+    FOREIGN KEY (workspace_id) REFERENCES booking.workspaces(id)
+);
+
+-- Лист ожидания освобождения слотов
+CREATE TABLE IF NOT EXISTS booking.waitlist_entries (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    workspace_id INTEGER NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'WAITING',
+    reservation_id INTEGER,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (workspace_id) REFERENCES booking.workspaces(id),
+    FOREIGN KEY (reservation_id) REFERENCES booking.reservations(id),
+    CONSTRAINT valid_waitlist_time_range CHECK (end_time > start_time)
+);
+
+-- Окна обслуживания: рабочее место закрыто для бронирования
+CREATE TABLE IF NOT EXISTS booking.workspace_closures (
+    id SERIAL PRIMARY KEY,
+    workspace_id INTEGER NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    reason VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (workspace_id) REFERENCES booking.workspaces(id),
+    CONSTRAINT valid_closure_time_range CHECK (end_time > start_time)
+);
+
+-- Индексы, существовавшие до перехода на миграции
+CREATE INDEX IF NOT EXISTS idx_reservations_user_id ON booking.reservations(user_id);
+CREATE INDEX IF NOT EXISTS idx_reservations_workspace_id ON booking.reservations(workspace_id);
+CREATE INDEX IF NOT EXISTS idx_reservations_time_range ON booking.reservations(start_time, end_time);
+CREATE INDEX IF NOT EXISTS idx_occupancy_hourly_bucket ON booking.occupancy_hourly(bucket_start);
+CREATE INDEX IF NOT EXISTS idx_waitlist_user_id ON booking.waitlist_entries(user_id);
+CREATE INDEX IF NOT EXISTS idx_waitlist_waiting_interval
+ON booking.waitlist_entries USING gist (workspace_id, tsrange(start_time, end_time))
+WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_workspace_closures_workspace_time
+ON booking.workspace_closures(workspace_id, start_time, end_time);
+
+-- Уникальный индекс для предотвращения двойного бронирования; он же обслуживает
+-- поиск пересечений по рабочему месту (findOverlappingReservations,
+-- findActiveOverlappingForWorkspaces, findActiveReservationsInTimeRange)
+CREATE UNIQUE INDEX IF NOT EXISTS idx_unique_workspace_time
+ON booking.reservations(workspace_id, start_time, end_time)
+WHERE status = 'ACTIVE';
+
+-- Тестовые данные (только для пустой базы)
+INSERT INTO booking.workspaces (name, description, capacity)
+SELECT name, description, capacity FROM (VALUES
+    ('Рабочее место 1', 'Удобное место у окна с естественным освещением', 1),
+    ('Рабочее место 2', 'Тихое место в углу для сосредоточенной работы', 1),
+    ('Конференц-зал А', 'Зал для встреч до 10 человек', 10),
+    ('Конференц-зал Б', 'Малый зал для встреч до 5 человек', 5),
+    ('Коворкинг зона', 'Открытое пространство для групповой работы', 20)
+) AS seed(name, description, capacity)
+WHERE NOT EXISTS (SELECT 1 FROM booking.workspaces);
@@ -0,0 +1,37 @@
+-- Индексы под запросы репозиториев
+--
+-- Все индексы строятся с CONCURRENTLY и не блокируют запись в таблицы.
+-- CONCURRENTLY не работает внутри транзакции, поэтому миграция выполняется
+-- без нее (см. V2__query_indexes.sql.conf). Если построение прервется,
+-- останется невалидный индекс: его нужно удалить (DROP INDEX CONCURRENTLY)
+-- и выполнить flyway repair перед повторным запуском.
+
+-- findByUserIdAndStatusOrderByStartTimeDesc: статус приходит параметром,
+-- поэтому частичный индекс тут не подходит
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_user_status_start
+ON booking.reservations(user_id, status, start_time DESC);
+
+-- findByUserIdOrderByStartTimeDesc: сортировка без отдельного шага Sort
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_user_start
+ON booking.reservations(user_id, start_time DESC);
+
+-- findByWorkspaceIdAndStatusOrderByStartTime (статус параметром); индекс
+-- также заменяет индекс по внешнему ключу workspace_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_workspace_status_start
+ON booking.reservations(workspace_id, status, start_time) INCLUDE (end_time);
+
+-- Поиск свободных мест (findAvailableWorkspaces*): подзапрос по всем местам
+-- сканирует только активные бронирования, заканчивающиеся после начала
+-- периода, и отвечает из индекса без чтения таблицы
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_active_end_start
+ON booking.reservations(end_time, start_time) INCLUDE (workspace_id)
+WHERE status = 'ACTIVE';
+
+-- findByUserIdOrderByCreatedAtDesc для листа ожидания
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_waitlist_user_created
+ON booking.waitlist_entries(user_id, created_at DESC);
+
+-- Индексы, ставшие префиксами новых
+DROP INDEX CONCURRENTLY IF EXISTS booking.idx_reservations_user_id;
+DROP INDEX CONCURRENTLY IF EXISTS booking.idx_reservations_workspace_id;
+DROP INDEX CONCURRENTLY IF EXISTS booking.idx_waitlist_user_id;
@@ -0,0 +1,14 @@
+-- Атрибуты рабочих мест для поиска: этаж, зона и удобства
+--
+-- Добавление столбцов без значения по умолчанию не переписывает таблицу.
+
+ALTER TABLE booking.workspaces ADD COLUMN IF NOT EXISTS floor INTEGER;
+ALTER TABLE booking.workspaces ADD COLUMN IF NOT EXISTS zone VARCHAR(50);
+
+-- Удобства рабочего места (monitor, whiteboard, phone_booth и т.п.)
+CREATE TABLE IF NOT EXISTS booking.workspace_amenities (
+    workspace_id INTEGER NOT NULL,
+    amenity VARCHAR(50) NOT NULL,
+    PRIMARY KEY (workspace_id, amenity),
+    FOREIGN KEY (workspace_id) REFERENCES booking.workspaces(id) ON DELETE CASCADE
+);
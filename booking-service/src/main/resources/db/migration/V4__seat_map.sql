@@ -0,0 +1,16 @@
+-- Схема зала: координаты рабочих мест на плане этажа и граф соседства
+
+ALTER TABLE booking.workspaces ADD COLUMN IF NOT EXISTS pos_x INTEGER;
+ALTER TABLE booking.workspaces ADD COLUMN IF NOT EXISTS pos_y INTEGER;
+
+-- Неориентированное ребро хранится один раз: workspace_id < neighbor_id
+CREATE TABLE IF NOT EXISTS booking.workspace_adjacency (
+    workspace_id INTEGER NOT NULL,
+    neighbor_id INTEGER NOT NULL,
+    PRIMARY KEY (workspace_id, neighbor_id),
+    FOREIGN KEY (workspace_id) REFERENCES booking.workspaces(id) ON DELETE CASCADE,
+    FOREIGN KEY (neighbor_id) REFERENCES booking.workspaces(id) ON DELETE CASCADE,
+    CONSTRAINT ordered_adjacency CHECK (workspace_id < neighbor_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_workspace_adjacency_neighbor ON booking.workspace_adjacency(neighbor_id);
@@ -0,0 +1,5 @@
+-- Версии строк для оптимистичной блокировки бронирований и рабочих мест.
+-- Константное значение по умолчанию не переписывает таблицу (PostgreSQL 11+)
+
+ALTER TABLE booking.reservations ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE booking.workspaces ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,14 @@
+-- Индексы для выгрузки завершенных и отмененных бронирований в хранилище
+-- истории отчетов (ReservationHistoryService)
+--
+-- Как и V2, строятся с CONCURRENTLY вне транзакции (см. V6__reservation_history_indexes.sql.conf).
+
+-- Бронирования, закончившиеся в интервале выгрузки
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_finished_end
+ON booking.reservations(end_time)
+WHERE status IN ('ACTIVE', 'COMPLETED');
+
+-- Бронирования, отмененные в интервале выгрузки
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_cancelled_updated
+ON booking.reservations(updated_at)
+WHERE status = 'CANCELLED';
@@ -0,0 +1,46 @@
+-- Общие зоны: пересекающиеся бронирования допускаются, пока число
+-- одновременных гостей не превышает вместимость (SharedWorkspaceOccupancy).
+-- Константное значение по умолчанию не переписывает таблицу (PostgreSQL 11+).
+-- Миграция выполняется в одной транзакции; индексы строятся отдельно в V9.
+--
+-- Все места остаются отдельными: общей зоной место делает администратор
+-- (isShared в PUT /workspaces/{id}), а не миграция по названию.
+
+ALTER TABLE booking.workspaces ADD COLUMN IF NOT EXISTS is_shared BOOLEAN NOT NULL DEFAULT false;
+
+-- В общей зоне несколько гостей бронируют один и тот же интервал, поэтому
+-- уникальный индекс от двойного бронирования сужается до отдельных мест.
+-- Частичный индекс не может сослаться на workspaces.is_shared, поэтому признак
+-- копируется в строку бронирования триггерами: при вставке (в том числе COPY
+-- импорта) и при смене типа рабочего места. Перевод общей зоны в отдельное
+-- место с одинаковыми активными бронированиями отклоняется индексом.
+ALTER TABLE booking.reservations ADD COLUMN IF NOT EXISTS in_shared_zone BOOLEAN NOT NULL DEFAULT false;
+
+UPDATE booking.reservations r SET in_shared_zone = w.is_shared
+FROM booking.workspaces w
+WHERE w.id = r.workspace_id AND r.in_shared_zone <> w.is_shared;
+
+CREATE OR REPLACE FUNCTION booking.set_reservation_shared_zone() RETURNS trigger AS $$
+BEGIN
+    NEW.in_shared_zone := COALESCE((SELECT is_shared FROM booking.workspaces WHERE id = NEW.workspace_id), false);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_reservations_shared_zone ON booking.reservations;
+CREATE TRIGGER trg_reservations_shared_zone
+BEFORE INSERT OR UPDATE OF workspace_id ON booking.reservations
+FOR EACH ROW EXECUTE FUNCTION booking.set_reservation_shared_zone();
+
+CREATE OR REPLACE FUNCTION booking.propagate_workspace_shared() RETURNS trigger AS $$
+BEGIN
+    UPDATE booking.reservations SET in_shared_zone = NEW.is_shared WHERE workspace_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_workspaces_shared ON booking.workspaces;
+CREATE TRIGGER trg_workspaces_shared
+AFTER UPDATE OF is_shared ON booking.workspaces
+FOR EACH ROW WHEN (OLD.is_shared IS DISTINCT FROM NEW.is_shared)
+EXECUTE FUNCTION booking.propagate_workspace_shared();
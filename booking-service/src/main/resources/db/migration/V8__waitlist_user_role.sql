@@ -0,0 +1,6 @@
+-- Роль пользователя на момент постановки в лист ожидания: при продвижении
+-- бронирование создается в транзакции отмены, где роль ожидающего неизвестна,
+-- а лимит активных бронирований зависит от роли. Для старых записей роль
+-- не сохранена, и к ним применяется лимит по умолчанию.
+
+ALTER TABLE booking.waitlist_entries ADD COLUMN IF NOT EXISTS user_role VARCHAR(50);
@@ -0,0 +1,22 @@
+-- Индексы общих зон (V7)
+--
+-- Как и V2, индексы строятся с CONCURRENTLY вне транзакции
+-- (см. V9__shared_workspace_indexes.sql.conf), поэтому в миграции нет ничего,
+-- кроме индексов. Если построение прервется, останется невалидный индекс:
+-- его нужно удалить (DROP INDEX CONCURRENTLY) и выполнить flyway repair
+-- перед повторным запуском.
+
+-- Поиск пересечений по рабочему месту (в том числе в общих зонах)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_active_workspace_time
+ON booking.reservations(workspace_id, start_time, end_time)
+WHERE status = 'ACTIVE';
+
+-- Защита от двойного бронирования сужается до отдельных мест: в общей зоне
+-- несколько гостей бронируют один и тот же интервал. Признак in_shared_zone
+-- поддерживают триггеры из V7
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_unique_exclusive_workspace_time
+ON booking.reservations(workspace_id, start_time, end_time)
+WHERE status = 'ACTIVE' AND NOT in_shared_zone;
+
+-- Прежний индекс удаляется только после построения нового
+DROP INDEX CONCURRENTLY IF EXISTS booking.idx_unique_workspace_time;
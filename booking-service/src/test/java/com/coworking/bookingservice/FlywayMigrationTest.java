@@ -0,0 +1,87 @@
+package com.coworking.bookingservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Миграции Flyway на чистом PostgreSQL
+ *
+ * Контекст поднимается на пустой базе: Flyway применяет все миграции, затем
+ * Hibernate с ddl-auto=validate сверяет с ними сущности, поэтому расхождение
+ * схемы и сущностей роняет тест еще при запуске контекста.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("booking_db");
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("app.flyway.migrate-on-startup", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("jwt.secret", () -> "flyway-migration-test-secret-0123456789");
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void appliesAllMigrations() {
+        MigrationInfoService info = flyway.info();
+
+        assertThat(info.pending()).isEmpty();
+        assertThat(info.applied()).allSatisfy(migration -> assertThat(migration.getState().isFailed()).isFalse());
+        MigrationInfo latest = Arrays.stream(info.all())
+                .filter(migration -> migration.getVersion() != null)
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        assertThat(info.current().getVersion()).isEqualTo(latest.getVersion());
+    }
+
+    @Test
+    void keepsDoubleBookingGuardOnlyForExclusiveWorkspaces() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = 'booking' AND tablename = 'reservations'",
+                String.class);
+
+        assertThat(indexes).contains("idx_unique_exclusive_workspace_time")
+                .doesNotContain("idx_unique_workspace_time");
+    }
+
+    @Test
+    void rejectsInvalidIndexesLeftByConcurrentBuilds() {
+        Integer invalid = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM pg_index i
+                JOIN pg_class c ON c.oid = i.indexrelid
+                JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = 'booking' AND NOT i.indisvalid
+                """, Integer.class);
+
+        assertThat(invalid).isZero();
+    }
+}
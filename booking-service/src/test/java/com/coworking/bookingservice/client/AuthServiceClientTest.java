@@ -0,0 +1,72 @@
+package com.coworking.bookingservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.coworking.bookingservice.dto.UserInfoDto;
+
+class AuthServiceClientTest {
+
+    private StubAuthServer authServer;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        authServer = new StubAuthServer()
+                .withUser(1, "alice")
+                .withUser(2, "bob")
+                .withUser(3, "carol")
+                .withUser(4, "dave");
+    }
+
+    @AfterEach
+    void stopServer() {
+        authServer.close();
+    }
+
+    @Test
+    void sendsAllIdsInOneRequestWhenTheyFitIntoBatch() {
+        AuthServiceClient client = client(500);
+
+        List<UserInfoDto> users = client.getUsersByIds(new LinkedHashSet<>(List.of(1, 2, 3)), "Bearer token")
+                .block(Duration.ofSeconds(5));
+
+        assertThat(users).extracting(UserInfoDto::getUsername).containsExactlyInAnyOrder("alice", "bob", "carol");
+        assertThat(authServer.getRequestedIds()).containsExactly("1,2,3");
+        assertThat(authServer.getAuthorizations()).containsExactly("Bearer token");
+    }
+
+    @Test
+    void splitsIdsIntoBatchesAndMergesResults() {
+        AuthServiceClient client = client(2);
+
+        List<UserInfoDto> users = client.getUsersByIds(new LinkedHashSet<>(List.of(1, 2, 3, 4, 5)), "Bearer token")
+                .block(Duration.ofSeconds(5));
+
+        assertThat(users).extracting(UserInfoDto::getId).containsExactlyInAnyOrder("1", "2", "3", "4");
+        assertThat(authServer.getRequestedIds()).containsExactlyInAnyOrder("1,2", "3,4", "5");
+        assertThat(authServer.getAuthorizations()).containsOnly("Bearer token");
+    }
+
+    @Test
+    void returnsEmptyListWithoutRequestForNoIds() {
+        AuthServiceClient client = client(500);
+
+        List<UserInfoDto> users = client.getUsersByIds(new ArrayList<>(), null).block(Duration.ofSeconds(5));
+
+        assertThat(users).isEmpty();
+        assertThat(authServer.getRequestedIds()).isEmpty();
+    }
+
+    private AuthServiceClient client(int maxBatchSize) {
+        return new AuthServiceClient(WebClient.builder(), authServer.getUrl(), 2000, 4, maxBatchSize);
+    }
+}
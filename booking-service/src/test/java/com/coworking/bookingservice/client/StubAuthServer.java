@@ -0,0 +1,116 @@
+package com.coworking.bookingservice.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Заглушка auth-service для тестов клиента
+ *
+ * Отвечает на GET /api/users/batch пользователями из заданного набора и
+ * запоминает параметр ids и заголовок Authorization каждого запроса.
+ * Статус ответа и задержку можно менять по ходу теста.
+ */
+public class StubAuthServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<Integer, String> users = new ConcurrentHashMap<>();
+    private final List<String> requestedIds = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+    private volatile long delayMillis;
+
+    public StubAuthServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/users/batch", this::handle);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public StubAuthServer withUser(int id, String username) {
+        users.put(id, username);
+        return this;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Значения параметра ids полученных запросов
+     */
+    public List<String> getRequestedIds() {
+        return requestedIds;
+    }
+
+    public List<String> getAuthorizations() {
+        return authorizations;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String ids = queryParam(exchange.getRequestURI().getRawQuery(), "ids");
+        requestedIds.add(ids);
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        authorizations.add(authorization != null ? authorization : "");
+
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        byte[] body;
+        if (status == 200) {
+            body = List.of(ids.split(",")).stream()
+                    .map(Integer::valueOf)
+                    .filter(users::containsKey)
+                    .map(id -> "{\"id\":\"" + id + "\",\"username\":\"" + users.get(id) + "\",\"role\":\"user\"}")
+                    .collect(Collectors.joining(",", "[", "]"))
+                    .getBytes(StandardCharsets.UTF_8);
+        } else {
+            body = "{\"error\":\"stub\"}".getBytes(StandardCharsets.UTF_8);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String queryParam(String query, String name) {
+        if (query == null) {
+            return "";
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,110 @@
+package com.coworking.bookingservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.dto.ReservationStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class BinaryEncodingConfigTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2027, 3, 1, 10, 0, 0, 123_000_000);
+    private static final LocalDateTime END = START.plusHours(2);
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+
+    @BeforeEach
+    void setUp() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new FieldSelectionConfig().fieldSelectionFilterCustomizer().customize(builder);
+        jsonMapper = builder.build();
+
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        new BinaryEncodingConfig(builder).extendMessageConverters(converters);
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2CborHttpMessageConverter cbor) {
+                cborMapper = cbor.getObjectMapper();
+            } else if (converter instanceof MappingJackson2SmileHttpMessageConverter smile) {
+                smileMapper = smile.getObjectMapper();
+            }
+        }
+    }
+
+    @Test
+    void roundTripsReservationThroughCbor() throws Exception {
+        assertRoundTrip(cborMapper);
+    }
+
+    @Test
+    void roundTripsReservationThroughSmile() throws Exception {
+        assertRoundTrip(smileMapper);
+    }
+
+    @Test
+    void encodesSameInstantAsJson() throws Exception {
+        JsonNode json = jsonMapper.readTree(jsonMapper.writeValueAsBytes(reservation()));
+        JsonNode cbor = cborMapper.readTree(cborMapper.writeValueAsBytes(reservation()));
+        JsonNode smile = smileMapper.readTree(smileMapper.writeValueAsBytes(reservation()));
+
+        long jsonMillis = Instant.parse(json.get("startTime").asText()).toEpochMilli();
+        assertThat(json.get("startTime").asText()).isEqualTo("2027-03-01T10:00:00.123Z");
+        assertThat(cbor.get("startTime").isIntegralNumber()).isTrue();
+        assertThat(cbor.get("startTime").asLong()).isEqualTo(jsonMillis);
+        assertThat(smile.get("startTime").asLong()).isEqualTo(jsonMillis);
+    }
+
+    @Test
+    void readsIsoStringsInBinaryRequests() throws Exception {
+        byte[] body = cborMapper.writeValueAsBytes(new Object() {
+            public final String startTime = "2027-03-01T10:00:00.123Z";
+            public final String endTime = "2027-03-01T12:00:00.123";
+        });
+
+        ReservationDto decoded = cborMapper.readValue(body, ReservationDto.class);
+
+        assertThat(decoded.getStartTime()).isEqualTo(START);
+        assertThat(decoded.getEndTime()).isEqualTo(END);
+    }
+
+    @Test
+    void binaryEncodingsAreSmallerThanJson() throws Exception {
+        List<ReservationDto> page = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            page.add(reservation());
+        }
+
+        int json = jsonMapper.writeValueAsBytes(page).length;
+        assertThat(cborMapper.writeValueAsBytes(page).length).isLessThan(json);
+        assertThat(smileMapper.writeValueAsBytes(page).length).isLessThan(json);
+    }
+
+    private void assertRoundTrip(ObjectMapper mapper) throws Exception {
+        ReservationDto original = reservation();
+
+        ReservationDto decoded = mapper.readValue(mapper.writeValueAsBytes(original), ReservationDto.class);
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(original);
+    }
+
+    private static ReservationDto reservation() {
+        ReservationDto reservation = new ReservationDto(1, 2, 3, "Рабочее место 3", START, END,
+                ReservationStatus.ACTIVE, START.minusDays(1), START.minusDays(1));
+        reservation.setUsername("alice");
+        return reservation;
+    }
+}
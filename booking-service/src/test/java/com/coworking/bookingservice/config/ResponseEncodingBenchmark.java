@@ -0,0 +1,99 @@
+package com.coworking.bookingservice.config;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.dto.ReservationStatus;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Размер и время кодирования страницы бронирований в JSON, CBOR и Smile
+ *
+ * Мапперы строятся так же, как в приложении (FieldSelectionConfig и
+ * BinaryEncodingConfig). Размер страницы в байтах печатается при запуске
+ * каждого форка. Страница из 10 000 бронирований соответствует ответу
+ * /reservations/range за длинный период.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"1", "50", "10000"})
+    private int pageSize;
+
+    private ObjectMapper mapper;
+    private JavaType pageType;
+    private List<ReservationDto> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new FieldSelectionConfig().fieldSelectionFilterCustomizer().customize(builder);
+        ObjectMapper json = builder.build();
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        new BinaryEncodingConfig(builder).extendMessageConverters(converters);
+
+        mapper = switch (format) {
+            case "cbor" -> converters.stream()
+                    .filter(MappingJackson2CborHttpMessageConverter.class::isInstance)
+                    .map(converter -> ((MappingJackson2CborHttpMessageConverter) converter).getObjectMapper())
+                    .findFirst().orElseThrow();
+            case "smile" -> converters.stream()
+                    .filter(MappingJackson2SmileHttpMessageConverter.class::isInstance)
+                    .map(converter -> ((MappingJackson2SmileHttpMessageConverter) converter).getObjectMapper())
+                    .findFirst().orElseThrow();
+            default -> json;
+        };
+        pageType = mapper.getTypeFactory().constructCollectionType(List.class, ReservationDto.class);
+
+        LocalDateTime start = LocalDateTime.of(2027, 3, 1, 9, 0);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            ReservationDto reservation = new ReservationDto(i + 1, 100 + i % 7, 1 + i % 12, "Рабочее место " + (1 + i % 12),
+                    start.plusHours(i), start.plusHours(i + 2), ReservationStatus.ACTIVE,
+                    start.minusDays(3), start.minusDays(1));
+            reservation.setUsername("user" + (100 + i % 7));
+            page.add(reservation);
+        }
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%s, %d бронирований: %d байт%n", format, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<ReservationDto> decode() throws Exception {
+        return mapper.readValue(encoded, pageType);
+    }
+}
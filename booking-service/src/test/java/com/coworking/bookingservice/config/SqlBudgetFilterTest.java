@@ -0,0 +1,112 @@
+package com.coworking.bookingservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.coworking.bookingservice.controller.GlobalExceptionHandler;
+import com.coworking.bookingservice.support.StatementCountingDataSource;
+
+class SqlBudgetFilterTest {
+
+    private static final int BUDGET = 3;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-budget-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new StatementCountingDataSource(h2));
+        jdbcTemplate.execute("CREATE TABLE items (id INT PRIMARY KEY)");
+    }
+
+    @Test
+    void letsRequestWithinBudgetThrough() throws Exception {
+        mockMvc(true).perform(get("/items").param("count", String.valueOf(BUDGET)))
+                .andExpect(status().isOk());
+
+        assertThat(insertedIds()).hasSize(BUDGET);
+    }
+
+    @Test
+    void cutsOffOverBudgetRequestWithSqlBudgetError() throws Exception {
+        mockMvc(true).perform(get("/items").param("count", "5"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.code").value("SQL_BUDGET_EXCEEDED"))
+                .andExpect(jsonPath("$.message").value("Превышен бюджет SQL-запросов на запрос"));
+
+        assertThat(insertedIds()).hasSize(BUDGET);
+    }
+
+    @Test
+    void mapsBudgetErrorWrappedByDataAccessLayer() throws Exception {
+        mockMvc(true).perform(get("/items/wrapped").param("count", "5"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.code").value("SQL_BUDGET_EXCEEDED"));
+    }
+
+    @Test
+    void onlyWarnsAboutOverBudgetRequestWhenNotEnforced() throws Exception {
+        mockMvc(false).perform(get("/items").param("count", "5"))
+                .andExpect(status().isOk());
+
+        assertThat(insertedIds()).hasSize(5);
+    }
+
+    private MockMvc mockMvc(boolean enforce) {
+        return MockMvcBuilders.standaloneSetup(new ItemsController(jdbcTemplate))
+                .setControllerAdvice(new GlobalExceptionHandler(null))
+                .addFilters(new SqlBudgetFilter(BUDGET, true, enforce))
+                .build();
+    }
+
+    private List<Integer> insertedIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+    }
+
+    /**
+     * Контроллер, выполняющий заданное количество запросов (как N+1 по строкам)
+     */
+    @RestController
+    static class ItemsController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        ItemsController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @GetMapping("/items")
+        public int insert(@RequestParam int count) {
+            for (int i = 1; i <= count; i++) {
+                jdbcTemplate.update("INSERT INTO items VALUES (?)", i);
+            }
+            return count;
+        }
+
+        @GetMapping("/items/wrapped")
+        public int insertWrapped(@RequestParam int count) {
+            try {
+                return insert(count);
+            } catch (IllegalStateException e) {
+                // Так JPA-репозитории переводят IllegalStateException из провайдера
+                throw new InvalidDataAccessApiUsageException(e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.coworking.bookingservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.service.ReservationService.QueuedBooking;
+import com.coworking.bookingservice.service.ReservationService.QueuedBookingResult;
+
+class BookingQueueTest {
+
+    private static final long LATENCY_BOUND_MILLIS = 100;
+
+    private final ReservationService reservationService = mock(ReservationService.class);
+    private final List<Integer> committedUsers = new CopyOnWriteArrayList<>();
+    private final CountDownLatch batchStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseBatch = new CountDownLatch(1);
+    private BookingQueue queue;
+
+    @AfterEach
+    void stopQueue() throws InterruptedException {
+        releaseBatch.countDown();
+        if (queue != null) {
+            queue.destroy();
+        }
+    }
+
+    @Test
+    void doesNotTimeOutRequestAlreadyTakenIntoBatch() throws Exception {
+        queue = blockingQueue();
+
+        CompletableFuture<ReservationDto> taken = queue.submit(1, "user", request());
+        assertThat(batchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(LATENCY_BOUND_MILLIS * 3);
+        assertThat(taken).isNotDone();
+
+        releaseBatch.countDown();
+
+        assertThat(taken.get(5, TimeUnit.SECONDS).getUserId()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsTimedOutRequestFromQueueBeforeNextBatch() throws Exception {
+        queue = blockingQueue();
+
+        CompletableFuture<ReservationDto> taken = queue.submit(1, "user", request());
+        assertThat(batchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ReservationDto> waiting = queue.submit(2, "user", request());
+
+        ExecutionException timeout = catchExecution(waiting);
+        assertThat(timeout.getCause()).isInstanceOf(TimeoutException.class);
+
+        releaseBatch.countDown();
+        taken.get(5, TimeUnit.SECONDS);
+        queue.submit(3, "user", request()).get(5, TimeUnit.SECONDS);
+
+        assertThat(committedUsers).containsExactly(1, 3);
+    }
+
+    /**
+     * Очередь, первая пачка которой ждет releaseBatch
+     */
+    private BookingQueue blockingQueue() {
+        when(reservationService.createQueuedReservations(anyList())).thenAnswer(invocation -> {
+            List<QueuedBooking> bookings = invocation.getArgument(0);
+            batchStarted.countDown();
+            releaseBatch.await(5, TimeUnit.SECONDS);
+            return bookings.stream().map(booking -> {
+                committedUsers.add(booking.userId());
+                ReservationDto dto = new ReservationDto();
+                dto.setUserId(booking.userId());
+                return new QueuedBookingResult(dto, null);
+            }).toList();
+        });
+        return new BookingQueue(reservationService, true, 1, 16, LATENCY_BOUND_MILLIS);
+    }
+
+    private static CreateReservationRequest request() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new CreateReservationRequest(1, start, start.plusHours(1));
+    }
+
+    private static ExecutionException catchExecution(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e;
+        }
+        throw new AssertionError("Заявка завершилась без ошибки");
+    }
+}
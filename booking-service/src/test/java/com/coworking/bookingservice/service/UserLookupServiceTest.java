@@ -0,0 +1,134 @@
+package com.coworking.bookingservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.coworking.bookingservice.client.AuthServiceClient;
+import com.coworking.bookingservice.client.StubAuthServer;
+import com.coworking.bookingservice.dto.ReservationDto;
+
+class UserLookupServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final long SHORT_TIMEOUT_MILLIS = 500;
+
+    private StubAuthServer authServer;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        authServer = new StubAuthServer()
+                .withUser(1, "alice")
+                .withUser(2, "bob");
+    }
+
+    @AfterEach
+    void stopServer() {
+        authServer.close();
+    }
+
+    @Test
+    void enrichesReservationsWithSingleRequestForDistinctUsers() {
+        UserLookupService service = service(300_000);
+        List<ReservationDto> reservations = List.of(reservation(1), reservation(2), reservation(1));
+
+        service.enrichWithUsernames(reservations, "Bearer token");
+
+        assertThat(reservations).extracting(ReservationDto::getUsername).containsExactly("alice", "bob", "alice");
+        assertThat(authServer.getRequestedIds()).containsExactly("1,2");
+    }
+
+    @Test
+    void servesRepeatedLookupsFromCacheIncludingUnknownUsers() {
+        UserLookupService service = service(300_000);
+
+        Map<Integer, String> first = service.getUsernames(Set.of(1, 3), "Bearer token");
+        Map<Integer, String> second = service.getUsernames(Set.of(1, 3), "Bearer token");
+
+        assertThat(first).containsExactly(Map.entry(1, "alice"));
+        assertThat(second).isEqualTo(first);
+        assertThat(authServer.getRequestedIds()).hasSize(1);
+    }
+
+    @Test
+    void requestsOnlyUsersMissingFromCache() {
+        UserLookupService service = service(300_000);
+
+        service.getUsernames(Set.of(1), "Bearer token");
+        Map<Integer, String> usernames = service.getUsernames(Set.of(1, 2), "Bearer token");
+
+        assertThat(usernames).containsOnly(Map.entry(1, "alice"), Map.entry(2, "bob"));
+        assertThat(authServer.getRequestedIds()).containsExactly("1", "2");
+    }
+
+    @Test
+    void refetchesAfterCacheEntryExpires() throws Exception {
+        UserLookupService service = service(50);
+
+        service.getUsernames(Set.of(1), "Bearer token");
+        Thread.sleep(100);
+        service.getUsernames(Set.of(1), "Bearer token");
+
+        assertThat(authServer.getRequestedIds()).containsExactly("1", "1");
+    }
+
+    @Test
+    void leavesUsernamesEmptyWhenAuthServiceFailsAndDoesNotCacheFailure() {
+        UserLookupService service = service(300_000);
+        authServer.setStatus(500);
+
+        List<ReservationDto> reservations = List.of(reservation(1));
+        service.enrichWithUsernames(reservations, "Bearer token");
+
+        assertThat(reservations.get(0).getUsername()).isNull();
+
+        authServer.setStatus(200);
+        assertThat(service.getUsernames(Set.of(1), "Bearer token")).containsExactly(Map.entry(1, "alice"));
+        assertThat(authServer.getRequestedIds()).hasSize(2);
+    }
+
+    @Test
+    void leavesUsernamesEmptyWhenAuthServiceTimesOut() {
+        UserLookupService service = service(300_000, SHORT_TIMEOUT_MILLIS);
+        authServer.setDelayMillis(SHORT_TIMEOUT_MILLIS * 6);
+
+        long started = System.nanoTime();
+        Map<Integer, String> usernames = service.getUsernames(Set.of(1), "Bearer token");
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(usernames).isEmpty();
+        assertThat(elapsedMillis).isLessThan(SHORT_TIMEOUT_MILLIS * 6);
+    }
+
+    @Test
+    void leavesUsernamesEmptyWhenAuthServiceIsDown() {
+        UserLookupService service = service(300_000);
+        authServer.close();
+
+        assertThat(service.getUsernames(Set.of(1), "Bearer token")).isEmpty();
+    }
+
+    private UserLookupService service(long cacheTtlMillis) {
+        return service(cacheTtlMillis, TIMEOUT_MILLIS);
+    }
+
+    private UserLookupService service(long cacheTtlMillis, long timeoutMillis) {
+        AuthServiceClient client = new AuthServiceClient(WebClient.builder(), authServer.getUrl(), timeoutMillis, 4, 500);
+        return new UserLookupService(client, cacheTtlMillis);
+    }
+
+    private static ReservationDto reservation(int userId) {
+        ReservationDto reservation = new ReservationDto();
+        reservation.setUserId(userId);
+        reservation.setStartTime(LocalDateTime.now().plusDays(1));
+        return reservation;
+    }
+}
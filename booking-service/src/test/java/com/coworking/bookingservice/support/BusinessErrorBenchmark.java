@@ -0,0 +1,119 @@
+package com.coworking.bookingservice.support;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.coworking.bookingservice.controller.GlobalExceptionHandler;
+import com.coworking.bookingservice.dto.CreateReservationRequest;
+import com.coworking.bookingservice.dto.ErrorResponse;
+import com.coworking.bookingservice.dto.ReservationDto;
+import com.coworking.bookingservice.entity.Reservation;
+import com.coworking.bookingservice.entity.Workspace;
+import com.coworking.bookingservice.repository.ReservationRepository;
+import com.coworking.bookingservice.repository.WorkspaceClosureRepository;
+import com.coworking.bookingservice.repository.WorkspaceRepository;
+import com.coworking.bookingservice.service.ReservationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Стоимость отказа в бронировании из-за конфликта
+ *
+ * Вызывается настоящий ReservationService.createReservation: проверка
+ * запроса, рабочего места и закрытий, поиск пересечений и отказ
+ * SLOT_BOOKED. Исключение преобразуется GlobalExceptionHandler в ответ 409,
+ * тело которого сериализуется в JSON. Репозитории заменены заглушками,
+ * отвечающими готовыми значениями, поэтому база данных, прокси транзакций
+ * и фильтры безопасности в замер не входят.
+ *
+ * Запуск: mvn -Pbenchmark test -Dbenchmark=BusinessErrorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessErrorBenchmark {
+
+    private static final int WORKSPACE_ID = 1;
+    private static final int USER_ID = 2;
+
+    private ReservationService reservationService;
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private CreateReservationRequest request;
+
+    @Setup
+    public void setUp() {
+        Workspace workspace = new Workspace();
+        workspace.setId(WORKSPACE_ID);
+        workspace.setName("Переговорная");
+        workspace.setCapacity(1);
+        workspace.setIsActive(true);
+        workspace.setIsShared(false);
+
+        Optional<Workspace> found = Optional.of(workspace);
+        List<Reservation> overlapping = List.of(new Reservation());
+        WorkspaceRepository workspaceRepository = stub(WorkspaceRepository.class, "findById", found);
+        WorkspaceClosureRepository closureRepository = stub(WorkspaceClosureRepository.class,
+                "existsOverlapping", false);
+        ReservationRepository reservationRepository = stub(ReservationRepository.class,
+                "findOverlappingReservations", overlapping);
+
+        reservationService = new ReservationService(reservationRepository, workspaceRepository, null, null, null,
+                closureRepository, null, null, null, null, 100);
+        handler = new GlobalExceptionHandler(null);
+        objectMapper = new ObjectMapper();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        request = new CreateReservationRequest(WORKSPACE_ID, start, start.plusHours(2));
+
+        ResponseEntity<ErrorResponse> response = rejectedResponse();
+        if (response.getStatusCode() != HttpStatus.CONFLICT
+                || !ErrorCode.SLOT_BOOKED.name().equals(response.getBody().getCode())) {
+            throw new IllegalStateException("Ожидался ответ 409 SLOT_BOOKED: " + response);
+        }
+    }
+
+    @Benchmark
+    public byte[] createReservationConflict() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(rejectedResponse().getBody());
+    }
+
+    private ResponseEntity<ErrorResponse> rejectedResponse() {
+        try {
+            ReservationDto created = reservationService.createReservation(USER_ID, "user", request);
+            throw new IllegalStateException("Бронирование создано без конфликта: " + created);
+        } catch (BusinessException e) {
+            return handler.handleBusiness(e);
+        }
+    }
+
+    /**
+     * Заглушка репозитория: единственный метод возвращает готовое значение
+     */
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, m, args) -> {
+            if (m.getName().equals(method)) {
+                return result;
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + m.getName());
+        }));
+    }
+}
@@ -0,0 +1,188 @@
+package com.coworking.bookingservice.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.coworking.bookingservice.support.HierarchicalTimingWheel.Timeout;
+
+class HierarchicalTimingWheelTest {
+
+    // 4 слота на уровне, 3 уровня: границы перераспределения на тиках, кратных 4 и 16,
+    // дальность колеса 63 тика
+    private static final int WHEEL_BITS = 2;
+    private static final int LEVELS = 3;
+    private static final long MAX_SPAN_TICKS = 63;
+
+    @Test
+    void expiresEveryDeadlineExactlyOnItsTick() {
+        // Разные начальные тики сдвигают таймеры относительно границ уровней
+        for (long start = 0; start < 20; start++) {
+            HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, WHEEL_BITS, LEVELS, start);
+            for (long deadline = start + 1; deadline <= start + MAX_SPAN_TICKS; deadline++) {
+                wheel.schedule(deadline, deadline);
+            }
+
+            for (long now = start + 1; now <= start + MAX_SPAN_TICKS; now++) {
+                assertThat(wheel.advance(now)).as("старт %d, тик %d", start, now).containsExactly(now);
+            }
+            assertThat(wheel.size()).isZero();
+        }
+    }
+
+    @Test
+    void expiresOnLevelBoundaries() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, WHEEL_BITS, LEVELS, 0);
+        wheel.schedule("4", 4);
+        wheel.schedule("16", 16);
+        wheel.schedule("48", 48);
+
+        assertThat(wheel.advance(3)).isEmpty();
+        assertThat(wheel.advance(4)).containsExactly("4");
+        assertThat(wheel.advance(15)).isEmpty();
+        assertThat(wheel.advance(16)).containsExactly("16");
+        assertThat(wheel.advance(47)).isEmpty();
+        assertThat(wheel.advance(48)).containsExactly("48");
+    }
+
+    @Test
+    void roundsDeadlineUpToWholeTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, WHEEL_BITS, LEVELS, 0);
+        wheel.schedule("t", 250);
+
+        assertThat(wheel.advance(299)).isEmpty();
+        assertThat(wheel.advance(300)).containsExactly("t");
+    }
+
+    @Test
+    void pastDeadlineExpiresOnNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, WHEEL_BITS, LEVELS, 100);
+        wheel.schedule("past", 10);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(100)).isEmpty();
+        assertThat(wheel.advance(101)).containsExactly("past");
+    }
+
+    @Test
+    void carriesFarDeadlinesPastMaxSpan() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, WHEEL_BITS, LEVELS, 5);
+        long[] deadlines = {MAX_SPAN_TICKS + 6, MAX_SPAN_TICKS + 7, 200, 1_000, 4_097};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> expired = new ArrayList<>();
+        for (long now = 6; now <= 5_000; now++) {
+            List<Long> due = wheel.advance(now);
+            for (Long deadline : due) {
+                assertThat(deadline).isEqualTo(now);
+            }
+            expired.addAll(due);
+            assertThat(wheel.size()).isEqualTo(deadlines.length - expired.size());
+        }
+        assertThat(expired).containsExactly(MAX_SPAN_TICKS + 6, MAX_SPAN_TICKS + 7, 200L, 1_000L, 4_097L);
+    }
+
+    @Test
+    void advancesOverManyTicksInOneCall() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, WHEEL_BITS, LEVELS, 0);
+        wheel.schedule(30L, 30);
+        wheel.schedule(700L, 700);
+        wheel.schedule(3L, 3);
+
+        assertThat(wheel.advance(699)).containsExactly(3L, 30L);
+        assertThat(wheel.advance(10_000)).containsExactly(700L);
+    }
+
+    @Test
+    void cancelsTimerAfterItCascadedDown() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, WHEEL_BITS, LEVELS, 0);
+        // 40 тиков: сначала второй уровень, на тике 32 переносится на первый, на тике 40 — на нижний
+        Timeout<String> cancelled = wheel.schedule("cancelled", 40);
+        wheel.schedule("kept", 40);
+
+        assertThat(wheel.advance(33)).isEmpty();
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(wheel.advance(100)).containsExactly("kept");
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelsFarTimerAfterItWasCarriedForward() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, WHEEL_BITS, LEVELS, 0);
+        Timeout<String> far = wheel.schedule("far", 1_000);
+
+        assertThat(wheel.advance(999)).isEmpty();
+        assertThat(wheel.cancel(far)).isTrue();
+        assertThat(wheel.advance(2_000)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void doesNotCancelExpiredTimer() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, WHEEL_BITS, LEVELS, 0);
+        Timeout<String> timeout = wheel.schedule("t", 5);
+        wheel.schedule("other", 50);
+
+        assertThat(wheel.advance(5)).containsExactly("t");
+        assertThat(wheel.cancel(timeout)).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesNaiveScheduleOnRandomOperations() {
+        Random random = new Random(42);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, WHEEL_BITS, LEVELS, 0);
+        Map<Integer, Long> pending = new HashMap<>();
+        Map<Integer, Timeout<Integer>> timeouts = new HashMap<>();
+        int nextId = 0;
+
+        for (long now = 1; now <= 5_000; now++) {
+            for (int i = random.nextInt(3); i > 0; i--) {
+                // Сроки и в пределах колеса, и далеко за ним
+                long deadline = now + (random.nextInt(4) == 0 ? random.nextInt(500) : random.nextInt(70));
+                int id = nextId++;
+                timeouts.put(id, wheel.schedule(id, deadline));
+                pending.put(id, Math.max(deadline, now));
+            }
+            if (!pending.isEmpty() && random.nextInt(4) == 0) {
+                Integer id = pending.keySet().stream().skip(random.nextInt(pending.size())).findFirst().orElseThrow();
+                assertThat(wheel.cancel(timeouts.get(id))).isTrue();
+                pending.remove(id);
+            }
+            assertThat(wheel.size()).isEqualTo(pending.size());
+
+            long tick = now;
+            List<Integer> due = pending.entrySet().stream()
+                    .filter(entry -> entry.getValue() <= tick)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            assertThat(wheel.advance(now)).containsExactlyInAnyOrderElementsOf(due);
+            due.forEach(pending::remove);
+            assertThat(wheel.size()).isEqualTo(pending.size());
+        }
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<String>(0, 2, 3, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<String>(1, 0, 3, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<String>(1, 8, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<String>(1, 31, 2, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,160 @@
+package com.coworking.bookingservice.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SlotSegmentTreeTest {
+
+    @Test
+    void emptyTreeHasZeroEverywhere() {
+        SlotSegmentTree tree = new SlotSegmentTree(10);
+
+        assertThat(tree.getSize()).isEqualTo(1024);
+        assertThat(tree.max(0, 1024)).isZero();
+        assertThat(tree.getNodeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rangesAreHalfOpen() {
+        SlotSegmentTree tree = new SlotSegmentTree(10);
+        tree.add(10, 20, 1);
+        tree.add(20, 30, 1);
+
+        assertThat(tree.max(10, 30)).isEqualTo(1);
+        assertThat(tree.max(19, 21)).isEqualTo(1);
+        assertThat(tree.max(0, 10)).isZero();
+        assertThat(tree.max(30, 1024)).isZero();
+        assertThat(tree.max(19, 20)).isEqualTo(1);
+    }
+
+    @Test
+    void overlappingRangesStack() {
+        SlotSegmentTree tree = new SlotSegmentTree(10);
+        tree.add(0, 100, 1);
+        tree.add(50, 150, 1);
+        tree.add(99, 100, 1);
+
+        assertThat(tree.max(0, 50)).isEqualTo(1);
+        assertThat(tree.max(50, 99)).isEqualTo(2);
+        assertThat(tree.max(0, 1024)).isEqualTo(3);
+        assertThat(tree.max(100, 150)).isEqualTo(1);
+    }
+
+    @Test
+    void coversWholeDomainAndItsEdges() {
+        SlotSegmentTree tree = new SlotSegmentTree(53);
+        long last = tree.getSize() - 1;
+        tree.add(0, tree.getSize(), 1);
+        tree.add(last, tree.getSize(), 2);
+        tree.add(0, 1, 1);
+
+        assertThat(tree.max(last, tree.getSize())).isEqualTo(3);
+        assertThat(tree.max(0, 1)).isEqualTo(2);
+        assertThat(tree.max(1, last)).isEqualTo(1);
+    }
+
+    @Test
+    void freesNodesWhenRangesAreRemoved() {
+        SlotSegmentTree tree = new SlotSegmentTree(53);
+        tree.add(1_000_003, 7_200_000_011L, 1);
+        tree.add(5_000_000, 9_000_000_000L, 1);
+        assertThat(tree.getNodeCount()).isGreaterThan(50);
+
+        tree.add(1_000_003, 7_200_000_011L, -1);
+        tree.add(5_000_000, 9_000_000_000L, -1);
+
+        assertThat(tree.getNodeCount()).isEqualTo(1);
+        assertThat(tree.max(0, tree.getSize())).isZero();
+    }
+
+    @Test
+    void reusesFreedNodesInsteadOfGrowing() {
+        SlotSegmentTree tree = new SlotSegmentTree(53);
+        tree.add(1_000, 2_000_000_000L, 1);
+        int nodes = tree.getNodeCount();
+        tree.add(1_000, 2_000_000_000L, -1);
+
+        for (int i = 0; i < 10_000; i++) {
+            long from = 1_000L * i + 7;
+            tree.add(from, from + 3_600_000_000L, 1);
+            tree.add(from, from + 3_600_000_000L, -1);
+        }
+        tree.add(1_000, 2_000_000_000L, 1);
+
+        assertThat(tree.getNodeCount()).isEqualTo(nodes);
+        assertThat(tree.max(0, tree.getSize())).isEqualTo(1);
+    }
+
+    @Test
+    void keepsNodesWhileAnyRangeRemains() {
+        SlotSegmentTree tree = new SlotSegmentTree(20);
+        tree.add(100, 200, 1);
+        tree.add(150, 300, 1);
+        tree.add(100, 200, -1);
+
+        assertThat(tree.max(0, 150)).isZero();
+        assertThat(tree.max(150, 300)).isEqualTo(1);
+        assertThat(tree.max(299, 300)).isEqualTo(1);
+    }
+
+    @Test
+    void matchesNaiveCountsOnRandomRanges() {
+        int domainBits = 12;
+        int[] naive = new int[1 << domainBits];
+        SlotSegmentTree tree = new SlotSegmentTree(domainBits);
+        Random random = new Random(42);
+        List<long[]> added = new ArrayList<>();
+
+        for (int step = 0; step < 2_000; step++) {
+            if (!added.isEmpty() && random.nextInt(3) == 0) {
+                long[] range = added.remove(random.nextInt(added.size()));
+                tree.add(range[0], range[1], -1);
+                apply(naive, range[0], range[1], -1);
+            } else {
+                long from = random.nextInt(naive.length - 1);
+                long to = from + 1 + random.nextInt((int) Math.min(300, naive.length - from));
+                tree.add(from, to, 1);
+                apply(naive, from, to, 1);
+                added.add(new long[] {from, to});
+            }
+            long from = random.nextInt(naive.length - 1);
+            long to = from + 1 + random.nextInt(naive.length - (int) from);
+            assertThat(tree.max(from, to)).isEqualTo(naiveMax(naive, from, to));
+        }
+
+        for (long[] range : added) {
+            tree.add(range[0], range[1], -1);
+        }
+        assertThat(tree.getNodeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsInvalidRanges() {
+        SlotSegmentTree tree = new SlotSegmentTree(10);
+
+        assertThatThrownBy(() -> tree.add(5, 5, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tree.add(-1, 5, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tree.max(0, 1025)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SlotSegmentTree(63)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void apply(int[] naive, long from, long to, int delta) {
+        for (long i = from; i < to; i++) {
+            naive[(int) i] += delta;
+        }
+    }
+
+    private static int naiveMax(int[] naive, long from, long to) {
+        int max = Integer.MIN_VALUE;
+        for (long i = from; i < to; i++) {
+            max = Math.max(max, naive[(int) i]);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,118 @@
+package com.coworking.bookingservice.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.coworking.bookingservice.support.SqlStatementCounter.StatementType;
+
+class SqlStatementCounterTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-counter-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new StatementCountingDataSource(h2));
+        jdbcTemplate.execute("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(20))");
+    }
+
+    @Test
+    void countsStatementsByTypeInsideScope() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(false)) {
+            jdbcTemplate.update("INSERT INTO items VALUES (1, 'a')");
+            jdbcTemplate.update("UPDATE items SET name = 'b' WHERE id = 1");
+            jdbcTemplate.queryForList("SELECT name FROM items", String.class);
+            jdbcTemplate.queryForObject("WITH t AS (SELECT id FROM items) SELECT COUNT(*) FROM t", Integer.class);
+            jdbcTemplate.update("DELETE FROM items WHERE id = 1");
+
+            assertThat(scope.getCount(StatementType.INSERT)).isEqualTo(1);
+            assertThat(scope.getCount(StatementType.UPDATE)).isEqualTo(1);
+            assertThat(scope.getSelectCount()).isEqualTo(2);
+            assertThat(scope.getCount(StatementType.DELETE)).isEqualTo(1);
+            assertThat(scope.getTotalCount()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void countsBatchAsOneStatement() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(false)) {
+            jdbcTemplate.batchUpdate("INSERT INTO items VALUES (?, ?)",
+                    List.of(new Object[] {1, "a"}, new Object[] {2, "b"}, new Object[] {3, "c"}));
+
+            assertThat(scope.getTotalCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void countsOnlyInsideOpenScopes() {
+        jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+
+        try (SqlStatementCounter.Scope outer = SqlStatementCounter.open(false)) {
+            jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+            try (SqlStatementCounter.Scope inner = SqlStatementCounter.open(false)) {
+                jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+                assertThat(inner.getSelectCount()).isEqualTo(1);
+            }
+            jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+            assertThat(outer.getSelectCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void reportsExceededSelectBudget() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(false)) {
+            jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+            jdbcTemplate.queryForList("SELECT name FROM items", String.class);
+
+            scope.assertSelectsAtMost(2);
+            assertThatThrownBy(() -> scope.assertSelectsAtMost(1))
+                    .isInstanceOf(SqlBudgetExceededException.class)
+                    .hasMessage("Выполнено SELECT: 2, бюджет: 1");
+        }
+    }
+
+    @Test
+    void reportsExceededTotalBudget() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(false)) {
+            jdbcTemplate.update("INSERT INTO items VALUES (1, 'a')");
+            jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+
+            assertThatThrownBy(() -> scope.assertTotalAtMost(1))
+                    .isInstanceOf(SqlBudgetExceededException.class)
+                    .hasMessage("Выполнено запросов: 2, бюджет: 1");
+        }
+    }
+
+    @Test
+    void cutsOffStatementOverScopeLimitBeforeExecution() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(false, 2)) {
+            jdbcTemplate.update("INSERT INTO items VALUES (1, 'a')");
+            jdbcTemplate.update("INSERT INTO items VALUES (2, 'b')");
+
+            assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO items VALUES (3, 'c')"))
+                    .isInstanceOf(SqlBudgetExceededException.class)
+                    .hasMessageStartingWith("Выполнено запросов: 3, бюджет: 2");
+        }
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM items", Integer.class)).containsExactly(1, 2);
+    }
+
+    @Test
+    void stopsCountingAfterScopeIsClosed() {
+        SqlStatementCounter.Scope scope = SqlStatementCounter.open(false, 1);
+        scope.close();
+
+        jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+        jdbcTemplate.queryForList("SELECT id FROM items", Integer.class);
+
+        assertThat(scope.getTotalCount()).isZero();
+    }
+}
@@ -17,54 +17,14 @@ CREATE TABLE IF NOT EXISTS auth.users (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
--- Создание схемы для booking-service
+-- Схема booking создается и обновляется миграциями Flyway сервиса бронирования
+-- (booking-service/src/main/resources/db/migration)
 CREATE SCHEMA IF NOT EXISTS booking;
 
--- Таблица рабочих мест
-CREATE TABLE IF NOT EXISTS booking.workspaces (
-    id SERIAL PRIMARY KEY,
-    name VARCHAR(100) NOT NULL,
-    description TEXT,
-    capacity INTEGER NOT NULL DEFAULT 1,
-    is_active BOOLEAN DEFAULT TRUE,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
-
--- Таблица бронирований
-CREATE TABLE IF NOT EXISTS booking.reservations (
-    id SERIAL PRIMARY KEY,
-    user_id INTEGER NOT NULL,
-    workspace_id INTEGER NOT NULL,
-    start_time TIMESTAMP NOT NULL,
-    end_time TIMESTAMP NOT NULL,
-    status VARCHAR(20) DEFAULT 'ACTIVE',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (workspace_id) REFERENCES booking.workspaces(id),
-    CONSTRAINT valid_time_range CHECK (end_time > start_time)
-);
-
 -- Индексы для оптимизации запросов
-CREATE INDEX IF NOT EXISTS idx_reservations_user_id ON booking.reservations(user_id);
-CREATE INDEX IF NOT EXISTS idx_reservations_workspace_id ON booking.reservations(workspace_id);
-CREATE INDEX IF NOT EXISTS idx_reservations_time_range ON booking.reservations(start_time, end_time);
 CREATE INDEX IF NOT EXISTS idx_users_username ON auth.users(username);
 CREATE INDEX IF NOT EXISTS idx_users_email ON auth.users(email);
 
--- Уникальный индекс для предотвращения двойного бронирования
-CREATE UNIQUE INDEX IF NOT EXISTS idx_unique_workspace_time 
-ON booking.reservations(workspace_id, start_time, end_time) 
-WHERE status = 'ACTIVE';
-
--- Вставка тестовых данных
-INSERT INTO booking.workspaces (name, description, capacity) VALUES
-('Рабочее место 1', 'Удобное место у окна с естественным освещением', 1),
-('Рабочее место 2', 'Тихое место в углу для сосредоточенной работы', 1),
-('Конференц-зал А', 'Зал для встреч до 10 человек', 10),
-('Конференц-зал Б', 'Малый зал для встреч до 5 человек', 5),
-('Коворкинг зона', 'Открытое пространство для групповой работы', 20)
-ON CONFLICT DO NOTHING;
-
 -- Вставка тестового администратора
 INSERT INTO auth.users (username, email, password_hash, role) VALUES
 ('admin', 'admin@coworking.com', '$2a$10$J5hqI/JTYvt1C8oXErMWneqSxS6/30gJ5bg5qEfc/1DwFjO34.xAK', 'admin') 